@@ -73,6 +73,9 @@
     <methods>;
 }
 
+# Task edits queued in the outbox are stored as Gson JSON of the update params
+-keep class com.sendajapan.sendasnap.domain.repository.TaskRepository$UpdateTaskParams { *; }
+
 # Keep classes with @SerializedName annotations (Gson models)
 -keepclassmembers class * {
     @com.google.gson.annotations.SerializedName <fields>;
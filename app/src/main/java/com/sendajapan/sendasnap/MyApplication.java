@@ -14,9 +14,11 @@ import androidx.core.view.WindowInsetsCompat;
 import androidx.core.view.WindowInsetsControllerCompat;
 
 import com.google.firebase.database.FirebaseDatabase;
+import com.sendajapan.sendasnap.data.repository.VehicleImageUploadQueue;
 import com.sendajapan.sendasnap.utils.ChatMessageListener;
 import com.sendajapan.sendasnap.utils.FcmNotificationSender;
 import com.sendajapan.sendasnap.utils.SharedPrefsManager;
+import com.sendajapan.sendasnap.utils.VehicleCache;
 
 public class MyApplication extends Application {
 
@@ -41,6 +43,8 @@ public class MyApplication extends Application {
         super.onCreate();
         instance = this;
 
+        VehicleCache.getInstance(this);
+
         FirebaseDatabase database = FirebaseDatabase.getInstance();
         try {
             database.setPersistenceEnabled(false);
@@ -103,6 +107,7 @@ public class MyApplication extends Application {
         if (prefsManager.isLoggedIn()) {
             FcmNotificationSender.setupNotificationListener(this);
             ChatMessageListener.setupChatMessageListener(this);
+            VehicleImageUploadQueue.getInstance(this);
         }
     }
 
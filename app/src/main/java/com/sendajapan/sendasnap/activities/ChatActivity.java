@@ -28,10 +28,14 @@ import androidx.core.content.FileProvider;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
+import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.google.android.material.bottomsheet.BottomSheetDialog;
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.ValueEventListener;
 import com.sendajapan.sendasnap.MyApplication;
 import com.sendajapan.sendasnap.R;
 import com.sendajapan.sendasnap.adapters.MessageAdapter;
@@ -61,6 +65,8 @@ public class ChatActivity extends AppCompatActivity {
     private static final int KEYBOARD_THRESHOLD_DP = 200;
     private static final int KEYBOARD_MARGIN_OFFSET_DP = 80;
     private static final int DEFAULT_MARGIN_DP = 8;
+    private static final int MESSAGE_PAGE_SIZE = 30;
+    private static final int LOAD_OLDER_THRESHOLD = 5;
     private static final String IMAGE_MIME_TYPE = "image/*";
     private static final String ALL_FILES_MIME_TYPE = "*/*";
     private static final String FILE_PROVIDER_AUTHORITY_SUFFIX = ".fileprovider";
@@ -87,6 +93,12 @@ public class ChatActivity extends AppCompatActivity {
     private List<UserData> participants = new ArrayList<>();
     private long lastMessageTimestamp = 0L;
 
+    private ChildEventListener messageStreamListener;
+    private long messageStreamStartTimestamp = 0L;
+    private boolean isLoadingOlderMessages = false;
+    private boolean hasOlderMessages = true;
+    private ValueEventListener seenWatermarkListener;
+
     private ActivityResultLauncher<String> filePickerLauncher;
     private ActivityResultLauncher<String> galleryLauncher;
     private ActivityResultLauncher<String[]> permissionLauncher;
@@ -113,6 +125,11 @@ public class ChatActivity extends AppCompatActivity {
         setupClickListeners();
         setupActivityResultLaunchers();
         initializeCurrentUser();
+        if (isGroupChat) {
+            chatService.watchGroupChat(chatId);
+        } else {
+            startSeenWatermarkListener();
+        }
         loadMessages();
         markMessagesAsSeen();
     }
@@ -312,6 +329,14 @@ public class ChatActivity extends AppCompatActivity {
         layoutManager.setStackFromEnd(true);
         binding.recyclerViewMessages.setLayoutManager(layoutManager);
         binding.recyclerViewMessages.setAdapter(messageAdapter);
+        binding.recyclerViewMessages.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy < 0 && layoutManager.findFirstVisibleItemPosition() <= LOAD_OLDER_THRESHOLD) {
+                    loadOlderMessages();
+                }
+            }
+        });
     }
 
     private void setupClickListeners() {
@@ -527,43 +552,137 @@ public class ChatActivity extends AppCompatActivity {
     }
 
     private void loadMessages() {
-        chatService.getChatMessages(chatId, new ChatService.MessagesCallback() {
+        chatService.loadLatestMessages(chatId, MESSAGE_PAGE_SIZE, new ChatService.MessagePageCallback() {
             @Override
-            public void onSuccess(List<Message> messages) {
+            public void onSuccess(List<Message> messages, boolean hasMore) {
                 if (isFinishing() || binding == null || messageAdapter == null) {
                     return;
                 }
 
-                try {
-                    checkAndTriggerNewMessageFeedback(messages);
-                    messageAdapter.updateMessages(messages);
-                    updateEmptyState(messages.isEmpty());
-                    scrollToBottom();
-                } catch (Exception e) {
+                hasOlderMessages = hasMore;
+                messageAdapter.prependMessages(messages);
+                Message latestMessage = messageAdapter.getLatestMessage();
+                if (latestMessage != null) {
+                    lastMessageTimestamp = latestMessage.getTimestamp();
                 }
+                updateEmptyState(messageAdapter.getItemCount() == 0);
+                scrollToBottom();
+                startMessageStream();
             }
 
             @Override
             public void onFailure(Exception e) {
                 if (!isFinishing() && binding != null) {
                     updateEmptyState(true);
+                    startMessageStream();
+                }
+            }
+        });
+    }
+
+    private void startSeenWatermarkListener() {
+        if (otherUserId == null) {
+            return;
+        }
+
+        seenWatermarkListener = chatService.addSeenWatermarkListener(chatId, otherUserId,
+                new ChatService.SeenWatermarkCallback() {
+            @Override
+            public void onSuccess(long seenUpToTimestamp) {
+                if (!isFinishing() && messageAdapter != null) {
+                    messageAdapter.setSeenWatermark(seenUpToTimestamp);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+            }
+        });
+    }
+
+    private void startMessageStream() {
+        Message latestMessage = messageAdapter.getLatestMessage();
+        messageStreamStartTimestamp = latestMessage != null ? latestMessage.getTimestamp() : 0L;
+        messageStreamListener = chatService.addMessageStreamListener(chatId, messageStreamStartTimestamp,
+                new ChatService.MessageStreamCallback() {
+            @Override
+            public void onMessageAdded(Message message) {
+                if (isFinishing() || binding == null || messageAdapter == null) {
+                    return;
+                }
+
+                Message previousLatest = messageAdapter.getLatestMessage();
+                messageAdapter.addMessage(message);
+                updateEmptyState(false);
+                if (hasNewLatestMessage(previousLatest)) {
+                    checkAndTriggerNewMessageFeedback(message);
+                    scrollToBottom();
+                }
+            }
+
+            @Override
+            public void onMessageChanged(Message message) {
+                if (!isFinishing() && messageAdapter != null) {
+                    messageAdapter.updateMessage(message);
+                }
+            }
+
+            @Override
+            public void onMessageRemoved(Message message) {
+                if (isFinishing() || binding == null || messageAdapter == null) {
+                    return;
                 }
+
+                messageAdapter.removeMessage(message);
+                updateEmptyState(messageAdapter.getItemCount() == 0);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
             }
         });
     }
 
-    private void checkAndTriggerNewMessageFeedback(List<Message> messages) {
-        if (messages == null || messages.isEmpty()) {
+    private boolean hasNewLatestMessage(Message previousLatest) {
+        Message latest = messageAdapter.getLatestMessage();
+        if (latest == null) {
+            return false;
+        }
+        return previousLatest == null || !Objects.equals(previousLatest.getMessageId(), latest.getMessageId());
+    }
+
+    private void loadOlderMessages() {
+        if (isLoadingOlderMessages || !hasOlderMessages || messageAdapter == null) {
             return;
         }
 
-        Message latestMessage = messages.get(messages.size() - 1);
-        if (latestMessage == null) {
+        Message oldestMessage = messageAdapter.getOldestMessage();
+        if (oldestMessage == null) {
             return;
         }
 
+        isLoadingOlderMessages = true;
+        chatService.loadOlderMessages(chatId, oldestMessage, MESSAGE_PAGE_SIZE, new ChatService.MessagePageCallback() {
+            @Override
+            public void onSuccess(List<Message> messages, boolean hasMore) {
+                isLoadingOlderMessages = false;
+                hasOlderMessages = hasMore;
+                if (isFinishing() || binding == null || messageAdapter == null) {
+                    return;
+                }
+                messageAdapter.prependMessages(messages);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                isLoadingOlderMessages = false;
+            }
+        });
+    }
+
+    private void checkAndTriggerNewMessageFeedback(Message latestMessage) {
         long messageTimestamp = latestMessage.getTimestamp();
-        
+
         if (lastMessageTimestamp == 0L) {
             lastMessageTimestamp = messageTimestamp;
             return;
@@ -573,13 +692,12 @@ public class ChatActivity extends AppCompatActivity {
             return;
         }
 
+        lastMessageTimestamp = messageTimestamp;
+
         if (latestMessage.getSenderId() != null && latestMessage.getSenderId().equals(currentUserId)) {
-            lastMessageTimestamp = messageTimestamp;
             return;
         }
 
-        lastMessageTimestamp = messageTimestamp;
-
         markMessagesAsSeen();
     }
 
@@ -637,6 +755,14 @@ public class ChatActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        chatService.removeMessageStreamListener(chatId, messageStreamStartTimestamp, messageStreamListener);
+        messageStreamListener = null;
+        if (isGroupChat) {
+            chatService.unwatchGroupChat(chatId);
+        } else {
+            chatService.removeSeenWatermarkListener(chatId, otherUserId, seenWatermarkListener);
+            seenWatermarkListener = null;
+        }
         binding = null;
     }
 }
@@ -2,6 +2,8 @@ package com.sendajapan.sendasnap.activities;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.view.View;
@@ -24,12 +26,16 @@ import java.util.List;
 
 public class HistoryActivity extends AppCompatActivity implements VehicleAdapter.OnVehicleClickListener {
 
+    private static final long SEARCH_DEBOUNCE_MS = 250;
+
     private ActivityHistoryBinding binding;
     private VehicleAdapter vehicleAdapter;
     private List<Vehicle> allVehicles = new ArrayList<>();
     private List<Vehicle> filteredVehicles = new ArrayList<>();
     private VehicleCache vehicleCache;
     private HapticFeedbackHelper hapticHelper;
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable applySearchFilter = () -> filterVehicles(binding.etSearchFilter.getText().toString());
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -46,7 +52,7 @@ public class HistoryActivity extends AppCompatActivity implements VehicleAdapter
         setupRecyclerView();
         setupSearchFilter();
         setupClearButton();
-        loadHistory();
+        observeHistory();
     }
 
     private void initHelpers() {
@@ -81,7 +87,8 @@ public class HistoryActivity extends AppCompatActivity implements VehicleAdapter
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                filterVehicles(s.toString());
+                searchHandler.removeCallbacks(applySearchFilter);
+                searchHandler.postDelayed(applySearchFilter, SEARCH_DEBOUNCE_MS);
             }
 
             @Override
@@ -97,6 +104,18 @@ public class HistoryActivity extends AppCompatActivity implements VehicleAdapter
         });
     }
 
+    /**
+     * Show the history now and again once it has been read from disk.
+     */
+    private void observeHistory() {
+        vehicleCache.getLoaded().observe(this, loaded -> {
+            loadHistory();
+            if (!binding.etSearchFilter.getText().toString().trim().isEmpty()) {
+                applySearchFilter.run();
+            }
+        });
+    }
+
     private void loadHistory() {
         allVehicles.clear();
         allVehicles.addAll(vehicleCache.getAllVehicles());
@@ -111,27 +130,16 @@ public class HistoryActivity extends AppCompatActivity implements VehicleAdapter
     private void filterVehicles(String query) {
         filteredVehicles.clear();
 
-        if (query.isEmpty()) {
+        if (query.trim().isEmpty()) {
             filteredVehicles.addAll(allVehicles);
         } else {
-            String lowerQuery = query.toLowerCase();
-            for (Vehicle vehicle : allVehicles) {
-                if (matchesSearchQuery(vehicle, lowerQuery)) {
-                    filteredVehicles.add(vehicle);
-                }
-            }
+            filteredVehicles.addAll(vehicleCache.searchVehicles(query));
         }
 
         vehicleAdapter.updateVehicles(filteredVehicles);
         updateEmptyState();
     }
 
-    private boolean matchesSearchQuery(Vehicle vehicle, String lowerQuery) {
-        return vehicle.getChassisModel().toLowerCase().contains(lowerQuery) ||
-                vehicle.getMake().toLowerCase().contains(lowerQuery) ||
-                vehicle.getModel().toLowerCase().contains(lowerQuery);
-    }
-
     private void updateEmptyState() {
         if (filteredVehicles.isEmpty()) {
             binding.layoutEmptyState.setVisibility(View.VISIBLE);
@@ -171,6 +179,12 @@ public class HistoryActivity extends AppCompatActivity implements VehicleAdapter
         startActivity(intent);
     }
 
+    @Override
+    protected void onDestroy() {
+        searchHandler.removeCallbacks(applySearchFilter);
+        super.onDestroy();
+    }
+
     @Override
     public boolean onSupportNavigateUp() {
         onBackPressed();
@@ -36,19 +36,20 @@ import com.google.android.material.button.MaterialButton;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.sendajapan.sendasnap.MyApplication;
 import com.sendajapan.sendasnap.R;
+import com.sendajapan.sendasnap.data.repository.LocalAccountData;
 import com.sendajapan.sendasnap.databinding.ActivityMainBinding;
 import com.sendajapan.sendasnap.fragments.HomeFragment;
 import com.sendajapan.sendasnap.fragments.ProfileFragment;
 import com.sendajapan.sendasnap.fragments.ScheduleFragment;
 import com.sendajapan.sendasnap.networking.NetworkUtils;
-import com.google.firebase.database.ValueEventListener;
+import com.sendajapan.sendasnap.services.ChatService;
+import com.sendajapan.sendasnap.services.chat.UnreadCountManager;
 import com.sendajapan.sendasnap.activities.auth.LoginActivity;
 import com.sendajapan.sendasnap.utils.ChatMessageListener;
 import com.sendajapan.sendasnap.utils.CookieBarToastHelper;
 import com.sendajapan.sendasnap.utils.DrawerController;
 import com.sendajapan.sendasnap.utils.FcmNotificationSender;
 import com.sendajapan.sendasnap.utils.HapticFeedbackHelper;
-import com.sendajapan.sendasnap.utils.NotificationHelper;
 import com.sendajapan.sendasnap.utils.SharedPrefsManager;
 
 import me.ibrahimsn.lib.OnItemSelectedListener;
@@ -64,7 +65,7 @@ public class MainActivity extends AppCompatActivity {
     
     private MenuItem notificationsMenuItem;
     private TextView badgeTextView;
-    private ValueEventListener unreadCountListener;
+    private UnreadCountManager.Subscription unreadCountSubscription;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -161,21 +162,9 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
         
-        // Get initial count
-        NotificationHelper.getUnreadNotificationCount(this, new NotificationHelper.UnreadCountCallback() {
-            @Override
-            public void onSuccess(int unreadCount) {
-                updateNotificationBadge(unreadCount);
-            }
-
-            @Override
-            public void onFailure(Exception e) {
-                // Silently fail
-            }
-        });
-        
-        // Setup real-time listener
-        unreadCountListener = NotificationHelper.addUnreadCountListener(this, new NotificationHelper.UnreadCountCallback() {
+        ChatService.getInstance().removeUnreadCountSubscription(unreadCountSubscription);
+        unreadCountSubscription = ChatService.getInstance().addNotificationCountSubscription(this,
+                new ChatService.UnreadCountCallback() {
             @Override
             public void onSuccess(int unreadCount) {
                 updateNotificationBadge(unreadCount);
@@ -262,6 +251,8 @@ public class MainActivity extends AppCompatActivity {
         FcmNotificationSender.removeNotificationListener();
         ChatMessageListener.removeChatMessageListener();
         ChatMessageListener.clearProcessedTimestamps();
+        ChatService.getInstance().clearUnreadCounts();
+        LocalAccountData.clear(this);
         
         SharedPrefsManager prefsManager = SharedPrefsManager.getInstance(this);
         prefsManager.logout();
@@ -581,10 +572,8 @@ public class MainActivity extends AppCompatActivity {
         super.onDestroy();
         
         // Remove notification listener
-        if (unreadCountListener != null) {
-            NotificationHelper.removeUnreadCountListener(this, unreadCountListener);
-            unreadCountListener = null;
-        }
+        ChatService.getInstance().removeUnreadCountSubscription(unreadCountSubscription);
+        unreadCountSubscription = null;
         
         if (networkUtils != null) {
             networkUtils.stopNetworkCallback();
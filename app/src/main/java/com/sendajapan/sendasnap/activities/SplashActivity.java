@@ -20,15 +20,17 @@ import androidx.core.view.WindowInsetsCompat;
 import com.sendajapan.sendasnap.BuildConfig;
 import com.sendajapan.sendasnap.R;
 import com.sendajapan.sendasnap.activities.auth.LoginActivity;
+import com.sendajapan.sendasnap.data.repository.StartupWarmUp;
 import com.sendajapan.sendasnap.databinding.ActivitySplashBinding;
 import com.sendajapan.sendasnap.utils.SharedPrefsManager;
 
 @SuppressLint("CustomSplashScreen")
 public class SplashActivity extends AppCompatActivity {
 
-    private static final int SPLASH_DELAY_MS = 2000;
     private static final int ANIMATION_DURATION_MS = 800;
     private static final int BOUNCE_DURATION_MS = 200;
+    private static final int MIN_SPLASH_MS = ANIMATION_DURATION_MS + BOUNCE_DURATION_MS;
+    private static final int WARM_UP_TIMEOUT_MS = 3000;
     private static final float INITIAL_SCALE = 0.0f;
     private static final float FINAL_SCALE = 1.0f;
     private static final float BOUNCE_SCALE = 0.95f;
@@ -36,6 +38,11 @@ public class SplashActivity extends AppCompatActivity {
     private static final float FINAL_ALPHA = 1.0f;
 
     private ActivitySplashBinding binding;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private StartupWarmUp warmUp;
+    private boolean minimumTimeElapsed = false;
+    private boolean warmUpFinished = false;
+    private boolean navigated = false;
 
     @SuppressLint("SetTextI18n")
     @Override
@@ -60,7 +67,25 @@ public class SplashActivity extends AppCompatActivity {
 
         startLogoAnimation();
 
-        new Handler(Looper.getMainLooper()).postDelayed(this::navigateToNextActivity, SPLASH_DELAY_MS);
+        // Leave as soon as the animation has played and the first screen's data is ready
+        warmUp = new StartupWarmUp(this);
+        warmUp.start(WARM_UP_TIMEOUT_MS, () -> {
+            warmUpFinished = true;
+            navigateWhenReady();
+        });
+        handler.postDelayed(() -> {
+            minimumTimeElapsed = true;
+            navigateWhenReady();
+        }, MIN_SPLASH_MS);
+    }
+
+    @Override
+    protected void onDestroy() {
+        handler.removeCallbacksAndMessages(null);
+        if (warmUp != null) {
+            warmUp.cancel();
+        }
+        super.onDestroy();
     }
 
     private void startLogoAnimation() {
@@ -97,6 +122,14 @@ public class SplashActivity extends AppCompatActivity {
         });
     }
 
+    private void navigateWhenReady() {
+        if (navigated || !minimumTimeElapsed || !warmUpFinished) {
+            return;
+        }
+        navigated = true;
+        navigateToNextActivity();
+    }
+
     private void navigateToNextActivity() {
         SharedPrefsManager prefsManager = SharedPrefsManager.getInstance(this);
 
@@ -28,16 +28,14 @@ import com.sendajapan.sendasnap.MyApplication;
 import com.sendajapan.sendasnap.R;
 import com.sendajapan.sendasnap.adapters.PendingImageAdapter;
 import com.sendajapan.sendasnap.adapters.VehicleImageGridAdapter;
+import com.sendajapan.sendasnap.data.local.VehicleImageUpload;
+import com.sendajapan.sendasnap.data.repository.VehicleImageUploadQueue;
 import com.sendajapan.sendasnap.databinding.ActivityVehicleDetailsBinding;
-import com.sendajapan.sendasnap.dialogs.LoadingDialog;
 import com.sendajapan.sendasnap.models.Vehicle;
 import com.sendajapan.sendasnap.networking.ApiService;
 import com.sendajapan.sendasnap.networking.RetrofitClient;
-import com.sendajapan.sendasnap.services.VehicleImageUploadService;
 import com.sendajapan.sendasnap.utils.CookieBarToastHelper;
 import com.sendajapan.sendasnap.utils.HapticFeedbackHelper;
-import com.sendajapan.sendasnap.utils.SharedPrefsManager;
-import com.sendajapan.sendasnap.utils.VehicleCache;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -52,10 +50,7 @@ public class VehicleDetailsActivity extends AppCompatActivity {
 
     private ApiService apiService;
     private HapticFeedbackHelper hapticHelper;
-    private LoadingDialog loadingDialog;
-    private SharedPrefsManager prefsManager;
-    private VehicleCache vehicleCache;
-    private VehicleImageUploadService imageUploadService;
+    private VehicleImageUploadQueue uploadQueue;
 
     private ActivityResultLauncher<Uri> cameraLauncher;
     private ActivityResultLauncher<String> galleryLauncher;
@@ -67,6 +62,8 @@ public class VehicleDetailsActivity extends AppCompatActivity {
     private Uri cameraImageUri;
     private String cameraImagePath;
     private final List<String> pendingImagePaths = new ArrayList<>();
+    private final List<VehicleImageUpload> vehicleUploads = new ArrayList<>();
+    private boolean uploadedSinceLastNotice;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -85,21 +82,13 @@ public class VehicleDetailsActivity extends AppCompatActivity {
         populateVehicleData();
         setupImageGrids();
         setupImagePickers();
+        observeUploads();
     }
 
     private void initHelpers() {
         hapticHelper = HapticFeedbackHelper.getInstance(this);
         apiService = RetrofitClient.getInstance(this).getApiService();
-        imageUploadService = new VehicleImageUploadService(this);
-        prefsManager = SharedPrefsManager.getInstance(this);
-        vehicleCache = VehicleCache.getInstance(this);
-
-        loadingDialog = new LoadingDialog.Builder(VehicleDetailsActivity.this)
-                .setMessage("Uploading Images")
-                .setSubtitle("Please wait while uploading images...")
-                .setCancelable(false)
-                .setShowProgressIndicator(true)
-                .build();
+        uploadQueue = VehicleImageUploadQueue.getInstance(this);
     }
 
     private void getVehicleData() {
@@ -169,6 +158,7 @@ public class VehicleDetailsActivity extends AppCompatActivity {
         binding.recyclerViewVehicleImages.setAdapter(vehicleImageAdapter);
 
         pendingImageAdapter = new PendingImageAdapter(pendingImagePaths);
+        pendingImageAdapter.setUploads(vehicleUploads);
         GridLayoutManager pendingGridLayoutManager = new GridLayoutManager(this, 3);
         binding.recyclerViewPendingImages.setLayoutManager(pendingGridLayoutManager);
         binding.recyclerViewPendingImages.setAdapter(pendingImageAdapter);
@@ -176,9 +166,69 @@ public class VehicleDetailsActivity extends AppCompatActivity {
         pendingImageAdapter.setOnDeleteClickListener(position -> {
             hapticHelper.vibrateClick();
             pendingImagePaths.remove(position);
-            pendingImageAdapter.notifyItemRemoved(position);
+            pendingImageAdapter.notifyItemRemoved(vehicleUploads.size() + position);
             updatePendingImagesVisibility();
         });
+
+        pendingImageAdapter.setOnUploadActionListener(new PendingImageAdapter.OnUploadActionListener() {
+            @Override
+            public void onRetry(VehicleImageUpload upload) {
+                hapticHelper.vibrateClick();
+                uploadQueue.retry(upload.getId());
+            }
+
+            @Override
+            public void onDiscard(VehicleImageUpload upload) {
+                hapticHelper.vibrateClick();
+                uploadQueue.discard(upload.getId());
+            }
+        });
+    }
+
+    /**
+     * Show the queued uploads of this vehicle, and its new photos as each upload finishes.
+     */
+    private void observeUploads() {
+        VehicleImageUpload completedBefore = uploadQueue.getCompletedUploads().getValue();
+        uploadQueue.getCompletedUploads().observe(this, upload -> {
+            if (upload != completedBefore && vehicle != null
+                    && String.valueOf(upload.getVehicleId()).equals(vehicle.getId())) {
+                uploadedSinceLastNotice = true;
+            }
+        });
+
+        uploadQueue.getUploads().observe(this, uploads -> {
+            vehicleUploads.clear();
+            for (VehicleImageUpload upload : uploads) {
+                if (vehicle != null && String.valueOf(upload.getVehicleId()).equals(vehicle.getId())) {
+                    vehicleUploads.add(upload);
+                }
+            }
+            pendingImageAdapter.setUploads(vehicleUploads);
+            updatePendingImagesVisibility();
+
+            boolean uploading = false;
+            for (VehicleImageUpload upload : vehicleUploads) {
+                uploading |= upload.getState() != VehicleImageUpload.State.FAILED;
+            }
+            if (uploadedSinceLastNotice && !uploading) {
+                uploadedSinceLastNotice = false;
+                if (vehicleUploads.isEmpty()) {
+                    CookieBarToastHelper.showSuccess(this, "Success", "Images uploaded successfully",
+                            CookieBarToastHelper.SHORT_DURATION);
+                }
+            }
+        });
+
+        uploadQueue.getUploadedVehicles().observe(this, updatedVehicle -> {
+            if (vehicle == null || !updatedVehicle.getId().equals(vehicle.getId())) {
+                return;
+            }
+
+            vehicle = updatedVehicle;
+            populateVehicleData();
+            setupImageGrids();
+        });
     }
 
     private void setupImagePickers() {
@@ -188,7 +238,8 @@ public class VehicleDetailsActivity extends AppCompatActivity {
                     if (result && cameraImagePath != null) {
                         if (new File(cameraImagePath).exists()) {
                             pendingImagePaths.add(cameraImagePath);
-                            pendingImageAdapter.notifyItemInserted(pendingImagePaths.size() - 1);
+                            pendingImageAdapter.notifyItemInserted(
+                                    vehicleUploads.size() + pendingImagePaths.size() - 1);
                             updatePendingImagesVisibility();
 
                         } else {
@@ -219,13 +270,9 @@ public class VehicleDetailsActivity extends AppCompatActivity {
     }
 
     private void updatePendingImagesVisibility() {
-        if (pendingImagePaths.isEmpty()) {
-            binding.recyclerViewPendingImages.setVisibility(View.GONE);
-            binding.btnUploadPhotos.setVisibility(View.GONE);
-        } else {
-            binding.recyclerViewPendingImages.setVisibility(View.VISIBLE);
-            binding.btnUploadPhotos.setVisibility(View.VISIBLE);
-        }
+        binding.recyclerViewPendingImages.setVisibility(
+                pendingImagePaths.isEmpty() && vehicleUploads.isEmpty() ? View.GONE : View.VISIBLE);
+        binding.btnUploadPhotos.setVisibility(pendingImagePaths.isEmpty() ? View.GONE : View.VISIBLE);
     }
 
     private void showImagePickerBottomSheet() {
@@ -414,6 +461,7 @@ public class VehicleDetailsActivity extends AppCompatActivity {
         }
     }
 
+    @SuppressLint("NotifyDataSetChanged")
     private void uploadPendingImages() {
         if (pendingImagePaths.isEmpty()) {
             CookieBarToastHelper.showInfo(this, "No Photos", "No photos to upload",
@@ -435,60 +483,13 @@ public class VehicleDetailsActivity extends AppCompatActivity {
             return;
         }
 
-        if (!loadingDialog.isShowing()) {
-            loadingDialog.show();
-        }
-
-        imageUploadService.uploadImages(vehicleId, new ArrayList<>(pendingImagePaths),
-                new VehicleImageUploadService.UploadCallback() {
-                    @SuppressLint("NotifyDataSetChanged")
-                    @Override
-                    public void onSuccess(Vehicle updatedVehicle) {
-                        runOnUiThread(() -> {
-                            if (loadingDialog.isShowing()) {
-                                loadingDialog.dismiss();
-                            }
-
-                            if (updatedVehicle != null) {
-                                if (updatedVehicle.getId() == null || updatedVehicle.getId().isEmpty()) {
-                                    if (vehicle != null && vehicle.getId() != null) {
-                                        updatedVehicle.setId(vehicle.getId());
-                                    }
-                                }
-
-                                prefsManager.addVehicleToCache(updatedVehicle);
-                                vehicleCache.addVehicle(updatedVehicle);
-                                vehicle = updatedVehicle;
-                            }
-
-                            pendingImagePaths.clear();
-                            pendingImageAdapter.notifyDataSetChanged();
+        uploadQueue.enqueue(vehicleId, pendingImagePaths);
+        pendingImagePaths.clear();
+        pendingImageAdapter.notifyDataSetChanged();
+        updatePendingImagesVisibility();
 
-                            populateVehicleData();
-                            setupImageGrids();
-
-                            vehicleImageAdapter.notifyDataSetChanged();
-                            updatePendingImagesVisibility();
-
-                            CookieBarToastHelper.showSuccess(VehicleDetailsActivity.this, "Success",
-                                    "Images uploaded successfully",
-                                    CookieBarToastHelper.SHORT_DURATION);
-                        });
-                    }
-
-                    @Override
-                    public void onError(String errorMessage, int errorCode) {
-                        runOnUiThread(() -> {
-                            if (loadingDialog.isShowing()) {
-                                loadingDialog.dismiss();
-                            }
-
-                            CookieBarToastHelper.showError(VehicleDetailsActivity.this, "Upload Failed",
-                                    errorMessage,
-                                    CookieBarToastHelper.LONG_DURATION);
-                        });
-                    }
-                });
+        CookieBarToastHelper.showInfo(this, "Uploading", "Photos will upload in the background",
+                CookieBarToastHelper.SHORT_DURATION);
     }
 
     @SuppressLint("ClickableViewAccessibility")
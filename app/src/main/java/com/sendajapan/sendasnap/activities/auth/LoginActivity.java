@@ -18,9 +18,9 @@ import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
-import com.google.gson.Gson;
 import com.sendajapan.sendasnap.R;
 import com.sendajapan.sendasnap.activities.MainActivity;
+import com.sendajapan.sendasnap.data.json.GsonProvider;
 import com.sendajapan.sendasnap.databinding.ActivityLoginBinding;
 import com.sendajapan.sendasnap.models.ErrorResponse;
 import com.sendajapan.sendasnap.models.LoginRequest;
@@ -241,8 +241,7 @@ public class LoginActivity extends AppCompatActivity {
 
         if (response.errorBody() != null) {
             try {
-                Gson gson = new Gson();
-                ErrorResponse errorResponse = gson.fromJson(response.errorBody().string(), ErrorResponse.class);
+                ErrorResponse errorResponse = GsonProvider.get().fromJson(response.errorBody().string(), ErrorResponse.class);
                 if (errorResponse != null && errorResponse.getMessage() != null) {
                     errorMessage = errorResponse.getMessage();
                 }
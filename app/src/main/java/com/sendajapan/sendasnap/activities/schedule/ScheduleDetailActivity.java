@@ -19,7 +19,6 @@ import androidx.core.content.ContextCompat;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
-import com.google.firebase.database.ValueEventListener;
 import com.sendajapan.sendasnap.MyApplication;
 import com.sendajapan.sendasnap.R;
 import com.sendajapan.sendasnap.activities.ChatActivity;
@@ -32,6 +31,7 @@ import com.sendajapan.sendasnap.models.UserData;
 import com.sendajapan.sendasnap.networking.ApiManager;
 import com.sendajapan.sendasnap.networking.ApiCallback;
 import com.sendajapan.sendasnap.services.ChatService;
+import com.sendajapan.sendasnap.services.chat.UnreadCountManager;
 import com.sendajapan.sendasnap.utils.FirebaseUtils;
 import com.sendajapan.sendasnap.utils.HapticFeedbackHelper;
 import com.sendajapan.sendasnap.utils.SharedPrefsManager;
@@ -57,7 +57,7 @@ public class ScheduleDetailActivity extends AppCompatActivity {
 
     private MenuItem chatMenuItem;
     private TextView badgeTextView;
-    private ValueEventListener unreadCountListener;
+    private UnreadCountManager.Subscription unreadCountSubscription;
     private View chatActionView;
     private boolean isChatOpening = false;
 
@@ -618,23 +618,13 @@ public class ScheduleDetailActivity extends AppCompatActivity {
             return;
         }
 
-        if (unreadCountListener != null) {
-            chatService.removeUnreadCountListener(chatId, currentUserId, unreadCountListener);
-            unreadCountListener = null;
+        if (unreadCountSubscription != null) {
+            chatService.removeUnreadCountSubscription(unreadCountSubscription);
+            unreadCountSubscription = null;
         }
 
-        chatService.getGroupChatUnreadCount(chatId, currentUserId, new ChatService.UnreadCountCallback() {
-            @Override
-            public void onSuccess(int unreadCount) {
-                updateBadge(unreadCount);
-            }
-
-            @Override
-            public void onFailure(Exception e) {
-            }
-        });
-
-        unreadCountListener = chatService.addUnreadCountListener(chatId, currentUserId, new ChatService.UnreadCountCallback() {
+        unreadCountSubscription = chatService.addUnreadCountSubscription(chatId, currentUserId,
+                new ChatService.UnreadCountCallback() {
             @Override
             public void onSuccess(int unreadCount) {
                 updateBadge(unreadCount);
@@ -734,14 +724,8 @@ public class ScheduleDetailActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (unreadCountListener != null && task != null) {
-            String chatId = getTaskChatId();
-            String currentUserId = FirebaseUtils.getCurrentUserId(this);
-            if (!chatId.isEmpty() && !currentUserId.isEmpty()) {
-                chatService.removeUnreadCountListener(chatId, currentUserId, unreadCountListener);
-            }
-            unreadCountListener = null;
-        }
+        chatService.removeUnreadCountSubscription(unreadCountSubscription);
+        unreadCountSubscription = null;
         binding = null;
     }
 }
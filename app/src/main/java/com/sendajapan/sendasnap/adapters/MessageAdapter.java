@@ -14,7 +14,6 @@ import com.sendajapan.sendasnap.models.Message;
 import com.sendajapan.sendasnap.models.ChatUser;
 import com.sendajapan.sendasnap.services.ChatService;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -30,13 +29,14 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
     private static final int TYPE_FILE_SENT = 5;
     private static final int TYPE_FILE_RECEIVED = 6;
     
-    private List<Message> messages;
+    private final MessageTimeline timeline;
     private String currentUserId;
     private boolean isGroupChat;
     private OnImageClickListener imageClickListener;
     private OnFileClickListener fileClickListener;
     private ChatService chatService;
     private Map<String, ChatUser> userCache = new HashMap<>();
+    private long seenWatermark = 0L;
     
     public interface OnImageClickListener {
         void onImageClick(String imageUrl);
@@ -47,14 +47,14 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
     }
     
     public MessageAdapter(String currentUserId) {
-        this.messages = new ArrayList<>();
+        this.timeline = new MessageTimeline(createTimelineListener());
         this.currentUserId = currentUserId;
         this.isGroupChat = false;
         this.chatService = ChatService.getInstance();
     }
     
     public MessageAdapter(String currentUserId, boolean isGroupChat) {
-        this.messages = new ArrayList<>();
+        this.timeline = new MessageTimeline(createTimelineListener());
         this.currentUserId = currentUserId;
         this.isGroupChat = isGroupChat;
         this.chatService = ChatService.getInstance();
@@ -70,7 +70,7 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
     
     @Override
     public int getItemViewType(int position) {
-        Message message = messages.get(position);
+        Message message = timeline.get(position);
         boolean isSent = message.getSenderId().equals(currentUserId);
         String messageType = message.getMessageType();
         
@@ -109,7 +109,7 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
     
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
-        Message message = messages.get(position);
+        Message message = timeline.get(position);
         
         if (holder instanceof TextMessageViewHolder) {
             ((TextMessageViewHolder) holder).bind(message);
@@ -122,20 +122,69 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
     
     @Override
     public int getItemCount() {
-        return messages.size();
+        return timeline.size();
     }
     
-    public void updateMessages(List<Message> newMessages) {
-        this.messages.clear();
-        this.messages.addAll(newMessages);
-        notifyDataSetChanged();
+    public void prependMessages(List<Message> olderMessages) {
+        timeline.prepend(olderMessages);
     }
-    
+
     public void addMessage(Message message) {
-        messages.add(message);
-        notifyItemInserted(messages.size() - 1);
+        timeline.add(message);
     }
-    
+
+    public void updateMessage(Message message) {
+        timeline.change(message);
+    }
+
+    public void removeMessage(Message message) {
+        timeline.remove(message);
+    }
+
+    public void setSeenWatermark(long seenUpToTimestamp) {
+        if (seenUpToTimestamp <= seenWatermark) {
+            return;
+        }
+
+        int start = timeline.indexOfFirstAfter(seenWatermark);
+        int end = timeline.indexOfFirstAfter(seenUpToTimestamp);
+        seenWatermark = seenUpToTimestamp;
+        if (end > start) {
+            notifyItemRangeChanged(start, end - start);
+        }
+    }
+
+    public Message getOldestMessage() {
+        return timeline.getOldest();
+    }
+
+    public Message getLatestMessage() {
+        return timeline.getLatest();
+    }
+
+    private boolean isSeenByReceiver(Message message) {
+        return message.isSeen() || message.getTimestamp() <= seenWatermark;
+    }
+
+    private MessageTimeline.ChangeListener createTimelineListener() {
+        return new MessageTimeline.ChangeListener() {
+            @Override
+            public void onInserted(int position, int count) {
+                notifyItemRangeInserted(position, count);
+            }
+
+            @Override
+            public void onChanged(int position) {
+                notifyItemChanged(position);
+            }
+
+            @Override
+            public void onRemoved(int position) {
+                notifyItemRemoved(position);
+            }
+        };
+    }
+
     // Text Message ViewHolder
     class TextMessageViewHolder extends RecyclerView.ViewHolder {
         private TextView txtSentMessage;
@@ -174,7 +223,7 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
                 txtSentTime.setText(formatTime(message.getTimestamp()));
                 
                 // Update seen status
-                if (message.isSeen()) {
+                if (isSeenByReceiver(message)) {
                     imgSentStatus.setImageResource(R.drawable.ic_check);
                     imgSentStatus.setAlpha(1.0f); // Double checkmark (you can use a different icon)
                 } else {
@@ -293,7 +342,7 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
                 
                 txtSentImageTime.setText(formatTime(message.getTimestamp()));
                 
-                if (message.isSeen()) {
+                if (isSeenByReceiver(message)) {
                     imgSentImageStatus.setAlpha(1.0f);
                 } else {
                     imgSentImageStatus.setAlpha(0.5f);
@@ -369,7 +418,7 @@ public class MessageAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
                 txtSentFileSize.setText(""); // File size can be added if available
                 txtSentFileTime.setText(formatTime(message.getTimestamp()));
                 
-                if (message.isSeen()) {
+                if (isSeenByReceiver(message)) {
                     imgSentFileStatus.setAlpha(1.0f);
                 } else {
                     imgSentFileStatus.setAlpha(0.5f);
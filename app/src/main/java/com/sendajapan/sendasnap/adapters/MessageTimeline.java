@@ -0,0 +1,143 @@
+package com.sendajapan.sendasnap.adapters;
+
+import com.sendajapan.sendasnap.models.Message;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ordered message list that applies per-message deltas and reports the
+ * resulting positional changes. In-order appends cost a single comparison;
+ * out-of-order inserts, changes and removals use a binary search.
+ */
+public class MessageTimeline {
+
+    public static final Comparator<Message> CHRONOLOGICAL_ORDER = (first, second) -> {
+        int byTimestamp = Long.compare(first.getTimestamp(), second.getTimestamp());
+        if (byTimestamp != 0) {
+            return byTimestamp;
+        }
+        String firstId = first.getMessageId() != null ? first.getMessageId() : "";
+        String secondId = second.getMessageId() != null ? second.getMessageId() : "";
+        return firstId.compareTo(secondId);
+    };
+
+    private final List<Message> messages = new ArrayList<>();
+    private final Comparator<Message> order;
+    private final ChangeListener changeListener;
+
+    public MessageTimeline(ChangeListener changeListener) {
+        this(CHRONOLOGICAL_ORDER, changeListener);
+    }
+
+    public MessageTimeline(Comparator<Message> order, ChangeListener changeListener) {
+        this.order = order;
+        this.changeListener = changeListener;
+    }
+
+    public int size() {
+        return messages.size();
+    }
+
+    public Message get(int position) {
+        return messages.get(position);
+    }
+
+    public Message getOldest() {
+        return messages.isEmpty() ? null : messages.get(0);
+    }
+
+    public Message getLatest() {
+        return messages.isEmpty() ? null : messages.get(messages.size() - 1);
+    }
+
+    /**
+     * Position of the first message with a timestamp strictly greater than the given one,
+     * or {@link #size()} if there is none.
+     */
+    public int indexOfFirstAfter(long timestamp) {
+        int low = 0;
+        int high = messages.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (messages.get(mid).getTimestamp() <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Insert a page of older messages (oldest first) above the current ones.
+     */
+    public void prepend(List<Message> olderMessages) {
+        if (olderMessages == null || olderMessages.isEmpty()) {
+            return;
+        }
+
+        messages.addAll(0, olderMessages);
+        changeListener.onInserted(0, olderMessages.size());
+    }
+
+    /**
+     * Apply an added event. A message that is already present is treated as a change.
+     */
+    public void add(Message message) {
+        Message latest = getLatest();
+        if (latest == null || order.compare(message, latest) > 0) {
+            messages.add(message);
+            changeListener.onInserted(messages.size() - 1, 1);
+            return;
+        }
+
+        int position = Collections.binarySearch(messages, message, order);
+        if (position >= 0) {
+            messages.set(position, message);
+            changeListener.onChanged(position);
+        } else {
+            int insertPosition = -(position + 1);
+            messages.add(insertPosition, message);
+            changeListener.onInserted(insertPosition, 1);
+        }
+    }
+
+    /**
+     * Apply a changed event. Unknown messages are inserted.
+     */
+    public void change(Message message) {
+        int position = Collections.binarySearch(messages, message, order);
+        if (position < 0) {
+            add(message);
+            return;
+        }
+
+        messages.set(position, message);
+        changeListener.onChanged(position);
+    }
+
+    /**
+     * Apply a removed event. Unknown messages are ignored.
+     */
+    public void remove(Message message) {
+        int position = Collections.binarySearch(messages, message, order);
+        if (position < 0) {
+            return;
+        }
+
+        messages.remove(position);
+        changeListener.onRemoved(position);
+    }
+
+    /**
+     * Receives positional changes, mirroring RecyclerView.Adapter notify calls.
+     */
+    public interface ChangeListener {
+        void onInserted(int position, int count);
+        void onChanged(int position);
+        void onRemoved(int position);
+    }
+}
@@ -4,26 +4,45 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
+import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
 import com.bumptech.glide.request.RequestOptions;
 import com.sendajapan.sendasnap.R;
+import com.sendajapan.sendasnap.data.local.VehicleImageUpload;
 
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Photos of a vehicle not on the server yet: queued uploads with their state first, then photos
+ * picked but not sent.
+ */
 public class PendingImageAdapter extends RecyclerView.Adapter<PendingImageAdapter.PendingImageViewHolder> {
 
     private final List<String> pendingImagePaths;
+    private final List<VehicleImageUpload> uploads = new ArrayList<>();
     private OnDeleteClickListener onDeleteClickListener;
+    private OnUploadActionListener onUploadActionListener;
 
     public interface OnDeleteClickListener {
+        /**
+         * @param position Index into the pending image paths
+         */
         void onDeleteClick(int position);
     }
 
+    public interface OnUploadActionListener {
+        void onRetry(VehicleImageUpload upload);
+
+        void onDiscard(VehicleImageUpload upload);
+    }
+
     public PendingImageAdapter(List<String> pendingImagePaths) {
         this.pendingImagePaths = pendingImagePaths;
     }
@@ -32,6 +51,16 @@ public class PendingImageAdapter extends RecyclerView.Adapter<PendingImageAdapte
         this.onDeleteClickListener = listener;
     }
 
+    public void setOnUploadActionListener(OnUploadActionListener listener) {
+        this.onUploadActionListener = listener;
+    }
+
+    public void setUploads(List<VehicleImageUpload> uploads) {
+        this.uploads.clear();
+        this.uploads.addAll(uploads);
+        notifyDataSetChanged();
+    }
+
     @NonNull
     @Override
     public PendingImageViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -42,25 +71,77 @@ public class PendingImageAdapter extends RecyclerView.Adapter<PendingImageAdapte
 
     @Override
     public void onBindViewHolder(@NonNull PendingImageViewHolder holder, int position) {
-        holder.bind(pendingImagePaths.get(position), position);
+        if (position < uploads.size()) {
+            holder.bindUpload(uploads.get(position));
+        } else {
+            holder.bind(pendingImagePaths.get(position - uploads.size()), position - uploads.size());
+        }
     }
 
     @Override
     public int getItemCount() {
-        return pendingImagePaths.size();
+        return uploads.size() + pendingImagePaths.size();
     }
 
     class PendingImageViewHolder extends RecyclerView.ViewHolder {
         private ImageView imgPendingPhoto;
+        private TextView txtPendingStatus;
         private ImageView btnDeletePending;
 
         public PendingImageViewHolder(@NonNull View itemView) {
             super(itemView);
             imgPendingPhoto = itemView.findViewById(R.id.imgPendingPhoto);
+            txtPendingStatus = itemView.findViewById(R.id.txtPendingStatus);
             btnDeletePending = itemView.findViewById(R.id.btnDeletePending);
         }
 
         public void bind(String imagePath, int position) {
+            loadImage(imagePath);
+            showStatus("PENDING", R.color.warning_medium, R.color.black);
+            itemView.setOnClickListener(null);
+            btnDeletePending.setVisibility(View.VISIBLE);
+            btnDeletePending.setOnClickListener(v -> {
+                if (onDeleteClickListener != null) {
+                    onDeleteClickListener.onDeleteClick(position);
+                }
+            });
+        }
+
+        public void bindUpload(VehicleImageUpload upload) {
+            loadImage(upload.getImagePath());
+
+            boolean failed = upload.getState() == VehicleImageUpload.State.FAILED;
+            if (failed) {
+                showStatus("FAILED - TAP TO RETRY", R.color.error_medium, R.color.white);
+            } else if (upload.getState() == VehicleImageUpload.State.UPLOADING) {
+                showStatus("UPLOADING", R.color.success_medium, R.color.black);
+            } else if (upload.getState() == VehicleImageUpload.State.PREPARING) {
+                showStatus("PREPARING", R.color.success_light, R.color.black);
+            } else {
+                showStatus("QUEUED", R.color.warning_light, R.color.black);
+            }
+
+            itemView.setOnClickListener(failed ? v -> {
+                if (onUploadActionListener != null) {
+                    onUploadActionListener.onRetry(upload);
+                }
+            } : null);
+            btnDeletePending.setVisibility(failed ? View.VISIBLE : View.GONE);
+            btnDeletePending.setOnClickListener(v -> {
+                if (onUploadActionListener != null) {
+                    onUploadActionListener.onDiscard(upload);
+                }
+            });
+        }
+
+        private void showStatus(String status, int backgroundColor, int textColor) {
+            txtPendingStatus.setText(status);
+            txtPendingStatus.setBackgroundTintList(
+                    ContextCompat.getColorStateList(itemView.getContext(), backgroundColor));
+            txtPendingStatus.setTextColor(ContextCompat.getColor(itemView.getContext(), textColor));
+        }
+
+        private void loadImage(String imagePath) {
             // Load image from local path
             Glide.with(itemView.getContext())
                     .load(imagePath)
@@ -68,12 +149,6 @@ public class PendingImageAdapter extends RecyclerView.Adapter<PendingImageAdapte
                     .error(R.drawable.car_placeholder)
                     .apply(RequestOptions.bitmapTransform(new RoundedCorners(16)))
                     .into(imgPendingPhoto);
-
-            btnDeletePending.setOnClickListener(v -> {
-                if (onDeleteClickListener != null) {
-                    onDeleteClickListener.onDeleteClick(position);
-                }
-            });
         }
     }
 }
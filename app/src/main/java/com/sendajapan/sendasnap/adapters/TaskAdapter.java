@@ -10,34 +10,86 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.chip.Chip;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.ValueEventListener;
 import com.sendajapan.sendasnap.R;
 import com.sendajapan.sendasnap.models.Task;
 import com.sendajapan.sendasnap.models.UserData;
 import com.sendajapan.sendasnap.services.ChatService;
+import com.sendajapan.sendasnap.services.chat.UnreadCountManager;
 import com.sendajapan.sendasnap.utils.FirebaseUtils;
 
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
 
-public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder> {
+public class TaskAdapter extends ListAdapter<Task, TaskAdapter.TaskViewHolder> {
+
+    private static final DiffUtil.ItemCallback<Task> DIFF_CALLBACK = new DiffUtil.ItemCallback<Task>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Task oldTask, @NonNull Task newTask) {
+            return oldTask.getId() == newTask.getId();
+        }
+
+        /**
+         * Compares every bound field, as changes queued in the outbox keep the server's updatedAt.
+         */
+        @Override
+        public boolean areContentsTheSame(@NonNull Task oldTask, @NonNull Task newTask) {
+            return Objects.equals(oldTask.getUpdatedAt(), newTask.getUpdatedAt())
+                    && oldTask.getStatus() == newTask.getStatus()
+                    && oldTask.getPriority() == newTask.getPriority()
+                    && Objects.equals(oldTask.getTitle(), newTask.getTitle())
+                    && Objects.equals(oldTask.getDescription(), newTask.getDescription())
+                    && Objects.equals(oldTask.getWorkDate(), newTask.getWorkDate())
+                    && Objects.equals(oldTask.getWorkTime(), newTask.getWorkTime())
+                    && attachmentCount(oldTask) == attachmentCount(newTask)
+                    && sameUser(oldTask.getCreator(), newTask.getCreator())
+                    && sameUsers(oldTask.getAssignees(), newTask.getAssignees());
+        }
+    };
+
+    private static int attachmentCount(Task task) {
+        return task.getAttachments() != null ? task.getAttachments().size() : 0;
+    }
+
+    private static boolean sameUsers(List<UserData> oldUsers, List<UserData> newUsers) {
+        int oldSize = oldUsers != null ? oldUsers.size() : 0;
+        int newSize = newUsers != null ? newUsers.size() : 0;
+        if (oldSize != newSize) {
+            return false;
+        }
+        for (int i = 0; i < oldSize; i++) {
+            if (!sameUser(oldUsers.get(i), newUsers.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameUser(UserData oldUser, UserData newUser) {
+        if (oldUser == null || newUser == null) {
+            return oldUser == newUser;
+        }
+        return oldUser.getId() == newUser.getId()
+                && Objects.equals(oldUser.getName(), newUser.getName())
+                && Objects.equals(oldUser.getAvatarUrl(), newUser.getAvatarUrl())
+                && Objects.equals(oldUser.getAvatar(), newUser.getAvatar());
+    }
 
-    private final List<Task> tasks;
     private final OnTaskClickListener listener;
     private final ChatService chatService;
     private final String currentUserId;
+    private final Set<TaskViewHolder> subscribedHolders = new HashSet<>();
 
     public interface OnTaskClickListener {
         void onTaskClick(Task task);
@@ -49,17 +101,28 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
 
     private OnTaskLongClickListener longClickListener;
 
-    public TaskAdapter(List<Task> tasks, OnTaskClickListener listener) {
-        this.tasks = tasks;
+    public TaskAdapter(OnTaskClickListener listener) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
         this.chatService = ChatService.getInstance();
         this.currentUserId = FirebaseUtils.getCurrentUserId(null);
+        setHasStableIds(true);
     }
 
     public void setOnTaskLongClickListener(OnTaskLongClickListener longClickListener) {
         this.longClickListener = longClickListener;
     }
 
+    /**
+     * Stop the unread count updates of every bound row. Views still attached when the list is
+     * destroyed are never recycled, so the owner calls this when its view goes away.
+     */
+    public void releaseUnreadCountSubscriptions() {
+        for (TaskViewHolder holder : new ArrayList<>(subscribedHolders)) {
+            holder.removeUnreadCountSubscription();
+        }
+    }
+
     @NonNull
     @Override
     public TaskViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -69,20 +132,24 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
-        Task task = tasks.get(position);
-        holder.bind(task);
+        holder.bind(getItem(position));
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
     
     @Override
     public void onViewRecycled(@NonNull TaskViewHolder holder) {
         super.onViewRecycled(holder);
-        // Clean up listener when view is recycled
-        holder.removeUnreadCountListener();
+        holder.removeUnreadCountSubscription();
     }
 
     @Override
-    public int getItemCount() {
-        return tasks.size();
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        releaseUnreadCountSubscriptions();
     }
 
     class TaskViewHolder extends RecyclerView.ViewHolder {
@@ -99,8 +166,7 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
         private final TextView textCreatorName;
         private final TextView textCreatedByLabel;
         private final TextView badgeUnreadCount;
-        private ValueEventListener unreadCountListener;
-        private String currentTaskChatId;
+        private UnreadCountManager.Subscription unreadCountSubscription;
 
         public TaskViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -119,14 +185,16 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
             badgeUnreadCount = itemView.findViewById(R.id.badgeUnreadCount);
 
             itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onTaskClick(tasks.get(getAdapterPosition()));
+                int position = getBindingAdapterPosition();
+                if (listener != null && position != RecyclerView.NO_POSITION) {
+                    listener.onTaskClick(getItem(position));
                 }
             });
 
             itemView.setOnLongClickListener(v -> {
-                if (longClickListener != null) {
-                    longClickListener.onTaskLongClick(tasks.get(getAdapterPosition()));
+                int position = getBindingAdapterPosition();
+                if (longClickListener != null && position != RecyclerView.NO_POSITION) {
+                    longClickListener.onTaskLongClick(getItem(position));
                     return true;
                 }
                 return false;
@@ -134,14 +202,12 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
         }
 
         public void bind(Task task) {
-            // Remove previous listener if exists
-            removeUnreadCountListener();
-            
+            removeUnreadCountSubscription();
+
             textTaskTitle.setText(task.getTitle());
             textTaskDescription.setText(task.getDescription());
             
-            // Format time to 12-hour format
-            textTaskTime.setText(formatTimeTo12Hour(task.getWorkTime()));
+            textTaskTime.setText(task.getWorkTimeDisplay());
 
             setStatusColors(task.getStatus());
 
@@ -170,10 +236,8 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
             }
             
             String chatId = "task_" + String.valueOf(task.getId());
-            currentTaskChatId = chatId;
-            
-            // First get current count immediately
-            chatService.getGroupChatUnreadCount(chatId, currentUserId, new ChatService.UnreadCountCallback() {
+            unreadCountSubscription = chatService.addUnreadCountSubscription(chatId, currentUserId,
+                    new ChatService.UnreadCountCallback() {
                 @Override
                 public void onSuccess(int unreadCount) {
                     updateBadge(unreadCount);
@@ -181,22 +245,9 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
 
                 @Override
                 public void onFailure(Exception e) {
-                    // Silently fail, but still set up listener
-                }
-            });
-            
-            // Then add listener for real-time updates
-            unreadCountListener = chatService.addUnreadCountListener(chatId, currentUserId, new ChatService.UnreadCountCallback() {
-                @Override
-                public void onSuccess(int unreadCount) {
-                    updateBadge(unreadCount);
-                }
-
-                @Override
-                public void onFailure(Exception e) {
-                    // Silently fail
                 }
             });
+            subscribedHolders.add(this);
         }
         
         private void updateBadge(int unreadCount) {
@@ -210,11 +261,11 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
             }
         }
         
-        private void removeUnreadCountListener() {
-            if (unreadCountListener != null && currentTaskChatId != null && currentUserId != null && !currentUserId.isEmpty()) {
-                chatService.removeUnreadCountListener(currentTaskChatId, currentUserId, unreadCountListener);
-                unreadCountListener = null;
-                currentTaskChatId = null;
+        private void removeUnreadCountSubscription() {
+            if (unreadCountSubscription != null) {
+                chatService.removeUnreadCountSubscription(unreadCountSubscription);
+                unreadCountSubscription = null;
+                subscribedHolders.remove(this);
             }
         }
 
@@ -368,33 +419,6 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
             return false;
         }
 
-        private String formatTimeTo12Hour(String time24Hour) {
-            if (time24Hour == null || time24Hour.trim().isEmpty()) {
-                return "";
-            }
-
-            try {
-                // Try parsing 24-hour format (HH:mm)
-                SimpleDateFormat inputFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
-                Date date = inputFormat.parse(time24Hour.trim());
-                
-                // Format to 12-hour with AM/PM
-                SimpleDateFormat outputFormat = new SimpleDateFormat("h:mm a", Locale.getDefault());
-                return outputFormat.format(date);
-            } catch (ParseException e) {
-                // If parsing fails, try other common formats
-                try {
-                    SimpleDateFormat inputFormat = new SimpleDateFormat("HH:mm:ss", Locale.getDefault());
-                    Date date = inputFormat.parse(time24Hour.trim());
-                    SimpleDateFormat outputFormat = new SimpleDateFormat("h:mm a", Locale.getDefault());
-                    return outputFormat.format(date);
-                } catch (ParseException e2) {
-                    // If all parsing fails, return original string
-                    return time24Hour;
-                }
-            }
-        }
-
         private void setStatusColors(Task.TaskStatus status) {
             Context context = itemView.getContext();
             cardView.setCardBackgroundColor(context.getColor(R.color.white));
@@ -0,0 +1,67 @@
+package com.sendajapan.sendasnap.data.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.sendajapan.sendasnap.models.ApiResponse;
+
+import java.io.IOException;
+
+/**
+ * Envelope adapter; {@code data} is handled by the adapter Gson resolves for the type argument.
+ */
+final class ApiResponseAdapter<T> extends TypeAdapter<ApiResponse<T>> {
+
+    private final TypeAdapter<T> dataAdapter;
+
+    ApiResponseAdapter(TypeAdapter<T> dataAdapter) {
+        this.dataAdapter = dataAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, ApiResponse<T> response) throws IOException {
+        if (response == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("success").value(response.getSuccess());
+        out.name("message").value(response.getMessage());
+        out.name("data");
+        dataAdapter.write(out, response.getData());
+        out.name("meta");
+        MetaDataAdapter.INSTANCE.write(out, response.getMeta());
+        out.endObject();
+    }
+
+    @Override
+    public ApiResponse<T> read(JsonReader in) throws IOException {
+        if (!JsonValues.beginObject(in)) {
+            return null;
+        }
+
+        ApiResponse<T> response = new ApiResponse<>();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "success":
+                    response.setSuccess(JsonValues.nextBoolean(in));
+                    break;
+                case "message":
+                    response.setMessage(JsonValues.nextString(in));
+                    break;
+                case "data":
+                    response.setData(dataAdapter.read(in));
+                    break;
+                case "meta":
+                    response.setMeta(MetaDataAdapter.INSTANCE.read(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return response;
+    }
+}
@@ -0,0 +1,66 @@
+package com.sendajapan.sendasnap.data.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.sendajapan.sendasnap.data.dto.AttachmentDto;
+
+import java.io.IOException;
+
+final class AttachmentDtoAdapter extends TypeAdapter<AttachmentDto> {
+
+    static final AttachmentDtoAdapter INSTANCE = new AttachmentDtoAdapter();
+
+    @Override
+    public void write(JsonWriter out, AttachmentDto attachment) throws IOException {
+        if (attachment == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("id").value(attachment.getId());
+        out.name("file_name").value(attachment.getFileName());
+        out.name("file_path").value(attachment.getFilePath());
+        out.name("file_type").value(attachment.getFileType());
+        out.name("file_size").value(attachment.getFileSize());
+        out.name("file_url").value(attachment.getFileUrl());
+        out.endObject();
+    }
+
+    @Override
+    public AttachmentDto read(JsonReader in) throws IOException {
+        if (!JsonValues.beginObject(in)) {
+            return null;
+        }
+
+        AttachmentDto attachment = new AttachmentDto();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    attachment.setId(JsonValues.nextString(in));
+                    break;
+                case "file_name":
+                    attachment.setFileName(JsonValues.nextString(in));
+                    break;
+                case "file_path":
+                    attachment.setFilePath(JsonValues.nextString(in));
+                    break;
+                case "file_type":
+                    attachment.setFileType(JsonValues.nextString(in));
+                    break;
+                case "file_size":
+                    attachment.setFileSize(JsonValues.nextLong(in));
+                    break;
+                case "file_url":
+                    attachment.setFileUrl(JsonValues.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return attachment;
+    }
+}
@@ -0,0 +1,58 @@
+package com.sendajapan.sendasnap.data.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.sendajapan.sendasnap.models.ConsigneeDetail;
+
+import java.io.IOException;
+
+final class ConsigneeDetailAdapter extends TypeAdapter<ConsigneeDetail> {
+
+    static final ConsigneeDetailAdapter INSTANCE = new ConsigneeDetailAdapter();
+
+    @Override
+    public void write(JsonWriter out, ConsigneeDetail consignee) throws IOException {
+        if (consignee == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("name").value(consignee.getName());
+        out.name("address").value(consignee.getAddress());
+        out.name("phone").value(consignee.getPhone());
+        out.name("email").value(consignee.getEmail());
+        out.endObject();
+    }
+
+    @Override
+    public ConsigneeDetail read(JsonReader in) throws IOException {
+        if (!JsonValues.beginObject(in)) {
+            return null;
+        }
+
+        ConsigneeDetail consignee = new ConsigneeDetail();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name":
+                    consignee.setName(JsonValues.nextString(in));
+                    break;
+                case "address":
+                    consignee.setAddress(JsonValues.nextString(in));
+                    break;
+                case "phone":
+                    consignee.setPhone(JsonValues.nextString(in));
+                    break;
+                case "email":
+                    consignee.setEmail(JsonValues.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return consignee;
+    }
+}
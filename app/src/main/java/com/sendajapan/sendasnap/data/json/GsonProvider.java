@@ -0,0 +1,22 @@
+package com.sendajapan.sendasnap.data.json;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * The app's shared {@link Gson}. Gson is thread-safe and caches the adapter of every type it has
+ * seen, so one instance is reused instead of building a new one per parse.
+ */
+public final class GsonProvider {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+            .create();
+
+    private GsonProvider() {
+    }
+
+    public static Gson get() {
+        return GSON;
+    }
+}
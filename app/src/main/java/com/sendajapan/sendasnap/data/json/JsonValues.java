@@ -0,0 +1,131 @@
+package com.sendajapan.sendasnap.data.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Null-tolerant value readers shared by the hand-written adapters. Scalars are coerced the way
+ * Gson's built-in adapters coerce them (numbers and booleans read as strings, numeric strings as
+ * numbers); an object or array where a scalar is expected is skipped and read as null.
+ */
+public final class JsonValues {
+
+    /**
+     * String adapter with the coercion of {@link #nextString}, for lists of strings.
+     */
+    public static final TypeAdapter<String> STRING = new TypeAdapter<String>() {
+        @Override
+        public void write(JsonWriter out, String value) throws IOException {
+            out.value(value);
+        }
+
+        @Override
+        public String read(JsonReader in) throws IOException {
+            return nextString(in);
+        }
+    };
+
+    private JsonValues() {
+    }
+
+    public static String nextString(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return reader.nextString();
+        } else if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(reader.nextBoolean());
+        } else if (token == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    public static Integer nextInteger(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextInt();
+    }
+
+    public static Long nextLong(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextLong();
+    }
+
+    public static Boolean nextBoolean(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        } else if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(reader.nextString());
+        }
+        return reader.nextBoolean();
+    }
+
+    /**
+     * Enter an object, or skip the value and return false if it is null or not an object.
+     */
+    public static boolean beginObject(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return false;
+        }
+        reader.beginObject();
+        return true;
+    }
+
+    /**
+     * Enter an array, or skip the value and return false if it is null or not an array.
+     */
+    public static boolean beginArray(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return false;
+        }
+        reader.beginArray();
+        return true;
+    }
+
+    /**
+     * @return Elements read with the adapter (null elements kept, as Gson does), or null for a JSON null
+     */
+    public static <T> List<T> readList(JsonReader reader, TypeAdapter<T> elementAdapter) throws IOException {
+        if (!beginArray(reader)) {
+            return null;
+        }
+
+        List<T> list = new ArrayList<>();
+        while (reader.hasNext()) {
+            list.add(elementAdapter.read(reader));
+        }
+        reader.endArray();
+        return list;
+    }
+
+    public static <T> void writeList(JsonWriter writer, List<T> list, TypeAdapter<T> elementAdapter)
+            throws IOException {
+        if (list == null) {
+            writer.nullValue();
+            return;
+        }
+
+        writer.beginArray();
+        for (T element : list) {
+            elementAdapter.write(writer, element);
+        }
+        writer.endArray();
+    }
+}
@@ -0,0 +1,93 @@
+package com.sendajapan.sendasnap.data.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.sendajapan.sendasnap.models.LoginData;
+import com.sendajapan.sendasnap.models.LoginResponse;
+
+import java.io.IOException;
+
+final class LoginResponseAdapter extends TypeAdapter<LoginResponse> {
+
+    static final LoginResponseAdapter INSTANCE = new LoginResponseAdapter();
+
+    @Override
+    public void write(JsonWriter out, LoginResponse response) throws IOException {
+        if (response == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("success").value(response.getSuccess());
+        out.name("message").value(response.getMessage());
+        out.name("data");
+        LoginData data = response.getData();
+        if (data == null) {
+            out.nullValue();
+        } else {
+            out.beginObject();
+            out.name("user");
+            UserDataAdapter.INSTANCE.write(out, data.getUser());
+            out.name("token").value(data.getToken());
+            out.endObject();
+        }
+        out.name("meta");
+        MetaDataAdapter.INSTANCE.write(out, response.getMeta());
+        out.endObject();
+    }
+
+    @Override
+    public LoginResponse read(JsonReader in) throws IOException {
+        if (!JsonValues.beginObject(in)) {
+            return null;
+        }
+
+        LoginResponse response = new LoginResponse();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "success":
+                    response.setSuccess(JsonValues.nextBoolean(in));
+                    break;
+                case "message":
+                    response.setMessage(JsonValues.nextString(in));
+                    break;
+                case "data":
+                    response.setData(readData(in));
+                    break;
+                case "meta":
+                    response.setMeta(MetaDataAdapter.INSTANCE.read(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return response;
+    }
+
+    private LoginData readData(JsonReader in) throws IOException {
+        if (!JsonValues.beginObject(in)) {
+            return null;
+        }
+
+        LoginData data = new LoginData();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "user":
+                    data.setUser(UserDataAdapter.INSTANCE.read(in));
+                    break;
+                case "token":
+                    data.setToken(JsonValues.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return data;
+    }
+}
@@ -0,0 +1,43 @@
+package com.sendajapan.sendasnap.data.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.sendajapan.sendasnap.models.MetaData;
+
+import java.io.IOException;
+
+final class MetaDataAdapter extends TypeAdapter<MetaData> {
+
+    static final MetaDataAdapter INSTANCE = new MetaDataAdapter();
+
+    @Override
+    public void write(JsonWriter out, MetaData meta) throws IOException {
+        if (meta == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("timestamp").value(meta.getTimestamp());
+        out.endObject();
+    }
+
+    @Override
+    public MetaData read(JsonReader in) throws IOException {
+        if (!JsonValues.beginObject(in)) {
+            return null;
+        }
+
+        MetaData meta = new MetaData();
+        while (in.hasNext()) {
+            if ("timestamp".equals(in.nextName())) {
+                meta.setTimestamp(JsonValues.nextString(in));
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return meta;
+    }
+}
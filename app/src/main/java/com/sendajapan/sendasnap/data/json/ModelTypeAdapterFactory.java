@@ -0,0 +1,57 @@
+package com.sendajapan.sendasnap.data.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.sendajapan.sendasnap.data.dto.AttachmentDto;
+import com.sendajapan.sendasnap.data.dto.TaskDto;
+import com.sendajapan.sendasnap.data.dto.TaskResponseDto;
+import com.sendajapan.sendasnap.data.dto.UserDto;
+import com.sendajapan.sendasnap.models.ApiResponse;
+import com.sendajapan.sendasnap.models.ConsigneeDetail;
+import com.sendajapan.sendasnap.models.LoginResponse;
+import com.sendajapan.sendasnap.models.MetaData;
+import com.sendajapan.sendasnap.models.UserData;
+import com.sendajapan.sendasnap.models.Vehicle;
+import com.sendajapan.sendasnap.models.VehicleSearchResponse;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Supplies hand-written adapters for the models parsed on hot paths, so they need neither
+ * reflection nor field names that survive R8. Other types fall through to Gson's defaults.
+ */
+public class ModelTypeAdapterFactory implements TypeAdapterFactory {
+
+    private final Map<Class<?>, TypeAdapter<?>> adapters = new HashMap<>();
+
+    public ModelTypeAdapterFactory() {
+        adapters.put(UserData.class, UserDataAdapter.INSTANCE);
+        adapters.put(UserDto.class, UserDtoAdapter.INSTANCE);
+        adapters.put(TaskDto.class, TaskDtoAdapter.INSTANCE);
+        adapters.put(TaskResponseDto.class, TaskResponseDtoAdapter.INSTANCE);
+        adapters.put(AttachmentDto.class, AttachmentDtoAdapter.INSTANCE);
+        adapters.put(Vehicle.class, VehicleAdapter.INSTANCE);
+        adapters.put(ConsigneeDetail.class, ConsigneeDetailAdapter.INSTANCE);
+        adapters.put(VehicleSearchResponse.class, VehicleSearchResponseAdapter.INSTANCE);
+        adapters.put(LoginResponse.class, LoginResponseAdapter.INSTANCE);
+        adapters.put(MetaData.class, MetaDataAdapter.INSTANCE);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (rawType == ApiResponse.class) {
+            Type dataType = type.getType() instanceof ParameterizedType
+                    ? ((ParameterizedType) type.getType()).getActualTypeArguments()[0]
+                    : Object.class;
+            return (TypeAdapter<T>) new ApiResponseAdapter<>(gson.getAdapter(TypeToken.get(dataType)));
+        }
+        return (TypeAdapter<T>) adapters.get(rawType);
+    }
+}
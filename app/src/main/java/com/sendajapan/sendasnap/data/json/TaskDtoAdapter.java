@@ -0,0 +1,101 @@
+package com.sendajapan.sendasnap.data.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.sendajapan.sendasnap.data.dto.TaskDto;
+
+import java.io.IOException;
+
+final class TaskDtoAdapter extends TypeAdapter<TaskDto> {
+
+    static final TaskDtoAdapter INSTANCE = new TaskDtoAdapter();
+
+    @Override
+    public void write(JsonWriter out, TaskDto task) throws IOException {
+        if (task == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("id").value(task.getId());
+        out.name("title").value(task.getTitle());
+        out.name("description").value(task.getDescription());
+        out.name("status").value(task.getStatus());
+        out.name("priority").value(task.getPriority());
+        out.name("work_date").value(task.getWorkDate());
+        out.name("work_time").value(task.getWorkTime());
+        out.name("due_date").value(task.getDueDate());
+        out.name("creator");
+        UserDtoAdapter.INSTANCE.write(out, task.getCreator());
+        out.name("assigned_users");
+        JsonValues.writeList(out, task.getAssignedUsers(), UserDtoAdapter.INSTANCE);
+        out.name("attachments");
+        JsonValues.writeList(out, task.getAttachments(), AttachmentDtoAdapter.INSTANCE);
+        out.name("created_at").value(task.getCreatedAt());
+        out.name("updated_at").value(task.getUpdatedAt());
+        out.name("completed_at").value(task.getCompletedAt());
+        out.endObject();
+    }
+
+    @Override
+    public TaskDto read(JsonReader in) throws IOException {
+        if (!JsonValues.beginObject(in)) {
+            return null;
+        }
+
+        TaskDto task = new TaskDto();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    task.setId(JsonValues.nextInteger(in));
+                    break;
+                case "title":
+                    task.setTitle(JsonValues.nextString(in));
+                    break;
+                case "description":
+                    task.setDescription(JsonValues.nextString(in));
+                    break;
+                case "status":
+                    task.setStatus(JsonValues.nextString(in));
+                    break;
+                case "priority":
+                    task.setPriority(JsonValues.nextString(in));
+                    break;
+                case "work_date":
+                    task.setWorkDate(JsonValues.nextString(in));
+                    break;
+                case "work_time":
+                    task.setWorkTime(JsonValues.nextString(in));
+                    break;
+                case "due_date":
+                    task.setDueDate(JsonValues.nextString(in));
+                    break;
+                case "creator":
+                    task.setCreator(UserDtoAdapter.INSTANCE.read(in));
+                    break;
+                case "assigned_users":
+                    task.setAssignedUsers(JsonValues.readList(in, UserDtoAdapter.INSTANCE));
+                    break;
+                case "attachments":
+                    task.setAttachments(JsonValues.readList(in, AttachmentDtoAdapter.INSTANCE));
+                    break;
+                case "created_at":
+                    task.setCreatedAt(JsonValues.nextString(in));
+                    break;
+                case "updated_at":
+                    task.setUpdatedAt(JsonValues.nextString(in));
+                    break;
+                case "completed_at":
+                    task.setCompletedAt(JsonValues.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return task;
+    }
+}
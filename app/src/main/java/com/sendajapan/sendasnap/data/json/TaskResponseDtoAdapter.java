@@ -0,0 +1,44 @@
+package com.sendajapan.sendasnap.data.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.sendajapan.sendasnap.data.dto.TaskResponseDto;
+
+import java.io.IOException;
+
+final class TaskResponseDtoAdapter extends TypeAdapter<TaskResponseDto> {
+
+    static final TaskResponseDtoAdapter INSTANCE = new TaskResponseDtoAdapter();
+
+    @Override
+    public void write(JsonWriter out, TaskResponseDto response) throws IOException {
+        if (response == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("task");
+        TaskDtoAdapter.INSTANCE.write(out, response.getTask());
+        out.endObject();
+    }
+
+    @Override
+    public TaskResponseDto read(JsonReader in) throws IOException {
+        if (!JsonValues.beginObject(in)) {
+            return null;
+        }
+
+        TaskResponseDto response = new TaskResponseDto();
+        while (in.hasNext()) {
+            if ("task".equals(in.nextName())) {
+                response.setTask(TaskDtoAdapter.INSTANCE.read(in));
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return response;
+    }
+}
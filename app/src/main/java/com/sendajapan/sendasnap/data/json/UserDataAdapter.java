@@ -0,0 +1,100 @@
+package com.sendajapan.sendasnap.data.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.sendajapan.sendasnap.models.UserData;
+
+import java.io.IOException;
+
+/**
+ * Also used for the signed-in user stored in SharedPreferences, so {@code loggedIn} is kept
+ * under the field name Gson's reflective adapter used.
+ */
+final class UserDataAdapter extends TypeAdapter<UserData> {
+
+    static final UserDataAdapter INSTANCE = new UserDataAdapter();
+
+    @Override
+    public void write(JsonWriter out, UserData user) throws IOException {
+        if (user == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("id").value(user.getId());
+        out.name("name").value(user.getName());
+        out.name("email").value(user.getEmail());
+        out.name("email_verified_at").value(user.getEmailVerifiedAt());
+        out.name("role").value(user.getRole());
+        out.name("phone").value(user.getPhone());
+        out.name("avis_id").value(user.getAvisId());
+        out.name("avatar").value(user.getAvatar());
+        out.name("avatar_url").value(user.getAvatarUrl());
+        out.name("created_at").value(user.getCreatedAt());
+        out.name("updated_at").value(user.getUpdatedAt());
+        out.name("loggedIn").value(user.isLoggedIn());
+        out.endObject();
+    }
+
+    @Override
+    public UserData read(JsonReader in) throws IOException {
+        if (!JsonValues.beginObject(in)) {
+            return null;
+        }
+
+        UserData user = new UserData();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    Integer id = JsonValues.nextInteger(in);
+                    if (id != null) {
+                        user.setId(id);
+                    }
+                    break;
+                case "name":
+                    user.setName(JsonValues.nextString(in));
+                    break;
+                case "email":
+                    user.setEmail(JsonValues.nextString(in));
+                    break;
+                case "email_verified_at":
+                    user.setEmailVerifiedAt(JsonValues.nextString(in));
+                    break;
+                case "role":
+                    user.setRole(JsonValues.nextString(in));
+                    break;
+                case "phone":
+                    user.setPhone(JsonValues.nextString(in));
+                    break;
+                case "avis_id":
+                    user.setAvisId(JsonValues.nextString(in));
+                    break;
+                case "avatar":
+                    user.setAvatar(JsonValues.nextString(in));
+                    break;
+                case "avatar_url":
+                    user.setAvatarUrl(JsonValues.nextString(in));
+                    break;
+                case "created_at":
+                    user.setCreatedAt(JsonValues.nextString(in));
+                    break;
+                case "updated_at":
+                    user.setUpdatedAt(JsonValues.nextString(in));
+                    break;
+                case "loggedIn":
+                    Boolean loggedIn = JsonValues.nextBoolean(in);
+                    if (loggedIn != null) {
+                        user.setLoggedIn(loggedIn);
+                    }
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return user;
+    }
+}
@@ -0,0 +1,86 @@
+package com.sendajapan.sendasnap.data.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.sendajapan.sendasnap.data.dto.UserDto;
+
+import java.io.IOException;
+
+final class UserDtoAdapter extends TypeAdapter<UserDto> {
+
+    static final UserDtoAdapter INSTANCE = new UserDtoAdapter();
+
+    @Override
+    public void write(JsonWriter out, UserDto user) throws IOException {
+        if (user == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("id").value(user.getId());
+        out.name("name").value(user.getName());
+        out.name("role").value(user.getRole());
+        out.name("email").value(user.getEmail());
+        out.name("phone").value(user.getPhone());
+        out.name("avis_id").value(user.getAvisId());
+        out.name("avatar").value(user.getAvatar());
+        out.name("avatar_url").value(user.getAvatarUrl());
+        out.name("email_verified_at").value(user.getEmailVerifiedAt());
+        out.name("created_at").value(user.getCreatedAt());
+        out.name("updated_at").value(user.getUpdatedAt());
+        out.endObject();
+    }
+
+    @Override
+    public UserDto read(JsonReader in) throws IOException {
+        if (!JsonValues.beginObject(in)) {
+            return null;
+        }
+
+        UserDto user = new UserDto();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    user.setId(JsonValues.nextInteger(in));
+                    break;
+                case "name":
+                    user.setName(JsonValues.nextString(in));
+                    break;
+                case "role":
+                    user.setRole(JsonValues.nextString(in));
+                    break;
+                case "email":
+                    user.setEmail(JsonValues.nextString(in));
+                    break;
+                case "phone":
+                    user.setPhone(JsonValues.nextString(in));
+                    break;
+                case "avis_id":
+                    user.setAvisId(JsonValues.nextString(in));
+                    break;
+                case "avatar":
+                    user.setAvatar(JsonValues.nextString(in));
+                    break;
+                case "avatar_url":
+                    user.setAvatarUrl(JsonValues.nextString(in));
+                    break;
+                case "email_verified_at":
+                    user.setEmailVerifiedAt(JsonValues.nextString(in));
+                    break;
+                case "created_at":
+                    user.setCreatedAt(JsonValues.nextString(in));
+                    break;
+                case "updated_at":
+                    user.setUpdatedAt(JsonValues.nextString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return user;
+    }
+}
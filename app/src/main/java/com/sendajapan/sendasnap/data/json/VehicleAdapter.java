@@ -0,0 +1,173 @@
+package com.sendajapan.sendasnap.data.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.sendajapan.sendasnap.models.Vehicle;
+
+import java.io.IOException;
+
+/**
+ * Reads both the app's own field names (used by the search API and the stored search history)
+ * and the raw API names declared as {@code alternate} on {@link Vehicle}; writes the app's names.
+ */
+final class VehicleAdapter extends TypeAdapter<Vehicle> {
+
+    static final VehicleAdapter INSTANCE = new VehicleAdapter();
+
+    private static final String CHASSIS_MODEL_PLACEHOLDER = "N/A";
+
+    @Override
+    public void write(JsonWriter out, Vehicle vehicle) throws IOException {
+        if (vehicle == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("id").value(vehicle.getId());
+        out.name("serialNumber").value(vehicle.getSerialNumber());
+        out.name("make").value(vehicle.getMake());
+        out.name("model").value(vehicle.getModel());
+        // The getter substitutes a placeholder for an empty value; that one is not stored.
+        String chassisModel = vehicle.getChassisModel();
+        out.name("chassisModel").value(CHASSIS_MODEL_PLACEHOLDER.equals(chassisModel) ? null : chassisModel);
+        out.name("cc").value(vehicle.getCc());
+        out.name("year").value(vehicle.getYear());
+        out.name("color").value(vehicle.getColor());
+        out.name("vehicleBuyDate").value(vehicle.getVehicleBuyDate());
+        out.name("auctionShipNumber").value(vehicle.getAuctionShipNumber());
+        out.name("netWeight").value(vehicle.getNetWeight());
+        out.name("area").value(vehicle.getArea());
+        out.name("length").value(vehicle.getLength());
+        out.name("width").value(vehicle.getWidth());
+        out.name("height").value(vehicle.getHeight());
+        out.name("plateNumber").value(vehicle.getPlateNumber());
+        out.name("buyingPrice").value(vehicle.getBuyingPrice());
+        out.name("expectedYardDate").value(vehicle.getExpectedYardDate());
+        out.name("riksoFrom").value(vehicle.getRiksoFrom());
+        out.name("riksoTo").value(vehicle.getRiksoTo());
+        out.name("riksoCost").value(vehicle.getRiksoCost());
+        out.name("riksoCompany").value(vehicle.getRiksoCompany());
+        out.name("images");
+        JsonValues.writeList(out, vehicle.getVehiclePhotos(), JsonValues.STRING);
+        out.name("auctionSheet").value(vehicle.getAuctionSheet());
+        out.name("tohonCopy").value(vehicle.getTohonCopy());
+        out.name("consigneeDetails");
+        JsonValues.writeList(out, vehicle.getConsigneeDetails(), ConsigneeDetailAdapter.INSTANCE);
+        out.endObject();
+    }
+
+    @Override
+    public Vehicle read(JsonReader in) throws IOException {
+        if (!JsonValues.beginObject(in)) {
+            return null;
+        }
+
+        Vehicle vehicle = new Vehicle();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                case "vehicle_id":
+                    vehicle.setId(JsonValues.nextString(in));
+                    break;
+                case "serialNumber":
+                case "chassis_number":
+                    vehicle.setSerialNumber(JsonValues.nextString(in));
+                    break;
+                case "make":
+                    vehicle.setMake(JsonValues.nextString(in));
+                    break;
+                case "model":
+                    vehicle.setModel(JsonValues.nextString(in));
+                    break;
+                case "chassisModel":
+                    vehicle.setChassisModel(JsonValues.nextString(in));
+                    break;
+                case "cc":
+                case "veh_cc":
+                    vehicle.setCc(JsonValues.nextString(in));
+                    break;
+                case "year":
+                case "veh_year":
+                    vehicle.setYear(JsonValues.nextString(in));
+                    break;
+                case "color":
+                case "veh_color":
+                    vehicle.setColor(JsonValues.nextString(in));
+                    break;
+                case "vehicleBuyDate":
+                case "veh_buy_date":
+                    vehicle.setVehicleBuyDate(JsonValues.nextString(in));
+                    break;
+                case "auctionShipNumber":
+                case "veh_auc_ship_number":
+                    vehicle.setAuctionShipNumber(JsonValues.nextString(in));
+                    break;
+                case "netWeight":
+                case "veh_net_weight":
+                    vehicle.setNetWeight(JsonValues.nextString(in));
+                    break;
+                case "area":
+                    vehicle.setArea(JsonValues.nextString(in));
+                    break;
+                case "length":
+                case "veh_l":
+                    vehicle.setLength(JsonValues.nextString(in));
+                    break;
+                case "width":
+                case "veh_w":
+                    vehicle.setWidth(JsonValues.nextString(in));
+                    break;
+                case "height":
+                case "veh_h":
+                    vehicle.setHeight(JsonValues.nextString(in));
+                    break;
+                case "plateNumber":
+                    vehicle.setPlateNumber(JsonValues.nextString(in));
+                    break;
+                case "buyingPrice":
+                case "veh_buy_price":
+                    vehicle.setBuyingPrice(JsonValues.nextString(in));
+                    break;
+                case "expectedYardDate":
+                case "yard_date_in":
+                    vehicle.setExpectedYardDate(JsonValues.nextString(in));
+                    break;
+                case "riksoFrom":
+                case "rikso_from_place_id":
+                    vehicle.setRiksoFrom(JsonValues.nextString(in));
+                    break;
+                case "riksoTo":
+                case "rikso_to_place_id":
+                    vehicle.setRiksoTo(JsonValues.nextString(in));
+                    break;
+                case "riksoCost":
+                case "rikso_cost":
+                    vehicle.setRiksoCost(JsonValues.nextString(in));
+                    break;
+                case "riksoCompany":
+                case "rikso_company":
+                    vehicle.setRiksoCompany(JsonValues.nextString(in));
+                    break;
+                case "images":
+                    vehicle.setVehiclePhotos(JsonValues.readList(in, JsonValues.STRING));
+                    break;
+                case "auctionSheet":
+                    vehicle.setAuctionSheet(JsonValues.nextString(in));
+                    break;
+                case "tohonCopy":
+                    vehicle.setTohonCopy(JsonValues.nextString(in));
+                    break;
+                case "consigneeDetails":
+                    vehicle.setConsigneeDetails(JsonValues.readList(in, ConsigneeDetailAdapter.INSTANCE));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return vehicle;
+    }
+}
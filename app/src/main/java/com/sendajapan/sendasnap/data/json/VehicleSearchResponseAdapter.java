@@ -0,0 +1,85 @@
+package com.sendajapan.sendasnap.data.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.sendajapan.sendasnap.models.VehicleSearchResponse;
+
+import java.io.IOException;
+
+final class VehicleSearchResponseAdapter extends TypeAdapter<VehicleSearchResponse> {
+
+    static final VehicleSearchResponseAdapter INSTANCE = new VehicleSearchResponseAdapter();
+
+    @Override
+    public void write(JsonWriter out, VehicleSearchResponse response) throws IOException {
+        if (response == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("success").value(response.getSuccess());
+        out.name("message").value(response.getMessage());
+        out.name("data");
+        VehicleSearchResponse.VehicleSearchData data = response.getData();
+        if (data == null) {
+            out.nullValue();
+        } else {
+            out.beginObject();
+            out.name("vehicles");
+            JsonValues.writeList(out, data.getVehicles(), VehicleAdapter.INSTANCE);
+            out.endObject();
+        }
+        out.name("meta");
+        MetaDataAdapter.INSTANCE.write(out, response.getMeta());
+        out.endObject();
+    }
+
+    @Override
+    public VehicleSearchResponse read(JsonReader in) throws IOException {
+        if (!JsonValues.beginObject(in)) {
+            return null;
+        }
+
+        VehicleSearchResponse response = new VehicleSearchResponse();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "success":
+                    response.setSuccess(JsonValues.nextBoolean(in));
+                    break;
+                case "message":
+                    response.setMessage(JsonValues.nextString(in));
+                    break;
+                case "data":
+                    response.setData(readData(in));
+                    break;
+                case "meta":
+                    response.setMeta(MetaDataAdapter.INSTANCE.read(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return response;
+    }
+
+    private VehicleSearchResponse.VehicleSearchData readData(JsonReader in) throws IOException {
+        if (!JsonValues.beginObject(in)) {
+            return null;
+        }
+
+        VehicleSearchResponse.VehicleSearchData data = new VehicleSearchResponse.VehicleSearchData();
+        while (in.hasNext()) {
+            if ("vehicles".equals(in.nextName())) {
+                data.setVehicles(JsonValues.readList(in, VehicleAdapter.INSTANCE));
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return data;
+    }
+}
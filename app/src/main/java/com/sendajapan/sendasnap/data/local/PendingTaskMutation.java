@@ -0,0 +1,190 @@
+package com.sendajapan.sendasnap.data.local;
+
+import com.sendajapan.sendasnap.data.json.GsonProvider;
+import com.sendajapan.sendasnap.data.mapper.TaskMapper;
+import com.sendajapan.sendasnap.domain.repository.TaskRepository;
+import com.sendajapan.sendasnap.models.Task;
+import com.sendajapan.sendasnap.models.UserData;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A task change made on this device that the API has not confirmed yet. The change is already
+ * applied to the local store; the snapshot is the task as it was before the change and is
+ * restored when the API rejects it. The client ID is sent as the idempotency key, so a replay
+ * of a request the server already applied is recognised.
+ */
+public final class PendingTaskMutation {
+
+    public enum Type {
+        STATUS, UPDATE, DELETE
+    }
+
+    private final long seq;
+    private final String clientId;
+    private final int taskId;
+    private final Type type;
+    private final String payload;
+    private final Task snapshot;
+
+    PendingTaskMutation(long seq, String clientId, int taskId, Type type, String payload, Task snapshot) {
+        this.seq = seq;
+        this.clientId = clientId;
+        this.taskId = taskId;
+        this.type = type;
+        this.payload = payload;
+        this.snapshot = snapshot;
+    }
+
+    public static PendingTaskMutation status(Task snapshot, Task.TaskStatus status) {
+        return create(snapshot, Type.STATUS, status.name().toLowerCase());
+    }
+
+    public static PendingTaskMutation update(Task snapshot, TaskRepository.UpdateTaskParams params) {
+        return create(snapshot, Type.UPDATE, GsonProvider.get().toJson(params));
+    }
+
+    public static PendingTaskMutation delete(Task snapshot) {
+        return create(snapshot, Type.DELETE, null);
+    }
+
+    /**
+     * The snapshot is copied, as the caller applies the change to the task it passed in.
+     */
+    private static PendingTaskMutation create(Task snapshot, Type type, String payload) {
+        return new PendingTaskMutation(0, UUID.randomUUID().toString(), snapshot.getId(), type, payload,
+                copyOf(snapshot));
+    }
+
+    private static Task copyOf(Task task) {
+        return GsonProvider.get().fromJson(GsonProvider.get().toJson(task), Task.class);
+    }
+
+    /**
+     * @return Position in the outbox; 0 until stored
+     */
+    public long getSeq() {
+        return seq;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public int getTaskId() {
+        return taskId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return Status string for {@link Type#STATUS}, update params as JSON for {@link Type#UPDATE}
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    public Task getSnapshot() {
+        return snapshot;
+    }
+
+    public TaskRepository.UpdateTaskParams getUpdateParams() {
+        return GsonProvider.get().fromJson(payload, TaskRepository.UpdateTaskParams.class);
+    }
+
+    /**
+     * Apply this change to a task, the same way the API would.
+     *
+     * @param task Task to change in place
+     * @return The changed task, or null if this change deletes it
+     */
+    public Task applyTo(Task task) {
+        switch (type) {
+            case STATUS:
+                task.setStatus(TaskMapper.parseStatus(payload));
+                return task;
+            case UPDATE:
+                applyUpdate(task, getUpdateParams());
+                return task;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Apply pending changes to tasks returned by the API, so a refresh shows the local state
+     * until the outbox has been replayed.
+     *
+     * @param tasks Tasks from the API; left unchanged, as they may be shared with other callers
+     * @param mutations Pending changes in outbox order
+     * @return The tasks with the changes applied to copies and deleted tasks removed
+     */
+    public static List<Task> overlay(List<Task> tasks, List<PendingTaskMutation> mutations) {
+        if (mutations.isEmpty()) {
+            return tasks;
+        }
+
+        List<Task> result = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Task current = task;
+            for (PendingTaskMutation mutation : mutations) {
+                if (current != null && mutation.taskId == current.getId()) {
+                    current = mutation.applyTo(current == task ? copyOf(task) : current);
+                }
+            }
+            if (current != null) {
+                result.add(current);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Blank fields are not sent by the multipart form and therefore left unchanged here too.
+     * Assignees can only be removed locally; new ones appear once the API returns the task.
+     */
+    private static void applyUpdate(Task task, TaskRepository.UpdateTaskParams params) {
+        if (params == null) {
+            return;
+        }
+
+        if (hasValue(params.title)) {
+            task.setTitle(params.title);
+        }
+        if (hasValue(params.description)) {
+            task.setDescription(params.description);
+        }
+        if (hasValue(params.workDate)) {
+            task.setWorkDate(params.workDate);
+        }
+        if (hasValue(params.workTime)) {
+            task.setWorkTime(params.workTime);
+        }
+        if (hasValue(params.priority)) {
+            task.setPriority(TaskMapper.parsePriority(params.priority));
+        }
+        if (hasValue(params.dueDate)) {
+            task.setDueDate(params.dueDate);
+        }
+        if (params.assignedTo != null) {
+            Set<Integer> assignedIds = new HashSet<>(params.assignedTo);
+            List<UserData> assignees = new ArrayList<>();
+            for (UserData user : task.getAssignees()) {
+                if (user != null && assignedIds.contains(user.getId())) {
+                    assignees.add(user);
+                }
+            }
+            task.setAssignees(assignees);
+        }
+    }
+
+    private static boolean hasValue(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,84 @@
+package com.sendajapan.sendasnap.data.local;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+/**
+ * SQLite schema for the local task store.
+ * Tasks are stored as their JSON form next to the columns used for lookups;
+ * {@code task_ranges} records which date ranges have been fetched from the API and
+ * {@code task_outbox} holds task changes that are not yet confirmed by the API.
+ */
+public class TaskDatabaseHelper extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "tasks.db";
+    private static final int DATABASE_VERSION = 2;
+
+    static final String TABLE_TASKS = "tasks";
+    static final String TABLE_RANGES = "task_ranges";
+    static final String TABLE_OUTBOX = "task_outbox";
+
+    static final String COLUMN_ID = "id";
+    static final String COLUMN_WORK_DATE = "work_date";
+    static final String COLUMN_POSITION = "position";
+    static final String COLUMN_UPDATED_AT = "updated_at";
+    static final String COLUMN_JSON = "json";
+    static final String COLUMN_FROM_DATE = "from_date";
+    static final String COLUMN_TO_DATE = "to_date";
+    static final String COLUMN_FETCHED_AT = "fetched_at";
+    static final String COLUMN_SEQ = "seq";
+    static final String COLUMN_CLIENT_ID = "client_id";
+    static final String COLUMN_TASK_ID = "task_id";
+    static final String COLUMN_TYPE = "type";
+    static final String COLUMN_PAYLOAD = "payload";
+    static final String COLUMN_SNAPSHOT = "snapshot";
+
+    private static TaskDatabaseHelper instance;
+
+    private TaskDatabaseHelper(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    public static synchronized TaskDatabaseHelper getInstance(Context context) {
+        if (instance == null) {
+            instance = new TaskDatabaseHelper(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_TASKS + " ("
+                + COLUMN_ID + " INTEGER PRIMARY KEY, "
+                + COLUMN_WORK_DATE + " TEXT, "
+                + COLUMN_POSITION + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_UPDATED_AT + " TEXT, "
+                + COLUMN_JSON + " TEXT NOT NULL)");
+        db.execSQL("CREATE INDEX index_tasks_work_date ON " + TABLE_TASKS
+                + " (" + COLUMN_WORK_DATE + ", " + COLUMN_POSITION + ")");
+        db.execSQL("CREATE TABLE " + TABLE_RANGES + " ("
+                + COLUMN_FROM_DATE + " TEXT NOT NULL, "
+                + COLUMN_TO_DATE + " TEXT NOT NULL, "
+                + COLUMN_FETCHED_AT + " INTEGER NOT NULL, "
+                + "PRIMARY KEY (" + COLUMN_FROM_DATE + ", " + COLUMN_TO_DATE + "))");
+        createOutboxTable(db);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            createOutboxTable(db);
+        }
+    }
+
+    private void createOutboxTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_OUTBOX + " ("
+                + COLUMN_SEQ + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + COLUMN_CLIENT_ID + " TEXT NOT NULL UNIQUE, "
+                + COLUMN_TASK_ID + " INTEGER NOT NULL, "
+                + COLUMN_TYPE + " TEXT NOT NULL, "
+                + COLUMN_PAYLOAD + " TEXT, "
+                + COLUMN_SNAPSHOT + " TEXT)");
+    }
+}
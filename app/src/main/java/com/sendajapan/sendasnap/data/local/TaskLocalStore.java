@@ -0,0 +1,266 @@
+package com.sendajapan.sendasnap.data.local;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.google.gson.Gson;
+import com.sendajapan.sendasnap.data.json.GsonProvider;
+import com.sendajapan.sendasnap.models.Task;
+import com.sendajapan.sendasnap.utils.TaskFilter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local copy of the tasks returned by the list API, keyed by work date.
+ * Recently read ranges are also kept in memory so revisiting a day needs no disk access.
+ * All methods except {@link #peek} touch SQLite and must be called off the main thread.
+ */
+public class TaskLocalStore {
+
+    private static final int MAX_MEMORY_RANGES = 14;
+
+    private static TaskLocalStore instance;
+
+    private final TaskDatabaseHelper databaseHelper;
+    private final Gson gson = GsonProvider.get();
+    private final Map<String, List<Task>> memoryRanges = new LinkedHashMap<String, List<Task>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<Task>> eldest) {
+            return size() > MAX_MEMORY_RANGES;
+        }
+    };
+
+    private TaskLocalStore(Context context) {
+        this.databaseHelper = TaskDatabaseHelper.getInstance(context);
+    }
+
+    public static synchronized TaskLocalStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new TaskLocalStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Get a range from memory only.
+     *
+     * @param fromDate First work date (yyyy-MM-dd)
+     * @param toDate Last work date (yyyy-MM-dd)
+     * @return Copy of the cached tasks, or null if the range is not in memory
+     */
+    public synchronized List<Task> peek(String fromDate, String toDate) {
+        List<Task> tasks = memoryRanges.get(rangeKey(fromDate, toDate));
+        return tasks != null ? new ArrayList<>(tasks) : null;
+    }
+
+    /**
+     * Read a range from SQLite. The range may be put together from several fetched ranges.
+     *
+     * @param fromDate First work date (yyyy-MM-dd)
+     * @param toDate Last work date (yyyy-MM-dd)
+     * @return Stored tasks ordered as the API returned them, or null if some day of the range
+     * was never fetched
+     */
+    public List<Task> read(String fromDate, String toDate) {
+        SQLiteDatabase db = databaseHelper.getReadableDatabase();
+        if (!isRangeCovered(db, fromDate, toDate)) {
+            return null;
+        }
+
+        List<Task> tasks = new ArrayList<>();
+        try (Cursor cursor = db.query(TaskDatabaseHelper.TABLE_TASKS,
+                new String[]{TaskDatabaseHelper.COLUMN_JSON},
+                TaskDatabaseHelper.COLUMN_WORK_DATE + " BETWEEN ? AND ?",
+                new String[]{fromDate, toDate},
+                null, null,
+                TaskDatabaseHelper.COLUMN_WORK_DATE + ", " + TaskDatabaseHelper.COLUMN_POSITION)) {
+            while (cursor.moveToNext()) {
+                Task task = gson.fromJson(cursor.getString(0), Task.class);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+        }
+
+        rememberRange(fromDate, toDate, tasks);
+        return new ArrayList<>(tasks);
+    }
+
+    /**
+     * Read one task from SQLite.
+     *
+     * @param taskId Task ID
+     * @return The stored task, or null if it is not stored
+     */
+    public Task find(int taskId) {
+        try (Cursor cursor = databaseHelper.getReadableDatabase().query(TaskDatabaseHelper.TABLE_TASKS,
+                new String[]{TaskDatabaseHelper.COLUMN_JSON},
+                TaskDatabaseHelper.COLUMN_ID + " = ?",
+                new String[]{String.valueOf(taskId)},
+                null, null, null)) {
+            return cursor.moveToFirst() ? gson.fromJson(cursor.getString(0), Task.class) : null;
+        }
+    }
+
+    /**
+     * Replace a fetched range with the API result. Only rows whose content changed are
+     * rewritten, and rows no longer returned for the range are deleted.
+     *
+     * @param fromDate First work date (yyyy-MM-dd)
+     * @param toDate Last work date (yyyy-MM-dd)
+     * @param tasks Tasks returned by the API for the range
+     */
+    public void replaceRange(String fromDate, String toDate, List<Task> tasks) {
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            Map<Integer, String> existing = readStoredVersions(db, fromDate, toDate);
+            for (int position = 0; position < tasks.size(); position++) {
+                Task task = tasks.get(position);
+                String storedVersion = existing.remove(task.getId());
+                if (storedVersion == null || !storedVersion.equals(version(task, position))) {
+                    db.insertWithOnConflict(TaskDatabaseHelper.TABLE_TASKS, null,
+                            toValues(task, position), SQLiteDatabase.CONFLICT_REPLACE);
+                }
+            }
+            for (Integer removedId : existing.keySet()) {
+                deleteRow(db, removedId);
+            }
+
+            ContentValues range = new ContentValues();
+            range.put(TaskDatabaseHelper.COLUMN_FROM_DATE, fromDate);
+            range.put(TaskDatabaseHelper.COLUMN_TO_DATE, toDate);
+            range.put(TaskDatabaseHelper.COLUMN_FETCHED_AT, System.currentTimeMillis());
+            db.insertWithOnConflict(TaskDatabaseHelper.TABLE_RANGES, null, range, SQLiteDatabase.CONFLICT_REPLACE);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        synchronized (this) {
+            memoryRanges.clear();
+        }
+        rememberRange(fromDate, toDate, new ArrayList<>(tasks));
+    }
+
+    /**
+     * Insert or update a single task, e.g. after a create, edit or status change.
+     *
+     * @param task Task returned by the API
+     */
+    public void upsert(Task task) {
+        if (task == null) {
+            return;
+        }
+
+        databaseHelper.getWritableDatabase().insertWithOnConflict(TaskDatabaseHelper.TABLE_TASKS, null,
+                toValues(task, Integer.MAX_VALUE), SQLiteDatabase.CONFLICT_REPLACE);
+        synchronized (this) {
+            memoryRanges.clear();
+        }
+    }
+
+    /**
+     * Remove a deleted task.
+     *
+     * @param taskId Task ID
+     */
+    public void delete(int taskId) {
+        deleteRow(databaseHelper.getWritableDatabase(), taskId);
+        synchronized (this) {
+            memoryRanges.clear();
+        }
+    }
+
+    /**
+     * Remove every stored task and fetched range, e.g. on logout.
+     */
+    public void clear() {
+        synchronized (this) {
+            memoryRanges.clear();
+        }
+
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TaskDatabaseHelper.TABLE_TASKS, null, null);
+            db.delete(TaskDatabaseHelper.TABLE_RANGES, null, null);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private synchronized void rememberRange(String fromDate, String toDate, List<Task> tasks) {
+        memoryRanges.put(rangeKey(fromDate, toDate), tasks);
+    }
+
+    /**
+     * @return true if every day from {@code fromDate} to {@code toDate} lies in a fetched range
+     */
+    private boolean isRangeCovered(SQLiteDatabase db, String fromDate, String toDate) {
+        LocalDate firstUncovered = LocalDate.parse(fromDate);
+        LocalDate last = LocalDate.parse(toDate);
+        try (Cursor cursor = db.query(TaskDatabaseHelper.TABLE_RANGES,
+                new String[]{TaskDatabaseHelper.COLUMN_FROM_DATE, TaskDatabaseHelper.COLUMN_TO_DATE},
+                TaskDatabaseHelper.COLUMN_FROM_DATE + " <= ? AND " + TaskDatabaseHelper.COLUMN_TO_DATE + " >= ?",
+                new String[]{toDate, fromDate},
+                null, null, TaskDatabaseHelper.COLUMN_FROM_DATE)) {
+            while (cursor.moveToNext() && !firstUncovered.isAfter(last)) {
+                if (LocalDate.parse(cursor.getString(0)).isAfter(firstUncovered)) {
+                    return false;
+                }
+                LocalDate rangeEnd = LocalDate.parse(cursor.getString(1));
+                if (!rangeEnd.isBefore(firstUncovered)) {
+                    firstUncovered = rangeEnd.plusDays(1);
+                }
+            }
+        }
+        return firstUncovered.isAfter(last);
+    }
+
+    private Map<Integer, String> readStoredVersions(SQLiteDatabase db, String fromDate, String toDate) {
+        Map<Integer, String> versions = new HashMap<>();
+        try (Cursor cursor = db.query(TaskDatabaseHelper.TABLE_TASKS,
+                new String[]{TaskDatabaseHelper.COLUMN_ID, TaskDatabaseHelper.COLUMN_UPDATED_AT,
+                        TaskDatabaseHelper.COLUMN_POSITION},
+                TaskDatabaseHelper.COLUMN_WORK_DATE + " BETWEEN ? AND ?",
+                new String[]{fromDate, toDate},
+                null, null, null)) {
+            while (cursor.moveToNext()) {
+                versions.put(cursor.getInt(0), cursor.getString(1) + "#" + cursor.getInt(2));
+            }
+        }
+        return versions;
+    }
+
+    private String version(Task task, int position) {
+        return task.getUpdatedAt() + "#" + position;
+    }
+
+    private ContentValues toValues(Task task, int position) {
+        ContentValues values = new ContentValues();
+        values.put(TaskDatabaseHelper.COLUMN_ID, task.getId());
+        values.put(TaskDatabaseHelper.COLUMN_WORK_DATE, TaskFilter.extractDate(task.getWorkDate()));
+        values.put(TaskDatabaseHelper.COLUMN_POSITION, position);
+        values.put(TaskDatabaseHelper.COLUMN_UPDATED_AT, task.getUpdatedAt());
+        values.put(TaskDatabaseHelper.COLUMN_JSON, gson.toJson(task));
+        return values;
+    }
+
+    private void deleteRow(SQLiteDatabase db, int taskId) {
+        db.delete(TaskDatabaseHelper.TABLE_TASKS, TaskDatabaseHelper.COLUMN_ID + " = ?",
+                new String[]{String.valueOf(taskId)});
+    }
+
+    private String rangeKey(String fromDate, String toDate) {
+        return fromDate + "|" + toDate;
+    }
+}
@@ -0,0 +1,146 @@
+package com.sendajapan.sendasnap.data.local;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.google.gson.Gson;
+import com.sendajapan.sendasnap.data.json.GsonProvider;
+import com.sendajapan.sendasnap.models.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistent queue of {@link PendingTaskMutation}s in the order they were made.
+ * All methods touch SQLite and must be called off the main thread.
+ */
+public class TaskOutboxStore {
+
+    private static final String[] COLUMNS = {
+            TaskDatabaseHelper.COLUMN_SEQ, TaskDatabaseHelper.COLUMN_CLIENT_ID, TaskDatabaseHelper.COLUMN_TASK_ID,
+            TaskDatabaseHelper.COLUMN_TYPE, TaskDatabaseHelper.COLUMN_PAYLOAD, TaskDatabaseHelper.COLUMN_SNAPSHOT
+    };
+
+    private static TaskOutboxStore instance;
+
+    private final TaskDatabaseHelper databaseHelper;
+    private final Gson gson = GsonProvider.get();
+
+    private TaskOutboxStore(Context context) {
+        this.databaseHelper = TaskDatabaseHelper.getInstance(context);
+    }
+
+    public static synchronized TaskOutboxStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new TaskOutboxStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Append a change. A status change that directly follows another status change of the
+     * same task replaces that entry instead: it keeps its place and snapshot but gets the new
+     * status and a new client ID, as the earlier request may already have reached the server.
+     *
+     * @param mutation New change
+     * @return The stored entry
+     */
+    public PendingTaskMutation add(PendingTaskMutation mutation) {
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            PendingTaskMutation stored;
+            PendingTaskMutation last = readLastForTask(db, mutation.getTaskId());
+            if (mutation.getType() == PendingTaskMutation.Type.STATUS && last != null
+                    && last.getType() == PendingTaskMutation.Type.STATUS) {
+                String clientId = UUID.randomUUID().toString();
+                ContentValues values = new ContentValues();
+                values.put(TaskDatabaseHelper.COLUMN_CLIENT_ID, clientId);
+                values.put(TaskDatabaseHelper.COLUMN_PAYLOAD, mutation.getPayload());
+                db.update(TaskDatabaseHelper.TABLE_OUTBOX, values, TaskDatabaseHelper.COLUMN_SEQ + " = ?",
+                        new String[]{String.valueOf(last.getSeq())});
+                stored = new PendingTaskMutation(last.getSeq(), clientId, last.getTaskId(),
+                        PendingTaskMutation.Type.STATUS, mutation.getPayload(), last.getSnapshot());
+            } else {
+                long seq = db.insertOrThrow(TaskDatabaseHelper.TABLE_OUTBOX, null, toValues(mutation));
+                stored = new PendingTaskMutation(seq, mutation.getClientId(), mutation.getTaskId(),
+                        mutation.getType(), mutation.getPayload(), mutation.getSnapshot());
+            }
+            db.setTransactionSuccessful();
+            return stored;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * @return Every pending change, oldest first
+     */
+    public List<PendingTaskMutation> readAll() {
+        List<PendingTaskMutation> mutations = new ArrayList<>();
+        try (Cursor cursor = databaseHelper.getReadableDatabase().query(TaskDatabaseHelper.TABLE_OUTBOX, COLUMNS,
+                null, null, null, null, TaskDatabaseHelper.COLUMN_SEQ)) {
+            while (cursor.moveToNext()) {
+                mutations.add(fromCursor(cursor));
+            }
+        }
+        return mutations;
+    }
+
+    /**
+     * Remove a change the API has accepted. Nothing is removed if a later status change was
+     * merged into the entry while it was being sent, so the newer status is still sent.
+     *
+     * @param mutation Sent change
+     * @return true if the entry was removed
+     */
+    public boolean remove(PendingTaskMutation mutation) {
+        return databaseHelper.getWritableDatabase().delete(TaskDatabaseHelper.TABLE_OUTBOX,
+                TaskDatabaseHelper.COLUMN_SEQ + " = ? AND " + TaskDatabaseHelper.COLUMN_CLIENT_ID + " = ?",
+                new String[]{String.valueOf(mutation.getSeq()), mutation.getClientId()}) > 0;
+    }
+
+    /**
+     * Remove every pending change of a task, e.g. after the API rejected one of them.
+     *
+     * @param taskId Task ID
+     */
+    public void removeForTask(int taskId) {
+        databaseHelper.getWritableDatabase().delete(TaskDatabaseHelper.TABLE_OUTBOX,
+                TaskDatabaseHelper.COLUMN_TASK_ID + " = ?", new String[]{String.valueOf(taskId)});
+    }
+
+    /**
+     * Remove every pending change, e.g. on logout.
+     */
+    public void clear() {
+        databaseHelper.getWritableDatabase().delete(TaskDatabaseHelper.TABLE_OUTBOX, null, null);
+    }
+
+    private PendingTaskMutation readLastForTask(SQLiteDatabase db, int taskId) {
+        try (Cursor cursor = db.query(TaskDatabaseHelper.TABLE_OUTBOX, COLUMNS,
+                TaskDatabaseHelper.COLUMN_TASK_ID + " = ?", new String[]{String.valueOf(taskId)},
+                null, null, TaskDatabaseHelper.COLUMN_SEQ + " DESC", "1")) {
+            return cursor.moveToFirst() ? fromCursor(cursor) : null;
+        }
+    }
+
+    private ContentValues toValues(PendingTaskMutation mutation) {
+        ContentValues values = new ContentValues();
+        values.put(TaskDatabaseHelper.COLUMN_CLIENT_ID, mutation.getClientId());
+        values.put(TaskDatabaseHelper.COLUMN_TASK_ID, mutation.getTaskId());
+        values.put(TaskDatabaseHelper.COLUMN_TYPE, mutation.getType().name());
+        values.put(TaskDatabaseHelper.COLUMN_PAYLOAD, mutation.getPayload());
+        values.put(TaskDatabaseHelper.COLUMN_SNAPSHOT, gson.toJson(mutation.getSnapshot()));
+        return values;
+    }
+
+    private PendingTaskMutation fromCursor(Cursor cursor) {
+        return new PendingTaskMutation(cursor.getLong(0), cursor.getString(1), cursor.getInt(2),
+                PendingTaskMutation.Type.valueOf(cursor.getString(3)), cursor.getString(4),
+                gson.fromJson(cursor.getString(5), Task.class));
+    }
+}
@@ -0,0 +1,50 @@
+package com.sendajapan.sendasnap.data.local;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+/**
+ * SQLite schema for the vehicle history. Vehicles are stored as their JSON form, keyed by
+ * vehicle ID and ordered by the time they were last viewed.
+ */
+public class VehicleHistoryDatabaseHelper extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "vehicle_history.db";
+    private static final int DATABASE_VERSION = 1;
+
+    static final String TABLE_HISTORY = "vehicle_history";
+
+    static final String COLUMN_KEY = "vehicle_key";
+    static final String COLUMN_VIEWED_AT = "viewed_at";
+    static final String COLUMN_JSON = "json";
+
+    private static VehicleHistoryDatabaseHelper instance;
+
+    private VehicleHistoryDatabaseHelper(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    public static synchronized VehicleHistoryDatabaseHelper getInstance(Context context) {
+        if (instance == null) {
+            instance = new VehicleHistoryDatabaseHelper(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_HISTORY + " ("
+                + COLUMN_KEY + " TEXT PRIMARY KEY, "
+                + COLUMN_VIEWED_AT + " INTEGER NOT NULL, "
+                + COLUMN_JSON + " TEXT NOT NULL)");
+        db.execSQL("CREATE INDEX index_vehicle_history_viewed_at ON " + TABLE_HISTORY
+                + " (" + COLUMN_VIEWED_AT + ")");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_HISTORY);
+        onCreate(db);
+    }
+}
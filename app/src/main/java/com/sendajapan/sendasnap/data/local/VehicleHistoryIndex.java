@@ -0,0 +1,90 @@
+package com.sendajapan.sendasnap.data.local;
+
+import com.sendajapan.sendasnap.models.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * In-memory recency order of viewed vehicles. Backed by an insertion-ordered map, so adding,
+ * re-adding (moving to the front) and looking up a vehicle are O(1); the least recently viewed
+ * entries are evicted beyond the size limit. A {@link VehicleSearchIndex} is kept in step with
+ * the entries. Not thread-safe.
+ */
+final class VehicleHistoryIndex {
+
+    private final LinkedHashMap<String, Vehicle> entries = new LinkedHashMap<>();
+    private final VehicleSearchIndex searchIndex = new VehicleSearchIndex();
+    private int maxEntries;
+
+    VehicleHistoryIndex(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    /**
+     * Add a vehicle as the most recently viewed one.
+     *
+     * @return Keys evicted to stay within the limit
+     */
+    List<String> put(String key, Vehicle vehicle) {
+        entries.remove(key);
+        entries.put(key, vehicle);
+        searchIndex.put(key, vehicle);
+        return evictOverflow();
+    }
+
+    Vehicle get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * @return Up to {@code limit} vehicles, most recently viewed first
+     */
+    List<Vehicle> newestFirst(int limit) {
+        List<Vehicle> oldestFirst = new ArrayList<>(entries.values());
+        int count = Math.min(limit, oldestFirst.size());
+        List<Vehicle> result = new ArrayList<>(count);
+        for (int i = oldestFirst.size() - 1; result.size() < count; i--) {
+            result.add(oldestFirst.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * @see VehicleSearchIndex#search(String)
+     */
+    List<Vehicle> search(String query) {
+        return searchIndex.search(query);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void clear() {
+        entries.clear();
+        searchIndex.clear();
+    }
+
+    /**
+     * @return Keys evicted to stay within the new limit
+     */
+    List<String> setMaxEntries(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        return evictOverflow();
+    }
+
+    private List<String> evictOverflow() {
+        List<String> evicted = new ArrayList<>();
+        Iterator<String> oldest = entries.keySet().iterator();
+        while (entries.size() > maxEntries && oldest.hasNext()) {
+            String key = oldest.next();
+            oldest.remove();
+            searchIndex.remove(key);
+            evicted.add(key);
+        }
+        return evicted;
+    }
+}
@@ -0,0 +1,287 @@
+package com.sendajapan.sendasnap.data.local;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.gson.Gson;
+import com.sendajapan.sendasnap.data.json.GsonProvider;
+import com.sendajapan.sendasnap.models.Vehicle;
+import com.sendajapan.sendasnap.utils.SharedPrefsManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Recently viewed vehicles, limited to {@link #DEFAULT_MAX_ENTRIES} with the least recently
+ * viewed evicted first. Reads are served from memory and changes are written to SQLite on a
+ * background thread. The history is loaded in the background when the store is created; the
+ * list formerly kept in SharedPreferences is moved into it on first run. Until then reads return
+ * only the vehicles recorded since, and {@link #getLoaded()} tells screens when to read again.
+ */
+public class VehicleHistoryStore {
+
+    public static final int DEFAULT_MAX_ENTRIES = 100;
+
+    private static VehicleHistoryStore instance;
+
+    private final VehicleHistoryDatabaseHelper databaseHelper;
+    private final SharedPrefsManager prefsManager;
+    private final Gson gson = GsonProvider.get();
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private final VehicleHistoryIndex index = new VehicleHistoryIndex(DEFAULT_MAX_ENTRIES);
+    private final MutableLiveData<Boolean> loadedData = new MutableLiveData<>(false);
+    private long lastViewedAt;
+    private boolean loaded;
+    private boolean clearedBeforeLoad;
+
+    private VehicleHistoryStore(Context context) {
+        this.databaseHelper = VehicleHistoryDatabaseHelper.getInstance(context);
+        this.prefsManager = SharedPrefsManager.getInstance(context);
+        diskExecutor.execute(this::load);
+    }
+
+    public static synchronized VehicleHistoryStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new VehicleHistoryStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Record a vehicle as the most recently viewed one, replacing an earlier entry for it.
+     *
+     * @param vehicle Vehicle; ignored if it has neither an ID nor a chassis number
+     */
+    public void put(Vehicle vehicle) {
+        String key = keyOf(vehicle);
+        if (key == null) {
+            return;
+        }
+
+        List<String> evicted;
+        long viewedAt;
+        synchronized (this) {
+            evicted = index.put(key, vehicle);
+            viewedAt = nextViewedAt();
+        }
+        String json = gson.toJson(vehicle);
+        diskExecutor.execute(() -> write(key, json, viewedAt, evicted));
+    }
+
+    /**
+     * @param id Vehicle ID
+     * @return The stored vehicle, or null if it is not in the history
+     */
+    public Vehicle get(String id) {
+        if (id == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            return index.get(id);
+        }
+    }
+
+    /**
+     * @param limit Maximum number of vehicles
+     * @return Most recently viewed vehicles first
+     */
+    public List<Vehicle> getRecent(int limit) {
+        synchronized (this) {
+            return index.newestFirst(limit);
+        }
+    }
+
+    public List<Vehicle> getAll() {
+        return getRecent(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Find vehicles whose make, model, chassis model, chassis number or year contains the query,
+     * ignoring case. Served from an in-memory index, so it is cheap enough for every keystroke.
+     *
+     * @param query Search text
+     * @return Exact matches first, then prefix matches, then other matches; most recently viewed
+     * first within each group
+     */
+    public List<Vehicle> search(String query) {
+        synchronized (this) {
+            return index.search(query);
+        }
+    }
+
+    public int size() {
+        synchronized (this) {
+            return index.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (this) {
+            index.clear();
+            clearedBeforeLoad = !loaded;
+        }
+        diskExecutor.execute(() -> databaseHelper.getWritableDatabase()
+                .delete(VehicleHistoryDatabaseHelper.TABLE_HISTORY, null, null));
+    }
+
+    /**
+     * @return true once the stored history has been read; reads before that may miss vehicles
+     */
+    public LiveData<Boolean> getLoaded() {
+        return loadedData;
+    }
+
+    /**
+     * Change the size limit. Entries beyond a lower limit are evicted at once.
+     *
+     * @param maxEntries Maximum number of vehicles kept, at least 1
+     */
+    public void setMaxEntries(int maxEntries) {
+        List<String> evicted;
+        synchronized (this) {
+            evicted = index.setMaxEntries(maxEntries);
+        }
+        if (!evicted.isEmpty()) {
+            diskExecutor.execute(() -> write(null, null, 0, evicted));
+        }
+    }
+
+    /**
+     * Read the stored history. Vehicles recorded before it finished stay the most recent ones.
+     */
+    private void load() {
+        List<String> evicted = new ArrayList<>();
+        try {
+            importLegacyHistory();
+
+            List<String> keys = new ArrayList<>();
+            List<Vehicle> vehicles = new ArrayList<>();
+            long storedViewedAt = 0;
+            try (Cursor cursor = databaseHelper.getReadableDatabase().query(
+                    VehicleHistoryDatabaseHelper.TABLE_HISTORY,
+                    new String[]{VehicleHistoryDatabaseHelper.COLUMN_KEY,
+                            VehicleHistoryDatabaseHelper.COLUMN_VIEWED_AT, VehicleHistoryDatabaseHelper.COLUMN_JSON},
+                    null, null, null, null, VehicleHistoryDatabaseHelper.COLUMN_VIEWED_AT)) {
+                while (cursor.moveToNext()) {
+                    Vehicle vehicle = gson.fromJson(cursor.getString(2), Vehicle.class);
+                    if (vehicle != null) {
+                        keys.add(cursor.getString(0));
+                        vehicles.add(vehicle);
+                        storedViewedAt = Math.max(storedViewedAt, cursor.getLong(1));
+                    }
+                }
+            }
+
+            synchronized (this) {
+                if (!clearedBeforeLoad) {
+                    List<Vehicle> recorded = index.newestFirst(Integer.MAX_VALUE);
+                    index.clear();
+                    for (int i = 0; i < keys.size(); i++) {
+                        evicted.addAll(index.put(keys.get(i), vehicles.get(i)));
+                    }
+                    for (int i = recorded.size() - 1; i >= 0; i--) {
+                        Vehicle vehicle = recorded.get(i);
+                        evicted.removeIf(keyOf(vehicle)::equals);
+                        evicted.addAll(index.put(keyOf(vehicle), vehicle));
+                    }
+                    lastViewedAt = Math.max(lastViewedAt, storedViewedAt);
+                }
+            }
+        } finally {
+            synchronized (this) {
+                loaded = true;
+            }
+            loadedData.postValue(true);
+        }
+
+        if (!evicted.isEmpty()) {
+            write(null, null, 0, evicted);
+        }
+    }
+
+    /**
+     * Move the JSON list formerly kept in SharedPreferences (newest first) into SQLite.
+     */
+    private void importLegacyHistory() {
+        List<Vehicle> legacy = prefsManager.takeLegacyRecentVehicles();
+        if (legacy.isEmpty()) {
+            return;
+        }
+
+        List<Vehicle> oldestFirst = new ArrayList<>(legacy);
+        Collections.reverse(oldestFirst);
+        long viewedAt = System.currentTimeMillis() - oldestFirst.size();
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (Vehicle vehicle : oldestFirst) {
+                String key = keyOf(vehicle);
+                if (key != null) {
+                    db.insertWithOnConflict(VehicleHistoryDatabaseHelper.TABLE_HISTORY, null,
+                            toValues(key, gson.toJson(vehicle), viewedAt++), SQLiteDatabase.CONFLICT_REPLACE);
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Store one vehicle and delete evicted ones in a single transaction.
+     *
+     * @param key Key of the vehicle to store, or null to only delete
+     */
+    private void write(String key, String json, long viewedAt, List<String> evicted) {
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            if (key != null) {
+                db.insertWithOnConflict(VehicleHistoryDatabaseHelper.TABLE_HISTORY, null,
+                        toValues(key, json, viewedAt), SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            for (String evictedKey : evicted) {
+                db.delete(VehicleHistoryDatabaseHelper.TABLE_HISTORY,
+                        VehicleHistoryDatabaseHelper.COLUMN_KEY + " = ?", new String[]{evictedKey});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private ContentValues toValues(String key, String json, long viewedAt) {
+        ContentValues values = new ContentValues();
+        values.put(VehicleHistoryDatabaseHelper.COLUMN_KEY, key);
+        values.put(VehicleHistoryDatabaseHelper.COLUMN_VIEWED_AT, viewedAt);
+        values.put(VehicleHistoryDatabaseHelper.COLUMN_JSON, json);
+        return values;
+    }
+
+    /**
+     * Strictly increasing, so two vehicles viewed within the same millisecond keep their order.
+     */
+    private long nextViewedAt() {
+        lastViewedAt = Math.max(System.currentTimeMillis(), lastViewedAt + 1);
+        return lastViewedAt;
+    }
+
+    private static String keyOf(Vehicle vehicle) {
+        if (vehicle == null) {
+            return null;
+        }
+        if (vehicle.getId() != null) {
+            return vehicle.getId();
+        }
+        return vehicle.getSerialNumber();
+    }
+}
@@ -0,0 +1,119 @@
+package com.sendajapan.sendasnap.data.local;
+
+/**
+ * One photo waiting to be uploaded to a vehicle. Only {@link State#QUEUED} and
+ * {@link State#FAILED} are stored; an upload interrupted by process death is queued again.
+ * The client ID is sent as the idempotency key, so a retried upload the server already
+ * received is not stored twice.
+ */
+public final class VehicleImageUpload {
+
+    public enum State {
+        QUEUED, PREPARING, UPLOADING, UPLOADED, FAILED
+    }
+
+    private final long id;
+    private final String clientId;
+    private final int vehicleId;
+    private final String imagePath;
+    private final State state;
+    private final int attempts;
+    private final long nextAttemptAt;
+    private final String error;
+
+    VehicleImageUpload(long id, String clientId, int vehicleId, String imagePath, State state, int attempts,
+                       long nextAttemptAt, String error) {
+        this.id = id;
+        this.clientId = clientId;
+        this.vehicleId = vehicleId;
+        this.imagePath = imagePath;
+        this.state = state;
+        this.attempts = attempts;
+        this.nextAttemptAt = nextAttemptAt;
+        this.error = error;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public int getVehicleId() {
+        return vehicleId;
+    }
+
+    public String getImagePath() {
+        return imagePath;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return Failed attempts so far
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return Time in milliseconds before which a queued upload is not started
+     */
+    public long getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    /**
+     * @return Reason of the failure for {@link State#FAILED}, otherwise null
+     */
+    public String getError() {
+        return error;
+    }
+
+    public boolean isDue(long now) {
+        return state == State.QUEUED && nextAttemptAt <= now;
+    }
+
+    /**
+     * @return This upload while its photo is being compressed ahead of sending
+     */
+    public VehicleImageUpload preparing() {
+        return new VehicleImageUpload(id, clientId, vehicleId, imagePath, State.PREPARING, attempts,
+                nextAttemptAt, null);
+    }
+
+    public VehicleImageUpload started() {
+        return new VehicleImageUpload(id, clientId, vehicleId, imagePath, State.UPLOADING, attempts,
+                nextAttemptAt, null);
+    }
+
+    public VehicleImageUpload uploaded() {
+        return new VehicleImageUpload(id, clientId, vehicleId, imagePath, State.UPLOADED, attempts,
+                nextAttemptAt, null);
+    }
+
+    /**
+     * @param nextAttemptAt Time in milliseconds of the next attempt
+     * @return This upload queued again after one more failed attempt
+     */
+    public VehicleImageUpload retryAt(long nextAttemptAt) {
+        return new VehicleImageUpload(id, clientId, vehicleId, imagePath, State.QUEUED, attempts + 1,
+                nextAttemptAt, null);
+    }
+
+    public VehicleImageUpload failed(String error) {
+        return new VehicleImageUpload(id, clientId, vehicleId, imagePath, State.FAILED, attempts + 1,
+                nextAttemptAt, error);
+    }
+
+    /**
+     * @return This upload queued again with a fresh attempt count, e.g. after the user tapped retry
+     */
+    public VehicleImageUpload requeued() {
+        return new VehicleImageUpload(id, clientId, vehicleId, imagePath, State.QUEUED, 0, 0, null);
+    }
+}
@@ -0,0 +1,176 @@
+package com.sendajapan.sendasnap.data.local;
+
+import com.sendajapan.sendasnap.models.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram index over make, model, chassis model, chassis number and year, kept up to date as
+ * vehicles are added and removed. A query only checks the vehicles that contain its rarest
+ * trigram; queries shorter than a trigram check every vehicle's lowercased fields directly.
+ * Not thread-safe.
+ */
+final class VehicleSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final int SCORE_CONTAINS = 1;
+    private static final int SCORE_PREFIX = 2;
+    private static final int SCORE_EXACT = 3;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Set<String>> postings = new HashMap<>();
+    private long lastSeq;
+
+    /**
+     * Add a vehicle, or re-index it as the most recently added one.
+     */
+    void put(String key, Vehicle vehicle) {
+        remove(key);
+        Entry entry = new Entry(vehicle, normalizedFields(vehicle), ++lastSeq);
+        entries.put(key, entry);
+        for (String gram : grams(entry.fields)) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(key);
+        }
+    }
+
+    void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return;
+        }
+
+        for (String gram : grams(entry.fields)) {
+            Set<String> keys = postings.get(gram);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    void clear() {
+        entries.clear();
+        postings.clear();
+    }
+
+    /**
+     * Find vehicles with a field containing the query, ignoring case.
+     *
+     * @return Exact field matches first, then field prefixes, then other matches; most recently
+     * added first within each group. Empty for a blank query.
+     */
+    List<Vehicle> search(String query) {
+        String needle = normalize(query);
+        if (needle.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Collection<String> candidates = needle.length() < GRAM_LENGTH ? entries.keySet() : candidates(needle);
+        List<Match> matches = new ArrayList<>();
+        for (String key : candidates) {
+            Entry entry = entries.get(key);
+            int score = entry.score(needle);
+            if (score > 0) {
+                matches.add(new Match(entry, score));
+            }
+        }
+
+        Collections.sort(matches, (a, b) -> a.score != b.score
+                ? Integer.compare(b.score, a.score)
+                : Long.compare(b.entry.seq, a.entry.seq));
+        List<Vehicle> result = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            result.add(match.entry.vehicle);
+        }
+        return result;
+    }
+
+    /**
+     * @return Keys of the vehicles containing the query's rarest trigram; every match is among them
+     */
+    private Collection<String> candidates(String needle) {
+        Set<String> smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= needle.length(); i++) {
+            Set<String> keys = postings.get(needle.substring(i, i + GRAM_LENGTH));
+            if (keys == null) {
+                return Collections.emptySet();
+            }
+            if (smallest == null || keys.size() < smallest.size()) {
+                smallest = keys;
+            }
+        }
+        return smallest;
+    }
+
+    private static Set<String> grams(String[] fields) {
+        Set<String> grams = new HashSet<>();
+        for (String field : fields) {
+            for (int i = 0; i + GRAM_LENGTH <= field.length(); i++) {
+                grams.add(field.substring(i, i + GRAM_LENGTH));
+            }
+        }
+        return grams;
+    }
+
+    private static String[] normalizedFields(Vehicle vehicle) {
+        return new String[]{
+                normalize(vehicle.getMake()),
+                normalize(vehicle.getModel()),
+                normalize(vehicle.getChassisModel()),
+                normalize(vehicle.getSerialNumber()),
+                normalize(vehicle.getYear())
+        };
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+        final Vehicle vehicle;
+        final String[] fields;
+        final long seq;
+
+        Entry(Vehicle vehicle, String[] fields, long seq) {
+            this.vehicle = vehicle;
+            this.fields = fields;
+            this.seq = seq;
+        }
+
+        int score(String needle) {
+            int best = 0;
+            for (String field : fields) {
+                if (field.equals(needle)) {
+                    return SCORE_EXACT;
+                }
+                if (field.startsWith(needle)) {
+                    best = SCORE_PREFIX;
+                } else if (best == 0 && field.contains(needle)) {
+                    best = SCORE_CONTAINS;
+                }
+            }
+            return best;
+        }
+    }
+
+    private static final class Match {
+        final Entry entry;
+        final int score;
+
+        Match(Entry entry, int score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.sendajapan.sendasnap.data.local;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+/**
+ * SQLite schema for vehicle photos waiting to be uploaded, one row per photo.
+ */
+public class VehicleUploadDatabaseHelper extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "vehicle_uploads.db";
+    private static final int DATABASE_VERSION = 1;
+
+    static final String TABLE_UPLOADS = "vehicle_image_uploads";
+
+    static final String COLUMN_ID = "id";
+    static final String COLUMN_CLIENT_ID = "client_id";
+    static final String COLUMN_VEHICLE_ID = "vehicle_id";
+    static final String COLUMN_IMAGE_PATH = "image_path";
+    static final String COLUMN_STATE = "state";
+    static final String COLUMN_ATTEMPTS = "attempts";
+    static final String COLUMN_NEXT_ATTEMPT_AT = "next_attempt_at";
+    static final String COLUMN_ERROR = "error";
+
+    private static VehicleUploadDatabaseHelper instance;
+
+    private VehicleUploadDatabaseHelper(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    public static synchronized VehicleUploadDatabaseHelper getInstance(Context context) {
+        if (instance == null) {
+            instance = new VehicleUploadDatabaseHelper(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_UPLOADS + " ("
+                + COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + COLUMN_CLIENT_ID + " TEXT NOT NULL UNIQUE, "
+                + COLUMN_VEHICLE_ID + " INTEGER NOT NULL, "
+                + COLUMN_IMAGE_PATH + " TEXT NOT NULL, "
+                + COLUMN_STATE + " TEXT NOT NULL, "
+                + COLUMN_ATTEMPTS + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_NEXT_ATTEMPT_AT + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_ERROR + " TEXT)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_UPLOADS);
+        onCreate(db);
+    }
+}
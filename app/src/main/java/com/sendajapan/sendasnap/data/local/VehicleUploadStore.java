@@ -0,0 +1,121 @@
+package com.sendajapan.sendasnap.data.local;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistent list of {@link VehicleImageUpload}s in the order they were queued.
+ * All methods touch SQLite and must be called off the main thread.
+ */
+public class VehicleUploadStore {
+
+    private static final String[] COLUMNS = {
+            VehicleUploadDatabaseHelper.COLUMN_ID, VehicleUploadDatabaseHelper.COLUMN_CLIENT_ID,
+            VehicleUploadDatabaseHelper.COLUMN_VEHICLE_ID, VehicleUploadDatabaseHelper.COLUMN_IMAGE_PATH,
+            VehicleUploadDatabaseHelper.COLUMN_STATE, VehicleUploadDatabaseHelper.COLUMN_ATTEMPTS,
+            VehicleUploadDatabaseHelper.COLUMN_NEXT_ATTEMPT_AT, VehicleUploadDatabaseHelper.COLUMN_ERROR
+    };
+
+    private static VehicleUploadStore instance;
+
+    private final VehicleUploadDatabaseHelper databaseHelper;
+
+    private VehicleUploadStore(Context context) {
+        this.databaseHelper = VehicleUploadDatabaseHelper.getInstance(context);
+    }
+
+    public static synchronized VehicleUploadStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new VehicleUploadStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Queue photos for a vehicle in one transaction.
+     *
+     * @param vehicleId Vehicle ID
+     * @param imagePaths Photo file paths
+     * @return The stored uploads, in the given order
+     */
+    public List<VehicleImageUpload> add(int vehicleId, List<String> imagePaths) {
+        List<VehicleImageUpload> uploads = new ArrayList<>(imagePaths.size());
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String imagePath : imagePaths) {
+                VehicleImageUpload upload = new VehicleImageUpload(0, UUID.randomUUID().toString(), vehicleId,
+                        imagePath, VehicleImageUpload.State.QUEUED, 0, 0, null);
+                long id = db.insertOrThrow(VehicleUploadDatabaseHelper.TABLE_UPLOADS, null, toValues(upload));
+                uploads.add(new VehicleImageUpload(id, upload.getClientId(), vehicleId, imagePath,
+                        VehicleImageUpload.State.QUEUED, 0, 0, null));
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return uploads;
+    }
+
+    /**
+     * @return Every stored upload, oldest first; interrupted uploads are returned as queued
+     */
+    public List<VehicleImageUpload> readAll() {
+        List<VehicleImageUpload> uploads = new ArrayList<>();
+        try (Cursor cursor = databaseHelper.getReadableDatabase().query(VehicleUploadDatabaseHelper.TABLE_UPLOADS,
+                COLUMNS, null, null, null, null, VehicleUploadDatabaseHelper.COLUMN_ID)) {
+            while (cursor.moveToNext()) {
+                VehicleImageUpload.State state = VehicleImageUpload.State.valueOf(cursor.getString(4));
+                if (state != VehicleImageUpload.State.FAILED) {
+                    state = VehicleImageUpload.State.QUEUED;
+                }
+                uploads.add(new VehicleImageUpload(cursor.getLong(0), cursor.getString(1), cursor.getInt(2),
+                        cursor.getString(3), state, cursor.getInt(5), cursor.getLong(6), cursor.getString(7)));
+            }
+        }
+        return uploads;
+    }
+
+    /**
+     * Store the state, attempt count, next attempt time and error of an upload.
+     */
+    public void update(VehicleImageUpload upload) {
+        ContentValues values = new ContentValues();
+        values.put(VehicleUploadDatabaseHelper.COLUMN_STATE, upload.getState().name());
+        values.put(VehicleUploadDatabaseHelper.COLUMN_ATTEMPTS, upload.getAttempts());
+        values.put(VehicleUploadDatabaseHelper.COLUMN_NEXT_ATTEMPT_AT, upload.getNextAttemptAt());
+        values.put(VehicleUploadDatabaseHelper.COLUMN_ERROR, upload.getError());
+        databaseHelper.getWritableDatabase().update(VehicleUploadDatabaseHelper.TABLE_UPLOADS, values,
+                VehicleUploadDatabaseHelper.COLUMN_ID + " = ?", new String[]{String.valueOf(upload.getId())});
+    }
+
+    public void delete(long id) {
+        databaseHelper.getWritableDatabase().delete(VehicleUploadDatabaseHelper.TABLE_UPLOADS,
+                VehicleUploadDatabaseHelper.COLUMN_ID + " = ?", new String[]{String.valueOf(id)});
+    }
+
+    /**
+     * Remove every upload, e.g. on logout.
+     */
+    public void clear() {
+        databaseHelper.getWritableDatabase().delete(VehicleUploadDatabaseHelper.TABLE_UPLOADS, null, null);
+    }
+
+    private ContentValues toValues(VehicleImageUpload upload) {
+        ContentValues values = new ContentValues();
+        values.put(VehicleUploadDatabaseHelper.COLUMN_CLIENT_ID, upload.getClientId());
+        values.put(VehicleUploadDatabaseHelper.COLUMN_VEHICLE_ID, upload.getVehicleId());
+        values.put(VehicleUploadDatabaseHelper.COLUMN_IMAGE_PATH, upload.getImagePath());
+        values.put(VehicleUploadDatabaseHelper.COLUMN_STATE, upload.getState().name());
+        values.put(VehicleUploadDatabaseHelper.COLUMN_ATTEMPTS, upload.getAttempts());
+        values.put(VehicleUploadDatabaseHelper.COLUMN_NEXT_ATTEMPT_AT, upload.getNextAttemptAt());
+        values.put(VehicleUploadDatabaseHelper.COLUMN_ERROR, upload.getError());
+        return values;
+    }
+}
@@ -0,0 +1,323 @@
+package com.sendajapan.sendasnap.data.mapper;
+
+import com.google.gson.stream.JsonReader;
+import com.sendajapan.sendasnap.data.dto.PagedResult;
+import com.sendajapan.sendasnap.data.dto.PaginationDto;
+import com.sendajapan.sendasnap.data.json.JsonValues;
+import com.sendajapan.sendasnap.models.Task;
+import com.sendajapan.sendasnap.models.TaskAttachment;
+import com.sendajapan.sendasnap.models.UserData;
+import com.sendajapan.sendasnap.utils.TaskDateCodec;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams task payloads straight into {@link Task}, {@link UserData} and {@link TaskAttachment}
+ * without building the {@code TaskDto} graph first. Produces the same objects as
+ * {@link TaskMapper#toDomain}; unknown fields are skipped and nested values of an unexpected
+ * JSON type are ignored rather than failing the whole response.
+ */
+public final class TaskJsonReader {
+
+    private TaskJsonReader() {
+    }
+
+    /**
+     * Read the {@code data} object of the tasks list endpoint: {@code {"tasks": [...], "pagination": {...}}}.
+     */
+    public static PagedResult<Task> readTaskPage(JsonReader reader) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        PaginationDto pagination = null;
+        if (!JsonValues.beginObject(reader)) {
+            return new PagedResult<>(tasks, null);
+        }
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "tasks":
+                    if (JsonValues.beginArray(reader)) {
+                        while (reader.hasNext()) {
+                            Task task = readTask(reader);
+                            if (task != null) {
+                                tasks.add(task);
+                            }
+                        }
+                        reader.endArray();
+                    }
+                    break;
+                case "pagination":
+                    pagination = readPagination(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return new PagedResult<>(tasks, pagination);
+    }
+
+    /**
+     * Read the {@code data} object of the single task endpoints: {@code {"task": {...}}}.
+     */
+    public static Task readTaskEnvelope(JsonReader reader) throws IOException {
+        Task task = null;
+        if (!JsonValues.beginObject(reader)) {
+            return null;
+        }
+
+        while (reader.hasNext()) {
+            if ("task".equals(reader.nextName())) {
+                task = readTask(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return task;
+    }
+
+    public static Task readTask(JsonReader reader) throws IOException {
+        if (!JsonValues.beginObject(reader)) {
+            return null;
+        }
+
+        Integer id = null;
+        String title = null;
+        String description = null;
+        String status = null;
+        String priority = null;
+        String workDate = null;
+        String workTime = null;
+        String dueDate = null;
+        UserData creator = null;
+        List<UserData> assignees = null;
+        List<TaskAttachment> attachments = null;
+        String createdAt = null;
+        String updatedAt = null;
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    id = JsonValues.nextInteger(reader);
+                    break;
+                case "title":
+                    title = JsonValues.nextString(reader);
+                    break;
+                case "description":
+                    description = JsonValues.nextString(reader);
+                    break;
+                case "status":
+                    status = JsonValues.nextString(reader);
+                    break;
+                case "priority":
+                    priority = JsonValues.nextString(reader);
+                    break;
+                case "work_date":
+                    workDate = JsonValues.nextString(reader);
+                    break;
+                case "work_time":
+                    workTime = JsonValues.nextString(reader);
+                    break;
+                case "due_date":
+                    dueDate = JsonValues.nextString(reader);
+                    break;
+                case "creator":
+                    creator = readUser(reader);
+                    break;
+                case "assigned_users":
+                    assignees = readUsers(reader);
+                    break;
+                case "attachments":
+                    attachments = readAttachments(reader);
+                    break;
+                case "created_at":
+                    createdAt = JsonValues.nextString(reader);
+                    break;
+                case "updated_at":
+                    updatedAt = JsonValues.nextString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        Task task = new Task();
+        if (id != null) {
+            task.setId(id);
+        }
+        task.setTitle(TaskMapper.normalizeString(title));
+        task.setDescription(TaskMapper.normalizeString(description));
+        if (status != null) {
+            task.setStatus(TaskMapper.parseStatus(status));
+        }
+        if (priority != null) {
+            task.setPriority(TaskMapper.parsePriority(priority));
+        }
+        task.setWorkDate(TaskDateCodec.normalizeDate(workDate));
+        task.setWorkTime(TaskMapper.normalizeString(workTime));
+        task.setWorkTimeDisplay(TaskDateCodec.formatTime12Hour(task.getWorkTime()));
+        task.setDueDate(TaskDateCodec.normalizeDate(dueDate));
+        task.setCreator(creator);
+        task.setAssignees(assignees != null ? assignees : new ArrayList<>());
+        task.setAttachments(attachments != null ? attachments : new ArrayList<>());
+        task.setCreatedAt(TaskMapper.normalizeString(createdAt));
+        task.setUpdatedAt(TaskMapper.normalizeString(updatedAt));
+        return task;
+    }
+
+    private static List<UserData> readUsers(JsonReader reader) throws IOException {
+        List<UserData> users = new ArrayList<>();
+        if (!JsonValues.beginArray(reader)) {
+            return users;
+        }
+
+        while (reader.hasNext()) {
+            UserData user = readUser(reader);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        reader.endArray();
+        return users;
+    }
+
+    private static UserData readUser(JsonReader reader) throws IOException {
+        if (!JsonValues.beginObject(reader)) {
+            return null;
+        }
+
+        UserData user = new UserData();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    Integer id = JsonValues.nextInteger(reader);
+                    if (id != null) {
+                        user.setId(id);
+                    }
+                    break;
+                case "name":
+                    user.setName(TaskMapper.normalizeString(JsonValues.nextString(reader)));
+                    break;
+                case "role":
+                    user.setRole(TaskMapper.normalizeString(JsonValues.nextString(reader)));
+                    break;
+                case "email":
+                    user.setEmail(TaskMapper.normalizeString(JsonValues.nextString(reader)));
+                    break;
+                case "phone":
+                    user.setPhone(TaskMapper.normalizeString(JsonValues.nextString(reader)));
+                    break;
+                case "avis_id":
+                    user.setAvisId(TaskMapper.normalizeString(JsonValues.nextString(reader)));
+                    break;
+                case "avatar":
+                    user.setAvatar(TaskMapper.normalizeString(JsonValues.nextString(reader)));
+                    break;
+                case "avatar_url":
+                    user.setAvatarUrl(TaskMapper.normalizeString(JsonValues.nextString(reader)));
+                    break;
+                case "email_verified_at":
+                    user.setEmailVerifiedAt(TaskMapper.normalizeString(JsonValues.nextString(reader)));
+                    break;
+                case "created_at":
+                    user.setCreatedAt(TaskMapper.normalizeString(JsonValues.nextString(reader)));
+                    break;
+                case "updated_at":
+                    user.setUpdatedAt(TaskMapper.normalizeString(JsonValues.nextString(reader)));
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return user;
+    }
+
+    private static List<TaskAttachment> readAttachments(JsonReader reader) throws IOException {
+        List<TaskAttachment> attachments = new ArrayList<>();
+        if (!JsonValues.beginArray(reader)) {
+            return attachments;
+        }
+
+        while (reader.hasNext()) {
+            TaskAttachment attachment = readAttachment(reader);
+            if (attachment != null) {
+                attachments.add(attachment);
+            }
+        }
+        reader.endArray();
+        return attachments;
+    }
+
+    private static TaskAttachment readAttachment(JsonReader reader) throws IOException {
+        if (!JsonValues.beginObject(reader)) {
+            return null;
+        }
+
+        TaskAttachment attachment = new TaskAttachment();
+        attachment.setFileSize(0);
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    attachment.setId(TaskMapper.normalizeString(JsonValues.nextString(reader)));
+                    break;
+                case "file_name":
+                    attachment.setFileName(TaskMapper.normalizeString(JsonValues.nextString(reader)));
+                    break;
+                case "file_path":
+                    attachment.setFilePath(TaskMapper.normalizeString(JsonValues.nextString(reader)));
+                    break;
+                case "file_type":
+                    attachment.setFileType(TaskMapper.normalizeString(JsonValues.nextString(reader)));
+                    break;
+                case "file_size":
+                    Long fileSize = JsonValues.nextLong(reader);
+                    attachment.setFileSize(fileSize != null ? fileSize : 0);
+                    break;
+                case "file_url":
+                    attachment.setFileUrl(TaskMapper.normalizeString(JsonValues.nextString(reader)));
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return attachment;
+    }
+
+    private static PaginationDto readPagination(JsonReader reader) throws IOException {
+        if (!JsonValues.beginObject(reader)) {
+            return null;
+        }
+
+        PaginationDto pagination = new PaginationDto();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "current_page":
+                    pagination.setCurrentPage(JsonValues.nextInteger(reader));
+                    break;
+                case "last_page":
+                    pagination.setLastPage(JsonValues.nextInteger(reader));
+                    break;
+                case "per_page":
+                    pagination.setPerPage(JsonValues.nextInteger(reader));
+                    break;
+                case "total":
+                    pagination.setTotal(JsonValues.nextInteger(reader));
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return pagination;
+    }
+}
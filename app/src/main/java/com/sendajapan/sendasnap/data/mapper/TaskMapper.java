@@ -2,20 +2,12 @@ package com.sendajapan.sendasnap.data.mapper;
 
 import com.sendajapan.sendasnap.data.dto.TaskDto;
 import com.sendajapan.sendasnap.models.Task;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import com.sendajapan.sendasnap.utils.TaskDateCodec;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 
 public class TaskMapper {
 
-    private static final String DATE_FORMAT_ISO = "yyyy-MM-dd'T'HH:mm:ss";
-    private static final String DATE_FORMAT_SIMPLE = "yyyy-MM-dd";
-    private static final SimpleDateFormat ISO_FORMAT = new SimpleDateFormat(DATE_FORMAT_ISO, Locale.getDefault());
-    private static final SimpleDateFormat SIMPLE_FORMAT = new SimpleDateFormat(DATE_FORMAT_SIMPLE, Locale.getDefault());
-
     public static Task toDomain(TaskDto dto) {
         if (dto == null) {
             return null;
@@ -38,9 +30,10 @@ public class TaskMapper {
             task.setPriority(parsePriority(dto.getPriority()));
         }
         
-        task.setWorkDate(parseDate(dto.getWorkDate()));
+        task.setWorkDate(TaskDateCodec.normalizeDate(dto.getWorkDate()));
         task.setWorkTime(normalizeString(dto.getWorkTime()));
-        task.setDueDate(parseDate(dto.getDueDate()));
+        task.setWorkTimeDisplay(TaskDateCodec.formatTime12Hour(task.getWorkTime()));
+        task.setDueDate(TaskDateCodec.normalizeDate(dto.getDueDate()));
         task.setCreator(UserMapper.toDomain(dto.getCreator()));
         task.setAssignees(UserMapper.toDomainList(dto.getAssignedUsers()));
         task.setAttachments(AttachmentMapper.toDomainList(dto.getAttachments()));
@@ -64,7 +57,7 @@ public class TaskMapper {
         return tasks;
     }
 
-    private static Task.TaskStatus parseStatus(String statusStr) {
+    public static Task.TaskStatus parseStatus(String statusStr) {
         if (statusStr == null) {
             return Task.TaskStatus.PENDING;
         }
@@ -82,7 +75,7 @@ public class TaskMapper {
         }
     }
 
-    private static Task.TaskPriority parsePriority(String priorityStr) {
+    public static Task.TaskPriority parsePriority(String priorityStr) {
         if (priorityStr == null) {
             return Task.TaskPriority.NORMAL;
         }
@@ -99,46 +92,10 @@ public class TaskMapper {
         }
     }
 
-    private static String normalizeString(String value) {
+    static String normalizeString(String value) {
         if (value == null || value.trim().isEmpty()) {
             return null;
         }
         return value.trim();
     }
-
-    private static String parseDate(String dateString) {
-        if (dateString == null || dateString.trim().isEmpty()) {
-            return null;
-        }
-
-        String trimmed = dateString.trim();
-        
-        // If it's already in YYYY-MM-DD format, return as is
-        if (trimmed.length() >= 10 && trimmed.matches("\\d{4}-\\d{2}-\\d{2}.*")) {
-            return trimmed.substring(0, 10);
-        }
-
-        // Try to parse ISO format (YYYY-MM-DDTHH:mm:ss...)
-        if (trimmed.contains("T")) {
-            try {
-                Date date = ISO_FORMAT.parse(trimmed);
-                return SIMPLE_FORMAT.format(date);
-            } catch (ParseException e) {
-                // Try to extract just the date part
-                if (trimmed.length() >= 10) {
-                    return trimmed.substring(0, 10);
-                }
-            }
-        }
-
-        // Try simple format
-        try {
-            Date date = SIMPLE_FORMAT.parse(trimmed);
-            return SIMPLE_FORMAT.format(date);
-        } catch (ParseException e) {
-            // Return null if can't parse
-            return null;
-        }
-    }
 }
-
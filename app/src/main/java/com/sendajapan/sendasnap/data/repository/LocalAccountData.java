@@ -0,0 +1,31 @@
+package com.sendajapan.sendasnap.data.repository;
+
+import android.content.Context;
+
+import com.sendajapan.sendasnap.data.local.TaskLocalStore;
+import com.sendajapan.sendasnap.networking.RetrofitClient;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Data the signed-in account leaves on the device. Cleared on every logout, before the session
+ * itself, so the next account to sign in neither sees nor sends any of it.
+ */
+public final class LocalAccountData {
+
+    private static final ExecutorService CLEAR_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private LocalAccountData() {
+    }
+
+    public static void clear(Context context) {
+        Context appContext = context.getApplicationContext();
+        TaskOutbox.getInstance(appContext).clear();
+        VehicleImageUploadQueue.getInstance(appContext).clear();
+        CLEAR_EXECUTOR.execute(() -> {
+            TaskLocalStore.getInstance(appContext).clear();
+            RetrofitClient.getInstance(appContext).clearHttpCache();
+        });
+    }
+}
@@ -0,0 +1,105 @@
+package com.sendajapan.sendasnap.data.repository;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.sendajapan.sendasnap.data.dto.PagedResult;
+import com.sendajapan.sendasnap.domain.repository.TaskRepository;
+import com.sendajapan.sendasnap.domain.repository.UserRepository;
+import com.sendajapan.sendasnap.models.Task;
+import com.sendajapan.sendasnap.models.UserData;
+import com.sendajapan.sendasnap.networking.RetrofitClient;
+import com.sendajapan.sendasnap.utils.SharedPrefsManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Work done while the splash screen is shown. For a signed-in user the schedule window around
+ * today and the user list are requested in parallel, which also opens the pooled connection to
+ * the API; the results land in {@link com.sendajapan.sendasnap.data.local.TaskLocalStore} and the
+ * HTTP cache, where the first screens pick them up. Otherwise only the connection is opened.
+ * All methods must be called on the main thread.
+ */
+public class StartupWarmUp {
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private FinishListener listener;
+    private boolean finished = false;
+
+    public StartupWarmUp(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Start warming up.
+     *
+     * @param timeoutMs Longest time to wait for the critical data (the schedule tasks)
+     * @param listener Called once, when the tasks arrive, fail or time out
+     */
+    public void start(long timeoutMs, FinishListener listener) {
+        this.listener = listener;
+        if (!SharedPrefsManager.getInstance(context).isLoggedIn()) {
+            RetrofitClient.getInstance(context).primeConnection();
+            finish();
+            return;
+        }
+
+        mainHandler.postDelayed(this::finish, timeoutMs);
+
+        LocalDate today = LocalDate.now();
+        new TaskRepositoryImpl(context).list(
+                today.minusDays(TaskRangePrefetcher.DEFAULT_RADIUS_DAYS).toString(),
+                today.plusDays(TaskRangePrefetcher.DEFAULT_RADIUS_DAYS).toString(),
+                new TaskRepository.TaskRepositoryCallback<PagedResult<Task>>() {
+                    @Override
+                    public void onSuccess(PagedResult<Task> result) {
+                        finish();
+                    }
+
+                    @Override
+                    public void onError(String message, int errorCode) {
+                        finish();
+                    }
+                });
+
+        new UserRepositoryImpl(context).list(new UserRepository.UserRepositoryCallback<List<UserData>>() {
+            @Override
+            public void onSuccess(List<UserData> result) {
+            }
+
+            @Override
+            public void onError(String message, int errorCode) {
+            }
+        });
+    }
+
+    /**
+     * Stop delivering the finish callback, e.g. when the splash is destroyed early.
+     * Requests already sent still complete and fill the caches.
+     */
+    public void cancel() {
+        listener = null;
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    private void finish() {
+        if (finished) {
+            return;
+        }
+
+        finished = true;
+        mainHandler.removeCallbacksAndMessages(null);
+        if (listener != null) {
+            FinishListener finishListener = listener;
+            listener = null;
+            finishListener.onWarmUpFinished();
+        }
+    }
+
+    public interface FinishListener {
+        void onWarmUpFinished();
+    }
+}
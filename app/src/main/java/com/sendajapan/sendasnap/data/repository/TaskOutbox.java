@@ -0,0 +1,406 @@
+package com.sendajapan.sendasnap.data.repository;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.sendajapan.sendasnap.data.dto.StatusUpdateRequest;
+import com.sendajapan.sendasnap.data.dto.TaskResponseDto;
+import com.sendajapan.sendasnap.data.local.PendingTaskMutation;
+import com.sendajapan.sendasnap.data.local.TaskLocalStore;
+import com.sendajapan.sendasnap.data.local.TaskOutboxStore;
+import com.sendajapan.sendasnap.data.mapper.TaskMapper;
+import com.sendajapan.sendasnap.models.ApiResponse;
+import com.sendajapan.sendasnap.models.Task;
+import com.sendajapan.sendasnap.networking.ApiService;
+import com.sendajapan.sendasnap.networking.NetworkUtils;
+import com.sendajapan.sendasnap.networking.RetrofitClient;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import retrofit2.Response;
+
+/**
+ * Offline outbox for task changes. Status changes, field edits and deletes are applied to
+ * {@link TaskLocalStore} at once, queued in {@link TaskOutboxStore} and sent to the API in order
+ * whenever {@link NetworkUtils} reports a connection. An accepted change is replaced by the API's
+ * version of the task. A rejected change is dropped together with the later changes of the same
+ * task, the task is restored to its state before them and a {@link Rejection} is posted.
+ * The monitor only guards the in-memory queue; SQLite is written on the store thread, so
+ * {@link #overlay} never waits for disk I/O.
+ */
+public class TaskOutbox {
+
+    private static final long RETRY_DELAY_MS = 30_000;
+
+    private static TaskOutbox instance;
+
+    private final ApiService apiService;
+    private final TaskLocalStore localStore;
+    private final TaskOutboxStore outboxStore;
+    private final NetworkUtils networkUtils;
+    private final ExecutorService storeExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService sendExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final MutableLiveData<Rejection> rejections = new MutableLiveData<>();
+    private final List<PendingTaskMutation> pending = new ArrayList<>();
+    private int generation;
+
+    private TaskOutbox(Context context) {
+        this.apiService = RetrofitClient.getInstance(context).getApiService();
+        this.localStore = TaskLocalStore.getInstance(context);
+        this.outboxStore = TaskOutboxStore.getInstance(context);
+        this.networkUtils = NetworkUtils.getInstance(context);
+
+        storeExecutor.execute(() -> {
+            List<PendingTaskMutation> stored = outboxStore.readAll();
+            synchronized (this) {
+                pending.addAll(stored);
+            }
+            flush();
+        });
+        mainHandler.post(() -> networkUtils.getIsConnected().observeForever(connected -> {
+            if (Boolean.TRUE.equals(connected)) {
+                flush();
+            }
+        }));
+    }
+
+    public static synchronized TaskOutbox getInstance(Context context) {
+        if (instance == null) {
+            instance = new TaskOutbox(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Apply a change to a stored task and queue it for the API.
+     *
+     * @param taskId Task ID
+     * @param change Creates the change from the task as currently stored
+     * @param callback Called on the main thread
+     */
+    public void enqueue(int taskId, Function<Task, PendingTaskMutation> change, QueueCallback callback) {
+        storeExecutor.execute(() -> {
+            int queuedGeneration;
+            synchronized (this) {
+                queuedGeneration = generation;
+            }
+            Task current = localStore.find(taskId);
+            if (current == null) {
+                mainHandler.post(callback::onNotStored);
+                return;
+            }
+
+            PendingTaskMutation mutation = change.apply(current);
+            PendingTaskMutation stored = outboxStore.add(mutation);
+            if (!replacePending(stored, queuedGeneration)) {
+                return;
+            }
+
+            Task changedTask = mutation.applyTo(current);
+            if (changedTask == null) {
+                localStore.delete(taskId);
+            } else {
+                localStore.upsert(changedTask);
+            }
+            mainHandler.post(() -> callback.onQueued(changedTask));
+            flush();
+        });
+    }
+
+    /**
+     * Apply the queued changes to tasks returned by the API, so a refresh keeps showing them.
+     *
+     * @param tasks Tasks from the API
+     * @return Tasks as they will be once the outbox is sent
+     */
+    public List<Task> overlay(List<Task> tasks) {
+        return PendingTaskMutation.overlay(tasks, snapshotPending());
+    }
+
+    /**
+     * @return Changes the API rejected, newest only
+     */
+    public LiveData<Rejection> getRejections() {
+        return rejections;
+    }
+
+    /**
+     * Drop every queued change, e.g. on logout, so they are not sent with the next user's token.
+     * A change being sent right now is still sent, but its result is ignored.
+     */
+    public void clear() {
+        synchronized (this) {
+            pending.clear();
+            generation++;
+        }
+        storeExecutor.execute(outboxStore::clear);
+    }
+
+    /**
+     * Send the queued changes now if the device is online. Only one send pass runs at a time.
+     */
+    public void flush() {
+        if (flushQueued.compareAndSet(false, true)) {
+            sendExecutor.execute(() -> {
+                flushQueued.set(false);
+                sendPending();
+            });
+        }
+    }
+
+    private void sendPending() {
+        while (networkUtils.isNetworkAvailable()) {
+            PendingTaskMutation head;
+            int sentGeneration;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                head = pending.get(0);
+                sentGeneration = generation;
+            }
+
+            SendResult result;
+            try {
+                result = send(head);
+            } catch (IOException e) {
+                result = SendResult.retryLater();
+            }
+
+            if (result.outcome == SendResult.Outcome.ACCEPTED) {
+                onAccepted(head, result.task, sentGeneration);
+            } else if (result.outcome == SendResult.Outcome.REJECTED) {
+                onRejected(head, result.message, result.errorCode, sentGeneration);
+            } else {
+                mainHandler.postDelayed(this::flush, RETRY_DELAY_MS);
+                return;
+            }
+        }
+    }
+
+    private SendResult send(PendingTaskMutation mutation) throws IOException {
+        int taskId = mutation.getTaskId();
+        String idempotencyKey = mutation.getClientId();
+
+        if (mutation.getType() == PendingTaskMutation.Type.DELETE) {
+            Response<ApiResponse<Object>> response = apiService.deleteTask(taskId, idempotencyKey).execute();
+            if (response.code() == 404) {
+                return SendResult.accepted(null);
+            }
+            if (response.isSuccessful() && response.body() != null
+                    && Boolean.TRUE.equals(response.body().getSuccess())) {
+                return SendResult.accepted(null);
+            }
+            return SendResult.failed(response, "Failed to delete task");
+        }
+
+        Response<ApiResponse<TaskResponseDto>> response;
+        if (mutation.getType() == PendingTaskMutation.Type.STATUS) {
+            response = apiService.updateTaskStatus(taskId, new StatusUpdateRequest(mutation.getPayload()),
+                    idempotencyKey).execute();
+        } else {
+            response = apiService.updateTask(taskId,
+                    TaskRepositoryImpl.buildMultipartParts(mutation.getUpdateParams(), null, null),
+                    idempotencyKey).execute();
+        }
+
+        ApiResponse<TaskResponseDto> body = response.body();
+        if (response.isSuccessful() && body != null && Boolean.TRUE.equals(body.getSuccess())) {
+            TaskResponseDto data = body.getData();
+            return SendResult.accepted(data != null && data.getTask() != null
+                    ? TaskMapper.toDomain(data.getTask())
+                    : null);
+        }
+        return SendResult.failed(response, "Failed to update task");
+    }
+
+    /**
+     * The queued entry stays if a later status change was merged into it while it was sent,
+     * which replaced the entry in {@link #pending}, so the newer status is still sent.
+     */
+    private void onAccepted(PendingTaskMutation mutation, Task serverTask, int sentGeneration) {
+        Task reconciledTask = null;
+        synchronized (this) {
+            if (generation != sentGeneration) {
+                return;
+            }
+            pending.remove(mutation);
+            if (serverTask != null) {
+                List<Task> reconciled = PendingTaskMutation.overlay(Collections.singletonList(serverTask), pending);
+                if (!reconciled.isEmpty()) {
+                    reconciledTask = reconciled.get(0);
+                }
+            }
+        }
+
+        Task storedTask = reconciledTask;
+        storeExecutor.execute(() -> {
+            outboxStore.remove(mutation);
+            localStore.upsert(storedTask);
+        });
+    }
+
+    private void onRejected(PendingTaskMutation mutation, String message, int errorCode, int sentGeneration) {
+        int taskId = mutation.getTaskId();
+        Task snapshot = null;
+        synchronized (this) {
+            if (generation != sentGeneration) {
+                return;
+            }
+            for (PendingTaskMutation queued : pending) {
+                if (queued.getTaskId() == taskId) {
+                    snapshot = queued.getSnapshot();
+                    break;
+                }
+            }
+            pending.removeIf(queued -> queued.getTaskId() == taskId);
+        }
+
+        Task restoredTask = snapshot;
+        storeExecutor.execute(() -> {
+            outboxStore.removeForTask(taskId);
+            if (errorCode == 404) {
+                localStore.delete(taskId);
+            } else {
+                localStore.upsert(restoredTask);
+            }
+        });
+        rejections.postValue(new Rejection(taskId, mutation.getType(), message, errorCode));
+    }
+
+    /**
+     * @return false if the outbox was cleared since the change was read, so it is dropped
+     */
+    private synchronized boolean replacePending(PendingTaskMutation stored, int queuedGeneration) {
+        if (generation != queuedGeneration) {
+            return false;
+        }
+        for (int i = 0; i < pending.size(); i++) {
+            if (pending.get(i).getSeq() == stored.getSeq()) {
+                pending.set(i, stored);
+                return true;
+            }
+        }
+        pending.add(stored);
+        return true;
+    }
+
+    private synchronized List<PendingTaskMutation> snapshotPending() {
+        return new ArrayList<>(pending);
+    }
+
+    public interface QueueCallback {
+        /**
+         * @param task The task with the change applied, or null if it was deleted
+         */
+        void onQueued(Task task);
+
+        /**
+         * The task is not in the local store, so the change has to be sent directly.
+         */
+        void onNotStored();
+    }
+
+    /**
+     * A queued change the API refused. The task has been restored to its state before the change.
+     */
+    public static final class Rejection {
+        private final int taskId;
+        private final PendingTaskMutation.Type type;
+        private final String message;
+        private final int errorCode;
+        private final AtomicBoolean handled = new AtomicBoolean();
+
+        Rejection(int taskId, PendingTaskMutation.Type type, String message, int errorCode) {
+            this.taskId = taskId;
+            this.type = type;
+            this.message = message;
+            this.errorCode = errorCode;
+        }
+
+        public int getTaskId() {
+            return taskId;
+        }
+
+        public PendingTaskMutation.Type getType() {
+            return type;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public int getErrorCode() {
+            return errorCode;
+        }
+
+        /**
+         * @return true only for the first caller, so a rejection re-delivered to a new observer
+         * is shown once
+         */
+        public boolean markHandled() {
+            return handled.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Outcome of sending one change. Timeouts, throttling and server errors are retried later;
+     * other client errors reject the change. A 401 or 403 reaches this point only after the token
+     * could not be renewed, so it rejects the change too.
+     */
+    private static final class SendResult {
+        enum Outcome {
+            ACCEPTED, REJECTED, RETRY_LATER
+        }
+
+        final Outcome outcome;
+        final Task task;
+        final String message;
+        final int errorCode;
+
+        private SendResult(Outcome outcome, Task task, String message, int errorCode) {
+            this.outcome = outcome;
+            this.task = task;
+            this.message = message;
+            this.errorCode = errorCode;
+        }
+
+        static SendResult accepted(Task task) {
+            return new SendResult(Outcome.ACCEPTED, task, null, 0);
+        }
+
+        static SendResult retryLater() {
+            return new SendResult(Outcome.RETRY_LATER, null, null, 0);
+        }
+
+        static SendResult failed(Response<? extends ApiResponse<?>> response, String defaultMessage) {
+            int code = response.code();
+            if (code == 408 || code == 429 || code >= 500) {
+                return retryLater();
+            }
+
+            String message;
+            if (response.body() != null && response.body().getMessage() != null) {
+                message = response.body().getMessage();
+            } else if (response.isSuccessful()) {
+                message = defaultMessage;
+            } else {
+                message = TaskRepositoryImpl.parseErrorMessage(response);
+            }
+            return new SendResult(Outcome.REJECTED, null, message, code);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.sendajapan.sendasnap.data.repository;
+
+import com.sendajapan.sendasnap.data.dto.PagedResult;
+import com.sendajapan.sendasnap.domain.repository.TaskRepository;
+import com.sendajapan.sendasnap.models.Task;
+import com.sendajapan.sendasnap.utils.TaskFilter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads schedule tasks for a window of days around the selected date with one range request
+ * and keeps them in per-day buckets, so switching to a day inside the window needs no request.
+ * When the selection comes within {@code edgeDays} of either end of the window, only the
+ * uncovered part of the re-centred window is fetched and days outside it are dropped.
+ * A range the API cannot return in one page halves the window for good, down to single days.
+ * All methods must be called on the main thread.
+ */
+public class TaskRangePrefetcher {
+
+    public static final int DEFAULT_RADIUS_DAYS = 7;
+    public static final int DEFAULT_EDGE_DAYS = 2;
+
+    private final TaskRepository repository;
+    private final Map<String, List<Task>> dayBuckets = new HashMap<>();
+
+    private int radiusDays = DEFAULT_RADIUS_DAYS;
+    private int edgeDays = DEFAULT_EDGE_DAYS;
+    private LocalDate windowStart;
+    private LocalDate windowEnd;
+    private LocalDate selectedDate;
+    private DayTasksListener listener;
+    private int generation = 0;
+
+    private int hitCount = 0;
+    private int missCount = 0;
+    private int rangeRequestCount = 0;
+
+    public TaskRangePrefetcher(TaskRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Set the listener that receives the tasks of the selected day.
+     *
+     * @param listener Listener, or null to stop delivery (e.g. when the view is destroyed)
+     */
+    public void setListener(DayTasksListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Select a day. A day inside the loaded window is delivered synchronously; otherwise it is
+     * delivered once its range request completes. The window slides when the day is near an edge.
+     *
+     * @param date Day in yyyy-MM-dd format
+     */
+    public void select(String date) {
+        selectedDate = LocalDate.parse(date);
+        List<Task> bucket = dayBuckets.get(date);
+        if (bucket != null) {
+            hitCount++;
+            notifyDay(date, bucket);
+        } else {
+            missCount++;
+        }
+        ensureWindow(selectedDate);
+    }
+
+    /**
+     * Whether a day can be delivered without waiting for a request.
+     *
+     * @param date Day in yyyy-MM-dd format
+     * @return True if the day's bucket is loaded
+     */
+    public boolean isLoaded(String date) {
+        return dayBuckets.containsKey(date);
+    }
+
+    /**
+     * Reload the whole window around the selected day, e.g. after a task was created or the
+     * screen is shown again. Loaded buckets keep serving selections until the reload completes.
+     */
+    public void refresh() {
+        generation++;
+        windowStart = null;
+        windowEnd = null;
+        if (selectedDate != null) {
+            ensureWindow(selectedDate);
+        }
+    }
+
+    /**
+     * Replace a task in its bucket after a local edit such as a status change.
+     *
+     * @param task Updated task
+     */
+    public void replaceTask(Task task) {
+        for (List<Task> bucket : dayBuckets.values()) {
+            for (int i = 0; i < bucket.size(); i++) {
+                if (bucket.get(i).getId() == task.getId()) {
+                    bucket.set(i, task);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove a deleted task from its bucket.
+     *
+     * @param taskId Task ID
+     */
+    public void removeTask(int taskId) {
+        for (List<Task> bucket : dayBuckets.values()) {
+            if (bucket.removeIf(task -> task.getId() == taskId)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Set how many days before and after the selected day are loaded.
+     * Takes effect on the next window move.
+     *
+     * @param radiusDays Days on each side, at least 0
+     * @param edgeDays Distance from a window end that triggers a slide, at most {@code radiusDays}
+     */
+    public void setWindowSize(int radiusDays, int edgeDays) {
+        this.radiusDays = Math.max(0, radiusDays);
+        this.edgeDays = Math.max(0, Math.min(edgeDays, this.radiusDays));
+    }
+
+    public int getRadiusDays() {
+        return radiusDays;
+    }
+
+    public int getEdgeDays() {
+        return edgeDays;
+    }
+
+    /**
+     * @return Selections served from a loaded bucket
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return Selections that had to wait for a request
+     */
+    public int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return Range requests sent to the repository
+     */
+    public int getRangeRequestCount() {
+        return rangeRequestCount;
+    }
+
+    private void ensureWindow(LocalDate center) {
+        boolean insideWindow = windowStart != null
+                && !center.isBefore(windowStart.plusDays(edgeDays))
+                && !center.isAfter(windowEnd.minusDays(edgeDays));
+        if (insideWindow) {
+            return;
+        }
+
+        LocalDate start = center.minusDays(radiusDays);
+        LocalDate end = center.plusDays(radiusDays);
+        if (windowStart == null || end.isBefore(windowStart) || start.isAfter(windowEnd)) {
+            loadRange(start, end);
+        } else {
+            if (start.isBefore(windowStart)) {
+                loadRange(start, windowStart.minusDays(1));
+            }
+            if (end.isAfter(windowEnd)) {
+                loadRange(windowEnd.plusDays(1), end);
+            }
+        }
+
+        dropBucketsOutside(start, end);
+        windowStart = start;
+        windowEnd = end;
+    }
+
+    private void loadRange(LocalDate from, LocalDate to) {
+        int requestGeneration = generation;
+        rangeRequestCount++;
+        repository.list(from.toString(), to.toString(), new TaskRepository.TaskRepositoryCallback<PagedResult<Task>>() {
+            @Override
+            public void onSuccess(PagedResult<Task> result) {
+                if (requestGeneration == generation) {
+                    onRangeLoaded(from, to, result);
+                }
+            }
+
+            @Override
+            public void onError(String message, int errorCode) {
+                if (requestGeneration == generation) {
+                    onRangeFailed(from, to, message, errorCode);
+                }
+            }
+        });
+    }
+
+    private void onRangeLoaded(LocalDate from, LocalDate to, PagedResult<Task> result) {
+        if (result.hasMore() && !from.equals(to)) {
+            // The range does not fit in one page, so its buckets would be incomplete.
+            setWindowSize(radiusDays / 2, edgeDays);
+            refresh();
+            return;
+        }
+
+        Map<String, List<Task>> loaded = new HashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            loaded.put(day.toString(), new ArrayList<>());
+        }
+        if (result.getItems() != null) {
+            for (Task task : result.getItems()) {
+                List<Task> bucket = loaded.get(TaskFilter.extractDate(task.getWorkDate()));
+                if (bucket != null) {
+                    bucket.add(task);
+                }
+            }
+        }
+
+        for (Map.Entry<String, List<Task>> entry : loaded.entrySet()) {
+            if (isInsideWindow(LocalDate.parse(entry.getKey()))) {
+                dayBuckets.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        if (selectedDate != null && isWithin(selectedDate, from, to)) {
+            List<Task> bucket = loaded.get(selectedDate.toString());
+            notifyDay(selectedDate.toString(), bucket);
+        }
+    }
+
+    private void onRangeFailed(LocalDate from, LocalDate to, String message, int errorCode) {
+        windowStart = null;
+        windowEnd = null;
+        if (selectedDate != null && isWithin(selectedDate, from, to)
+                && !dayBuckets.containsKey(selectedDate.toString()) && listener != null) {
+            listener.onDayError(selectedDate.toString(), message, errorCode);
+        }
+    }
+
+    private void dropBucketsOutside(LocalDate start, LocalDate end) {
+        Iterator<String> days = dayBuckets.keySet().iterator();
+        while (days.hasNext()) {
+            if (!isWithin(LocalDate.parse(days.next()), start, end)) {
+                days.remove();
+            }
+        }
+    }
+
+    private boolean isInsideWindow(LocalDate day) {
+        return windowStart != null && isWithin(day, windowStart, windowEnd);
+    }
+
+    private boolean isWithin(LocalDate day, LocalDate start, LocalDate end) {
+        return !day.isBefore(start) && !day.isAfter(end);
+    }
+
+    private void notifyDay(String date, List<Task> tasks) {
+        if (listener != null) {
+            listener.onDayTasks(date, new ArrayList<>(tasks));
+        }
+    }
+
+    /**
+     * Receives the tasks of the selected day.
+     */
+    public interface DayTasksListener {
+        void onDayTasks(String date, List<Task> tasks);
+        void onDayError(String date, String message, int errorCode);
+    }
+}
@@ -1,25 +1,32 @@
 package com.sendajapan.sendasnap.data.repository;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.annotation.NonNull;
 
-import com.google.gson.Gson;
 import com.sendajapan.sendasnap.data.dto.PagedResult;
 import com.sendajapan.sendasnap.data.dto.StatusUpdateRequest;
 import com.sendajapan.sendasnap.data.dto.TaskResponseDto;
-import com.sendajapan.sendasnap.data.dto.TasksListResponseDto;
+import com.sendajapan.sendasnap.data.json.GsonProvider;
+import com.sendajapan.sendasnap.data.local.PendingTaskMutation;
+import com.sendajapan.sendasnap.data.local.TaskLocalStore;
 import com.sendajapan.sendasnap.data.mapper.TaskMapper;
 import com.sendajapan.sendasnap.domain.repository.TaskRepository;
 import com.sendajapan.sendasnap.models.Task;
 import com.sendajapan.sendasnap.models.ApiResponse;
 import com.sendajapan.sendasnap.models.ErrorResponse;
 import com.sendajapan.sendasnap.networking.ApiService;
+import com.sendajapan.sendasnap.networking.CachePolicy;
 import com.sendajapan.sendasnap.networking.RetrofitClient;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
@@ -33,72 +40,112 @@ public class TaskRepositoryImpl implements TaskRepository {
 
     private static final String TAG = "TaskRepositoryImpl";
     
+    private static final ExecutorService STORE_EXECUTOR = Executors.newSingleThreadExecutor();
+
     private final ApiService apiService;
+    private final TaskLocalStore localStore;
+    private final TaskOutbox outbox;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
     private static final long MAX_FILE_SIZE = 2 * 1024 * 1024;
 
     public TaskRepositoryImpl(Context context) {
         this.apiService = RetrofitClient.getInstance(context).getApiService();
+        this.localStore = TaskLocalStore.getInstance(context);
+        this.outbox = TaskOutbox.getInstance(context);
     }
 
+    /**
+     * Stale-while-revalidate: stored tasks for the range are emitted first (synchronously when
+     * the range is still in memory), then the API result is emitted and written to the store.
+     * A network error is only reported when no stored tasks could be shown.
+     */
     @Override
     public void list(String fromDate, String toDate, TaskRepositoryCallback<PagedResult<Task>> callback) {
+        ListRequest request = new ListRequest();
+        List<Task> memoryTasks = localStore.peek(fromDate, toDate);
+        if (memoryTasks != null) {
+            request.cacheDelivered = true;
+            callback.onSuccess(new PagedResult<>(memoryTasks, null));
+        } else {
+            STORE_EXECUTOR.execute(() -> {
+                List<Task> storedTasks = localStore.read(fromDate, toDate);
+                mainHandler.post(() -> {
+                    if (storedTasks != null && !request.networkDelivered) {
+                        request.cacheDelivered = true;
+                        callback.onSuccess(new PagedResult<>(storedTasks, null));
+                    }
+                });
+            });
+        }
 
-        Call<ApiResponse<TasksListResponseDto>> call = apiService.getTasksList(fromDate, toDate);
-        call.enqueue(new Callback<ApiResponse<TasksListResponseDto>>() {
+        fetchTasks(fromDate, toDate, request, callback);
+    }
+
+    private void fetchTasks(String fromDate, String toDate, ListRequest request,
+                            TaskRepositoryCallback<PagedResult<Task>> callback) {
+        Call<ApiResponse<PagedResult<Task>>> call = apiService.getTasksList(fromDate, toDate, CachePolicy.REVALIDATE);
+        call.enqueue(new Callback<ApiResponse<PagedResult<Task>>>() {
             @Override
-            public void onResponse(@NonNull Call<ApiResponse<TasksListResponseDto>> call,
-                                   @NonNull Response<ApiResponse<TasksListResponseDto>> response) {
+            public void onResponse(@NonNull Call<ApiResponse<PagedResult<Task>>> call,
+                                   @NonNull Response<ApiResponse<PagedResult<Task>>> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<TasksListResponseDto> apiResponse = response.body();
+                    ApiResponse<PagedResult<Task>> apiResponse = response.body();
 
                     if (apiResponse.getSuccess() != null && apiResponse.getSuccess()) {
                         if (apiResponse.getData() != null) {
-                            List<Task> tasks = TaskMapper.toDomainList(apiResponse.getData().getTasks());
+                            // The response may be shared with coalesced callers, so it is not changed
+                            PagedResult<Task> data = apiResponse.getData();
                             PagedResult<Task> result = new PagedResult<>(
-                                    tasks,
-                                    apiResponse.getData().getPagination()
-                            );
+                                    data.getItems() != null ? new ArrayList<>(outbox.overlay(data.getItems())) : null,
+                                    data.getPagination());
+                            List<Task> tasks = result.getItems();
+                            request.networkDelivered = true;
                             callback.onSuccess(result);
+                            if (!result.hasMore()) {
+                                STORE_EXECUTOR.execute(() -> localStore.replaceRange(fromDate, toDate, tasks));
+                            }
                         } else {
-                            callback.onError("No tasks data received", response.code());
+                            request.onError(callback, "No tasks data received", response.code());
                         }
                     } else {
                         String errorMessage = apiResponse.getMessage() != null
                                 ? apiResponse.getMessage()
                                 : "Failed to retrieve tasks";
-                        callback.onError(errorMessage, response.code());
+                        request.onError(callback, errorMessage, response.code());
                     }
                 } else {
                     String errorMessage = parseErrorMessage(response);
-                    callback.onError(errorMessage, response.code());
+                    request.onError(callback, errorMessage, response.code());
                 }
             }
 
             @Override
-            public void onFailure(Call<ApiResponse<TasksListResponseDto>> call, Throwable t) {
+            public void onFailure(Call<ApiResponse<PagedResult<Task>>> call, Throwable t) {
                 String errorMessage = "Network error. Please check your connection and try again.";
                 if (t.getMessage() != null) {
                     errorMessage = t.getMessage();
                 }
-                callback.onError(errorMessage, 0);
+                request.onError(callback, errorMessage, 0);
             }
         });
     }
 
     @Override
     public void get(Integer id, TaskRepositoryCallback<Task> callback) {
-        Call<ApiResponse<TaskResponseDto>> call = apiService.getTask(id);
-        call.enqueue(new Callback<ApiResponse<TaskResponseDto>>() {
+        Call<ApiResponse<Task>> call = apiService.getTask(id, CachePolicy.REVALIDATE);
+        call.enqueue(new Callback<ApiResponse<Task>>() {
             @Override
-            public void onResponse(Call<ApiResponse<TaskResponseDto>> call,
-                                   Response<ApiResponse<TaskResponseDto>> response) {
+            public void onResponse(Call<ApiResponse<Task>> call,
+                                   Response<ApiResponse<Task>> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<TaskResponseDto> apiResponse = response.body();
+                    ApiResponse<Task> apiResponse = response.body();
 
                     if (apiResponse.getSuccess() != null && apiResponse.getSuccess()) {
-                        if (apiResponse.getData() != null && apiResponse.getData().getTask() != null) {
-                            Task task = TaskMapper.toDomain(apiResponse.getData().getTask());
-                            callback.onSuccess(task);
+                        List<Task> reconciled = apiResponse.getData() != null
+                                ? outbox.overlay(Collections.singletonList(apiResponse.getData()))
+                                : Collections.emptyList();
+                        if (!reconciled.isEmpty()) {
+                            callback.onSuccess(reconciled.get(0));
                         } else {
                             callback.onError("Task not found", 404);
                         }
@@ -118,7 +165,7 @@ public class TaskRepositoryImpl implements TaskRepository {
             }
 
             @Override
-            public void onFailure(Call<ApiResponse<TaskResponseDto>> call, Throwable t) {
+            public void onFailure(Call<ApiResponse<Task>> call, Throwable t) {
                 String errorMessage = "Network error. Please check your connection and try again.";
                 if (t.getMessage() != null) {
                     errorMessage = t.getMessage();
@@ -153,6 +200,7 @@ public class TaskRepositoryImpl implements TaskRepository {
                     if (apiResponse.getSuccess() != null && apiResponse.getSuccess()) {
                         if (apiResponse.getData() != null && apiResponse.getData().getTask() != null) {
                             Task task = TaskMapper.toDomain(apiResponse.getData().getTask());
+                            storeTask(task);
                             callback.onSuccess(task);
                         } else {
                             callback.onError("Failed to create task", response.code());
@@ -178,9 +226,24 @@ public class TaskRepositoryImpl implements TaskRepository {
         });
     }
 
+    /**
+     * Edits without attachment changes are applied locally and queued in the {@link TaskOutbox};
+     * edits with files are sent directly, as the files have to be uploaded now.
+     */
     @Override
     public void update(Integer id, UpdateTaskParams params, List<File> files, Boolean attachmentsUpdate,
                        TaskRepositoryCallback<Task> callback) {
+        if ((files == null || files.isEmpty()) && attachmentsUpdate == null) {
+            outbox.enqueue(id, snapshot -> PendingTaskMutation.update(snapshot, params),
+                    queueCallback(callback, () -> sendUpdate(id, params, files, null, callback)));
+            return;
+        }
+
+        sendUpdate(id, params, files, attachmentsUpdate, callback);
+    }
+
+    private void sendUpdate(Integer id, UpdateTaskParams params, List<File> files, Boolean attachmentsUpdate,
+                            TaskRepositoryCallback<Task> callback) {
         if (files != null) {
             for (File file : files) {
                 if (file.length() > MAX_FILE_SIZE) {
@@ -220,7 +283,7 @@ public class TaskRepositoryImpl implements TaskRepository {
         if (fieldPartsCount == 0 && files == null) {
         }
 
-        Call<ApiResponse<TaskResponseDto>> call = apiService.updateTask(id, parts);
+        Call<ApiResponse<TaskResponseDto>> call = apiService.updateTask(id, parts, null);
         call.enqueue(new Callback<ApiResponse<TaskResponseDto>>() {
             @Override
             public void onResponse(Call<ApiResponse<TaskResponseDto>> call,
@@ -231,6 +294,7 @@ public class TaskRepositoryImpl implements TaskRepository {
                     if (apiResponse.getSuccess() != null && apiResponse.getSuccess()) {
                         if (apiResponse.getData() != null && apiResponse.getData().getTask() != null) {
                             Task task = TaskMapper.toDomain(apiResponse.getData().getTask());
+                            storeTask(task);
                             callback.onSuccess(task);
                         } else {
                             callback.onError("Failed to update task", response.code());
@@ -264,7 +328,21 @@ public class TaskRepositoryImpl implements TaskRepository {
 
     @Override
     public void delete(Integer id, TaskRepositoryCallback<Void> callback) {
-        Call<ApiResponse<Object>> call = apiService.deleteTask(id);
+        outbox.enqueue(id, PendingTaskMutation::delete, new TaskOutbox.QueueCallback() {
+            @Override
+            public void onQueued(Task task) {
+                callback.onSuccess(null);
+            }
+
+            @Override
+            public void onNotStored() {
+                sendDelete(id, callback);
+            }
+        });
+    }
+
+    private void sendDelete(Integer id, TaskRepositoryCallback<Void> callback) {
+        Call<ApiResponse<Object>> call = apiService.deleteTask(id, null);
         call.enqueue(new Callback<ApiResponse<Object>>() {
             @Override
             public void onResponse(Call<ApiResponse<Object>> call,
@@ -273,6 +351,7 @@ public class TaskRepositoryImpl implements TaskRepository {
                     ApiResponse<Object> apiResponse = response.body();
 
                     if (apiResponse.getSuccess() != null && apiResponse.getSuccess()) {
+                        STORE_EXECUTOR.execute(() -> localStore.delete(id));
                         callback.onSuccess(null);
                     } else {
                         String errorMessage = apiResponse.getMessage() != null
@@ -300,13 +379,21 @@ public class TaskRepositoryImpl implements TaskRepository {
         });
     }
 
+    /**
+     * Applied locally and queued in the {@link TaskOutbox}, so the callback does not wait for the
+     * network. Only tasks missing from the local store are sent directly.
+     */
     @Override
     public void updateStatus(Integer id, Task.TaskStatus status, TaskRepositoryCallback<Task> callback) {
-        // Convert enum to string for API
-        String statusStr = status != null ? status.name().toLowerCase() : "pending";
-        StatusUpdateRequest request = new StatusUpdateRequest(statusStr);
+        Task.TaskStatus newStatus = status != null ? status : Task.TaskStatus.PENDING;
+        outbox.enqueue(id, snapshot -> PendingTaskMutation.status(snapshot, newStatus),
+                queueCallback(callback, () -> sendStatus(id, newStatus, callback)));
+    }
+
+    private void sendStatus(Integer id, Task.TaskStatus status, TaskRepositoryCallback<Task> callback) {
+        StatusUpdateRequest request = new StatusUpdateRequest(status.name().toLowerCase());
 
-        Call<ApiResponse<TaskResponseDto>> call = apiService.updateTaskStatus(id, request);
+        Call<ApiResponse<TaskResponseDto>> call = apiService.updateTaskStatus(id, request, null);
         call.enqueue(new Callback<ApiResponse<TaskResponseDto>>() {
             @Override
             public void onResponse(Call<ApiResponse<TaskResponseDto>> call,
@@ -317,6 +404,7 @@ public class TaskRepositoryImpl implements TaskRepository {
                     if (apiResponse.getSuccess() != null && apiResponse.getSuccess()) {
                         if (apiResponse.getData() != null && apiResponse.getData().getTask() != null) {
                             Task task = TaskMapper.toDomain(apiResponse.getData().getTask());
+                            storeTask(task);
                             callback.onSuccess(task);
                         } else {
                             callback.onError("Failed to update task status", response.code());
@@ -344,7 +432,25 @@ public class TaskRepositoryImpl implements TaskRepository {
         });
     }
 
-    private List<MultipartBody.Part> buildMultipartParts(Object params, List<File> files, Boolean attachmentsUpdate) {
+    private void storeTask(Task task) {
+        STORE_EXECUTOR.execute(() -> localStore.upsert(task));
+    }
+
+    private TaskOutbox.QueueCallback queueCallback(TaskRepositoryCallback<Task> callback, Runnable sendDirectly) {
+        return new TaskOutbox.QueueCallback() {
+            @Override
+            public void onQueued(Task task) {
+                callback.onSuccess(task);
+            }
+
+            @Override
+            public void onNotStored() {
+                sendDirectly.run();
+            }
+        };
+    }
+
+    static List<MultipartBody.Part> buildMultipartParts(Object params, List<File> files, Boolean attachmentsUpdate) {
         List<MultipartBody.Part> parts = new ArrayList<>();
 
         if (params instanceof CreateTaskParams) {
@@ -406,21 +512,20 @@ public class TaskRepositoryImpl implements TaskRepository {
         return parts;
     }
 
-    private void addPart(List<MultipartBody.Part> parts, String key, String value) {
+    private static void addPart(List<MultipartBody.Part> parts, String key, String value) {
         if (value != null && !value.trim().isEmpty()) {
             RequestBody body = RequestBody.create(MediaType.parse("text/plain"), value);
             parts.add(MultipartBody.Part.createFormData(key, null, body));
         }
     }
 
-    private String parseErrorMessage(Response<?> response) {
+    static String parseErrorMessage(Response<?> response) {
         String defaultMessage = "An error occurred. Please try again.";
 
         if (response.errorBody() != null) {
             try {
                 String errorBodyStr = response.errorBody().string();
-                Gson gson = new Gson();
-                ErrorResponse errorResponse = gson.fromJson(errorBodyStr, ErrorResponse.class);
+                ErrorResponse errorResponse = GsonProvider.get().fromJson(errorBodyStr, ErrorResponse.class);
 
                 if (errorResponse != null && errorResponse.getMessage() != null) {
                     return errorResponse.getMessage();
@@ -439,5 +544,18 @@ public class TaskRepositoryImpl implements TaskRepository {
         }
         return parseErrorMessage(response);
     }
-}
 
+    /**
+     * Delivery state of one list call. Only touched on the main thread.
+     */
+    private static class ListRequest {
+        boolean cacheDelivered;
+        boolean networkDelivered;
+
+        void onError(TaskRepositoryCallback<PagedResult<Task>> callback, String message, int errorCode) {
+            if (!cacheDelivered) {
+                callback.onError(message, errorCode);
+            }
+        }
+    }
+}
@@ -1,15 +1,17 @@
 package com.sendajapan.sendasnap.data.repository;
 
 import android.content.Context;
-import com.google.gson.Gson;
 import com.sendajapan.sendasnap.data.dto.UserDto;
 import com.sendajapan.sendasnap.data.dto.UsersListResponseDto;
+import com.sendajapan.sendasnap.data.json.GsonProvider;
 import com.sendajapan.sendasnap.data.mapper.UserMapper;
 import com.sendajapan.sendasnap.domain.repository.UserRepository;
 import com.sendajapan.sendasnap.models.UserData;
 import com.sendajapan.sendasnap.models.ApiResponse;
 import com.sendajapan.sendasnap.models.ErrorResponse;
 import com.sendajapan.sendasnap.networking.ApiService;
+import com.sendajapan.sendasnap.networking.CachePolicy;
+import com.sendajapan.sendasnap.networking.CachedCalls;
 import com.sendajapan.sendasnap.networking.RetrofitClient;
 import java.util.List;
 import retrofit2.Call;
@@ -26,10 +28,13 @@ public class UserRepositoryImpl implements UserRepository {
         this.apiService = RetrofitClient.getInstance(context).getApiService();
     }
 
+    /**
+     * Users rarely change, so the stored list is delivered first and the revalidated list second.
+     */
     @Override
     public void list(UserRepositoryCallback<List<UserData>> callback) {
-        Call<ApiResponse<UsersListResponseDto>> call = apiService.getUsersList();
-        call.enqueue(new Callback<ApiResponse<UsersListResponseDto>>() {
+        CachedCalls.enqueue(CachePolicy.CACHE_THEN_NETWORK, apiService::getUsersList,
+                new Callback<ApiResponse<UsersListResponseDto>>() {
             @Override
             public void onResponse(Call<ApiResponse<UsersListResponseDto>> call,
                                  Response<ApiResponse<UsersListResponseDto>> response) {
@@ -72,8 +77,7 @@ public class UserRepositoryImpl implements UserRepository {
         if (response.errorBody() != null) {
             try {
                 String errorBodyStr = response.errorBody().string();
-                Gson gson = new Gson();
-                ErrorResponse errorResponse = gson.fromJson(errorBodyStr, ErrorResponse.class);
+                ErrorResponse errorResponse = GsonProvider.get().fromJson(errorBodyStr, ErrorResponse.class);
                 
                 if (errorResponse != null && errorResponse.getMessage() != null) {
                     return errorResponse.getMessage();
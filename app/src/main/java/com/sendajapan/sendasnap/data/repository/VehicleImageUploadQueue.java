@@ -0,0 +1,343 @@
+package com.sendajapan.sendasnap.data.repository;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.sendajapan.sendasnap.data.local.VehicleImageUpload;
+import com.sendajapan.sendasnap.data.local.VehicleUploadStore;
+import com.sendajapan.sendasnap.models.Vehicle;
+import com.sendajapan.sendasnap.networking.NetworkUtils;
+import com.sendajapan.sendasnap.networking.RetryPolicy;
+import com.sendajapan.sendasnap.services.VehicleImageUploadService;
+import com.sendajapan.sendasnap.utils.UploadNotificationHelper;
+import com.sendajapan.sendasnap.utils.VehicleCache;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Persistent queue of vehicle photo uploads, one job per photo. Jobs are kept in
+ * {@link VehicleUploadStore} and uploaded at most {@value #MAX_CONCURRENT_UPLOADS} at a time
+ * whenever {@link NetworkUtils} reports a connection. Up to {@value #MAX_PREPARED_AHEAD} more
+ * photos are compressed by {@link VehicleImageUploadService#prepareImage} while those upload, so
+ * the upload threads do not wait on compression. A photo that failed for a transient reason
+ * is retried with {@link RetryPolicy} backoff; once the attempts run out, or the API rejects it,
+ * it stays {@link VehicleImageUpload.State#FAILED} until retried or discarded. Uploaded photos
+ * are removed, so a batch cut short by process death resumes with the photos it had not sent yet
+ * the next time the app starts.
+ */
+public class VehicleImageUploadQueue {
+
+    private static final int MAX_CONCURRENT_UPLOADS = 2;
+    private static final int MAX_PREPARED_AHEAD = 3;
+    private static final RetryPolicy RETRY_POLICY = new RetryPolicy(8, 2_000, 5 * 60_000);
+
+    private static VehicleImageUploadQueue instance;
+
+    private final Context context;
+    private final VehicleUploadStore uploadStore;
+    private final VehicleImageUploadService uploadService;
+    private final NetworkUtils networkUtils;
+    private final ExecutorService storeExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService uploadExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_UPLOADS);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable pumpRunnable = this::pump;
+    private final Random random = new Random();
+    private final Map<Long, VehicleImageUpload> uploads = new LinkedHashMap<>();
+    private final MutableLiveData<List<VehicleImageUpload>> uploadsData =
+            new MutableLiveData<>(Collections.emptyList());
+    private final MutableLiveData<Vehicle> uploadedVehicles = new MutableLiveData<>();
+    private final MutableLiveData<VehicleImageUpload> completedUploads = new MutableLiveData<>();
+    private int running;
+    private int generation;
+    private int uploadedInBatch;
+    private int notifiedFailures;
+
+    private VehicleImageUploadQueue(Context context) {
+        this.context = context;
+        this.uploadStore = VehicleUploadStore.getInstance(context);
+        this.uploadService = new VehicleImageUploadService(context);
+        this.networkUtils = NetworkUtils.getInstance(context);
+
+        storeExecutor.execute(() -> {
+            List<VehicleImageUpload> stored = uploadStore.readAll();
+            synchronized (this) {
+                for (VehicleImageUpload upload : stored) {
+                    uploads.put(upload.getId(), upload);
+                }
+            }
+            publish();
+            pump();
+        });
+        mainHandler.post(() -> networkUtils.getIsConnected().observeForever(connected -> {
+            if (Boolean.TRUE.equals(connected)) {
+                pump();
+            }
+        }));
+    }
+
+    public static synchronized VehicleImageUploadQueue getInstance(Context context) {
+        if (instance == null) {
+            instance = new VehicleImageUploadQueue(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Queue photos for upload to a vehicle.
+     *
+     * @param vehicleId Vehicle ID
+     * @param imagePaths Photo file paths
+     */
+    public void enqueue(int vehicleId, List<String> imagePaths) {
+        List<String> paths = new ArrayList<>(imagePaths);
+        storeExecutor.execute(() -> {
+            List<VehicleImageUpload> added = uploadStore.add(vehicleId, paths);
+            synchronized (this) {
+                for (VehicleImageUpload upload : added) {
+                    uploads.put(upload.getId(), upload);
+                }
+            }
+            publish();
+            pump();
+        });
+    }
+
+    /**
+     * Queue a failed upload again with a fresh set of attempts.
+     */
+    public void retry(long uploadId) {
+        storeExecutor.execute(() -> {
+            VehicleImageUpload requeued;
+            synchronized (this) {
+                VehicleImageUpload upload = uploads.get(uploadId);
+                if (upload == null || upload.getState() != VehicleImageUpload.State.FAILED) {
+                    return;
+                }
+                requeued = upload.requeued();
+                uploads.put(uploadId, requeued);
+            }
+            uploadStore.update(requeued);
+            publish();
+            pump();
+        });
+    }
+
+    /**
+     * Drop an upload that is not currently being sent.
+     */
+    public void discard(long uploadId) {
+        storeExecutor.execute(() -> {
+            synchronized (this) {
+                VehicleImageUpload upload = uploads.get(uploadId);
+                if (upload == null || upload.getState() == VehicleImageUpload.State.PREPARING
+                        || upload.getState() == VehicleImageUpload.State.UPLOADING) {
+                    return;
+                }
+                uploads.remove(uploadId);
+            }
+            uploadStore.delete(uploadId);
+            publish();
+        });
+    }
+
+    /**
+     * Drop every upload, e.g. on logout. Uploads being sent right now finish, but their results
+     * are ignored.
+     */
+    public void clear() {
+        synchronized (this) {
+            uploads.clear();
+            uploadedInBatch = 0;
+            generation++;
+        }
+        mainHandler.removeCallbacks(pumpRunnable);
+        storeExecutor.execute(uploadStore::clear);
+        publish();
+    }
+
+    /**
+     * @return Uploads not yet done, oldest first
+     */
+    public LiveData<List<VehicleImageUpload>> getUploads() {
+        return uploadsData;
+    }
+
+    /**
+     * @return Vehicles as returned by the API after one of their photos was uploaded, newest only.
+     * They are already stored in {@link VehicleCache}.
+     */
+    public LiveData<Vehicle> getUploadedVehicles() {
+        return uploadedVehicles;
+    }
+
+    /**
+     * @return Uploads the API accepted, newest only; delivered before the uploads list without them
+     */
+    public LiveData<VehicleImageUpload> getCompletedUploads() {
+        return completedUploads;
+    }
+
+    /**
+     * Start due uploads up to the concurrency limit if the device is online, and schedule a
+     * wake-up for the earliest upload still waiting for its backoff.
+     */
+    private void pump() {
+        if (!networkUtils.isNetworkAvailable()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long nextAttemptAt = Long.MAX_VALUE;
+        boolean started = false;
+        synchronized (this) {
+            for (VehicleImageUpload upload : new ArrayList<>(uploads.values())) {
+                if (upload.getState() != VehicleImageUpload.State.QUEUED) {
+                    continue;
+                }
+                if (!upload.isDue(now)) {
+                    nextAttemptAt = Math.min(nextAttemptAt, upload.getNextAttemptAt());
+                } else if (running < MAX_CONCURRENT_UPLOADS + MAX_PREPARED_AHEAD) {
+                    VehicleImageUpload preparing = upload.preparing();
+                    uploads.put(preparing.getId(), preparing);
+                    running++;
+                    started = true;
+                    int startedGeneration = generation;
+                    uploadService.prepareImage(new File(upload.getImagePath()))
+                            .thenApplyAsync(image -> send(preparing, image), uploadExecutor)
+                            .whenComplete((result, error) -> finish(preparing, startedGeneration,
+                                    error == null ? result : VehicleImageUploadService.UploadResult.retryLater()));
+                }
+            }
+        }
+
+        mainHandler.removeCallbacks(pumpRunnable);
+        if (nextAttemptAt != Long.MAX_VALUE) {
+            mainHandler.postDelayed(pumpRunnable, nextAttemptAt - now);
+        }
+        if (started) {
+            publish();
+        }
+    }
+
+    /**
+     * Runs on an upload thread once the photo is compressed.
+     */
+    private VehicleImageUploadService.UploadResult send(VehicleImageUpload prepared,
+                                                        VehicleImageUploadService.PreparedImage image) {
+        VehicleImageUpload upload = prepared.started();
+        synchronized (this) {
+            if (uploads.containsKey(upload.getId())) {
+                uploads.put(upload.getId(), upload);
+            }
+        }
+        publish();
+
+        return uploadService.uploadImage(upload.getVehicleId(), image, upload.getClientId());
+    }
+
+    /**
+     * Runs for every started upload, also when preparing or sending it threw; that counts as a
+     * failed attempt. The result is stored on the store thread, queued while the monitor is held
+     * so it is written before any retry or discard the user makes after seeing it.
+     */
+    private void finish(VehicleImageUpload upload, int startedGeneration,
+                        VehicleImageUploadService.UploadResult result) {
+        try {
+            record(upload, startedGeneration, result);
+        } finally {
+            publish();
+            pump();
+        }
+    }
+
+    private void record(VehicleImageUpload upload, int startedGeneration,
+                        VehicleImageUploadService.UploadResult result) {
+        synchronized (this) {
+            running--;
+            if (generation != startedGeneration) {
+                return;
+            }
+            if (result.getOutcome() == VehicleImageUploadService.UploadResult.Outcome.UPLOADED) {
+                storeExecutor.execute(() -> uploadStore.delete(upload.getId()));
+                uploads.remove(upload.getId());
+                uploadedInBatch++;
+            } else {
+                VehicleImageUpload next;
+                int failedAttempts = upload.getAttempts() + 1;
+                if (result.getOutcome() == VehicleImageUploadService.UploadResult.Outcome.FAILED) {
+                    next = upload.failed(result.getMessage());
+                } else if (failedAttempts >= RETRY_POLICY.getMaxAttempts()) {
+                    next = upload.failed("Upload failed after " + failedAttempts + " attempts");
+                } else {
+                    next = upload.retryAt(System.currentTimeMillis()
+                            + RETRY_POLICY.backoffMillis(failedAttempts, random));
+                }
+                storeExecutor.execute(() -> uploadStore.update(next));
+                uploads.put(next.getId(), next);
+            }
+        }
+
+        if (result.getOutcome() == VehicleImageUploadService.UploadResult.Outcome.UPLOADED) {
+            VehicleImageUpload completed = upload.uploaded();
+            mainHandler.post(() -> completedUploads.setValue(completed));
+        }
+
+        Vehicle vehicle = result.getVehicle();
+        if (vehicle != null) {
+            if (vehicle.getId() == null || vehicle.getId().isEmpty()) {
+                vehicle.setId(String.valueOf(upload.getVehicleId()));
+            }
+            mainHandler.post(() -> {
+                VehicleCache.getInstance(context).addVehicle(vehicle);
+                VehicleSearchService.getInstance(context).clear();
+                uploadedVehicles.setValue(vehicle);
+            });
+        }
+    }
+
+    private void publish() {
+        List<VehicleImageUpload> snapshot;
+        int active = 0;
+        int failed = 0;
+        int uploaded;
+        boolean failuresChanged;
+        synchronized (this) {
+            snapshot = new ArrayList<>(uploads.values());
+            for (VehicleImageUpload upload : snapshot) {
+                if (upload.getState() == VehicleImageUpload.State.FAILED) {
+                    failed++;
+                } else {
+                    active++;
+                }
+            }
+            if (active == 0) {
+                uploadedInBatch = 0;
+            }
+            uploaded = uploadedInBatch;
+            failuresChanged = failed != notifiedFailures;
+            notifiedFailures = failed;
+        }
+
+        uploadsData.postValue(Collections.unmodifiableList(snapshot));
+        if (active > 0) {
+            UploadNotificationHelper.showProgress(context, uploaded, uploaded + active);
+        } else {
+            UploadNotificationHelper.cancelProgress(context);
+        }
+        if (failuresChanged) {
+            UploadNotificationHelper.showFailures(context, failed);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.sendajapan.sendasnap.data.repository;
+
+import com.sendajapan.sendasnap.models.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Vehicle search results by search type and normalised query. Entries expire after a fixed time;
+ * beyond the size limit the least recently used entry is dropped. Not thread-safe.
+ */
+final class VehicleSearchCache {
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    VehicleSearchCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Queries differing only in case or surrounding and repeated whitespace share a key.
+     */
+    static String key(String searchType, String query) {
+        String normalized = query == null ? "" : query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return searchType + "\n" + normalized;
+    }
+
+    /**
+     * @return Stored vehicles, or null if there is no fresh entry
+     */
+    List<Vehicle> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (clock.getAsLong() >= entry.expiresAt) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.vehicles;
+    }
+
+    void put(String key, List<Vehicle> vehicles) {
+        entries.put(key, new Entry(Collections.unmodifiableList(new ArrayList<>(vehicles)),
+                clock.getAsLong() + ttlMillis));
+        Iterator<String> eldest = entries.keySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    private static final class Entry {
+        final List<Vehicle> vehicles;
+        final long expiresAt;
+
+        Entry(List<Vehicle> vehicles, long expiresAt) {
+            this.vehicles = vehicles;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.sendajapan.sendasnap.data.repository;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.sendajapan.sendasnap.data.json.GsonProvider;
+import com.sendajapan.sendasnap.models.ErrorResponse;
+import com.sendajapan.sendasnap.models.Vehicle;
+import com.sendajapan.sendasnap.models.VehicleSearchResponse;
+import com.sendajapan.sendasnap.networking.ApiService;
+import com.sendajapan.sendasnap.networking.CachePolicy;
+import com.sendajapan.sendasnap.networking.RequestCoalescer;
+import com.sendajapan.sendasnap.networking.RetrofitClient;
+
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Vehicle lookups for the home screen. Vehicles found are kept in memory for
+ * {@link #DEFAULT_TTL_MS} per search type and normalised query, for up to
+ * {@link #DEFAULT_MAX_ENTRIES} lookups. Only the latest search is delivered: starting a different
+ * one cancels the request in flight, while repeating the one in flight joins it. Identical
+ * requests from elsewhere are shared by {@link RequestCoalescer}.
+ * All methods must be called on the main thread.
+ */
+public class VehicleSearchService {
+
+    public static final long DEFAULT_TTL_MS = 5 * 60 * 1000L;
+    public static final int DEFAULT_MAX_ENTRIES = 50;
+
+    private static VehicleSearchService instance;
+
+    private final ApiService apiService;
+    private final VehicleSearchCache cache =
+            new VehicleSearchCache(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MS, System::currentTimeMillis);
+
+    private Call<VehicleSearchResponse> currentCall;
+    private String currentKey;
+    private SearchCallback currentCallback;
+
+    private VehicleSearchService(Context context) {
+        this.apiService = RetrofitClient.getInstance(context).getApiService();
+    }
+
+    public static synchronized VehicleSearchService getInstance(Context context) {
+        if (instance == null) {
+            instance = new VehicleSearchService(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * @return Vehicles from a recent identical search, or null if the search has to be sent
+     */
+    public List<Vehicle> getCached(String searchType, String searchQuery) {
+        return cache.get(VehicleSearchCache.key(searchType, searchQuery));
+    }
+
+    /**
+     * Search vehicles, answering from the cache when possible (synchronously).
+     *
+     * @param searchType Search type as sent to the API
+     * @param searchQuery Search text
+     * @param callback Receives the result unless the search is superseded or cancelled
+     */
+    public void search(String searchType, String searchQuery, SearchCallback callback) {
+        String key = VehicleSearchCache.key(searchType, searchQuery);
+        List<Vehicle> cached = cache.get(key);
+        if (cached != null) {
+            cancel();
+            callback.onSuccess(cached);
+            return;
+        }
+
+        if (currentCall != null && key.equals(currentKey)) {
+            currentCallback = callback;
+            return;
+        }
+
+        cancel();
+        Call<VehicleSearchResponse> call = apiService.searchVehicles(searchType, searchQuery.trim(),
+                CachePolicy.REVALIDATE);
+        currentCall = call;
+        currentKey = key;
+        currentCallback = callback;
+        call.enqueue(new Callback<VehicleSearchResponse>() {
+            @Override
+            public void onResponse(@NonNull Call<VehicleSearchResponse> c,
+                    @NonNull Response<VehicleSearchResponse> response) {
+                if (call != currentCall) {
+                    return;
+                }
+                SearchCallback target = finish();
+
+                VehicleSearchResponse body = response.body();
+                if (!response.isSuccessful() || body == null) {
+                    target.onError(parseErrorMessage(response), response.code());
+                } else if (body.getSuccess() == null || !body.getSuccess()) {
+                    target.onError(body.getMessage() != null ? body.getMessage() : "Search failed",
+                            response.code());
+                } else if (body.getData() == null || body.getData().getVehicles() == null) {
+                    target.onError("No vehicle data received", response.code());
+                } else {
+                    List<Vehicle> vehicles = body.getData().getVehicles();
+                    if (!vehicles.isEmpty()) {
+                        cache.put(key, vehicles);
+                    }
+                    target.onSuccess(vehicles);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<VehicleSearchResponse> c, @NonNull Throwable t) {
+                if (call != currentCall || call.isCanceled()) {
+                    return;
+                }
+                finish().onError("Failed to connect to server. Please check your internet connection.", 0);
+            }
+        });
+    }
+
+    /**
+     * Cancel the search in flight; its callback is not called.
+     */
+    public void cancel() {
+        if (currentCall != null) {
+            currentCall.cancel();
+        }
+        finish();
+    }
+
+    /**
+     * Forget all results, e.g. after a vehicle was changed on this device.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private SearchCallback finish() {
+        SearchCallback callback = currentCallback;
+        currentCall = null;
+        currentKey = null;
+        currentCallback = null;
+        return callback;
+    }
+
+    private static String parseErrorMessage(Response<?> response) {
+        String defaultMessage = "Failed to search vehicles. Please try again.";
+
+        if (response.errorBody() != null) {
+            try {
+                ErrorResponse errorResponse = GsonProvider.get().fromJson(response.errorBody().string(),
+                        ErrorResponse.class);
+                if (errorResponse != null && errorResponse.getMessage() != null) {
+                    return errorResponse.getMessage();
+                }
+            } catch (Exception e) {
+                // If parsing fails, return default message
+            }
+        }
+
+        return defaultMessage;
+    }
+
+    public interface SearchCallback {
+        void onSuccess(List<Vehicle> vehicles);
+
+        /**
+         * @param errorCode HTTP status, or 0 if the server could not be reached
+         */
+        void onError(String message, int errorCode);
+    }
+}
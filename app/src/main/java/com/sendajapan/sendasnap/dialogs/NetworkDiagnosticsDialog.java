@@ -0,0 +1,64 @@
+package com.sendajapan.sendasnap.dialogs;
+
+import android.content.Context;
+import android.graphics.Typeface;
+import android.widget.HorizontalScrollView;
+import android.widget.ScrollView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
+
+import com.sendajapan.sendasnap.R;
+import com.sendajapan.sendasnap.networking.NetworkMetrics;
+import com.sendajapan.sendasnap.networking.RetrofitClient;
+import com.sendajapan.sendasnap.utils.CookieBarToastHelper;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Debug screen with the per-endpoint network timing percentiles recorded by {@link NetworkMetrics}.
+ */
+public final class NetworkDiagnosticsDialog {
+
+    private static final String DUMP_FILE_NAME = "network_timings.txt";
+
+    private NetworkDiagnosticsDialog() {
+    }
+
+    public static void show(@NonNull Context context) {
+        NetworkMetrics metrics = RetrofitClient.getInstance(context).getNetworkMetrics();
+        int padding = context.getResources().getDimensionPixelSize(R.dimen.dimen_16);
+
+        TextView txtReport = new TextView(context);
+        txtReport.setTypeface(Typeface.MONOSPACE);
+        txtReport.setTextSize(11);
+        txtReport.setPadding(padding, padding, padding, padding);
+        txtReport.setText(metrics.formatSummary());
+
+        HorizontalScrollView horizontalScroll = new HorizontalScrollView(context);
+        horizontalScroll.addView(txtReport);
+        ScrollView scrollView = new ScrollView(context);
+        scrollView.addView(horizontalScroll);
+
+        new AlertDialog.Builder(context)
+                .setTitle("Network Timings")
+                .setView(scrollView)
+                .setPositiveButton("Dump to File", (dialog, which) -> dump(context, metrics))
+                .setNeutralButton("Clear", (dialog, which) -> metrics.clear())
+                .setNegativeButton("Close", null)
+                .show();
+    }
+
+    private static void dump(Context context, NetworkMetrics metrics) {
+        File file = new File(context.getExternalFilesDir(null), DUMP_FILE_NAME);
+        try {
+            metrics.dumpTo(file);
+            CookieBarToastHelper.showSuccess(context, "Timings Saved", file.getAbsolutePath(),
+                    CookieBarToastHelper.LONG_DURATION);
+        } catch (IOException e) {
+            CookieBarToastHelper.showError(context, "Save Failed", e.getMessage());
+        }
+    }
+}
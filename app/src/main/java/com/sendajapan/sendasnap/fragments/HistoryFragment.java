@@ -2,6 +2,8 @@ package com.sendajapan.sendasnap.fragments;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -25,12 +27,16 @@ import java.util.List;
 
 public class HistoryFragment extends Fragment implements VehicleAdapter.OnVehicleClickListener {
 
+    private static final long SEARCH_DEBOUNCE_MS = 250;
+
     private FragmentHistoryBinding binding;
     private VehicleAdapter vehicleAdapter;
     private VehicleCache vehicleCache;
     private HapticFeedbackHelper hapticHelper;
     private List<Vehicle> allVehicles;
     private List<Vehicle> filteredVehicles;
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable applySearchFilter = () -> filterVehicles(binding.etSearchFilter.getText().toString());
 
     @Nullable
     @Override
@@ -47,7 +53,7 @@ public class HistoryFragment extends Fragment implements VehicleAdapter.OnVehicl
         initHelpers();
         setupRecyclerView();
         setupClickListeners();
-        loadHistory();
+        observeHistory();
     }
 
     private void initHelpers() {
@@ -75,7 +81,8 @@ public class HistoryFragment extends Fragment implements VehicleAdapter.OnVehicl
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                filterVehicles(s.toString());
+                searchHandler.removeCallbacks(applySearchFilter);
+                searchHandler.postDelayed(applySearchFilter, SEARCH_DEBOUNCE_MS);
             }
 
             @Override
@@ -84,6 +91,18 @@ public class HistoryFragment extends Fragment implements VehicleAdapter.OnVehicl
         });
     }
 
+    /**
+     * Show the history now and again once it has been read from disk.
+     */
+    private void observeHistory() {
+        vehicleCache.getLoaded().observe(getViewLifecycleOwner(), loaded -> {
+            loadHistory();
+            if (!binding.etSearchFilter.getText().toString().trim().isEmpty()) {
+                applySearchFilter.run();
+            }
+        });
+    }
+
     private void loadHistory() {
         allVehicles = vehicleCache.getAllVehicles();
         filteredVehicles = allVehicles;
@@ -91,7 +110,7 @@ public class HistoryFragment extends Fragment implements VehicleAdapter.OnVehicl
     }
 
     private void filterVehicles(String query) {
-        if (TextUtils.isEmpty(query)) {
+        if (TextUtils.isEmpty(query.trim())) {
             filteredVehicles = allVehicles;
         } else {
             filteredVehicles = vehicleCache.searchVehicles(query);
@@ -137,6 +156,7 @@ public class HistoryFragment extends Fragment implements VehicleAdapter.OnVehicl
 
     @Override
     public void onDestroyView() {
+        searchHandler.removeCallbacks(applySearchFilter);
         super.onDestroyView();
         binding = null;
     }
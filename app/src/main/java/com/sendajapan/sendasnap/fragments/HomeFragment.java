@@ -25,48 +25,41 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
-import com.google.firebase.database.ValueEventListener;
-import com.google.gson.Gson;
 import com.sendajapan.sendasnap.R;
 import com.sendajapan.sendasnap.activities.NotificationsActivity;
 import com.sendajapan.sendasnap.activities.VehicleDetailsActivity;
 import com.sendajapan.sendasnap.activities.auth.LoginActivity;
 import com.sendajapan.sendasnap.adapters.VehicleAdapter;
+import com.sendajapan.sendasnap.data.repository.LocalAccountData;
+import com.sendajapan.sendasnap.data.repository.VehicleSearchService;
 import com.sendajapan.sendasnap.databinding.FragmentHomeBinding;
 import com.sendajapan.sendasnap.dialogs.LoadingDialog;
 import com.sendajapan.sendasnap.dialogs.VehicleSearchDialog;
-import com.sendajapan.sendasnap.models.ErrorResponse;
 import com.sendajapan.sendasnap.models.UserData;
 import com.sendajapan.sendasnap.models.Vehicle;
-import com.sendajapan.sendasnap.models.VehicleSearchResponse;
-import com.sendajapan.sendasnap.networking.ApiService;
 import com.sendajapan.sendasnap.networking.NetworkUtils;
-import com.sendajapan.sendasnap.networking.RetrofitClient;
+import com.sendajapan.sendasnap.services.ChatService;
+import com.sendajapan.sendasnap.services.chat.UnreadCountManager;
 import com.sendajapan.sendasnap.utils.CookieBarToastHelper;
 import com.sendajapan.sendasnap.utils.HapticFeedbackHelper;
-import com.sendajapan.sendasnap.utils.NotificationHelper;
 import com.sendajapan.sendasnap.utils.SharedPrefsManager;
 import com.sendajapan.sendasnap.utils.VehicleCache;
 
 import java.util.List;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 public class HomeFragment extends Fragment implements VehicleAdapter.OnVehicleClickListener {
 
     private FragmentHomeBinding binding;
-    private ApiService apiService;
     private HapticFeedbackHelper hapticHelper;
     private LoadingDialog loadingDialog;
     private NetworkUtils networkUtils;
     private VehicleAdapter vehicleAdapter;
     private VehicleCache vehicleCache;
+    private VehicleSearchService vehicleSearchService;
     
     private MenuItem notificationsMenuItem;
     private TextView badgeTextView;
-    private ValueEventListener unreadCountListener;
+    private UnreadCountManager.Subscription unreadCountSubscription;
 
     @Nullable
     @Override
@@ -88,7 +81,13 @@ public class HomeFragment extends Fragment implements VehicleAdapter.OnVehicleCl
         setupClickListeners();
         setupFAB();
         loadUserProfile();
-        loadRecentVehicles();
+        vehicleCache.getLoaded().observe(getViewLifecycleOwner(), loaded -> {
+            if (Boolean.TRUE.equals(loaded)) {
+                loadRecentVehicles();
+            } else {
+                showShimmer();
+            }
+        });
 
         new android.os.Handler(android.os.Looper.getMainLooper()).postDelayed(() -> {
             if (isAdded() && getContext() != null) {
@@ -99,8 +98,8 @@ public class HomeFragment extends Fragment implements VehicleAdapter.OnVehicleCl
 
     private void initHelpers() {
         vehicleCache = VehicleCache.getInstance(requireContext());
+        vehicleSearchService = VehicleSearchService.getInstance(requireContext());
         hapticHelper = HapticFeedbackHelper.getInstance(requireContext());
-        apiService = RetrofitClient.getInstance(requireContext()).getApiService();
         networkUtils = NetworkUtils.getInstance(requireContext());
     }
 
@@ -206,6 +205,13 @@ public class HomeFragment extends Fragment implements VehicleAdapter.OnVehicleCl
     }
 
     private void performSearchFromDialog(String searchType, String searchQuery) {
+        List<Vehicle> cachedVehicles = vehicleSearchService.getCached(searchType, searchQuery);
+        if (cachedVehicles != null) {
+            vehicleSearchService.cancel();
+            showSearchResults(cachedVehicles);
+            return;
+        }
+
         if (!networkUtils.isNetworkAvailable()) {
             CookieBarToastHelper.showNoInternet(requireContext());
             hapticHelper.vibrateError();
@@ -214,82 +220,53 @@ public class HomeFragment extends Fragment implements VehicleAdapter.OnVehicleCl
 
         showLoadingDialog("Searching vehicles, please wait...");
 
-        Call<VehicleSearchResponse> call = apiService.searchVehicles(searchType, searchQuery);
-        call.enqueue(new Callback<VehicleSearchResponse>() {
+        vehicleSearchService.search(searchType, searchQuery, new VehicleSearchService.SearchCallback() {
             @Override
-            public void onResponse(@NonNull Call<VehicleSearchResponse> call,
-                    @NonNull Response<VehicleSearchResponse> response) {
-                hideLoadingDialog();
-
-                if (response.isSuccessful() && response.body() != null) {
-                    VehicleSearchResponse searchResponse = response.body();
-
-                    if (searchResponse.getSuccess() != null && searchResponse.getSuccess()) {
-                        VehicleSearchResponse.VehicleSearchData data = searchResponse.getData();
-                        if (data != null && data.getVehicles() != null) {
-                            List<Vehicle> vehicles = data.getVehicles();
-
-                            if (vehicles.isEmpty()) {
-                                CookieBarToastHelper.showError(requireContext(), "No Vehicle",
-                                        "No vehicles found matching your search criteria",
-                                        CookieBarToastHelper.EXTRA_LONG_DURATION);
-
-                            } else if (vehicles.size() == 1) {
-                                Vehicle vehicle = vehicles.get(0);
-                                vehicleCache.addVehicle(vehicle);
-
-                                Intent intent = new Intent(requireContext(), VehicleDetailsActivity.class);
-                                intent.putExtra("vehicle", vehicle);
-                                startActivity(intent);
-
-                                CookieBarToastHelper.showSuccess(requireContext(), "Vehicle Found",
-                                        "Vehicle details loaded successfully!",
-                                        CookieBarToastHelper.LONG_DURATION);
-                            } else {
-                                showSearchResultsDialog(vehicles);
-                            }
-                        } else {
-                            CookieBarToastHelper.showError(requireContext(), "Error",
-                                    "No vehicle data received",
-                                    CookieBarToastHelper.LONG_DURATION);
-                        }
-                    } else {
-                        String message = searchResponse.getMessage() != null ? searchResponse.getMessage()
-                                : "Search failed";
-                        CookieBarToastHelper.showError(requireContext(), "Error", message,
-                                CookieBarToastHelper.LONG_DURATION);
-                    }
-                } else {
-                    String errorMessage = "Failed to search vehicles. Please try again.";
-                    if (response.errorBody() != null) {
-                        try {
-                            String errorBodyStr = response.errorBody().string();
-                            Gson gson = new Gson();
-                            ErrorResponse errorResponse = gson.fromJson(errorBodyStr,
-                                    ErrorResponse.class);
-                            if (errorResponse != null && errorResponse.getMessage() != null) {
-                                errorMessage = errorResponse.getMessage();
-                            }
-                        } catch (Exception e) {
-                        }
-                    }
-                    CookieBarToastHelper.showError(requireContext(), "Error",
-                            errorMessage,
-                            CookieBarToastHelper.LONG_DURATION);
+            public void onSuccess(List<Vehicle> vehicles) {
+                if (!isAdded()) {
+                    return;
                 }
+                hideLoadingDialog();
+                showSearchResults(vehicles);
             }
 
             @Override
-            public void onFailure(@NonNull Call<VehicleSearchResponse> call, @NonNull Throwable t) {
+            public void onError(String message, int errorCode) {
+                if (!isAdded()) {
+                    return;
+                }
                 hideLoadingDialog();
-                CookieBarToastHelper.showError(requireContext(), "Error",
-                        "Failed to connect to server. Please check your internet connection.",
+                CookieBarToastHelper.showError(requireContext(), "Error", message,
                         CookieBarToastHelper.LONG_DURATION);
-                hapticHelper.vibrateError();
+                if (errorCode == 0) {
+                    hapticHelper.vibrateError();
+                }
             }
         });
     }
 
+    private void showSearchResults(List<Vehicle> vehicles) {
+        if (vehicles.isEmpty()) {
+            CookieBarToastHelper.showError(requireContext(), "No Vehicle",
+                    "No vehicles found matching your search criteria",
+                    CookieBarToastHelper.EXTRA_LONG_DURATION);
+
+        } else if (vehicles.size() == 1) {
+            Vehicle vehicle = vehicles.get(0);
+            vehicleCache.addVehicle(vehicle);
+
+            Intent intent = new Intent(requireContext(), VehicleDetailsActivity.class);
+            intent.putExtra("vehicle", vehicle);
+            startActivity(intent);
+
+            CookieBarToastHelper.showSuccess(requireContext(), "Vehicle Found",
+                    "Vehicle details loaded successfully!",
+                    CookieBarToastHelper.LONG_DURATION);
+        } else {
+            showSearchResultsDialog(vehicles);
+        }
+    }
+
     private void showSearchResultsDialog(List<Vehicle> vehicles) {
         Dialog resultsDialog = new Dialog(requireContext());
         resultsDialog.setContentView(R.layout.dialog_vehicle_search_results);
@@ -348,7 +325,11 @@ public class HomeFragment extends Fragment implements VehicleAdapter.OnVehicleCl
                 return;
             }
 
-            List<Vehicle> dummyVehicles = SharedPrefsManager.getInstance(requireContext()).getRecentVehicles();
+            if (!Boolean.TRUE.equals(vehicleCache.getLoaded().getValue())) {
+                return;
+            }
+
+            List<Vehicle> dummyVehicles = vehicleCache.getAllVehicles();
 
             hideShimmer();
 
@@ -400,18 +381,6 @@ public class HomeFragment extends Fragment implements VehicleAdapter.OnVehicleCl
         super.onResume();
         if (isAdded() && binding != null && getContext() != null) {
             loadRecentVehicles();
-            if (SharedPrefsManager.getInstance(getContext()).isLoggedIn()) {
-                NotificationHelper.getUnreadNotificationCount(getContext(), new NotificationHelper.UnreadCountCallback() {
-                    @Override
-                    public void onSuccess(int unreadCount) {
-                        updateNotificationBadge(unreadCount);
-                    }
-
-                    @Override
-                    public void onFailure(Exception e) {
-                    }
-                });
-            }
         }
     }
 
@@ -419,11 +388,10 @@ public class HomeFragment extends Fragment implements VehicleAdapter.OnVehicleCl
     public void onDestroyView() {
         super.onDestroyView();
 
-        if (unreadCountListener != null && getContext() != null) {
-            NotificationHelper.removeUnreadCountListener(getContext(), unreadCountListener);
-            unreadCountListener = null;
-        }
+        ChatService.getInstance().removeUnreadCountSubscription(unreadCountSubscription);
+        unreadCountSubscription = null;
 
+        vehicleSearchService.cancel();
         hideLoadingDialog();
         binding = null;
     }
@@ -494,18 +462,9 @@ public class HomeFragment extends Fragment implements VehicleAdapter.OnVehicleCl
             return;
         }
 
-        NotificationHelper.getUnreadNotificationCount(getContext(), new NotificationHelper.UnreadCountCallback() {
-            @Override
-            public void onSuccess(int unreadCount) {
-                updateNotificationBadge(unreadCount);
-            }
-
-            @Override
-            public void onFailure(Exception e) {
-            }
-        });
-
-        unreadCountListener = NotificationHelper.addUnreadCountListener(getContext(), new NotificationHelper.UnreadCountCallback() {
+        ChatService.getInstance().removeUnreadCountSubscription(unreadCountSubscription);
+        unreadCountSubscription = ChatService.getInstance().addNotificationCountSubscription(getContext(),
+                new ChatService.UnreadCountCallback() {
             @Override
             public void onSuccess(int unreadCount) {
                 updateNotificationBadge(unreadCount);
@@ -592,6 +551,9 @@ public class HomeFragment extends Fragment implements VehicleAdapter.OnVehicleCl
     }
 
     private void performLogout() {
+        ChatService.getInstance().clearUnreadCounts();
+        LocalAccountData.clear(requireContext());
+
         SharedPrefsManager prefsManager = SharedPrefsManager.getInstance(requireContext());
         prefsManager.logout();
 
@@ -11,9 +11,11 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.bumptech.glide.Glide;
+import com.sendajapan.sendasnap.BuildConfig;
 import com.sendajapan.sendasnap.R;
 import com.sendajapan.sendasnap.activities.HistoryActivity;
 import com.sendajapan.sendasnap.databinding.FragmentProfileBinding;
+import com.sendajapan.sendasnap.dialogs.NetworkDiagnosticsDialog;
 import com.sendajapan.sendasnap.models.UserData;
 import com.sendajapan.sendasnap.utils.HapticFeedbackHelper;
 import com.sendajapan.sendasnap.utils.SharedPrefsManager;
@@ -61,6 +63,14 @@ public class ProfileFragment extends Fragment {
             hapticHelper.vibrateClick();
             openHistory();
         });
+
+        if (BuildConfig.DEBUG) {
+            binding.imgProfile.setOnLongClickListener(v -> {
+                hapticHelper.vibrateClick();
+                NetworkDiagnosticsDialog.show(requireContext());
+                return true;
+            });
+        }
     }
 
     private void loadUserData() {
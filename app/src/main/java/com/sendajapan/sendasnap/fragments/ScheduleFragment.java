@@ -1,8 +1,9 @@
 package com.sendajapan.sendasnap.fragments;
 
-import android.annotation.SuppressLint;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -22,22 +23,17 @@ import com.sendajapan.sendasnap.R;
 import com.sendajapan.sendasnap.activities.schedule.AddScheduleActivity;
 import com.sendajapan.sendasnap.activities.schedule.ScheduleDetailActivity;
 import com.sendajapan.sendasnap.adapters.TaskAdapter;
-import com.sendajapan.sendasnap.data.dto.PagedResult;
-import com.sendajapan.sendasnap.data.dto.StatusUpdateRequest;
-import com.sendajapan.sendasnap.data.dto.TaskResponseDto;
 import com.sendajapan.sendasnap.data.mapper.TaskMapper;
+import com.sendajapan.sendasnap.data.repository.TaskRangePrefetcher;
 import com.sendajapan.sendasnap.databinding.DialogTaskStatusBinding;
 import com.sendajapan.sendasnap.databinding.FragmentScheduleBinding;
-import com.sendajapan.sendasnap.dialogs.LoadingDialog;
-import com.sendajapan.sendasnap.models.ApiResponse;
 import com.sendajapan.sendasnap.models.Task;
 import com.sendajapan.sendasnap.models.UserData;
-import com.sendajapan.sendasnap.networking.ApiService;
 import com.sendajapan.sendasnap.networking.NetworkUtils;
-import com.sendajapan.sendasnap.networking.RetrofitClient;
 import com.sendajapan.sendasnap.utils.CookieBarToastHelper;
 import com.sendajapan.sendasnap.utils.HapticFeedbackHelper;
 import com.sendajapan.sendasnap.utils.SharedPrefsManager;
+import com.sendajapan.sendasnap.utils.TaskFilter;
 import com.sendajapan.sendasnap.viewmodel.TaskViewModel;
 
 import java.text.SimpleDateFormat;
@@ -46,11 +42,8 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-
-import okhttp3.ResponseBody;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Fragment for displaying and managing work schedules/tasks.
@@ -63,8 +56,6 @@ public class ScheduleFragment extends Fragment
     private static final int ADD_TASK_REQUEST_CODE = 1001;
     private static final String DATE_FORMAT_INPUT = "yyyy-MM-dd";
     private static final String DATE_FORMAT_OUTPUT = "EEEE, MMMM dd, yyyy";
-    private static final String DATE_SEPARATOR = "T";
-    private static final int MIN_DATE_LENGTH = 10;
     private static final int HTTP_UNAUTHORIZED = 401;
     private static final int HTTP_FORBIDDEN = 403;
     private static final int HTTP_NOT_FOUND = 404;
@@ -89,10 +80,11 @@ public class ScheduleFragment extends Fragment
     private SharedPrefsManager prefsManager;
     private TaskAdapter taskAdapter;
     private TaskViewModel taskViewModel;
-    private ApiService apiService;
+    private TaskRangePrefetcher schedulePrefetcher;
     private NetworkUtils networkUtils;
     private HapticFeedbackHelper hapticHelper;
-    private LoadingDialog loadingDialog;
+    private ExecutorService filterExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     // State
     private Task.TaskStatus currentFilter = null;
@@ -103,7 +95,26 @@ public class ScheduleFragment extends Fragment
 
     // Data
     private final List<Task> allTasks = new ArrayList<>();
-    private final List<Task> filteredTasks = new ArrayList<>();
+
+    private final TaskRangePrefetcher.DayTasksListener dayTasksListener = new TaskRangePrefetcher.DayTasksListener() {
+        @Override
+        public void onDayTasks(String date, List<Task> tasks) {
+            if (!isAdded() || binding == null || !date.equals(selectedDate)) {
+                return;
+            }
+
+            handleTasksLoadSuccess(tasks);
+        }
+
+        @Override
+        public void onDayError(String date, String message, int errorCode) {
+            if (!isAdded() || binding == null || !date.equals(selectedDate)) {
+                return;
+            }
+
+            handleTasksLoadError(message, errorCode);
+        }
+    };
 
     @Nullable
     @Override
@@ -118,6 +129,7 @@ public class ScheduleFragment extends Fragment
         super.onViewCreated(view, savedInstanceState);
         initializeDependencies();
         setupViews();
+        observeRejectedChanges();
         initializeSelectedDate();
         loadTasksIfConnected();
     }
@@ -130,9 +142,11 @@ public class ScheduleFragment extends Fragment
         taskViewModel = new ViewModelProvider(this,
                 ViewModelProvider.AndroidViewModelFactory.getInstance(requireActivity().getApplication()))
                 .get(TaskViewModel.class);
-        apiService = RetrofitClient.getInstance(requireContext()).getApiService();
+        schedulePrefetcher = taskViewModel.getSchedulePrefetcher();
+        schedulePrefetcher.setListener(dayTasksListener);
         networkUtils = NetworkUtils.getInstance(requireContext());
         hapticHelper = HapticFeedbackHelper.getInstance(requireContext());
+        filterExecutor = Executors.newSingleThreadExecutor();
     }
 
     /**
@@ -158,7 +172,7 @@ public class ScheduleFragment extends Fragment
      * Sets up the RecyclerView for displaying tasks.
      */
     private void setupRecyclerView() {
-        taskAdapter = new TaskAdapter(filteredTasks, this);
+        taskAdapter = new TaskAdapter(this);
         taskAdapter.setOnTaskLongClickListener(this);
         binding.recyclerViewTasks.setLayoutManager(new LinearLayoutManager(requireContext()));
         binding.recyclerViewTasks.setAdapter(taskAdapter);
@@ -216,7 +230,6 @@ public class ScheduleFragment extends Fragment
         }
 
         filterTasks();
-        loadTasksIfConnected();
     }
 
     /**
@@ -340,13 +353,11 @@ public class ScheduleFragment extends Fragment
     }
 
     /**
-     * Checks internet connectivity before loading tasks from API.
+     * Loads tasks, warning first when offline. Stored tasks are still shown without connectivity.
      */
     private void loadTasksIfConnected() {
         if (!networkUtils.isNetworkAvailable()) {
             showNoInternetError();
-            hideShimmer();
-            return;
         }
 
         loadTasksFromApi();
@@ -361,46 +372,40 @@ public class ScheduleFragment extends Fragment
     }
 
     /**
-     * Loads tasks from the API for the selected date.
+     * Selects the date in the range prefetcher. Days inside the prefetched window are
+     * delivered immediately; the shimmer is only shown while a range request is pending.
      */
     private void loadTasksFromApi() {
         if (selectedDate == null) {
             initializeSelectedDate();
         }
 
-        showShimmer();
-
-        taskViewModel.listTasks(selectedDate, selectedDate, new TaskViewModel.TaskCallback<PagedResult<Task>>() {
-            @Override
-            public void onSuccess(PagedResult<Task> result) {
-                if (!isAdded() || binding == null) {
-                    return;
-                }
+        if (!schedulePrefetcher.isLoaded(selectedDate)) {
+            showShimmer();
+        }
 
-                handleTasksLoadSuccess(result);
-            }
+        schedulePrefetcher.select(selectedDate);
+    }
 
-            @Override
-            public void onError(String message, int errorCode) {
-                if (!isAdded() || binding == null) {
-                    return;
-                }
+    /**
+     * Reloads the prefetched window around the selected date, e.g. after returning to the screen.
+     */
+    private void reloadTasks() {
+        if (!networkUtils.isNetworkAvailable()) {
+            showNoInternetError();
+        }
 
-                handleTasksLoadError(message, errorCode);
-            }
-        });
+        schedulePrefetcher.refresh();
     }
 
     /**
      * Handles successful task loading.
      *
-     * @param result The paged result containing tasks
+     * @param tasks Tasks of the selected date
      */
-    private void handleTasksLoadSuccess(@Nullable PagedResult<Task> result) {
+    private void handleTasksLoadSuccess(@NonNull List<Task> tasks) {
         allTasks.clear();
-        if (result != null && result.getItems() != null) {
-            allTasks.addAll(result.getItems());
-        }
+        allTasks.addAll(tasks);
 
         hideShimmer();
         filterTasks();
@@ -417,6 +422,10 @@ public class ScheduleFragment extends Fragment
         allTasks.clear();
         filterTasks();
 
+        if (!networkUtils.isNetworkAvailable()) {
+            return;
+        }
+
         String errorMessage = getErrorMessage(message, errorCode);
         Toast.makeText(requireContext(), "Failed to load tasks: " + errorMessage, Toast.LENGTH_SHORT).show();
     }
@@ -469,47 +478,22 @@ public class ScheduleFragment extends Fragment
     }
 
     /**
-     * Filters tasks based on selected date and status filter.
+     * Filters tasks based on selected date and status filter on a background thread,
+     * then submits the result to the adapter so only changed rows are rebound.
      */
-    @SuppressLint("NotifyDataSetChanged")
     private void filterTasks() {
-        filteredTasks.clear();
-
-        for (Task task : allTasks) {
-            String taskDate = extractDateFromWorkDate(task.getWorkDate());
-
-            if (taskDate != null && taskDate.equals(selectedDate)) {
-                if (currentFilter == null || task.getStatus() == currentFilter) {
-                    filteredTasks.add(task);
+        List<Task> snapshot = new ArrayList<>(allTasks);
+        String date = selectedDate;
+        Task.TaskStatus status = currentFilter;
+
+        filterExecutor.execute(() -> {
+            List<Task> filtered = TaskFilter.filter(snapshot, date, status);
+            mainHandler.post(() -> {
+                if (binding != null) {
+                    taskAdapter.submitList(filtered, this::updateEmptyState);
                 }
-            }
-        }
-
-        taskAdapter.notifyDataSetChanged();
-        updateEmptyState();
-    }
-
-    /**
-     * Extracts date string from work date (handles ISO format with 'T' separator).
-     *
-     * @param workDate The work date string (may contain time)
-     * @return Extracted date string in yyyy-MM-dd format, or null if invalid
-     */
-    @Nullable
-    private String extractDateFromWorkDate(@Nullable String workDate) {
-        if (workDate == null || workDate.isEmpty()) {
-            return null;
-        }
-
-        if (workDate.contains(DATE_SEPARATOR)) {
-            return workDate.substring(0, MIN_DATE_LENGTH);
-        }
-
-        if (workDate.length() >= MIN_DATE_LENGTH) {
-            return workDate.substring(0, MIN_DATE_LENGTH);
-        }
-
-        return workDate;
+            });
+        });
     }
 
     /**
@@ -520,7 +504,7 @@ public class ScheduleFragment extends Fragment
             return;
         }
 
-        if (filteredTasks.isEmpty()) {
+        if (taskAdapter.getCurrentList().isEmpty()) {
             binding.layoutEmptyState.setVisibility(View.VISIBLE);
             binding.recyclerViewTasks.setVisibility(View.GONE);
         } else {
@@ -547,7 +531,7 @@ public class ScheduleFragment extends Fragment
      * @param task The saved task
      */
     private void onTaskSaved(@NonNull Task task) {
-        loadTasksIfConnected();
+        reloadTasks();
         Toast.makeText(requireContext(), "Task added successfully", Toast.LENGTH_SHORT).show();
     }
 
@@ -604,22 +588,22 @@ public class ScheduleFragment extends Fragment
             @NonNull AlertDialog dialog) {
         dialogBinding.btnStatusPending.setOnClickListener(v -> {
             hapticHelper.vibrateClick();
-            updateTaskStatusIfConnected(task, STATUS_PENDING, dialog);
+            updateTaskStatus(task, STATUS_PENDING, dialog);
         });
 
         dialogBinding.btnStatusRunning.setOnClickListener(v -> {
             hapticHelper.vibrateClick();
-            updateTaskStatusIfConnected(task, STATUS_RUNNING, dialog);
+            updateTaskStatus(task, STATUS_RUNNING, dialog);
         });
 
         dialogBinding.btnStatusCompleted.setOnClickListener(v -> {
             hapticHelper.vibrateClick();
-            updateTaskStatusIfConnected(task, STATUS_COMPLETED, dialog);
+            updateTaskStatus(task, STATUS_COMPLETED, dialog);
         });
 
         dialogBinding.btnStatusCancelled.setOnClickListener(v -> {
             hapticHelper.vibrateClick();
-            updateTaskStatusIfConnected(task, STATUS_CANCELLED, dialog);
+            updateTaskStatus(task, STATUS_CANCELLED, dialog);
         });
 
         UserData currentUser = prefsManager.getUser();
@@ -642,104 +626,35 @@ public class ScheduleFragment extends Fragment
     }
 
     /**
-     * Checks internet connectivity before updating task status.
-     *
-     * @param task   The task to update
-     * @param status The new status
-     * @param dialog The dialog to dismiss on success
-     */
-    private void updateTaskStatusIfConnected(@NonNull Task task, @NonNull String status, @NonNull AlertDialog dialog) {
-        if (!networkUtils.isNetworkAvailable()) {
-            showNoInternetError();
-            return;
-        }
-
-        updateTaskStatus(task, status, dialog);
-    }
-
-    /**
-     * Updates the task status via API.
+     * Updates the task status. The change is shown at once and sent to the server when online.
      *
      * @param task   The task to update
      * @param status The new status string
      * @param dialog The dialog to dismiss on success
      */
     private void updateTaskStatus(@NonNull Task task, @NonNull String status, @NonNull AlertDialog dialog) {
-        if (loadingDialog != null && loadingDialog.isShowing()) {
-            return;
-        }
-
-        showLoadingDialog("Updating task status...");
-
-        StatusUpdateRequest request = new StatusUpdateRequest(status);
-        Call<ApiResponse<TaskResponseDto>> call = apiService.updateTaskStatus(task.getId(), request);
-
-        call.enqueue(new Callback<ApiResponse<TaskResponseDto>>() {
-            @Override
-            public void onResponse(@NonNull Call<ApiResponse<TaskResponseDto>> call,
-                    @NonNull Response<ApiResponse<TaskResponseDto>> response) {
-                dismissLoadingDialog();
-
-                if (response.isSuccessful() && response.body() != null && response.body().getData() != null) {
-                    handleStatusUpdateSuccess(response.body().getData(), dialog);
-                } else {
-                    handleStatusUpdateError(response);
-                }
-            }
-
-            @Override
-            public void onFailure(@NonNull Call<ApiResponse<TaskResponseDto>> call, @NonNull Throwable t) {
-                dismissLoadingDialog();
-                showNetworkError();
-            }
-        });
-    }
-
-    /**
-     * Handles successful task status update.
-     *
-     * @param taskResponseDto The updated task data
-     * @param dialog          The dialog to dismiss
-     */
-    private void handleStatusUpdateSuccess(@NonNull TaskResponseDto taskResponseDto, @NonNull AlertDialog dialog) {
-        if (taskResponseDto.getTask() != null) {
-            Task updatedTask = TaskMapper.toDomain(taskResponseDto.getTask());
-            updateTaskInList(updatedTask);
-            dialog.dismiss();
-
-            CookieBarToastHelper.showSuccess(requireContext(), "Success",
-                    "Task status updated successfully", CookieBarToastHelper.SHORT_DURATION);
-        } else {
-            CookieBarToastHelper.showError(requireContext(), "Error",
-                    "Invalid response from server", CookieBarToastHelper.LONG_DURATION);
-        }
-    }
-
-    /**
-     * Handles task status update error.
-     *
-     * @param response The API response
-     */
-    private void handleStatusUpdateError(@NonNull Response<ApiResponse<TaskResponseDto>> response) {
-        String errorMessage = "Failed to update task status";
-        if (response.errorBody() != null) {
-            try {
-                errorMessage = response.errorBody().string();
-            } catch (Exception e) {
-                // Keep default error message
-            }
-        }
-        CookieBarToastHelper.showError(requireContext(), "Error", errorMessage,
-                CookieBarToastHelper.LONG_DURATION);
-    }
-
-    /**
-     * Shows network error message.
-     */
-    private void showNetworkError() {
-        CookieBarToastHelper.showError(requireContext(), "Error",
-                "Network error. Please check your connection and try again.",
-                CookieBarToastHelper.LONG_DURATION);
+        taskViewModel.updateTaskStatus(task.getId(), TaskMapper.parseStatus(status),
+                new TaskViewModel.TaskCallback<Task>() {
+                    @Override
+                    public void onSuccess(Task updatedTask) {
+                        if (!isAdded() || binding == null) {
+                            return;
+                        }
+                        updateTaskInList(updatedTask);
+                        dialog.dismiss();
+                        CookieBarToastHelper.showSuccess(requireContext(), "Success",
+                                "Task status updated successfully", CookieBarToastHelper.SHORT_DURATION);
+                    }
+
+                    @Override
+                    public void onError(String message, int errorCode) {
+                        if (!isAdded()) {
+                            return;
+                        }
+                        CookieBarToastHelper.showError(requireContext(), "Error",
+                                getErrorMessage(message, errorCode), CookieBarToastHelper.LONG_DURATION);
+                    }
+                });
     }
 
     /**
@@ -754,6 +669,7 @@ public class ScheduleFragment extends Fragment
                 break;
             }
         }
+        schedulePrefetcher.replaceTask(updatedTask);
         filterTasks();
     }
 
@@ -768,7 +684,7 @@ public class ScheduleFragment extends Fragment
                 .setMessage("Are you sure you want to delete this task? This action cannot be undone.")
                 .setPositiveButton("Delete", (dialog, which) -> {
                     hapticHelper.vibrateClick();
-                    deleteTaskIfConnected(task);
+                    deleteTask(task);
                 })
                 .setNegativeButton("Cancel", (dialog, which) -> {
                     hapticHelper.vibrateClick();
@@ -777,120 +693,49 @@ public class ScheduleFragment extends Fragment
     }
 
     /**
-     * Checks internet connectivity before deleting task.
-     *
-     * @param task The task to delete
-     */
-    private void deleteTaskIfConnected(@NonNull Task task) {
-        if (!networkUtils.isNetworkAvailable()) {
-            showNoInternetError();
-            return;
-        }
-
-        deleteTask(task);
-    }
-
-    /**
-     * Deletes a task via API.
+     * Deletes the task. It is removed from the list at once and deleted on the server when online.
      *
      * @param task The task to delete
      */
     private void deleteTask(@NonNull Task task) {
-        if (loadingDialog != null && loadingDialog.isShowing()) {
-            return;
-        }
-
-        showLoadingDialog("Deleting task...");
-
-        Call<ApiResponse<Object>> call = apiService.deleteTask(task.getId());
-
-        call.enqueue(new Callback<ApiResponse<Object>>() {
+        taskViewModel.deleteTask(task.getId(), new TaskViewModel.TaskCallback<Void>() {
             @Override
-            public void onResponse(@NonNull Call<ApiResponse<Object>> call,
-                    @NonNull Response<ApiResponse<Object>> response) {
-                dismissLoadingDialog();
-
-                if (response.isSuccessful() && response.body() != null) {
-                    handleDeleteSuccess(response.body(), task);
-                } else {
-                    handleDeleteError(response);
+            public void onSuccess(Void result) {
+                if (!isAdded() || binding == null) {
+                    return;
                 }
+                allTasks.removeIf(t -> t.getId() == task.getId());
+                schedulePrefetcher.removeTask(task.getId());
+                filterTasks();
+                CookieBarToastHelper.showSuccess(requireContext(), "Success", "Task deleted successfully",
+                        CookieBarToastHelper.SHORT_DURATION);
             }
 
             @Override
-            public void onFailure(@NonNull Call<ApiResponse<Object>> call, @NonNull Throwable t) {
-                dismissLoadingDialog();
-                showNetworkError();
+            public void onError(String message, int errorCode) {
+                if (!isAdded()) {
+                    return;
+                }
+                CookieBarToastHelper.showError(requireContext(), "Error",
+                        getErrorMessage(message, errorCode), CookieBarToastHelper.LONG_DURATION);
             }
         });
     }
 
     /**
-     * Handles successful task deletion.
-     *
-     * @param apiResponse The API response
-     * @param task        The deleted task
-     */
-    private void handleDeleteSuccess(@NonNull ApiResponse<Object> apiResponse, @NonNull Task task) {
-        if (apiResponse.getSuccess() != null && apiResponse.getSuccess()) {
-            allTasks.removeIf(t -> t.getId() == task.getId());
-            filterTasks();
-            String message = apiResponse.getMessage() != null
-                    ? apiResponse.getMessage()
-                    : "Task deleted successfully";
-            CookieBarToastHelper.showSuccess(requireContext(), "Success", message,
-                    CookieBarToastHelper.SHORT_DURATION);
-        } else {
-            String errorMessage = apiResponse.getMessage() != null
-                    ? apiResponse.getMessage()
-                    : "Failed to delete task";
-            CookieBarToastHelper.showError(requireContext(), "Error", errorMessage,
-                    CookieBarToastHelper.LONG_DURATION);
-        }
-    }
-
-    /**
-     * Handles task deletion error.
-     *
-     * @param response The API response
-     */
-    private void handleDeleteError(@NonNull Response<ApiResponse<Object>> response) {
-        String errorMessage = "Failed to delete task";
-        if (response.errorBody() != null) {
-            try {
-                errorMessage = response.errorBody().string();
-            } catch (Exception e) {
-                // Keep default error message
-            }
-        }
-        if (response.code() == HTTP_NOT_FOUND) {
-            errorMessage = "Task not found";
-        }
-        CookieBarToastHelper.showError(requireContext(), "Error", errorMessage,
-                CookieBarToastHelper.LONG_DURATION);
-    }
-
-    /**
-     * Shows loading dialog with message.
-     *
-     * @param message The message to display
-     */
-    private void showLoadingDialog(@NonNull String message) {
-        loadingDialog = new LoadingDialog.Builder(requireContext())
-                .setMessage(message)
-                .setCancelable(false)
-                .setShowProgressIndicator(true)
-                .build();
-        loadingDialog.show();
-    }
-
-    /**
-     * Dismisses the loading dialog if showing.
+     * Shows changes the server rejected after they were applied offline, and reloads the days
+     * around the selected date, where the task has been restored.
      */
-    private void dismissLoadingDialog() {
-        if (loadingDialog != null && loadingDialog.isShowing()) {
-            loadingDialog.dismiss();
-        }
+    private void observeRejectedChanges() {
+        taskViewModel.getRejectedChanges().observe(getViewLifecycleOwner(), rejection -> {
+            if (rejection == null || !rejection.markHandled()) {
+                return;
+            }
+            CookieBarToastHelper.showError(requireContext(), "Change not saved",
+                    getErrorMessage(rejection.getMessage(), rejection.getErrorCode()),
+                    CookieBarToastHelper.LONG_DURATION);
+            reloadTasks();
+        });
     }
 
     @Override
@@ -909,7 +754,7 @@ public class ScheduleFragment extends Fragment
     public void onResume() {
         super.onResume();
         if (isAdded() && binding != null && !isFirstLoad) {
-            loadTasksIfConnected();
+            reloadTasks();
         }
         isFirstLoad = false;
     }
@@ -917,7 +762,10 @@ public class ScheduleFragment extends Fragment
     @Override
     public void onDestroyView() {
         super.onDestroyView();
-        dismissLoadingDialog();
+        filterExecutor.shutdownNow();
+        schedulePrefetcher.setListener(null);
+        taskAdapter.releaseUnreadCountSubscriptions();
+        mainHandler.removeCallbacksAndMessages(null);
         binding = null;
     }
 }
@@ -1,6 +1,7 @@
 package com.sendajapan.sendasnap.models;
 
 import com.google.gson.annotations.SerializedName;
+import com.sendajapan.sendasnap.utils.TaskDateCodec;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -23,6 +24,8 @@ public class Task implements Serializable {
     @SerializedName("work_time")
     private String workTime;
 
+    private transient String workTimeDisplay;
+
     @SerializedName("status")
     private String statusString;
 
@@ -121,6 +124,19 @@ public class Task implements Serializable {
 
     public void setWorkTime(String workTime) {
         this.workTime = workTime;
+        this.workTimeDisplay = null;
+    }
+
+    public String getWorkTimeDisplay() {
+        // Formatted once; TaskMapper pre-computes it when mapping API responses
+        if (workTimeDisplay == null) {
+            workTimeDisplay = TaskDateCodec.formatTime12Hour(workTime);
+        }
+        return workTimeDisplay;
+    }
+
+    public void setWorkTimeDisplay(String workTimeDisplay) {
+        this.workTimeDisplay = workTimeDisplay;
     }
 
     public TaskStatus getStatus() {
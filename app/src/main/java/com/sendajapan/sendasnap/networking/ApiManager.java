@@ -4,13 +4,14 @@ import android.content.Context;
 
 import androidx.annotation.NonNull;
 
-import com.google.gson.Gson;
+import com.sendajapan.sendasnap.data.dto.UsersListResponseDto;
+import com.sendajapan.sendasnap.data.json.GsonProvider;
+import com.sendajapan.sendasnap.data.mapper.UserMapper;
 import com.sendajapan.sendasnap.models.ApiResponse;
 import com.sendajapan.sendasnap.models.ErrorResponse;
 import com.sendajapan.sendasnap.models.Task;
 import com.sendajapan.sendasnap.models.TasksResponse;
 import com.sendajapan.sendasnap.models.UserData;
-import com.sendajapan.sendasnap.models.UsersResponse;
 
 import java.util.List;
 
@@ -37,23 +38,24 @@ public class ApiManager {
     }
 
     /**
-     * Get all users from the API
+     * Get all users from the API.
+     * Uses the same endpoint method as UserRepositoryImpl so concurrent fetches are coalesced.
      * @param callback Callback to handle success or error
      */
     public void getUsers(ApiCallback<List<UserData>> callback) {
-        Call<ApiResponse<UsersResponse.UsersData>> call = apiService.getUsers();
-        call.enqueue(new Callback<ApiResponse<UsersResponse.UsersData>>() {
+        Call<ApiResponse<UsersListResponseDto>> call = apiService.getUsersList(CachePolicy.REVALIDATE);
+        call.enqueue(new Callback<ApiResponse<UsersListResponseDto>>() {
             @Override
-            public void onResponse(@NonNull Call<ApiResponse<UsersResponse.UsersData>> call,
-                                   @NonNull Response<ApiResponse<UsersResponse.UsersData>> response) {
+            public void onResponse(@NonNull Call<ApiResponse<UsersListResponseDto>> call,
+                                   @NonNull Response<ApiResponse<UsersListResponseDto>> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<UsersResponse.UsersData> apiResponse = response.body();
+                    ApiResponse<UsersListResponseDto> apiResponse = response.body();
                     
                     // Check if the API call was successful
                     if (apiResponse.getSuccess() != null && apiResponse.getSuccess()) {
                         // Extract users from the response
                         if (apiResponse.getData() != null && apiResponse.getData().getUsers() != null) {
-                            callback.onSuccess(apiResponse.getData().getUsers());
+                            callback.onSuccess(UserMapper.toDomainList(apiResponse.getData().getUsers()));
                         } else {
                             callback.onError("No users data received", response.code());
                         }
@@ -72,7 +74,7 @@ public class ApiManager {
             }
 
             @Override
-            public void onFailure(@NonNull Call<ApiResponse<UsersResponse.UsersData>> call,
+            public void onFailure(@NonNull Call<ApiResponse<UsersListResponseDto>> call,
                                   @NonNull Throwable t) {
                 String errorMessage = "Network error. Please check your connection and try again.";
                 if (t.getMessage() != null) {
@@ -94,8 +96,7 @@ public class ApiManager {
         if (response.errorBody() != null) {
             try {
                 String errorBodyStr = response.errorBody().string();
-                Gson gson = new Gson();
-                ErrorResponse errorResponse = gson.fromJson(errorBodyStr, ErrorResponse.class);
+                ErrorResponse errorResponse = GsonProvider.get().fromJson(errorBodyStr, ErrorResponse.class);
                 
                 if (errorResponse != null && errorResponse.getMessage() != null) {
                     return errorResponse.getMessage();
@@ -1,13 +1,14 @@
 package com.sendajapan.sendasnap.networking;
 
+import com.sendajapan.sendasnap.data.dto.PagedResult;
 import com.sendajapan.sendasnap.data.dto.StatusUpdateRequest;
 import com.sendajapan.sendasnap.data.dto.TaskResponseDto;
-import com.sendajapan.sendasnap.data.dto.TasksListResponseDto;
 import com.sendajapan.sendasnap.data.dto.UsersListResponseDto;
 import com.sendajapan.sendasnap.models.ApiResponse;
 import com.sendajapan.sendasnap.models.ChangePasswordRequest;
 import com.sendajapan.sendasnap.models.LoginRequest;
 import com.sendajapan.sendasnap.models.LoginResponse;
+import com.sendajapan.sendasnap.models.Task;
 import com.sendajapan.sendasnap.models.TasksResponse;
 import com.sendajapan.sendasnap.models.UsersResponse;
 import com.sendajapan.sendasnap.models.Vehicle;
@@ -19,11 +20,13 @@ import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.Multipart;
 import retrofit2.http.POST;
 import retrofit2.http.Part;
 import retrofit2.http.Path;
 import retrofit2.http.Query;
+import retrofit2.http.Tag;
 
 import java.util.List;
 
@@ -37,7 +40,7 @@ public interface ApiService {
 
     // Refresh token
     @POST("api/v1/auth/refresh")
-    Call<LoginResponse> refreshToken();
+    Call<LoginResponse> refreshToken(@Header("Authorization") String authorization);
 
     // Change password
     @POST("api/v1/auth/change-password")
@@ -51,21 +54,26 @@ public interface ApiService {
     @GET("api/v1/vehicles/search")
     Call<VehicleSearchResponse> searchVehicles(
             @Query("search_type") String searchType,
-            @Query("search_query") String searchQuery);
+            @Query("search_query") String searchQuery,
+            @Tag CachePolicy cachePolicy);
 
     // Upload vehicle images
+    @BulkLane
     @Multipart
     @POST("api/v1/vehicle/{id}/images")
     Call<ResponseBody> uploadVehicleImages(
             @Path("id") String vehicleId,
             @Part List<MultipartBody.Part> images);
 
-    // Upload vehicle images (new endpoint)
+    // Upload vehicle images (new endpoint); retried by VehicleImageUploadQueue
+    @BulkLane
+    @NoRetry
     @Multipart
     @POST("api/v1/vehicles/upload-images")
     Call<VehicleImageUploadResponse> uploadVehicleImagesNew(
             @Part("vehicle_id") okhttp3.RequestBody vehicleId,
-            @Part List<MultipartBody.Part> images);
+            @Part List<MultipartBody.Part> images,
+            @Header(RetryInterceptor.IDEMPOTENCY_KEY_HEADER) String idempotencyKey);
 
     // Get all users
     @GET("api/v1/users")
@@ -86,17 +94,19 @@ public interface ApiService {
 
     // Get tasks list with date range and pagination
     @GET("api/v1/tasks")
-    Call<ApiResponse<TasksListResponseDto>> getTasksList(
+    Call<ApiResponse<PagedResult<Task>>> getTasksList(
             @Query("from_date") String fromDate,
-            @Query("to_date") String toDate);
+            @Query("to_date") String toDate,
+            @Tag CachePolicy cachePolicy);
 
     // Get single task by ID
     @GET("api/v1/tasks/{id}")
-    Call<ApiResponse<TaskResponseDto>> getTask(@Path("id") Integer id);
+    Call<ApiResponse<Task>> getTask(@Path("id") Integer id, @Tag CachePolicy cachePolicy);
 
     // Create task with multipart (fields + attachments)
     // Note: assigned_to[] and attachments[] will be built as individual parts in
     // repository
+    @BulkLane
     @Multipart
     @POST("api/v1/tasks")
     Call<ApiResponse<TaskResponseDto>> createTask(@Part List<MultipartBody.Part> parts);
@@ -105,22 +115,26 @@ public interface ApiService {
     // Note: assigned_to[] and attachments[] will be built as individual parts in
     // repository
     // Using POST with _method=PUT for Laravel method spoofing (more reliable than PUT with multipart)
+    @BulkLane
     @Multipart
     @POST("api/v1/tasks/{id}")
-    Call<ApiResponse<TaskResponseDto>> updateTask(@Path("id") int id, @Part List<MultipartBody.Part> parts);
+    Call<ApiResponse<TaskResponseDto>> updateTask(@Path("id") int id, @Part List<MultipartBody.Part> parts,
+            @Header(RetryInterceptor.IDEMPOTENCY_KEY_HEADER) String idempotencyKey);
 
     // Delete task
     @DELETE("api/v1/tasks/{id}")
-    Call<ApiResponse<Object>> deleteTask(@Path("id") Integer id);
+    Call<ApiResponse<Object>> deleteTask(@Path("id") Integer id,
+            @Header(RetryInterceptor.IDEMPOTENCY_KEY_HEADER) String idempotencyKey);
 
     // Update task status
     @POST("api/v1/tasks/{id}/status")
     Call<ApiResponse<TaskResponseDto>> updateTaskStatus(
             @Path("id") Integer id,
-            @Body StatusUpdateRequest request);
+            @Body StatusUpdateRequest request,
+            @Header(RetryInterceptor.IDEMPOTENCY_KEY_HEADER) String idempotencyKey);
 
     // Get users list (new endpoint matching backend structure)
     @GET("api/v1/users")
-    Call<ApiResponse<UsersListResponseDto>> getUsersList();
+    Call<ApiResponse<UsersListResponseDto>> getUsersList(@Tag CachePolicy cachePolicy);
 
 }
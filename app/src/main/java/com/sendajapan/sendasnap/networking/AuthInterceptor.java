@@ -6,6 +6,8 @@ import android.content.Intent;
 import androidx.annotation.NonNull;
 
 import com.sendajapan.sendasnap.activities.auth.LoginActivity;
+import com.sendajapan.sendasnap.data.repository.LocalAccountData;
+import com.sendajapan.sendasnap.services.ChatService;
 import com.sendajapan.sendasnap.utils.SharedPrefsManager;
 
 import java.io.IOException;
@@ -18,10 +20,17 @@ public class AuthInterceptor implements Interceptor {
 
     private final Context context;
     private final SharedPrefsManager prefsManager;
+    private final TokenManager tokenManager;
 
-    public AuthInterceptor(Context context) {
+    public AuthInterceptor(Context context, TokenManager tokenManager) {
         this.context = context.getApplicationContext();
         this.prefsManager = SharedPrefsManager.getInstance(this.context);
+        this.tokenManager = tokenManager;
+    }
+
+    static boolean isAuthEndpoint(Request request) {
+        String url = request.url().toString();
+        return url.contains("/api/v1/auth/login") || url.contains("/api/v1/auth/refresh");
     }
 
     @NonNull
@@ -30,13 +39,12 @@ public class AuthInterceptor implements Interceptor {
         Request originalRequest = chain.request();
 
         // Skip adding token for authentication endpoints (login, refresh)
-        String url = originalRequest.url().toString();
-        if (url.contains("/api/v1/auth/login") || url.contains("/api/v1/auth/refresh")) {
+        if (isAuthEndpoint(originalRequest)) {
             return chain.proceed(originalRequest);
         }
 
-        // Get token from SharedPreferences
-        String token = prefsManager.getToken();
+        // Expired tokens are renewed here; tokens close to expiry are renewed in the background
+        String token = tokenManager.getTokenForRequest();
 
         // If no token exists and user is supposed to be logged in, logout
         if (token == null || token.isEmpty()) {
@@ -55,7 +63,7 @@ public class AuthInterceptor implements Interceptor {
 
         Response response = chain.proceed(authenticatedRequest);
 
-        // Handle 401 Unauthorized - token is invalid, logout user
+        // 401 after TokenAuthenticator could not renew the token - logout user
         if (response.code() == 401) {
             if (prefsManager.isLoggedIn()) {
                 logoutUser();
@@ -66,6 +74,9 @@ public class AuthInterceptor implements Interceptor {
     }
 
     private void logoutUser() {
+        ChatService.getInstance().clearUnreadCounts();
+        LocalAccountData.clear(context);
+
         // Clear user data and token
         prefsManager.logout();
 
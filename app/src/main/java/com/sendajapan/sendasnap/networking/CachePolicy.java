@@ -0,0 +1,16 @@
+package com.sendajapan.sendasnap.networking;
+
+/**
+ * How a cacheable GET may use the HTTP disk cache. Passed to {@link ApiService} methods as a
+ * Retrofit {@code @Tag} and applied by {@link CachePolicyInterceptor}.
+ */
+public enum CachePolicy {
+    /** Serve the stored response without touching the network; fails with 504 if nothing is stored. */
+    CACHE_ONLY,
+    /** Deliver the stored response first, then the revalidated one (see {@link CachedCalls}). */
+    CACHE_THEN_NETWORK,
+    /** Conditional GET against the stored response; unchanged data costs a 304 instead of a full body. */
+    REVALIDATE,
+    /** Ignore the stored response and fetch a full body. The result is still stored. */
+    NETWORK_ONLY
+}
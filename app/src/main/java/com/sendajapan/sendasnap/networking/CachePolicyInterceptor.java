@@ -0,0 +1,30 @@
+package com.sendajapan.sendasnap.networking;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Application interceptor that turns the {@link CachePolicy} tag of a request into
+ * Cache-Control directives for the OkHttp cache. Untagged requests are revalidated.
+ */
+public class CachePolicyInterceptor implements Interceptor {
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        CachePolicy policy = request.tag(CachePolicy.class);
+        if (policy == CachePolicy.CACHE_ONLY) {
+            request = request.newBuilder().cacheControl(CacheControl.FORCE_CACHE).build();
+        } else if (policy == CachePolicy.NETWORK_ONLY) {
+            request = request.newBuilder().cacheControl(CacheControl.FORCE_NETWORK).build();
+        }
+        return chain.proceed(request);
+    }
+}
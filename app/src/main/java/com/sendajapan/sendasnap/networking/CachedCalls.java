@@ -0,0 +1,66 @@
+package com.sendajapan.sendasnap.networking;
+
+import androidx.annotation.NonNull;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Runs a cacheable API call under a {@link CachePolicy}. For
+ * {@link CachePolicy#CACHE_THEN_NETWORK} the stored response is delivered first and the
+ * revalidated response second; a failing network leg is only reported when nothing was cached.
+ */
+public final class CachedCalls {
+
+    private CachedCalls() {
+    }
+
+    /**
+     * Creates the call for one leg, passing the policy as the call's {@code @Tag}.
+     */
+    public interface CallFactory<T> {
+        Call<T> create(CachePolicy policy);
+    }
+
+    public static <T> void enqueue(CachePolicy policy, CallFactory<T> factory, Callback<T> callback) {
+        if (policy != CachePolicy.CACHE_THEN_NETWORK) {
+            factory.create(policy).enqueue(callback);
+            return;
+        }
+
+        factory.create(CachePolicy.CACHE_ONLY).enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
+                boolean cacheDelivered = response.isSuccessful();
+                if (cacheDelivered) {
+                    callback.onResponse(call, response);
+                }
+                enqueueNetwork(factory, callback, cacheDelivered);
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+                enqueueNetwork(factory, callback, false);
+            }
+        });
+    }
+
+    private static <T> void enqueueNetwork(CallFactory<T> factory, Callback<T> callback, boolean cacheDelivered) {
+        factory.create(CachePolicy.REVALIDATE).enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
+                if (response.isSuccessful() || !cacheDelivered) {
+                    callback.onResponse(call, response);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+                if (!cacheDelivered) {
+                    callback.onFailure(call, t);
+                }
+            }
+        });
+    }
+}
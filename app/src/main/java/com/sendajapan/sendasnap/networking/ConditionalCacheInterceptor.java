@@ -0,0 +1,118 @@
+package com.sendajapan.sendasnap.networking;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Network interceptor that makes the read-only list and lookup endpoints revalidatable by the
+ * OkHttp disk cache:
+ * <ul>
+ *   <li>Responses are stored as immediately stale ({@code max-age=0}), so every request becomes a
+ *   conditional GET and {@link CachePolicy#CACHE_ONLY} can still serve them. {@code no-store}
+ *   and a positive server {@code max-age} are honoured.</li>
+ *   <li>Responses are keyed by the Authorization header, so one user never sees another's data.</li>
+ *   <li>When the server sends no {@code ETag} or {@code Last-Modified}, a weak ETag is derived from
+ *   the body. A 200 whose body matches the request's {@code If-None-Match} is turned into a 304,
+ *   so the stored response is reused as unchanged.</li>
+ * </ul>
+ */
+public class ConditionalCacheInterceptor implements Interceptor {
+
+    private static final String[] CACHEABLE_PATHS = {
+            "/api/v1/tasks",
+            "/api/v1/users",
+            "/api/v1/vehicles/search"
+    };
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+    private static final String HEADER_VARY = "Vary";
+    private static final String STALE_CACHE_CONTROL = "private, max-age=0";
+    private static final String VARY_AUTHORIZATION = "Authorization";
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        if (!isCacheable(request) || response.code() != HTTP_OK) {
+            return response;
+        }
+
+        CacheControl cacheControl = response.cacheControl();
+        if (cacheControl.noStore()) {
+            return response;
+        }
+
+        Response.Builder builder = response.newBuilder()
+                .removeHeader("Pragma")
+                .header(HEADER_VARY, withAuthorizationVary(response.header(HEADER_VARY)));
+        if (cacheControl.maxAgeSeconds() <= 0) {
+            builder.removeHeader("Expires").header(HEADER_CACHE_CONTROL, STALE_CACHE_CONTROL);
+        }
+
+        ResponseBody body = response.body();
+        boolean hasValidator = response.header(HEADER_ETAG) != null || response.header(HEADER_LAST_MODIFIED) != null;
+        if (hasValidator || body == null) {
+            return builder.build();
+        }
+
+        byte[] bytes = body.bytes();
+        String etag = weakEtag(bytes);
+        builder.header(HEADER_ETAG, etag);
+        if (etag.equals(request.header(HEADER_IF_NONE_MATCH))) {
+            return builder.code(HTTP_NOT_MODIFIED)
+                    .message("Not Modified")
+                    .body(ResponseBody.create(new byte[0], null))
+                    .build();
+        }
+        return builder.body(ResponseBody.create(bytes, body.contentType())).build();
+    }
+
+    private boolean isCacheable(Request request) {
+        if (!"GET".equals(request.method())) {
+            return false;
+        }
+
+        String path = request.url().encodedPath();
+        for (String cacheablePath : CACHEABLE_PATHS) {
+            if (path.startsWith(cacheablePath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String withAuthorizationVary(String vary) {
+        if (vary == null || vary.trim().isEmpty()) {
+            return VARY_AUTHORIZATION;
+        }
+        if (vary.toLowerCase().contains(VARY_AUTHORIZATION.toLowerCase())) {
+            return vary;
+        }
+        return vary + ", " + VARY_AUTHORIZATION;
+    }
+
+    private String weakEtag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(body);
+            return "W/\"" + new BigInteger(1, digest).toString(16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            return "W/\"" + body.length + "-" + Arrays.hashCode(body) + "\"";
+        }
+    }
+}
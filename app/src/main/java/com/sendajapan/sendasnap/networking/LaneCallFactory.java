@@ -0,0 +1,41 @@
+package com.sendajapan.sendasnap.networking;
+
+import androidx.annotation.NonNull;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import retrofit2.Invocation;
+
+/**
+ * Retrofit call factory that sends each request to the client of its {@link RequestLane}.
+ * The lane comes from the {@link BulkLane} annotation of the invoked {@link ApiService} method.
+ */
+public class LaneCallFactory implements Call.Factory {
+
+    private final OkHttpClient interactiveClient;
+    private final OkHttpClient bulkClient;
+
+    public LaneCallFactory(OkHttpClient interactiveClient, OkHttpClient bulkClient) {
+        this.interactiveClient = interactiveClient;
+        this.bulkClient = bulkClient;
+    }
+
+    @NonNull
+    @Override
+    public Call newCall(@NonNull Request request) {
+        return getClient(laneOf(request)).newCall(request);
+    }
+
+    public OkHttpClient getClient(RequestLane lane) {
+        return lane == RequestLane.BULK ? bulkClient : interactiveClient;
+    }
+
+    static RequestLane laneOf(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation != null && invocation.method().isAnnotationPresent(BulkLane.class)) {
+            return RequestLane.BULK;
+        }
+        return RequestLane.INTERACTIVE;
+    }
+}
@@ -0,0 +1,204 @@
+package com.sendajapan.sendasnap.networking;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the most recent {@link NetworkTimingSample}s in a fixed-size ring and summarizes them
+ * per endpoint. Recording is lock-free (one atomic increment and one slot write), so it can be
+ * called from OkHttp's threads; the oldest sample is overwritten once the ring is full.
+ */
+public class NetworkMetrics {
+
+    public static final int DEFAULT_CAPACITY = 512;
+
+    private final AtomicReferenceArray<NetworkTimingSample> ring;
+    private final AtomicLong writeIndex = new AtomicLong();
+
+    public NetworkMetrics() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public NetworkMetrics(int capacity) {
+        ring = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    public void record(NetworkTimingSample sample) {
+        long index = writeIndex.getAndIncrement();
+        ring.set((int) (index % ring.length()), sample);
+    }
+
+    /**
+     * @return Samples currently in the ring, oldest first
+     */
+    public List<NetworkTimingSample> snapshot() {
+        long end = writeIndex.get();
+        long start = Math.max(0, end - ring.length());
+        List<NetworkTimingSample> samples = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            NetworkTimingSample sample = ring.get((int) (i % ring.length()));
+            if (sample != null) {
+                samples.add(sample);
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * @return Per-endpoint percentiles of the samples in the ring, sorted by endpoint
+     */
+    public Map<String, EndpointStats> summarize() {
+        Map<String, List<NetworkTimingSample>> byEndpoint = new TreeMap<>();
+        for (NetworkTimingSample sample : snapshot()) {
+            List<NetworkTimingSample> samples = byEndpoint.get(sample.getEndpoint());
+            if (samples == null) {
+                samples = new ArrayList<>();
+                byEndpoint.put(sample.getEndpoint(), samples);
+            }
+            samples.add(sample);
+        }
+
+        Map<String, EndpointStats> stats = new TreeMap<>();
+        for (Map.Entry<String, List<NetworkTimingSample>> entry : byEndpoint.entrySet()) {
+            stats.put(entry.getKey(), new EndpointStats(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+
+    public void clear() {
+        for (int i = 0; i < ring.length(); i++) {
+            ring.set(i, null);
+        }
+    }
+
+    /**
+     * Human-readable report: p50/p95/p99 in milliseconds per endpoint and phase.
+     */
+    public String formatSummary() {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, EndpointStats> entry : summarize().entrySet()) {
+            EndpointStats stats = entry.getValue();
+            report.append(entry.getKey())
+                    .append("  n=").append(stats.getCount())
+                    .append(" failed=").append(stats.getFailedCount())
+                    .append('\n');
+            for (NetworkTimingSample.Phase phase : NetworkTimingSample.Phase.values()) {
+                if (stats.getMeasuredCount(phase) == 0) {
+                    continue;
+                }
+                report.append(String.format(Locale.US, "  %-13s p50 %7.1f  p95 %7.1f  p99 %7.1f ms%n",
+                        phase.name(), toMillis(stats.getPercentileNanos(phase, 50)),
+                        toMillis(stats.getPercentileNanos(phase, 95)),
+                        toMillis(stats.getPercentileNanos(phase, 99))));
+            }
+        }
+        return report.length() > 0 ? report.toString() : "No requests recorded\n";
+    }
+
+    /**
+     * Write the summary followed by every sample as CSV (durations in milliseconds).
+     *
+     * @param file Destination, overwritten if it exists
+     * @throws IOException If the file cannot be written
+     */
+    public void dumpTo(File file) throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(formatSummary());
+            writer.write("\nfinished_at,endpoint,failed");
+            for (NetworkTimingSample.Phase phase : NetworkTimingSample.Phase.values()) {
+                writer.write(',');
+                writer.write(phase.name().toLowerCase(Locale.US));
+            }
+            writer.write('\n');
+
+            for (NetworkTimingSample sample : snapshot()) {
+                writer.write(sample.getFinishedAtMillis() + "," + sample.getEndpoint() + "," + sample.isFailed());
+                for (NetworkTimingSample.Phase phase : NetworkTimingSample.Phase.values()) {
+                    long nanos = sample.getDurationNanos(phase);
+                    writer.write(',');
+                    if (nanos != NetworkTimingSample.NOT_MEASURED) {
+                        writer.write(String.format(Locale.US, "%.2f", toMillis(nanos)));
+                    }
+                }
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Percentiles of one endpoint's samples. Each phase is sorted once on construction.
+     */
+    public static final class EndpointStats {
+        private final int count;
+        private final int failedCount;
+        private final long[][] sortedNanos = new long[NetworkTimingSample.Phase.values().length][];
+
+        EndpointStats(List<NetworkTimingSample> samples) {
+            count = samples.size();
+            int failed = 0;
+            for (NetworkTimingSample sample : samples) {
+                if (sample.isFailed()) {
+                    failed++;
+                }
+            }
+            failedCount = failed;
+
+            for (NetworkTimingSample.Phase phase : NetworkTimingSample.Phase.values()) {
+                long[] values = new long[samples.size()];
+                int measured = 0;
+                for (NetworkTimingSample sample : samples) {
+                    long nanos = sample.getDurationNanos(phase);
+                    if (nanos != NetworkTimingSample.NOT_MEASURED) {
+                        values[measured++] = nanos;
+                    }
+                }
+                values = Arrays.copyOf(values, measured);
+                Arrays.sort(values);
+                sortedNanos[phase.ordinal()] = values;
+            }
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getFailedCount() {
+            return failedCount;
+        }
+
+        public int getMeasuredCount(NetworkTimingSample.Phase phase) {
+            return sortedNanos[phase.ordinal()].length;
+        }
+
+        /**
+         * Nearest-rank percentile.
+         *
+         * @param phase Phase
+         * @param percentile 1 to 100
+         * @return Duration in nanoseconds, or {@link NetworkTimingSample#NOT_MEASURED} if no sample measured the phase
+         */
+        public long getPercentileNanos(NetworkTimingSample.Phase phase, int percentile) {
+            long[] values = sortedNanos[phase.ordinal()];
+            if (values.length == 0) {
+                return NetworkTimingSample.NOT_MEASURED;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * values.length);
+            return values[Math.max(0, Math.min(values.length - 1, rank - 1))];
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.sendajapan.sendasnap.networking;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+import retrofit2.http.DELETE;
+import retrofit2.http.GET;
+import retrofit2.http.PATCH;
+import retrofit2.http.POST;
+import retrofit2.http.PUT;
+
+/**
+ * Times the phases of one call and records them in {@link NetworkMetrics} when the call ends.
+ * Phases that repeat within a call (retries, redirects, auth replays) are summed.
+ * A new instance is created per call, and OkHttp delivers a call's events one at a time.
+ */
+public class NetworkTimingListener extends EventListener {
+
+    private static final Map<Method, String> TEMPLATES = new ConcurrentHashMap<>();
+
+    private final NetworkMetrics metrics;
+    private final String endpoint;
+    private final long[] durations = new long[NetworkTimingSample.Phase.values().length];
+
+    private long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private long requestStart;
+    private long requestEnd;
+    private long responseBodyStart;
+
+    private NetworkTimingListener(NetworkMetrics metrics, String endpoint) {
+        this.metrics = metrics;
+        this.endpoint = endpoint;
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = NetworkTimingSample.NOT_MEASURED;
+        }
+    }
+
+    public static EventListener.Factory factory(NetworkMetrics metrics) {
+        return call -> new NetworkTimingListener(metrics, endpointOf(call.request()));
+    }
+
+    /**
+     * Endpoint template of a request: the HTTP annotation of the {@link ApiService} method that
+     * created it (e.g. {@code GET api/v1/tasks/{id}}), or the raw path for other requests.
+     */
+    static String endpointOf(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation != null) {
+            String template = TEMPLATES.get(invocation.method());
+            if (template == null) {
+                template = templateOf(invocation.method(), request.method());
+                TEMPLATES.put(invocation.method(), template);
+            }
+            return template;
+        }
+        return request.method() + " " + request.url().encodedPath();
+    }
+
+    private static String templateOf(Method method, String httpMethod) {
+        for (Annotation annotation : method.getAnnotations()) {
+            if (annotation instanceof GET) {
+                return "GET " + ((GET) annotation).value();
+            } else if (annotation instanceof POST) {
+                return "POST " + ((POST) annotation).value();
+            } else if (annotation instanceof PUT) {
+                return "PUT " + ((PUT) annotation).value();
+            } else if (annotation instanceof PATCH) {
+                return "PATCH " + ((PATCH) annotation).value();
+            } else if (annotation instanceof DELETE) {
+                return "DELETE " + ((DELETE) annotation).value();
+            }
+        }
+        return httpMethod + " " + method.getName();
+    }
+
+    @Override
+    public void callStart(@NonNull Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> addresses) {
+        add(NetworkTimingSample.Phase.DNS, dnsStart);
+    }
+
+    @Override
+    public void connectStart(@NonNull Call call, @NonNull InetSocketAddress address, @NonNull Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(@NonNull Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(@NonNull Call call, @Nullable Handshake handshake) {
+        add(NetworkTimingSample.Phase.TLS, secureConnectStart);
+    }
+
+    @Override
+    public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress address, @NonNull Proxy proxy,
+                           @Nullable Protocol protocol) {
+        add(NetworkTimingSample.Phase.CONNECT, connectStart);
+    }
+
+    @Override
+    public void connectFailed(@NonNull Call call, @NonNull InetSocketAddress address, @NonNull Proxy proxy,
+                              @Nullable Protocol protocol, @NonNull IOException e) {
+        add(NetworkTimingSample.Phase.CONNECT, connectStart);
+    }
+
+    @Override
+    public void requestHeadersStart(@NonNull Call call) {
+        requestStart = System.nanoTime();
+    }
+
+    @Override
+    public void requestHeadersEnd(@NonNull Call call, @NonNull Request request) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(@NonNull Call call, long byteCount) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(@NonNull Call call) {
+        long now = System.nanoTime();
+        if (requestStart != 0) {
+            addDuration(NetworkTimingSample.Phase.REQUEST_WRITE, requestEnd - requestStart);
+            addDuration(NetworkTimingSample.Phase.TTFB, now - requestEnd);
+        }
+    }
+
+    @Override
+    public void responseBodyStart(@NonNull Call call) {
+        responseBodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(@NonNull Call call, long byteCount) {
+        add(NetworkTimingSample.Phase.BODY_READ, responseBodyStart);
+    }
+
+    @Override
+    public void callEnd(@NonNull Call call) {
+        finish(false);
+    }
+
+    @Override
+    public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+        finish(true);
+    }
+
+    private void add(NetworkTimingSample.Phase phase, long start) {
+        if (start != 0) {
+            addDuration(phase, System.nanoTime() - start);
+        }
+    }
+
+    private void addDuration(NetworkTimingSample.Phase phase, long nanos) {
+        int index = phase.ordinal();
+        durations[index] = durations[index] == NetworkTimingSample.NOT_MEASURED ? nanos : durations[index] + nanos;
+    }
+
+    private void finish(boolean failed) {
+        durations[NetworkTimingSample.Phase.TOTAL.ordinal()] = System.nanoTime() - callStart;
+        metrics.record(new NetworkTimingSample(endpoint, durations.clone(), failed, System.currentTimeMillis()));
+    }
+}
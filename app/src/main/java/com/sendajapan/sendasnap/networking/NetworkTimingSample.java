@@ -0,0 +1,52 @@
+package com.sendajapan.sendasnap.networking;
+
+/**
+ * Phase durations of one finished call. A phase that did not happen, such as DNS and connect
+ * on a pooled connection or every network phase on a cache hit, is {@link #NOT_MEASURED}.
+ */
+public final class NetworkTimingSample {
+
+    public static final long NOT_MEASURED = -1;
+
+    /**
+     * Measured phases in the order they happen.
+     */
+    public enum Phase {
+        DNS, CONNECT, TLS, REQUEST_WRITE, TTFB, BODY_READ, TOTAL
+    }
+
+    private final String endpoint;
+    private final long[] durationsNanos;
+    private final boolean failed;
+    private final long finishedAtMillis;
+
+    NetworkTimingSample(String endpoint, long[] durationsNanos, boolean failed, long finishedAtMillis) {
+        this.endpoint = endpoint;
+        this.durationsNanos = durationsNanos;
+        this.failed = failed;
+        this.finishedAtMillis = finishedAtMillis;
+    }
+
+    /**
+     * @return HTTP method and path template, e.g. {@code GET api/v1/tasks/{id}}
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @param phase Phase
+     * @return Duration in nanoseconds, or {@link #NOT_MEASURED}
+     */
+    public long getDurationNanos(Phase phase) {
+        return durationsNanos[phase.ordinal()];
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public long getFinishedAtMillis() {
+        return finishedAtMillis;
+    }
+}
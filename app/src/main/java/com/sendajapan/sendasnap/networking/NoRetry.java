@@ -0,0 +1,17 @@
+package com.sendajapan.sendasnap.networking;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@link ApiService} method whose calls {@link RetryInterceptor} leaves alone, because
+ * the caller retries them with its own policy.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NoRetry {
+}
@@ -0,0 +1,242 @@
+package com.sendajapan.sendasnap.networking;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.http.GET;
+
+/**
+ * Single-flight layer over {@link ApiService}. Concurrent enqueues of the same GET (same method,
+ * path, query parameters in any order and {@link CachePolicy} tag) share one in-flight call, and
+ * every caller receives the result. Non-GET methods and {@code execute()} pass straight through.
+ */
+public class RequestCoalescer {
+
+    private final Map<String, InFlight<?>> inFlight = new HashMap<>();
+    private int issuedCount = 0;
+    private int coalescedCount = 0;
+
+    /**
+     * Wrap an API service so its GET calls are coalesced by this instance.
+     *
+     * @param apiService Service created by Retrofit
+     * @return Coalescing service
+     */
+    public ApiService wrap(ApiService apiService) {
+        return (ApiService) Proxy.newProxyInstance(ApiService.class.getClassLoader(),
+                new Class<?>[]{ApiService.class},
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(apiService, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+
+                    if (result instanceof Call && method.isAnnotationPresent(GET.class)) {
+                        return new CoalescingCall<>((Call<?>) result, method);
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * @return Calls actually sent to the network layer
+     */
+    public synchronized int getIssuedCount() {
+        return issuedCount;
+    }
+
+    /**
+     * @return Calls that joined an identical in-flight call instead of being sent
+     */
+    public synchronized int getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    static String requestKey(Method method, Request request) {
+        HttpUrl url = request.url();
+        List<String> query = new ArrayList<>();
+        for (int i = 0; i < url.querySize(); i++) {
+            query.add(url.queryParameterName(i) + "=" + url.queryParameterValue(i));
+        }
+        Collections.sort(query);
+        return method.getName() + " " + url.encodedPath() + "?" + query + "#" + request.tag(CachePolicy.class);
+    }
+
+    private <T> void enqueue(CoalescingCall<T> caller, Callback<T> callback) {
+        String key = requestKey(caller.method, caller.delegate.request());
+        InFlight<T> flight;
+        synchronized (this) {
+            @SuppressWarnings("unchecked")
+            InFlight<T> existing = (InFlight<T>) inFlight.get(key);
+            if (existing != null) {
+                existing.waiters.put(caller, callback);
+                caller.flight = existing;
+                coalescedCount++;
+                return;
+            }
+
+            flight = new InFlight<>(key, caller.delegate);
+            flight.waiters.put(caller, callback);
+            caller.flight = flight;
+            inFlight.put(key, flight);
+            issuedCount++;
+        }
+
+        flight.call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
+                Map<CoalescingCall<T>, Callback<T>> waiters = complete(flight);
+                byte[] errorBytes = null;
+                MediaType errorType = null;
+                if (!response.isSuccessful() && response.errorBody() != null && waiters.size() > 1) {
+                    errorType = response.errorBody().contentType();
+                    try {
+                        errorBytes = response.errorBody().bytes();
+                    } catch (IOException e) {
+                        errorBytes = new byte[0];
+                    }
+                }
+
+                for (Map.Entry<CoalescingCall<T>, Callback<T>> waiter : waiters.entrySet()) {
+                    Response<T> delivered = errorBytes != null
+                            ? Response.error(ResponseBody.create(errorBytes, errorType), response.raw())
+                            : response;
+                    waiter.getValue().onResponse(waiter.getKey(), delivered);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+                for (Map.Entry<CoalescingCall<T>, Callback<T>> waiter : complete(flight).entrySet()) {
+                    waiter.getValue().onFailure(waiter.getKey(), t);
+                }
+            }
+        });
+    }
+
+    private synchronized <T> Map<CoalescingCall<T>, Callback<T>> complete(InFlight<T> flight) {
+        if (inFlight.get(flight.key) == flight) {
+            inFlight.remove(flight.key);
+        }
+        Map<CoalescingCall<T>, Callback<T>> waiters = new HashMap<>(flight.waiters);
+        flight.waiters.clear();
+        return waiters;
+    }
+
+    private <T> void cancel(CoalescingCall<T> caller) {
+        InFlight<T> flight = caller.flight;
+        if (flight == null) {
+            caller.delegate.cancel();
+            return;
+        }
+
+        boolean lastWaiter;
+        synchronized (this) {
+            flight.waiters.remove(caller);
+            lastWaiter = flight.waiters.isEmpty();
+            if (lastWaiter && inFlight.get(flight.key) == flight) {
+                inFlight.remove(flight.key);
+            }
+        }
+        if (lastWaiter) {
+            flight.call.cancel();
+        }
+    }
+
+    private static final class InFlight<T> {
+        private final String key;
+        private final Call<T> call;
+        private final Map<CoalescingCall<T>, Callback<T>> waiters = new HashMap<>();
+
+        private InFlight(String key, Call<T> call) {
+            this.key = key;
+            this.call = call;
+        }
+    }
+
+    /**
+     * Call handed to callers. Cancelling detaches only this caller (it receives no callback);
+     * the shared call is cancelled once no caller is left.
+     */
+    private final class CoalescingCall<T> implements Call<T> {
+        private final Call<T> delegate;
+        private final Method method;
+        private volatile InFlight<T> flight;
+        private volatile boolean executed;
+        private volatile boolean canceled;
+
+        private CoalescingCall(Call<T> delegate, Method method) {
+            this.delegate = delegate;
+            this.method = method;
+        }
+
+        @NonNull
+        @Override
+        public Response<T> execute() throws IOException {
+            executed = true;
+            return delegate.execute();
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback<T> callback) {
+            if (executed) {
+                throw new IllegalStateException("Already executed.");
+            }
+            executed = true;
+            RequestCoalescer.this.enqueue(this, callback);
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            RequestCoalescer.this.cancel(this);
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @NonNull
+        @Override
+        public Call<T> clone() {
+            return new CoalescingCall<>(delegate.clone(), method);
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return delegate.timeout();
+        }
+    }
+}
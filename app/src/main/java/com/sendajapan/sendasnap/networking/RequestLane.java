@@ -0,0 +1,12 @@
+package com.sendajapan.sendasnap.networking;
+
+/**
+ * Dispatcher lane a call runs on. Each lane has its own OkHttp dispatcher and connection pool,
+ * so bulk uploads never occupy the request slots or connections of interactive calls.
+ */
+public enum RequestLane {
+    /** Screen loads and searches the user is waiting for. Default for every call. */
+    INTERACTIVE,
+    /** Multi-part uploads and other large transfers. Run with low concurrency. */
+    BULK
+}
@@ -2,48 +2,109 @@ package com.sendajapan.sendasnap.networking;
 
 import android.content.Context;
 
+import androidx.annotation.NonNull;
+
 import com.sendajapan.sendasnap.BuildConfig;
+import com.sendajapan.sendasnap.data.json.GsonProvider;
+import com.sendajapan.sendasnap.utils.SharedPrefsManager;
 
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
+
+import java.io.File;
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
 public class RetrofitClient {
 
     private static final String BASE_URL = "https://snap.senda.fit/";
+    private static final String HTTP_CACHE_DIR = "http_cache";
+    private static final long HTTP_CACHE_SIZE = 20L * 1024 * 1024;
+    private static final long CONNECT_TIMEOUT_SECONDS = 15;
+    private static final int INTERACTIVE_MAX_REQUESTS = 16;
+    private static final int INTERACTIVE_MAX_REQUESTS_PER_HOST = 8;
+    private static final int INTERACTIVE_IDLE_CONNECTIONS = 5;
+    private static final int BULK_MAX_REQUESTS = 2;
+    private static final int BULK_IDLE_CONNECTIONS = 2;
+    private static final long IDLE_CONNECTION_KEEP_ALIVE_MINUTES = 5;
 
     private static RetrofitClient instance;
     private final ApiService apiService;
+    private final Cache httpCache;
+    private final LaneCallFactory laneCallFactory;
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+    private final NetworkMetrics networkMetrics = new NetworkMetrics();
 
     private RetrofitClient(Context context) {
 
-        AuthInterceptor authInterceptor = new AuthInterceptor(context.getApplicationContext());
+        TokenManager tokenManager = new TokenManager(SharedPrefsManager.getInstance(context.getApplicationContext()));
+        AuthInterceptor authInterceptor = new AuthInterceptor(context.getApplicationContext(), tokenManager);
+
+        httpCache = new Cache(new File(context.getApplicationContext().getCacheDir(), HTTP_CACHE_DIR),
+                HTTP_CACHE_SIZE);
 
         OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder()
+                .cache(httpCache)
+                .addInterceptor(new RetryInterceptor())
                 .addInterceptor(authInterceptor)
-                .connectTimeout(60, TimeUnit.SECONDS)
+                .authenticator(new TokenAuthenticator(tokenManager))
+                .addInterceptor(new CachePolicyInterceptor())
+                .addNetworkInterceptor(new ConditionalCacheInterceptor())
+                .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
                 .readTimeout(60, TimeUnit.SECONDS)
                 .writeTimeout(60, TimeUnit.SECONDS);
 
-        // Only enable logging in debug builds for security
+        // Only enable logging and timing in debug builds for security and overhead
         if (BuildConfig.DEBUG) {
             HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor(message -> {
             });
-            loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+            loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.HEADERS);
             clientBuilder.addInterceptor(loggingInterceptor);
+            clientBuilder.eventListenerFactory(NetworkTimingListener.factory(networkMetrics));
         }
 
-        OkHttpClient okHttpClient = clientBuilder.build();
+        OkHttpClient baseClient = clientBuilder.build();
+        laneCallFactory = new LaneCallFactory(
+                createLaneClient(baseClient, INTERACTIVE_MAX_REQUESTS, INTERACTIVE_MAX_REQUESTS_PER_HOST,
+                        INTERACTIVE_IDLE_CONNECTIONS),
+                createLaneClient(baseClient, BULK_MAX_REQUESTS, BULK_MAX_REQUESTS, BULK_IDLE_CONNECTIONS));
 
         Retrofit retrofit = new Retrofit.Builder()
                 .baseUrl(BASE_URL)
-                .client(okHttpClient)
-                .addConverterFactory(GsonConverterFactory.create())
+                .callFactory(laneCallFactory)
+                .addConverterFactory(new TaskResponseConverterFactory())
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
                 .build();
 
-        apiService = retrofit.create(ApiService.class);
+        ApiService retrofitService = retrofit.create(ApiService.class);
+        tokenManager.setApiService(retrofitService);
+        apiService = requestCoalescer.wrap(retrofitService);
+    }
+
+    /**
+     * Lanes share interceptors and the HTTP cache but each has its own dispatcher and
+     * connection pool, so a slow upload cannot queue or share a connection with screen loads.
+     */
+    private static OkHttpClient createLaneClient(OkHttpClient baseClient, int maxRequests,
+                                                 int maxRequestsPerHost, int idleConnections) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+        return baseClient.newBuilder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(idleConnections, IDLE_CONNECTION_KEEP_ALIVE_MINUTES,
+                        TimeUnit.MINUTES))
+                .build();
     }
 
     public static synchronized RetrofitClient getInstance(Context context) {
@@ -56,4 +117,51 @@ public class RetrofitClient {
     public ApiService getApiService() {
         return apiService;
     }
+
+    public OkHttpClient getClient(RequestLane lane) {
+        return laneCallFactory.getClient(lane);
+    }
+
+    /**
+     * @return Per-endpoint call timings; stays empty in release builds, where no listener is installed
+     */
+    public NetworkMetrics getNetworkMetrics() {
+        return networkMetrics;
+    }
+
+    public RequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
+    /**
+     * Remove every stored response, e.g. on logout. Touches the disk, so it must not be called
+     * on the main thread.
+     */
+    public void clearHttpCache() {
+        try {
+            httpCache.evictAll();
+        } catch (IOException e) {
+        }
+    }
+
+    /**
+     * Open the pooled connection to the API ahead of the first real request, so DNS, TCP and TLS
+     * (including HTTP/2 negotiation) are already paid for. Failures are ignored.
+     */
+    public void primeConnection() {
+        Request request = new Request.Builder()
+                .url(BASE_URL)
+                .head()
+                .build();
+        getClient(RequestLane.INTERACTIVE).newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                response.close();
+            }
+
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+            }
+        });
+    }
 }
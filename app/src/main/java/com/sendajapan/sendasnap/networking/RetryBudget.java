@@ -0,0 +1,38 @@
+package com.sendajapan.sendasnap.networking;
+
+/**
+ * Token bucket that caps retries to a share of the traffic to one host. Every request deposits
+ * a fraction of a token and every retry withdraws a whole one, so during an outage retries add
+ * at most that fraction on top of the normal load once the initial balance is spent.
+ */
+final class RetryBudget {
+
+    private final double depositPerRequest;
+    private final double maxBalance;
+    private double balance;
+
+    /**
+     * @param depositPerRequest Tokens added per request, i.e. the long-run retry ratio
+     * @param maxBalance Largest number of retries that can be saved up; the bucket starts full
+     */
+    RetryBudget(double depositPerRequest, double maxBalance) {
+        this.depositPerRequest = depositPerRequest;
+        this.maxBalance = maxBalance;
+        this.balance = maxBalance;
+    }
+
+    synchronized void onRequest() {
+        balance = Math.min(maxBalance, balance + depositPerRequest);
+    }
+
+    /**
+     * @return true if a retry may be sent, in which case its token has been taken
+     */
+    synchronized boolean tryAcquireRetry() {
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,172 @@
+package com.sendajapan.sendasnap.networking;
+
+import androidx.annotation.NonNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Date;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+/**
+ * Application interceptor that retries requests which are safe to send twice after a transient
+ * network failure or a 408, 429 or 5xx response, following a {@link RetryPolicy}.
+ *
+ * <p>Safe means GET, HEAD and OPTIONS, or any request carrying an {@link #IDEMPOTENCY_KEY_HEADER}.
+ * Methods marked {@link NoRetry} are never retried here. A {@code Retry-After} header replaces the computed backoff; when it asks for longer than the
+ * policy's maximum delay the response is returned as is. Retries to a host are limited by a
+ * {@link RetryBudget} shared by all calls, so an outage cannot multiply the load on the server.
+ */
+public class RetryInterceptor implements Interceptor {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final double BUDGET_RETRY_RATIO = 0.2;
+    private static final double BUDGET_MAX_RETRIES = 10;
+
+    private final RetryPolicy policy;
+    private final Sleeper sleeper;
+    private final Random random = new Random();
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    public RetryInterceptor() {
+        this(RetryPolicy.DEFAULT, Thread::sleep);
+    }
+
+    RetryInterceptor(RetryPolicy policy, Sleeper sleeper) {
+        this.policy = policy;
+        this.sleeper = sleeper;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!isReplayable(request)) {
+            return chain.proceed(request);
+        }
+
+        RetryBudget budget = budgets.computeIfAbsent(request.url().host(),
+                host -> new RetryBudget(BUDGET_RETRY_RATIO, BUDGET_MAX_RETRIES));
+        budget.onRequest();
+
+        for (int attempt = 1; ; attempt++) {
+            Response response = null;
+            IOException failure = null;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                if (chain.call().isCanceled() || !isTransient(e)) {
+                    throw e;
+                }
+                failure = e;
+            }
+
+            long delayMillis;
+            if (response != null) {
+                if (!isRetryableStatus(response.code())) {
+                    return response;
+                }
+                delayMillis = retryAfterMillis(response, System.currentTimeMillis());
+                if (delayMillis > policy.getMaxDelayMillis()) {
+                    return response;
+                }
+            } else {
+                delayMillis = -1;
+            }
+
+            if (attempt >= policy.getMaxAttempts() || !budget.tryAcquireRetry()) {
+                if (response != null) {
+                    return response;
+                }
+                throw failure;
+            }
+
+            if (response != null) {
+                response.close();
+            }
+            if (delayMillis < 0) {
+                delayMillis = policy.backoffMillis(attempt, random);
+            }
+            try {
+                sleeper.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to retry");
+            }
+        }
+    }
+
+    static boolean isReplayable(Request request) {
+        RequestBody body = request.body();
+        if (body != null && (body.isOneShot() || body.isDuplex())) {
+            return false;
+        }
+
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation != null && invocation.method().isAnnotationPresent(NoRetry.class)) {
+            return false;
+        }
+
+        String method = request.method();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)
+                || request.header(IDEMPOTENCY_KEY_HEADER) != null;
+    }
+
+    /**
+     * Failures that say nothing about the request itself: timeouts, refused or reset connections,
+     * failed DNS lookups and streams cut off mid-response. TLS and protocol errors, cancellation
+     * and local I/O errors are not retried. OkHttp wraps some of these, so the cause is checked too.
+     */
+    static boolean isTransient(IOException e) {
+        if (e instanceof SocketTimeoutException) {
+            return true;
+        }
+        if (e instanceof InterruptedIOException) {
+            return false;
+        }
+        if (e instanceof SocketException || e instanceof UnknownHostException || e instanceof EOFException) {
+            return true;
+        }
+        Throwable cause = e.getCause();
+        return cause instanceof IOException && cause != e && isTransient((IOException) cause);
+    }
+
+    static boolean isRetryableStatus(int code) {
+        return code == 408 || code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+    }
+
+    /**
+     * @return Delay requested by a {@code Retry-After} header in seconds or HTTP-date form,
+     * or -1 if there is none or it cannot be parsed
+     */
+    static long retryAfterMillis(Response response, long nowMillis) {
+        String value = response.header("Retry-After");
+        if (value == null) {
+            return -1;
+        }
+
+        try {
+            long seconds = Long.parseLong(value.trim());
+            return seconds < 0 ? -1 : seconds * 1000;
+        } catch (NumberFormatException e) {
+            Date date = response.headers().getDate("Retry-After");
+            return date == null ? -1 : Math.max(0, date.getTime() - nowMillis);
+        }
+    }
+
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+}
@@ -0,0 +1,50 @@
+package com.sendajapan.sendasnap.networking;
+
+import java.util.Random;
+
+/**
+ * Attempt limit and backoff of {@link RetryInterceptor}. The delay before retry {@code n} is
+ * drawn uniformly from {@code [0, min(maxDelay, baseDelay * 2^(n-1))]} ("full jitter"), so
+ * clients that failed together do not come back together.
+ */
+public final class RetryPolicy {
+
+    public static final RetryPolicy DEFAULT = new RetryPolicy(3, 500, 5000);
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    /**
+     * @param maxAttempts Attempts including the first one
+     * @param baseDelayMillis Upper bound of the first backoff
+     * @param maxDelayMillis Cap for every backoff, and the longest {@code Retry-After} that is waited for
+     */
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        if (maxAttempts < 1 || baseDelayMillis < 0 || maxDelayMillis < baseDelayMillis) {
+            throw new IllegalArgumentException("Invalid retry policy");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    /**
+     * @param retry Retry number, starting at 1
+     * @param random Source of jitter
+     * @return Delay in milliseconds before that retry
+     */
+    public long backoffMillis(int retry, Random random) {
+        int shift = Math.min(retry - 1, 30);
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << shift);
+        return (long) (random.nextDouble() * (ceiling + 1));
+    }
+}
@@ -0,0 +1,123 @@
+package com.sendajapan.sendasnap.networking;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.sendajapan.sendasnap.data.dto.PagedResult;
+import com.sendajapan.sendasnap.data.mapper.TaskJsonReader;
+import com.sendajapan.sendasnap.models.ApiResponse;
+import com.sendajapan.sendasnap.models.MetaData;
+import com.sendajapan.sendasnap.models.Task;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Converts task responses ({@code ApiResponse<PagedResult<Task>>} and {@code ApiResponse<Task>})
+ * in one streaming pass with {@link TaskJsonReader}. Every other type is left to the next factory,
+ * so this must be added before {@code GsonConverterFactory}.
+ */
+public class TaskResponseConverterFactory extends Converter.Factory {
+
+    private static final TypeToken<?> TASK_PAGE_RESPONSE = TypeToken.getParameterized(ApiResponse.class,
+            TypeToken.getParameterized(PagedResult.class, Task.class).getType());
+    private static final TypeToken<?> TASK_RESPONSE = TypeToken.getParameterized(ApiResponse.class, Task.class);
+
+    @Nullable
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(@NonNull Type type, @NonNull Annotation[] annotations,
+                                                            @NonNull Retrofit retrofit) {
+        TypeToken<?> token = TypeToken.get(type);
+        if (token.equals(TASK_PAGE_RESPONSE)) {
+            return body -> convert(body, TaskJsonReader::readTaskPage);
+        } else if (token.equals(TASK_RESPONSE)) {
+            return body -> convert(body, TaskJsonReader::readTaskEnvelope);
+        }
+        return null;
+    }
+
+    static <T> ApiResponse<T> convert(ResponseBody body, DataReader<T> dataReader) throws IOException {
+        try (ResponseBody responseBody = body) {
+            JsonReader reader = new JsonReader(responseBody.charStream());
+            ApiResponse<T> response = readResponse(reader, dataReader);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonIOException("JSON document was not fully consumed.");
+            }
+            return response;
+        }
+    }
+
+    static <T> ApiResponse<T> readResponse(JsonReader reader, DataReader<T> dataReader) throws IOException {
+        ApiResponse<T> response = new ApiResponse<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "success":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                    } else {
+                        response.setSuccess(reader.nextBoolean());
+                    }
+                    break;
+                case "message":
+                    response.setMessage(reader.peek() == JsonToken.NULL ? nextNull(reader) : reader.nextString());
+                    break;
+                case "data":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                    } else {
+                        response.setData(dataReader.read(reader));
+                    }
+                    break;
+                case "meta":
+                    response.setMeta(readMeta(reader));
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return response;
+    }
+
+    private static MetaData readMeta(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+
+        MetaData meta = new MetaData();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("timestamp".equals(reader.nextName()) && reader.peek() != JsonToken.NULL) {
+                meta.setTimestamp(reader.nextString());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return meta;
+    }
+
+    private static String nextNull(JsonReader reader) throws IOException {
+        reader.nextNull();
+        return null;
+    }
+
+    /**
+     * Reads the {@code data} member of a response.
+     */
+    interface DataReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+}
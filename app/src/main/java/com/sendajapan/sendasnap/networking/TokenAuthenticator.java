@@ -0,0 +1,52 @@
+package com.sendajapan.sendasnap.networking;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+
+import okhttp3.Authenticator;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+/**
+ * Answers a 401 by renewing the token once through {@link TokenManager} and replaying the
+ * request with the new token. Calls that fail concurrently wait for the same renewal.
+ * Returning null lets the 401 through, and {@link AuthInterceptor} then logs the user out.
+ * A renewal that cannot reach the server fails the call with an {@link IOException} instead,
+ * so the user stays signed in.
+ */
+public class TokenAuthenticator implements Authenticator {
+
+    private static final String HEADER_AUTHORIZATION = "Authorization";
+
+    private final TokenManager tokenManager;
+
+    public TokenAuthenticator(TokenManager tokenManager) {
+        this.tokenManager = tokenManager;
+    }
+
+    @Nullable
+    @Override
+    public Request authenticate(@Nullable Route route, @NonNull Response response) throws IOException {
+        Request request = response.request();
+        if (AuthInterceptor.isAuthEndpoint(request) || response.priorResponse() != null) {
+            return null;
+        }
+
+        String rejectedToken = TokenManager.stripBearer(request.header(HEADER_AUTHORIZATION));
+        if (rejectedToken == null) {
+            return null;
+        }
+
+        String renewed = tokenManager.refresh(rejectedToken);
+        if (renewed == null) {
+            return null;
+        }
+
+        return request.newBuilder()
+                .header(HEADER_AUTHORIZATION, "Bearer " + renewed)
+                .build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.sendajapan.sendasnap.networking;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sendajapan.sendasnap.models.LoginResponse;
+import com.sendajapan.sendasnap.utils.SharedPrefsManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import retrofit2.Response;
+
+/**
+ * Owns the bearer token: hands it to requests, renews it through {@code api/v1/auth/refresh}
+ * and stores the result. Renewals are serialized, so concurrent callers that saw the same
+ * rejected token wait for one refresh and then share its result.
+ * When the token is a JWT, it is renewed in the background shortly before it expires.
+ * Only a refresh the server rejects ends the session; a refresh that cannot reach the server
+ * fails with an {@link IOException} and keeps the current token.
+ */
+public class TokenManager {
+
+    private static final long PROACTIVE_REFRESH_WINDOW_MS = 5 * 60 * 1000;
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final SharedPrefsManager prefsManager;
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+    private final Object refreshLock = new Object();
+    private volatile ApiService apiService;
+    private volatile boolean backgroundRefreshQueued;
+
+    private String parsedToken;
+    private long parsedExpiresAt;
+
+    public TokenManager(SharedPrefsManager prefsManager) {
+        this.prefsManager = prefsManager;
+    }
+
+    /**
+     * Set the service used for refresh calls. Called once the Retrofit client is built.
+     *
+     * @param apiService API service
+     */
+    public void setApiService(ApiService apiService) {
+        this.apiService = apiService;
+    }
+
+    /**
+     * Get the token for an outgoing request. An expired token is renewed before it is used;
+     * a token that expires soon is returned as is and renewed in the background.
+     * Must not be called on the main thread.
+     *
+     * @return Token, or null if the user has none
+     * @throws IOException If an expired token could not be renewed because the server was not reached
+     */
+    public String getTokenForRequest() throws IOException {
+        String token = prefsManager.getToken();
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        long expiresAt = getExpiresAt(token);
+        if (expiresAt <= 0) {
+            return token;
+        }
+
+        long remaining = expiresAt - System.currentTimeMillis();
+        if (remaining <= 0) {
+            String renewed = refresh(token);
+            return renewed != null ? renewed : token;
+        }
+        if (remaining < PROACTIVE_REFRESH_WINDOW_MS) {
+            refreshInBackground(token);
+        }
+        return token;
+    }
+
+    /**
+     * Renew a token the server rejected. If another caller already replaced it, the stored
+     * token is returned without a new refresh call.
+     *
+     * @param rejectedToken Token sent with the failed request
+     * @return New token, or null if the server rejected the refresh
+     * @throws IOException If the server was not reached or failed to answer
+     */
+    public String refresh(String rejectedToken) throws IOException {
+        synchronized (refreshLock) {
+            String current = prefsManager.getToken();
+            if (current == null || current.isEmpty()) {
+                return null;
+            }
+            if (!current.equals(rejectedToken)) {
+                return current;
+            }
+
+            ApiService service = apiService;
+            if (service == null) {
+                return null;
+            }
+
+            Response<LoginResponse> response = service.refreshToken(BEARER_PREFIX + rejectedToken).execute();
+            if (response.code() == 401 || response.code() == 403) {
+                return null;
+            }
+            if (!response.isSuccessful()) {
+                throw new IOException("Token refresh failed with HTTP " + response.code());
+            }
+
+            LoginResponse body = response.body();
+            if (body == null || body.getData() == null
+                    || body.getData().getToken() == null || body.getData().getToken().isEmpty()) {
+                return null;
+            }
+
+            String renewed = body.getData().getToken();
+            prefsManager.saveToken(renewed);
+            return renewed;
+        }
+    }
+
+    static String stripBearer(String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        return authorization.substring(BEARER_PREFIX.length());
+    }
+
+    private void refreshInBackground(String token) {
+        if (backgroundRefreshQueued) {
+            return;
+        }
+
+        backgroundRefreshQueued = true;
+        refreshExecutor.execute(() -> {
+            try {
+                refresh(token);
+            } catch (IOException e) {
+            } finally {
+                backgroundRefreshQueued = false;
+            }
+        });
+    }
+
+    private synchronized long getExpiresAt(String token) {
+        if (!token.equals(parsedToken)) {
+            parsedToken = token;
+            parsedExpiresAt = parseJwtExpiry(token);
+        }
+        return parsedExpiresAt;
+    }
+
+    private static long parseJwtExpiry(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            return 0;
+        }
+
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+            JsonElement root = JsonParser.parseString(payload);
+            if (!root.isJsonObject()) {
+                return 0;
+            }
+            JsonObject claims = root.getAsJsonObject();
+            return claims.has("exp") ? claims.get("exp").getAsLong() * 1000 : 0;
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
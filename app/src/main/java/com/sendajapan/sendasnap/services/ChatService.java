@@ -1,6 +1,7 @@
 package com.sendajapan.sendasnap.services;
 
 import android.content.Context;
+import com.google.firebase.database.ChildEventListener;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
@@ -10,14 +11,20 @@ import com.sendajapan.sendasnap.models.Chat;
 import com.sendajapan.sendasnap.models.ChatUser;
 import com.sendajapan.sendasnap.models.Message;
 import com.sendajapan.sendasnap.models.UserData;
+import com.sendajapan.sendasnap.services.chat.GroupChatParticipantsCache;
+import com.sendajapan.sendasnap.services.chat.MessageFanOut;
+import com.sendajapan.sendasnap.services.chat.MessageHistoryManager;
+import com.sendajapan.sendasnap.services.chat.SeenStateManager;
 import com.sendajapan.sendasnap.services.chat.UnreadCountManager;
 import com.sendajapan.sendasnap.services.chat.UserManager;
 import com.sendajapan.sendasnap.utils.FirebaseUtils;
+import com.sendajapan.sendasnap.utils.SharedPrefsManager;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ChatService {
 
@@ -27,7 +34,6 @@ public class ChatService {
     private static final String PATH_USERS = "users";
     private static final String PATH_PARTICIPANTS = "participants";
     private static final String PATH_TASK_CHATS = "taskChats";
-    private static final String PATH_LAST_MESSAGE = "lastMessage";
     private static final String MESSAGE_TYPE_TEXT = "text";
     private static final String MESSAGE_TYPE_IMAGE = "image";
     private static final String MESSAGE_TYPE_FILE = "file";
@@ -35,23 +41,13 @@ public class ChatService {
     private static final String MESSAGE_TEXT_FILE_PREFIX = "File: ";
     private static final String CHAT_ID_PREFIX_TASK = "task_";
     private static final String FIELD_CHAT_ID = "chatId";
-    private static final String FIELD_OTHER_USER_ID = "otherUserId";
-    private static final String FIELD_OTHER_USER_NAME = "otherUserName";
-    private static final String FIELD_OTHER_USER_EMAIL = "otherUserEmail";
     private static final String FIELD_LAST_MESSAGE = "lastMessage";
     private static final String FIELD_LAST_MESSAGE_TIME = "lastMessageTime";
     private static final String FIELD_UNREAD_COUNT = "unreadCount";
     private static final String FIELD_IS_GROUP_CHAT = "isGroupChat";
     private static final String FIELD_TASK_ID = "taskId";
     private static final String FIELD_TASK_TITLE = "taskTitle";
-    private static final String FIELD_IS_SEEN = "isSeen";
-    private static final String FIELD_SEEN_AT = "seenAt";
     private static final String FIELD_CREATED_AT = "createdAt";
-    private static final String FIELD_MESSAGE = "message";
-    private static final String FIELD_SENDER_ID = "senderId";
-    private static final String FIELD_TIMESTAMP = "timestamp";
-    private static final String FIELD_MESSAGE_TYPE = "messageType";
-    private static final String DEFAULT_USER_NAME = "User";
     private static final String EMPTY_STRING = "";
     private static final int DEFAULT_UNREAD_COUNT = 0;
     private static final long DEFAULT_TIMESTAMP = 0L;
@@ -60,11 +56,18 @@ public class ChatService {
     private final FirebaseDatabase database;
     private final UserManager userManager;
     private final UnreadCountManager unreadCountManager;
+    private final MessageHistoryManager messageHistoryManager;
+    private final GroupChatParticipantsCache participantsCache;
+    private final SeenStateManager seenStateManager;
+    private final Map<String, ChatUser> userCache = new ConcurrentHashMap<>();
 
     private ChatService() {
         database = FirebaseDatabase.getInstance();
         userManager = new UserManager(database);
         unreadCountManager = new UnreadCountManager(database);
+        messageHistoryManager = new MessageHistoryManager(database);
+        participantsCache = new GroupChatParticipantsCache(database);
+        seenStateManager = new SeenStateManager(database);
     }
 
     public static synchronized ChatService getInstance() {
@@ -111,16 +114,7 @@ public class ChatService {
             }
 
             Message message = createTextMessage(messageId, senderId, receiverId, messageText);
-            DatabaseReference messageRef = getMessageReference(chatId, messageId);
-            messageRef.setValue(message).addOnSuccessListener(aVoid -> {
-                try {
-                    updateLastMessage(chatId, senderId, messageText, MESSAGE_TYPE_TEXT);
-                    updateUserChats(chatId, senderId, receiverId, messageText, System.currentTimeMillis());
-                    callback.onSuccess(message);
-                } catch (Exception e) {
-                    callback.onSuccess(message);
-                }
-            }).addOnFailureListener(callback::onFailure);
+            commitDirectMessage(chatId, message, messageText, callback);
         } catch (Exception e) {
             callback.onFailure(e);
         }
@@ -140,12 +134,7 @@ public class ChatService {
         }
 
         Message message = createImageMessage(messageId, senderId, receiverId, imageUrl);
-        DatabaseReference messageRef = getMessageReference(chatId, messageId);
-        messageRef.setValue(message).addOnSuccessListener(aVoid -> {
-            updateLastMessage(chatId, senderId, MESSAGE_TEXT_IMAGE, MESSAGE_TYPE_IMAGE);
-            updateUserChats(chatId, senderId, receiverId, MESSAGE_TEXT_IMAGE, System.currentTimeMillis());
-            callback.onSuccess(message);
-        }).addOnFailureListener(callback::onFailure);
+        commitDirectMessage(chatId, message, MESSAGE_TEXT_IMAGE, callback);
     }
 
     public void sendFileMessage(String chatId, String receiverId, String fileUrl, String fileName, MessageCallback callback) {
@@ -163,36 +152,31 @@ public class ChatService {
 
         String fileMessageText = MESSAGE_TEXT_FILE_PREFIX + fileName;
         Message message = createFileMessage(messageId, senderId, receiverId, fileUrl, fileName, fileMessageText);
-        DatabaseReference messageRef = getMessageReference(chatId, messageId);
-        messageRef.setValue(message).addOnSuccessListener(aVoid -> {
-            updateLastMessage(chatId, senderId, fileMessageText, MESSAGE_TYPE_FILE);
-            updateUserChats(chatId, senderId, receiverId, fileMessageText, System.currentTimeMillis());
-            callback.onSuccess(message);
-        }).addOnFailureListener(callback::onFailure);
+        commitDirectMessage(chatId, message, fileMessageText, callback);
     }
 
     public void markAsSeen(String chatId, String currentUserId) {
-        DatabaseReference messagesRef = database.getReference(PATH_CHATS).child(chatId).child(PATH_MESSAGES);
-        messagesRef.addListenerForSingleValueEvent(new ValueEventListener() {
+        seenStateManager.markAsSeen(chatId, currentUserId);
+    }
+
+    public ValueEventListener addSeenWatermarkListener(String chatId, String userId, SeenWatermarkCallback callback) {
+        return seenStateManager.addSeenWatermarkListener(chatId, userId, new SeenStateManager.SeenWatermarkCallback() {
             @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                for (DataSnapshot messageSnapshot : snapshot.getChildren()) {
-                    Message message = messageSnapshot.getValue(Message.class);
-                    if (message != null &&
-                            message.getReceiverId().equals(currentUserId) &&
-                            !message.isSeen()) {
-                        messageSnapshot.getRef().child(FIELD_IS_SEEN).setValue(true);
-                        messageSnapshot.getRef().child(FIELD_SEEN_AT).setValue(System.currentTimeMillis());
-                    }
-                }
+            public void onSuccess(long seenUpToTimestamp) {
+                callback.onSuccess(seenUpToTimestamp);
             }
 
             @Override
-            public void onCancelled(DatabaseError error) {
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
             }
         });
     }
 
+    public void removeSeenWatermarkListener(String chatId, String userId, ValueEventListener listener) {
+        seenStateManager.removeSeenWatermarkListener(chatId, userId, listener);
+    }
+
     public void getRecentChats(Context context, RecentChatsCallback callback) {
         String userId = FirebaseUtils.getCurrentUserId(context);
         if (userId.isEmpty()) {
@@ -221,24 +205,61 @@ public class ChatService {
         });
     }
 
-    public void getChatMessages(String chatId, MessagesCallback callback) {
-        DatabaseReference messagesRef = database.getReference(PATH_CHATS).child(chatId).child(PATH_MESSAGES);
-        messagesRef.orderByChild(FIELD_TIMESTAMP).addValueEventListener(new ValueEventListener() {
+    public void loadLatestMessages(String chatId, int pageSize, MessagePageCallback callback) {
+        messageHistoryManager.loadLatestMessages(chatId, pageSize, new MessageHistoryManager.MessagePageCallback() {
             @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                List<Message> messages = new ArrayList<>();
-                for (DataSnapshot messageSnapshot : snapshot.getChildren()) {
-                    Message message = messageSnapshot.getValue(Message.class);
-                    if (message != null) {
-                        messages.add(message);
-                    }
-                }
-                callback.onSuccess(messages);
+            public void onSuccess(List<Message> messages, boolean hasMore) {
+                callback.onSuccess(messages, hasMore);
             }
 
             @Override
-            public void onCancelled(DatabaseError error) {
-                callback.onFailure(error.toException());
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    public ChildEventListener addMessageStreamListener(String chatId, long startTimestamp,
+                                                       MessageStreamCallback callback) {
+        return messageHistoryManager.addMessageStreamListener(chatId, startTimestamp,
+                new MessageHistoryManager.MessageStreamCallback() {
+            @Override
+            public void onMessageAdded(Message message) {
+                callback.onMessageAdded(message);
+            }
+
+            @Override
+            public void onMessageChanged(Message message) {
+                callback.onMessageChanged(message);
+            }
+
+            @Override
+            public void onMessageRemoved(Message message) {
+                callback.onMessageRemoved(message);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    public void removeMessageStreamListener(String chatId, long startTimestamp, ChildEventListener listener) {
+        messageHistoryManager.removeMessageStreamListener(chatId, startTimestamp, listener);
+    }
+
+    public void loadOlderMessages(String chatId, Message oldestLoaded, int pageSize, MessagePageCallback callback) {
+        messageHistoryManager.loadOlderMessages(chatId, oldestLoaded, pageSize,
+                new MessageHistoryManager.MessagePageCallback() {
+            @Override
+            public void onSuccess(List<Message> messages, boolean hasMore) {
+                callback.onSuccess(messages, hasMore);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
             }
         });
     }
@@ -279,6 +300,9 @@ public class ChatService {
             public void onDataChange(DataSnapshot snapshot) {
                 if (snapshot.exists()) {
                     ChatUser user = snapshot.getValue(ChatUser.class);
+                    if (user != null) {
+                        userCache.put(userId, user);
+                    }
                     callback.onSuccess(user);
                 } else {
                     callback.onFailure(new Exception("User not found"));
@@ -300,7 +324,11 @@ public class ChatService {
                 List<ChatUser> users = new ArrayList<>();
                 for (DataSnapshot userSnapshot : snapshot.getChildren()) {
                     ChatUser user = userSnapshot.getValue(ChatUser.class);
-                    if (user != null && !user.getUserId().equals(currentUserId)) {
+                    if (user == null || user.getUserId() == null) {
+                        continue;
+                    }
+                    userCache.put(user.getUserId(), user);
+                    if (!user.getUserId().equals(currentUserId)) {
                         users.add(user);
                     }
                 }
@@ -349,14 +377,15 @@ public class ChatService {
         }
 
         String chatId = CHAT_ID_PREFIX_TASK + taskId;
-        DatabaseReference chatRef = database.getReference(PATH_CHATS).child(chatId);
-        chatRef.addListenerForSingleValueEvent(new ValueEventListener() {
+        DatabaseReference participantsRef = database.getReference(PATH_CHATS).child(chatId).child(PATH_PARTICIPANTS);
+        participantsRef.addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
             public void onDataChange(DataSnapshot snapshot) {
                 if (!snapshot.exists()) {
-                    createNewGroupChat(chatRef, chatId, taskId, taskTitle, participantIds, callback);
+                    createNewGroupChat(chatId, taskId, taskTitle, participantIds, callback);
                 } else {
-                    handleExistingGroupChat(chatRef, snapshot, chatId, taskId, taskTitle, participantIds, callback);
+                    List<String> existingParticipantIds = extractParticipantIds(snapshot);
+                    handleExistingGroupChat(chatId, taskId, taskTitle, participantIds, existingParticipantIds, callback);
                 }
             }
 
@@ -392,252 +421,155 @@ public class ChatService {
             }
 
             Message message = createGroupTextMessage(messageId, senderId, messageText);
-            DatabaseReference messageRef = getMessageReference(chatId, messageId);
-            messageRef.setValue(message).addOnSuccessListener(aVoid -> {
-                try {
-                    updateLastMessage(chatId, senderId, messageText, MESSAGE_TYPE_TEXT);
-                    updateGroupChatUserChats(chatId, senderId, messageText, System.currentTimeMillis());
-                    callback.onSuccess(message);
-                } catch (Exception e) {
-                    callback.onSuccess(message);
-                }
-            }).addOnFailureListener(callback::onFailure);
+            commitGroupMessage(chatId, message, messageText, callback);
         } catch (Exception e) {
             callback.onFailure(e);
         }
     }
 
-    public void getGroupChatUnreadCount(String chatId, String userId, UnreadCountCallback callback) {
-        unreadCountManager.getUnreadCount(chatId, userId, new UnreadCountManager.UnreadCountCallback() {
-            @Override
-            public void onSuccess(int unreadCount) {
-                callback.onSuccess(unreadCount);
-            }
-
-            @Override
-            public void onFailure(Exception e) {
-                callback.onFailure(e);
-            }
-        });
+    public UnreadCountManager.Subscription addUnreadCountSubscription(String chatId, String userId,
+                                                                     UnreadCountCallback callback) {
+        return unreadCountManager.addChatSubscription(chatId, userId, wrapUnreadCountCallback(callback));
     }
 
-    public ValueEventListener addUnreadCountListener(String chatId, String userId, UnreadCountCallback callback) {
-        return unreadCountManager.addUnreadCountListener(chatId, userId, new UnreadCountManager.UnreadCountCallback() {
-            @Override
-            public void onSuccess(int unreadCount) {
-                callback.onSuccess(unreadCount);
-            }
+    public UnreadCountManager.Subscription addNotificationCountSubscription(Context context,
+                                                                           UnreadCountCallback callback) {
+        UserData user = SharedPrefsManager.getInstance(context).getUser();
+        String userId = FirebaseUtils.getCurrentUserId(context);
+        if (user == null || userId.isEmpty()) {
+            callback.onSuccess(0);
+            return null;
+        }
 
-            @Override
-            public void onFailure(Exception e) {
-                callback.onFailure(e);
-            }
-        });
+        return unreadCountManager.addNotificationSubscription(userId, user.getId(), wrapUnreadCountCallback(callback));
     }
 
-    public void removeUnreadCountListener(String chatId, String userId, ValueEventListener listener) {
-        unreadCountManager.removeUnreadCountListener(chatId, userId, listener);
+    public void removeUnreadCountSubscription(UnreadCountManager.Subscription subscription) {
+        unreadCountManager.removeSubscription(subscription);
     }
 
-    public void markGroupChatAsSeen(String chatId, String userId) {
-        unreadCountManager.markAsSeen(chatId, userId);
+    /**
+     * Stop syncing unread counts of the current user; call on logout.
+     */
+    public void clearUnreadCounts() {
+        unreadCountManager.clear();
     }
 
-    private void updateLastMessage(String chatId, String senderId, String messageText, String messageType) {
-        Map<String, Object> lastMessage = new HashMap<>();
-        lastMessage.put(FIELD_MESSAGE, messageText);
-        lastMessage.put(FIELD_SENDER_ID, senderId);
-        lastMessage.put(FIELD_TIMESTAMP, System.currentTimeMillis());
-        lastMessage.put(FIELD_MESSAGE_TYPE, messageType);
-
-        database.getReference(PATH_CHATS).child(chatId).child(PATH_LAST_MESSAGE).setValue(lastMessage);
+    public void markGroupChatAsSeen(String chatId, String userId) {
+        unreadCountManager.markAsSeen(chatId, userId);
     }
 
-    private void updateUserChats(String chatId, String senderId, String receiverId, String lastMessage, long timestamp) {
-        updateUserChatEntry(chatId, senderId, receiverId, lastMessage, timestamp, 0);
-        updateUserChatEntry(chatId, receiverId, senderId, lastMessage, timestamp, 1);
+    public void watchGroupChat(String chatId) {
+        if (isValidChatId(chatId)) {
+            participantsCache.watch(chatId);
+        }
     }
 
-    private void updateUserChatEntry(String chatId, String userId, String otherUserId, String lastMessage, long timestamp, int unreadIncrement) {
-        if (!isValidUserChatEntryParams(chatId, userId, otherUserId)) {
-            return;
+    public void unwatchGroupChat(String chatId) {
+        if (isValidChatId(chatId)) {
+            participantsCache.unwatch(chatId);
         }
+    }
 
-        try {
-            DatabaseReference userChatRef = database.getReference(PATH_USER_CHATS).child(userId).child(chatId);
-            userChatRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(DataSnapshot snapshot) {
-                    try {
-                        int unreadCountValue = getUnreadCountFromSnapshot(snapshot, unreadIncrement);
-                        final int finalUnreadCount = unreadCountValue;
-
-                        getUserById(otherUserId, new UserCallback() {
-                            @Override
-                            public void onSuccess(ChatUser user) {
-                                try {
-                                    if (user == null) {
-                                        Map<String, Object> chatData = createUserChatData(
-                                                chatId, otherUserId, DEFAULT_USER_NAME, EMPTY_STRING,
-                                                lastMessage, timestamp, finalUnreadCount);
-                                        userChatRef.setValue(chatData);
-                                        return;
-                                    }
-
-                                    String userName = user.getUsername() != null ? user.getUsername() : DEFAULT_USER_NAME;
-                                    String userEmail = user.getEmail() != null ? user.getEmail() : EMPTY_STRING;
-                                    Map<String, Object> chatData = createUserChatData(
-                                            chatId, otherUserId, userName, userEmail,
-                                            lastMessage, timestamp, finalUnreadCount);
-                                    userChatRef.setValue(chatData);
-                                } catch (Exception e) {
-                                }
-                            }
-
-                            @Override
-                            public void onFailure(Exception e) {
-                                try {
-                                    Map<String, Object> chatData = createUserChatData(
-                                            chatId, otherUserId, DEFAULT_USER_NAME, EMPTY_STRING,
-                                            lastMessage, timestamp, finalUnreadCount);
-                                    userChatRef.setValue(chatData);
-                                } catch (Exception ex) {
-                                }
-                            }
-                        });
-                    } catch (Exception e) {
-                    }
-                }
+    private void commitDirectMessage(String chatId, Message message, String lastMessageText,
+                                     MessageCallback callback) {
+        String senderId = message.getSenderId();
+        String receiverId = message.getReceiverId();
 
-                @Override
-                public void onCancelled(DatabaseError error) {
-                }
-            });
-        } catch (Exception e) {
+        MessageFanOut fanOut = new MessageFanOut(chatId, message, lastMessageText);
+        if (isValidUserId(receiverId)) {
+            fanOut.addDirectEntry(senderId, receiverId, userCache.get(receiverId), false)
+                    .addDirectEntry(receiverId, senderId, userCache.get(senderId), true);
         }
-    }
 
-    private void updateGroupChatUserChats(String chatId, String senderId, String lastMessage, long timestamp) {
-        if (!isValidChatId(chatId) || !isValidUserId(senderId)) {
-            return;
-        }
+        database.getReference().updateChildren(fanOut.build()).addOnSuccessListener(aVoid -> {
+            callback.onSuccess(message);
+            if (isValidUserId(receiverId)) {
+                backfillOtherUserProfile(chatId, senderId, receiverId);
+                backfillOtherUserProfile(chatId, receiverId, senderId);
+            }
+        }).addOnFailureListener(callback::onFailure);
+    }
 
-        DatabaseReference chatRef = database.getReference(PATH_CHATS).child(chatId).child(PATH_PARTICIPANTS);
-        chatRef.addListenerForSingleValueEvent(new ValueEventListener() {
+    private void commitGroupMessage(String chatId, Message message, String lastMessageText,
+                                    MessageCallback callback) {
+        participantsCache.getParticipants(chatId, new GroupChatParticipantsCache.ParticipantsCallback() {
             @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                if (!snapshot.exists()) {
-                    return;
+            public void onSuccess(List<String> participantIds) {
+                String taskId = extractTaskId(chatId);
+                MessageFanOut fanOut = new MessageFanOut(chatId, message, lastMessageText);
+                for (String participantId : participantIds) {
+                    boolean incrementUnread = !participantId.equals(message.getSenderId());
+                    fanOut.addGroupEntry(participantId, taskId, incrementUnread);
                 }
 
-                List<String> participantIds = extractParticipantIds(snapshot);
-                if (participantIds.isEmpty()) {
-                    return;
-                }
-
-                DatabaseReference taskInfoRef = database.getReference(PATH_CHATS).child(chatId);
-                taskInfoRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(DataSnapshot taskSnapshot) {
-                        if (!taskSnapshot.exists()) {
-                            return;
-                        }
-
-                        String taskId = taskSnapshot.child(FIELD_TASK_ID).getValue(String.class);
-                        String taskTitle = taskSnapshot.child(FIELD_TASK_TITLE).getValue(String.class);
-
-                        for (String participantId : participantIds) {
-                            int unreadIncrement = participantId.equals(senderId) ? 0 : 1;
-                            updateGroupChatUserChatEntry(chatId, participantId, taskId, taskTitle, lastMessage, timestamp, unreadIncrement);
-                        }
-                    }
-
-                    @Override
-                    public void onCancelled(DatabaseError error) {
-                    }
-                });
+                database.getReference().updateChildren(fanOut.build())
+                        .addOnSuccessListener(aVoid -> callback.onSuccess(message))
+                        .addOnFailureListener(callback::onFailure);
             }
 
             @Override
-            public void onCancelled(DatabaseError error) {
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
             }
         });
     }
 
-    private void updateGroupChatUserChatEntry(String chatId, String userId, String taskId, String taskTitle,
-                                              String lastMessage, long timestamp, int unreadIncrement) {
-        if (chatId == null || userId == null) {
-            return;
-        }
-
-        if (unreadIncrement <= 0) {
-            updateGroupChatUserChatEntryFieldsOnly(chatId, userId, taskId, taskTitle, lastMessage, timestamp);
+    private void backfillOtherUserProfile(String chatId, String userId, String otherUserId) {
+        if (userCache.containsKey(otherUserId)) {
             return;
         }
 
-        DatabaseReference userChatRef = database.getReference(PATH_USER_CHATS).child(userId).child(chatId);
-        database.goOnline();
-
-        userChatRef.get().addOnSuccessListener(snapshot -> {
-            try {
-                int currentUnreadCount = getUnreadCountFromSnapshot(snapshot);
-                int newUnreadCount = Math.max(0, currentUnreadCount + unreadIncrement);
-                final int finalUnreadCount = newUnreadCount;
-
-                Map<String, Object> updates = createGroupChatUserChatUpdates(
-                        chatId, taskId, taskTitle, lastMessage, timestamp, finalUnreadCount);
+        getUserById(otherUserId, new UserCallback() {
+            @Override
+            public void onSuccess(ChatUser user) {
+                database.getReference().updateChildren(
+                        MessageFanOut.otherUserProfileUpdates(userId, chatId, user));
+            }
 
-                userChatRef.setValue(updates, (error, ref) -> {
-                    if (error != null) {
-                        Map<String, Object> fallbackUpdates = createUnreadCountFallbackUpdates(
-                                finalUnreadCount, lastMessage, timestamp);
-                        userChatRef.updateChildren(fallbackUpdates);
-                    }
-                });
-            } catch (Exception e) {
+            @Override
+            public void onFailure(Exception e) {
+                database.getReference().updateChildren(
+                        MessageFanOut.otherUserProfileUpdates(userId, chatId, null));
             }
-        }).addOnFailureListener(e -> {
-            Map<String, Object> updates = createGroupChatUserChatUpdates(
-                    chatId, taskId, taskTitle, lastMessage, timestamp, unreadIncrement);
-            userChatRef.setValue(updates);
         });
     }
 
-    private void updateGroupChatUserChatEntryFieldsOnly(String chatId, String userId, String taskId, String taskTitle,
-                                                        String lastMessage, long timestamp) {
-        try {
-            DatabaseReference userChatRef = database.getReference(PATH_USER_CHATS).child(userId).child(chatId);
-            Map<String, Object> updates = createGroupChatUserChatFieldsOnly(
-                    chatId, taskId, taskTitle, lastMessage, timestamp);
-            userChatRef.updateChildren(updates);
-        } catch (Exception e) {
-        }
-    }
-
-    private void createNewGroupChat(DatabaseReference chatRef, String chatId, String taskId, String taskTitle,
+    private void createNewGroupChat(String chatId, String taskId, String taskTitle,
                                     List<String> participantIds, GroupChatCallback callback) {
-        Map<String, Object> chatData = createGroupChatData(taskId, taskTitle, participantIds);
+        Map<String, Object> updates = new HashMap<>();
+        for (Map.Entry<String, Object> field : createGroupChatData(taskId, taskTitle, participantIds).entrySet()) {
+            updates.put(PATH_CHATS + "/" + chatId + "/" + field.getKey(), field.getValue());
+        }
+        updates.put(PATH_TASK_CHATS + "/" + taskId, createTaskChatMapping(chatId, taskTitle));
+        for (String participantId : participantIds) {
+            if (isValidUserId(participantId)) {
+                updates.put(PATH_USER_CHATS + "/" + participantId + "/" + chatId,
+                        createGroupChatUserChatData(chatId, taskId, taskTitle, DEFAULT_UNREAD_COUNT));
+            }
+        }
 
-        chatRef.setValue(chatData).addOnSuccessListener(aVoid -> {
-            storeTaskChatMapping(taskId, chatId, taskTitle);
-            initializeUserChatsForParticipants(chatId, taskId, taskTitle, participantIds);
+        database.getReference().updateChildren(updates).addOnSuccessListener(aVoid -> {
             Chat chat = createEmptyChatObject(chatId);
             callback.onSuccess(chat);
         }).addOnFailureListener(callback::onFailure);
     }
 
-    private void handleExistingGroupChat(DatabaseReference chatRef, DataSnapshot snapshot, String chatId,
-                                         String taskId, String taskTitle, List<String> participantIds,
-                                         GroupChatCallback callback) {
-        DataSnapshot participantsSnapshot = snapshot.child(PATH_PARTICIPANTS);
-        List<String> existingParticipantIds = extractParticipantIds(participantsSnapshot);
-
-        updateChatParticipants(chatRef, participantIds, existingParticipantIds);
+    private void handleExistingGroupChat(String chatId, String taskId, String taskTitle, List<String> participantIds,
+                                         List<String> existingParticipantIds, GroupChatCallback callback) {
+        Map<String, Object> updates = new HashMap<>();
+        for (String participantId : participantIds) {
+            if (isValidUserId(participantId) && !existingParticipantIds.contains(participantId)) {
+                existingParticipantIds.add(participantId);
+                updates.put(PATH_CHATS + "/" + chatId + "/" + PATH_PARTICIPANTS + "/" + participantId, true);
+            }
+        }
 
-        String existingTaskId = snapshot.child(FIELD_TASK_ID).getValue(String.class);
-        String existingTaskTitle = snapshot.child(FIELD_TASK_TITLE).getValue(String.class);
+        for (String participantId : existingParticipantIds) {
+            MessageFanOut.putGroupEntryDefaults(updates, participantId, chatId, taskId, taskTitle);
+        }
 
-        ensureUserChatsEntries(chatId, existingParticipantIds, existingTaskId, existingTaskTitle);
+        database.getReference().updateChildren(updates);
 
         Chat chat = createEmptyChatObject(chatId);
         callback.onSuccess(chat);
@@ -667,66 +599,12 @@ public class ChatService {
         return participantIds;
     }
 
-    private void updateChatParticipants(DatabaseReference chatRef, List<String> participantIds,
-                                         List<String> existingParticipantIds) {
-        boolean hasNewParticipants = false;
-        Map<String, Object> participantsUpdate = new HashMap<>();
-        for (String participantId : participantIds) {
-            if (participantId != null && !participantId.isEmpty() && !existingParticipantIds.contains(participantId)) {
-                existingParticipantIds.add(participantId);
-                participantsUpdate.put(participantId, true);
-                hasNewParticipants = true;
-            }
-        }
-
-        if (hasNewParticipants) {
-            DatabaseReference participantsRef = chatRef.child(PATH_PARTICIPANTS);
-            participantsRef.updateChildren(participantsUpdate);
-        }
-    }
-
-    private void ensureUserChatsEntries(String chatId, List<String> participantIds, String taskId, String taskTitle) {
-        for (String participantId : participantIds) {
-            if (participantId != null && !participantId.isEmpty()) {
-                DatabaseReference userChatRef = database.getReference(PATH_USER_CHATS)
-                        .child(participantId).child(chatId);
-                userChatRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(DataSnapshot userChatSnapshot) {
-                        if (!userChatSnapshot.exists()) {
-                            Map<String, Object> userChatData = createGroupChatUserChatData(
-                                    chatId, taskId, taskTitle, DEFAULT_UNREAD_COUNT);
-                            userChatRef.setValue(userChatData);
-                        }
-                    }
-
-                    @Override
-                    public void onCancelled(DatabaseError error) {
-                    }
-                });
-            }
-        }
-    }
-
-    private void storeTaskChatMapping(String taskId, String chatId, String taskTitle) {
+    private Map<String, Object> createTaskChatMapping(String chatId, String taskTitle) {
         Map<String, Object> taskChatMapping = new HashMap<>();
         taskChatMapping.put(FIELD_CHAT_ID, chatId);
         taskChatMapping.put(FIELD_TASK_TITLE, taskTitle);
         taskChatMapping.put(FIELD_CREATED_AT, System.currentTimeMillis());
-        database.getReference(PATH_TASK_CHATS).child(taskId).setValue(taskChatMapping);
-    }
-
-    private void initializeUserChatsForParticipants(String chatId, String taskId, String taskTitle,
-                                                      List<String> participantIds) {
-        for (String participantId : participantIds) {
-            if (participantId != null && !participantId.isEmpty()) {
-                DatabaseReference userChatRef = database.getReference(PATH_USER_CHATS)
-                        .child(participantId).child(chatId);
-                Map<String, Object> userChatData = createGroupChatUserChatData(
-                        chatId, taskId, taskTitle, DEFAULT_UNREAD_COUNT);
-                userChatRef.setValue(userChatData);
-            }
-        }
+        return taskChatMapping;
     }
 
     private boolean isValidChatId(String chatId) {
@@ -737,8 +615,8 @@ public class ChatService {
         return userId != null && !userId.isEmpty();
     }
 
-    private boolean isValidUserChatEntryParams(String chatId, String userId, String otherUserId) {
-        return chatId != null && userId != null && otherUserId != null;
+    private String extractTaskId(String chatId) {
+        return chatId.startsWith(CHAT_ID_PREFIX_TASK) ? chatId.substring(CHAT_ID_PREFIX_TASK.length()) : null;
     }
 
     private boolean isMessageTextEmpty(String messageText) {
@@ -749,10 +627,6 @@ public class ChatService {
         return database.getReference(PATH_CHATS).child(chatId).child(PATH_MESSAGES).push().getKey();
     }
 
-    private DatabaseReference getMessageReference(String chatId, String messageId) {
-        return database.getReference(PATH_CHATS).child(chatId).child(PATH_MESSAGES).child(messageId);
-    }
-
     private Message createTextMessage(String messageId, String senderId, String receiverId, String messageText) {
         Message message = new Message();
         message.setMessageId(messageId);
@@ -841,20 +715,6 @@ public class ChatService {
         return chatData;
     }
 
-    private Map<String, Object> createUserChatData(String chatId, String otherUserId, String otherUserName,
-                                                    String otherUserEmail, String lastMessage,
-                                                    long timestamp, int unreadCount) {
-        Map<String, Object> chatData = new HashMap<>();
-        chatData.put(FIELD_CHAT_ID, chatId);
-        chatData.put(FIELD_OTHER_USER_ID, otherUserId);
-        chatData.put(FIELD_OTHER_USER_NAME, otherUserName);
-        chatData.put(FIELD_OTHER_USER_EMAIL, otherUserEmail);
-        chatData.put(FIELD_LAST_MESSAGE, lastMessage);
-        chatData.put(FIELD_LAST_MESSAGE_TIME, timestamp);
-        chatData.put(FIELD_UNREAD_COUNT, unreadCount);
-        return chatData;
-    }
-
     private Map<String, Object> createGroupChatUserChatData(String chatId, String taskId,
                                                               String taskTitle, int unreadCount) {
         Map<String, Object> userChatData = new HashMap<>();
@@ -872,70 +732,18 @@ public class ChatService {
         return userChatData;
     }
 
-    private Map<String, Object> createGroupChatUserChatUpdates(String chatId, String taskId, String taskTitle,
-                                                                 String lastMessage, long timestamp, int unreadCount) {
-        Map<String, Object> updates = new HashMap<>();
-        updates.put(FIELD_CHAT_ID, chatId);
-        if (taskId != null) {
-            updates.put(FIELD_TASK_ID, taskId);
-        }
-        if (taskTitle != null) {
-            updates.put(FIELD_TASK_TITLE, taskTitle);
-        }
-        updates.put(FIELD_IS_GROUP_CHAT, true);
-        updates.put(FIELD_LAST_MESSAGE, lastMessage != null ? lastMessage : EMPTY_STRING);
-        updates.put(FIELD_LAST_MESSAGE_TIME, timestamp);
-        updates.put(FIELD_UNREAD_COUNT, unreadCount);
-        return updates;
-    }
-
-    private Map<String, Object> createUnreadCountFallbackUpdates(int unreadCount, String lastMessage, long timestamp) {
-        Map<String, Object> updateMap = new HashMap<>();
-        updateMap.put(FIELD_UNREAD_COUNT, unreadCount);
-        updateMap.put(FIELD_LAST_MESSAGE, lastMessage != null ? lastMessage : EMPTY_STRING);
-        updateMap.put(FIELD_LAST_MESSAGE_TIME, timestamp);
-        return updateMap;
-    }
-
-    private Map<String, Object> createGroupChatUserChatFieldsOnly(String chatId, String taskId, String taskTitle,
-                                                                    String lastMessage, long timestamp) {
-        Map<String, Object> updates = new HashMap<>();
-        updates.put(FIELD_CHAT_ID, chatId);
-        if (taskId != null) {
-            updates.put(FIELD_TASK_ID, taskId);
-        }
-        if (taskTitle != null) {
-            updates.put(FIELD_TASK_TITLE, taskTitle);
-        }
-        updates.put(FIELD_IS_GROUP_CHAT, true);
-        updates.put(FIELD_LAST_MESSAGE, lastMessage != null ? lastMessage : EMPTY_STRING);
-        updates.put(FIELD_LAST_MESSAGE_TIME, timestamp);
-        return updates;
-    }
-
-    private int getUnreadCountFromSnapshot(DataSnapshot snapshot) {
-        if (!snapshot.exists()) {
-            return 0;
-        }
-
-        Object unreadObj = snapshot.child(FIELD_UNREAD_COUNT).getValue();
-        if (unreadObj instanceof Long) {
-            return ((Long) unreadObj).intValue();
-        } else if (unreadObj instanceof Integer) {
-            return (Integer) unreadObj;
-        }
-        return 0;
-    }
+    private UnreadCountManager.UnreadCountCallback wrapUnreadCountCallback(UnreadCountCallback callback) {
+        return new UnreadCountManager.UnreadCountCallback() {
+            @Override
+            public void onSuccess(int unreadCount) {
+                callback.onSuccess(unreadCount);
+            }
 
-    private int getUnreadCountFromSnapshot(DataSnapshot snapshot, int unreadIncrement) {
-        int unreadCountValue = 0;
-        if (snapshot.exists()) {
-            Chat existingChat = snapshot.getValue(Chat.class);
-            if (existingChat != null) {
-                unreadCountValue = existingChat.getUnreadCount() + unreadIncrement;
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
             }
-        }
-        return unreadCountValue;
+        };
     }
 
     public interface MessageCallback {
@@ -948,8 +756,15 @@ public class ChatService {
         void onFailure(Exception e);
     }
 
-    public interface MessagesCallback {
-        void onSuccess(List<Message> messages);
+    public interface MessageStreamCallback {
+        void onMessageAdded(Message message);
+        void onMessageChanged(Message message);
+        void onMessageRemoved(Message message);
+        void onFailure(Exception e);
+    }
+
+    public interface MessagePageCallback {
+        void onSuccess(List<Message> messages, boolean hasMore);
         void onFailure(Exception e);
     }
 
@@ -973,6 +788,11 @@ public class ChatService {
         void onFailure(Exception e);
     }
 
+    public interface SeenWatermarkCallback {
+        void onSuccess(long seenUpToTimestamp);
+        void onFailure(Exception e);
+    }
+
     public interface UnreadCountCallback {
         void onSuccess(int unreadCount);
         void onFailure(Exception e);
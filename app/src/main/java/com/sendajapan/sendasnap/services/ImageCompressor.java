@@ -0,0 +1,145 @@
+package com.sendajapan.sendasnap.services;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Shrinks a photo below the upload size limit. The image is decoded at most about
+ * {@value #MAX_DECODE_DIMENSION} px and encoded at the highest JPEG quality (in steps of
+ * {@value #QUALITY_STEP}) that fits, found by binary search. If even the lowest quality is too
+ * large, the image is scaled down to {@value #RESIZED_DIMENSION} px and searched again.
+ * Safe to use from several threads.
+ */
+final class ImageCompressor {
+
+    static final long MAX_FILE_SIZE = 2 * 1024 * 1024;
+
+    private static final int MAX_DECODE_DIMENSION = 1920;
+    private static final int RESIZED_DIMENSION = 1200;
+    private static final int MAX_QUALITY = 85;
+    private static final int RESIZED_MAX_QUALITY = 80;
+    private static final int MIN_QUALITY = 30;
+    private static final int QUALITY_STEP = 5;
+
+    private final File outputDir;
+
+    ImageCompressor(File outputDir) {
+        this.outputDir = outputDir;
+    }
+
+    /**
+     * @param imageFile Original image
+     * @return Temporary JPEG within {@link #MAX_FILE_SIZE}, or null if the image cannot be
+     * decoded or made small enough
+     */
+    File compress(File imageFile) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(imageFile.getAbsolutePath(), options);
+
+        options.inSampleSize = calculateInSampleSize(options, MAX_DECODE_DIMENSION, MAX_DECODE_DIMENSION);
+        options.inJustDecodeBounds = false;
+        Bitmap bitmap = BitmapFactory.decodeFile(imageFile.getAbsolutePath(), options);
+        if (bitmap == null) {
+            return null;
+        }
+
+        try {
+            ByteArrayOutputStream jpeg = encodeWithin(jpegEncoder(bitmap), MIN_QUALITY, MAX_QUALITY,
+                    QUALITY_STEP, MAX_FILE_SIZE);
+
+            int maxDimension = Math.max(bitmap.getWidth(), bitmap.getHeight());
+            if (jpeg == null && maxDimension > RESIZED_DIMENSION) {
+                float scale = (float) RESIZED_DIMENSION / maxDimension;
+                Bitmap resizedBitmap = Bitmap.createScaledBitmap(bitmap, (int) (bitmap.getWidth() * scale),
+                        (int) (bitmap.getHeight() * scale), true);
+                bitmap.recycle();
+                bitmap = resizedBitmap;
+                jpeg = encodeWithin(jpegEncoder(bitmap), MIN_QUALITY, RESIZED_MAX_QUALITY,
+                        QUALITY_STEP, MAX_FILE_SIZE);
+            }
+
+            if (jpeg == null) {
+                return null;
+            }
+
+            File compressedFile = File.createTempFile("compressed_", "_" + imageFile.getName(), outputDir);
+            try (FileOutputStream out = new FileOutputStream(compressedFile)) {
+                jpeg.writeTo(out);
+            }
+            return compressedFile;
+        } finally {
+            bitmap.recycle();
+        }
+    }
+
+    /**
+     * Encode at the highest quality among {@code maxQuality} and {@code minQuality + k * step}
+     * whose output fits {@code maxBytes}. The maximum is tried first as it usually fits; the
+     * rest is a binary search. Sizes are read with {@link ByteArrayOutputStream#size()}, and the
+     * two buffers are swapped rather than copied.
+     *
+     * @return Stream holding the encoding, or null if even {@code minQuality} is too large
+     */
+    static ByteArrayOutputStream encodeWithin(QualityEncoder encoder, int minQuality, int maxQuality,
+                                              int step, long maxBytes) throws IOException {
+        ByteArrayOutputStream attempt = new ByteArrayOutputStream();
+        encoder.encode(maxQuality, attempt);
+        if (attempt.size() <= maxBytes) {
+            return attempt;
+        }
+
+        ByteArrayOutputStream best = null;
+        int low = 0;
+        int high = (maxQuality - 1 - minQuality) / step;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            attempt.reset();
+            encoder.encode(minQuality + mid * step, attempt);
+            if (attempt.size() <= maxBytes) {
+                ByteArrayOutputStream previous = best;
+                best = attempt;
+                attempt = previous != null ? previous : new ByteArrayOutputStream();
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return best;
+    }
+
+    private static QualityEncoder jpegEncoder(Bitmap bitmap) {
+        return (quality, out) -> bitmap.compress(Bitmap.CompressFormat.JPEG, quality, out);
+    }
+
+    /**
+     * Calculate sample size for bitmap decoding to reduce memory usage
+     */
+    private static int calculateInSampleSize(BitmapFactory.Options options, int reqWidth, int reqHeight) {
+        final int height = options.outHeight;
+        final int width = options.outWidth;
+        int inSampleSize = 1;
+
+        if (height > reqHeight || width > reqWidth) {
+            final int halfHeight = height / 2;
+            final int halfWidth = width / 2;
+
+            while ((halfHeight / inSampleSize) >= reqHeight
+                    && (halfWidth / inSampleSize) >= reqWidth) {
+                inSampleSize *= 2;
+            }
+        }
+
+        return inSampleSize;
+    }
+
+    interface QualityEncoder {
+        void encode(int quality, OutputStream out) throws IOException;
+    }
+}
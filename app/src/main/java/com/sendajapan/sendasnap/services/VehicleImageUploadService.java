@@ -1,163 +1,138 @@
 package com.sendajapan.sendasnap.services;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 
-import com.google.gson.Gson;
+import com.sendajapan.sendasnap.data.json.GsonProvider;
 import com.sendajapan.sendasnap.models.ErrorResponse;
 import com.sendajapan.sendasnap.models.Vehicle;
 import com.sendajapan.sendasnap.models.VehicleImageUploadResponse;
 import com.sendajapan.sendasnap.networking.ApiService;
 import com.sendajapan.sendasnap.networking.RetrofitClient;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
-import retrofit2.Call;
-import retrofit2.Callback;
 import retrofit2.Response;
 
 public class VehicleImageUploadService {
 
-    private static final String TAG = "VehicleImageUpload";
-    private static final long MAX_FILE_SIZE = 2 * 1024 * 1024; // 2MB in bytes
+    private static final long MAX_FILE_SIZE = ImageCompressor.MAX_FILE_SIZE;
 
-    private final ApiService apiService;
-    private final Context context;
-
-    public interface UploadCallback {
-        void onSuccess(Vehicle vehicle);
+    /**
+     * Each decode holds a full-size bitmap, so parallelism is capped below the core count on
+     * devices with many cores.
+     */
+    private static final int MAX_PARALLEL_COMPRESSIONS = 3;
+    private static final ExecutorService COMPRESSION_EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), MAX_PARALLEL_COMPRESSIONS)));
 
-        void onError(String errorMessage, int errorCode);
-    }
+    private final ApiService apiService;
+    private final ImageCompressor imageCompressor;
 
     public VehicleImageUploadService(Context context) {
-        this.context = context.getApplicationContext();
         this.apiService = RetrofitClient.getInstance(context).getApiService();
+        this.imageCompressor = new ImageCompressor(context.getApplicationContext().getCacheDir());
     }
 
     /**
-     * Upload vehicle images to the server
-     * 
-     * @param vehicleId  The vehicle ID (integer from external database)
-     * @param imagePaths List of image file paths
-     * @param callback   Callback for success/error handling
+     * Compress an image over 2MB on a bounded pool of background threads, so several images
+     * of a batch are prepared in parallel while earlier ones upload.
+     *
+     * @param imageFile Image file
+     * @return Completes with the image to upload; never completes exceptionally
      */
-    public void uploadImages(int vehicleId, List<String> imagePaths, UploadCallback callback) {
-        // Validate inputs
-        if (imagePaths == null || imagePaths.isEmpty()) {
-            callback.onError("No images to upload", 422);
-            return;
-        }
-
-        // Validate and prepare image files
-        List<MultipartBody.Part> imageParts = new ArrayList<>();
-        List<File> imageFiles = new ArrayList<>();
-        List<File> tempFiles = new ArrayList<>(); // Track temporary compressed files
-
-        for (String imagePath : imagePaths) {
-            File imageFile = new File(imagePath);
-
-            // Check if file exists
-            if (!imageFile.exists() || !imageFile.isFile()) {
-                callback.onError("Image file not found: " + imageFile.getName(), 422);
-                return;
-            }
+    public CompletableFuture<PreparedImage> prepareImage(File imageFile) {
+        return CompletableFuture.supplyAsync(() -> new PreparedImage(imageFile, compressIfNeeded(imageFile)),
+                        COMPRESSION_EXECUTOR)
+                .exceptionally(e -> new PreparedImage(imageFile, imageFile));
+    }
 
-            // Compress image if it's larger than 2MB
-            File fileToUpload = imageFile;
-            if (imageFile.length() > MAX_FILE_SIZE) {
-                try {
-                    fileToUpload = compressImage(imageFile);
-                    if (fileToUpload != null && fileToUpload.exists()) {
-                        tempFiles.add(fileToUpload);
-                    } else {
-                        fileToUpload = imageFile;
-                    }
-                } catch (Exception e) {
-                    fileToUpload = imageFile;
-                    fileToUpload = imageFile;
-                }
+    /**
+     * Upload one prepared vehicle image and delete its compressed copy. Blocks, so it must be
+     * called off the main thread.
+     *
+     * @param vehicleId The vehicle ID (integer from external database)
+     * @param image Image from {@link #prepareImage}
+     * @param idempotencyKey Same key for every attempt of this image, so the server stores it once
+     * @return Outcome of the upload
+     */
+    public UploadResult uploadImage(int vehicleId, PreparedImage image, String idempotencyKey) {
+        File imageFile = image.original;
+        File fileToUpload = image.file;
+        try {
+            if (!fileToUpload.exists() || !fileToUpload.isFile()) {
+                return UploadResult.failed("Image file not found: " + imageFile.getName(), 422);
             }
 
             // Final check: if still too large after compression, return error
             if (fileToUpload.length() > MAX_FILE_SIZE) {
-                // Clean up temp files before returning
-                cleanupTempFiles(tempFiles);
-                callback.onError("Image file too large (max 2MB) even after compression: " + imageFile.getName(), 422);
-                return;
+                return UploadResult.failed(
+                        "Image file too large (max 2MB) even after compression: " + imageFile.getName(), 422);
             }
 
-            imageFiles.add(fileToUpload);
+            RequestBody requestFile = RequestBody.create(MediaType.parse("image/*"), fileToUpload);
+            List<MultipartBody.Part> imageParts = Collections.singletonList(
+                    MultipartBody.Part.createFormData("images[]", imageFile.getName(), requestFile));
+            RequestBody vehicleIdBody = RequestBody.create(
+                    MediaType.parse("text/plain"), String.valueOf(vehicleId));
+
+            Response<VehicleImageUploadResponse> response = apiService.uploadVehicleImagesNew(
+                    vehicleIdBody, imageParts, idempotencyKey).execute();
+            return toResult(response);
+        } catch (IOException e) {
+            return UploadResult.retryLater();
+        } finally {
+            image.discard();
         }
+    }
 
-        // Create multipart parts for images
-        for (File imageFile : imageFiles) {
-            RequestBody requestFile = RequestBody.create(
-                    MediaType.parse("image/*"), imageFile);
-            MultipartBody.Part imagePart = MultipartBody.Part.createFormData(
-                    "images[]", imageFile.getName(), requestFile);
-            imageParts.add(imagePart);
+    /**
+     * @return The image itself if it is within 2MB or cannot be compressed, else a compressed copy
+     */
+    private File compressIfNeeded(File imageFile) {
+        if (!imageFile.isFile() || imageFile.length() <= MAX_FILE_SIZE) {
+            return imageFile;
         }
 
-        // Create vehicle_id part
-        RequestBody vehicleIdBody = RequestBody.create(
-                MediaType.parse("text/plain"), String.valueOf(vehicleId));
-
-        // Make API call
-        Call<VehicleImageUploadResponse> call = apiService.uploadVehicleImagesNew(
-                vehicleIdBody, imageParts);
-
-        call.enqueue(new Callback<VehicleImageUploadResponse>() {
-            @Override
-            public void onResponse(Call<VehicleImageUploadResponse> call,
-                    Response<VehicleImageUploadResponse> response) {
-                // Clean up temporary compressed files
-                cleanupTempFiles(tempFiles);
-
-                if (response.isSuccessful() && response.body() != null) {
-                    VehicleImageUploadResponse uploadResponse = response.body();
-
-                    if (uploadResponse.getSuccess() != null && uploadResponse.getSuccess()) {
-                        // Success
-                        Vehicle vehicle = uploadResponse.getData() != null
-                                ? uploadResponse.getData().getVehicle()
-                                : null;
-                        callback.onSuccess(vehicle);
-                    } else {
-                        // API returned success: false
-                        String errorMessage = uploadResponse.getMessage() != null
-                                ? uploadResponse.getMessage()
-                                : "Upload failed";
-                        callback.onError(errorMessage, response.code());
-                    }
-                } else {
-                    // Handle error response
-                    String errorMessage = parseErrorMessage(response);
-                    callback.onError(errorMessage, response.code());
-                }
-            }
+        try {
+            File compressedFile = imageCompressor.compress(imageFile);
+            return compressedFile != null ? compressedFile : imageFile;
+        } catch (IOException | OutOfMemoryError e) {
+            return imageFile;
+        }
+    }
 
-            @Override
-            public void onFailure(Call<VehicleImageUploadResponse> call, Throwable t) {
-                // Clean up temporary compressed files
-                cleanupTempFiles(tempFiles);
+    private UploadResult toResult(Response<VehicleImageUploadResponse> response) {
+        int code = response.code();
+        if (code == 401 || code == 408 || code == 429 || code >= 500) {
+            return UploadResult.retryLater();
+        }
 
-                String errorMessage = "Network error. Please check your connection and try again.";
-                if (t.getMessage() != null) {
-                    errorMessage = t.getMessage();
-                }
-                callback.onError(errorMessage, 0);
+        if (response.isSuccessful() && response.body() != null) {
+            VehicleImageUploadResponse uploadResponse = response.body();
+            if (uploadResponse.getSuccess() != null && uploadResponse.getSuccess()) {
+                Vehicle vehicle = uploadResponse.getData() != null
+                        ? uploadResponse.getData().getVehicle()
+                        : null;
+                return UploadResult.uploaded(vehicle);
             }
-        });
+
+            // API returned success: false
+            String errorMessage = uploadResponse.getMessage() != null
+                    ? uploadResponse.getMessage()
+                    : "Upload failed";
+            return UploadResult.failed(errorMessage, code);
+        }
+
+        return UploadResult.failed(parseErrorMessage(response), code);
     }
 
     /**
@@ -170,8 +145,7 @@ public class VehicleImageUploadService {
             try {
                 String errorBodyStr = response.errorBody().string();
 
-                Gson gson = new Gson();
-                ErrorResponse errorResponse = gson.fromJson(errorBodyStr, ErrorResponse.class);
+                ErrorResponse errorResponse = GsonProvider.get().fromJson(errorBodyStr, ErrorResponse.class);
 
                 if (errorResponse != null) {
                     // Use formatted error message if available
@@ -198,124 +172,77 @@ public class VehicleImageUploadService {
     }
 
     /**
-     * Compress image file if it's larger than 2MB
-     * 
-     * @param imageFile Original image file
-     * @return Compressed image file, or null if compression fails
+     * An image ready for upload: the original, or a compressed copy in the cache directory.
      */
-    private File compressImage(File imageFile) {
-        try {
-            // Decode bitmap with reduced sample size to save memory
-            BitmapFactory.Options options = new BitmapFactory.Options();
-            options.inJustDecodeBounds = true;
-            BitmapFactory.decodeFile(imageFile.getAbsolutePath(), options);
-
-            // Calculate sample size to reduce memory usage
-            int sampleSize = calculateInSampleSize(options, 1920, 1920); // Max dimensions
-            options.inJustDecodeBounds = false;
-            options.inSampleSize = sampleSize;
-
-            Bitmap bitmap = BitmapFactory.decodeFile(imageFile.getAbsolutePath(), options);
-            if (bitmap == null) {
-                return null;
-            }
+    public static final class PreparedImage {
+        private final File original;
+        private final File file;
 
-            // Compress bitmap
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            int quality = 85;
-            bitmap.compress(Bitmap.CompressFormat.JPEG, quality, baos);
+        private PreparedImage(File original, File file) {
+            this.original = original;
+            this.file = file;
+        }
 
-            // Reduce quality if still too large
-            while (baos.toByteArray().length > MAX_FILE_SIZE && quality > 30) {
-                baos.reset();
-                quality -= 10;
-                bitmap.compress(Bitmap.CompressFormat.JPEG, quality, baos);
+        /**
+         * Delete the compressed copy, if any; the original is kept.
+         */
+        public void discard() {
+            if (!file.equals(original)) {
+                file.delete();
             }
+        }
+    }
 
-            // If still too large, resize the bitmap
-            if (baos.toByteArray().length > MAX_FILE_SIZE) {
-                int maxDimension = Math.max(bitmap.getWidth(), bitmap.getHeight());
-                int targetSize = 1200; // Target max dimension
-
-                if (maxDimension > targetSize) {
-                    float scale = (float) targetSize / maxDimension;
-                    int newWidth = (int) (bitmap.getWidth() * scale);
-                    int newHeight = (int) (bitmap.getHeight() * scale);
-
-                    Bitmap resizedBitmap = Bitmap.createScaledBitmap(bitmap, newWidth, newHeight, true);
-                    bitmap.recycle();
-                    bitmap = resizedBitmap;
-
-                    // Try compressing again with resized bitmap
-                    baos.reset();
-                    quality = 80;
-                    bitmap.compress(Bitmap.CompressFormat.JPEG, quality, baos);
-
-                    // Reduce quality further if needed
-                    while (baos.toByteArray().length > MAX_FILE_SIZE && quality > 30) {
-                        baos.reset();
-                        quality -= 10;
-                        bitmap.compress(Bitmap.CompressFormat.JPEG, quality, baos);
-                    }
-                }
-            }
+    /**
+     * Outcome of uploading one image. Network errors, authentication failures, timeouts,
+     * throttling and server errors are retried later; other failures are final.
+     */
+    public static final class UploadResult {
+        public enum Outcome {
+            UPLOADED, RETRY_LATER, FAILED
+        }
 
-            // Create temporary file for compressed image
-            File compressedFile = new File(context.getCacheDir(),
-                    "compressed_" + System.currentTimeMillis() + "_" + imageFile.getName());
+        private final Outcome outcome;
+        private final Vehicle vehicle;
+        private final String message;
+        private final int errorCode;
 
-            // Write compressed bitmap to file
-            FileOutputStream fos = new FileOutputStream(compressedFile);
-            fos.write(baos.toByteArray());
-            fos.flush();
-            fos.close();
+        private UploadResult(Outcome outcome, Vehicle vehicle, String message, int errorCode) {
+            this.outcome = outcome;
+            this.vehicle = vehicle;
+            this.message = message;
+            this.errorCode = errorCode;
+        }
 
-            // Clean up
-            bitmap.recycle();
-            baos.close();
+        static UploadResult uploaded(Vehicle vehicle) {
+            return new UploadResult(Outcome.UPLOADED, vehicle, null, 0);
+        }
 
-            return compressedFile;
+        public static UploadResult retryLater() {
+            return new UploadResult(Outcome.RETRY_LATER, null, null, 0);
+        }
 
-        } catch (IOException e) {
-            return null;
-        } catch (OutOfMemoryError e) {
-            return null;
+        static UploadResult failed(String message, int errorCode) {
+            return new UploadResult(Outcome.FAILED, null, message, errorCode);
         }
-    }
 
-    /**
-     * Calculate sample size for bitmap decoding to reduce memory usage
-     */
-    private int calculateInSampleSize(BitmapFactory.Options options, int reqWidth, int reqHeight) {
-        final int height = options.outHeight;
-        final int width = options.outWidth;
-        int inSampleSize = 1;
-
-        if (height > reqHeight || width > reqWidth) {
-            final int halfHeight = height / 2;
-            final int halfWidth = width / 2;
-
-            while ((halfHeight / inSampleSize) >= reqHeight
-                    && (halfWidth / inSampleSize) >= reqWidth) {
-                inSampleSize *= 2;
-            }
+        public Outcome getOutcome() {
+            return outcome;
         }
 
-        return inSampleSize;
-    }
+        /**
+         * @return The vehicle with its updated images after {@link Outcome#UPLOADED}, if the API returned it
+         */
+        public Vehicle getVehicle() {
+            return vehicle;
+        }
 
-    /**
-     * Clean up temporary compressed files
-     */
-    private void cleanupTempFiles(List<File> tempFiles) {
-        for (File tempFile : tempFiles) {
-            try {
-                if (tempFile != null && tempFile.exists()) {
-                    tempFile.delete();
-                }
-            } catch (Exception e) {
-            }
+        public String getMessage() {
+            return message;
+        }
+
+        public int getErrorCode() {
+            return errorCode;
         }
-        tempFiles.clear();
     }
 }
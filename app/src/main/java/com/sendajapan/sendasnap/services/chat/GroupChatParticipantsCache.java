@@ -0,0 +1,151 @@
+package com.sendajapan.sendasnap.services.chat;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the participant list of group chats so a message send does not
+ * have to read {@code chats/{chatId}/participants} first.
+ * Only watched chats are cached: a listener keeps each entry in sync with
+ * participants added from other devices, and the entry is dropped on unwatch.
+ */
+public class GroupChatParticipantsCache {
+
+    private static final String PATH_CHATS = "chats";
+    private static final String PATH_PARTICIPANTS = "participants";
+
+    private final FirebaseDatabase database;
+    private final Map<String, List<String>> participantsByChat = new HashMap<>();
+    private final Map<String, ValueEventListener> watchers = new HashMap<>();
+    private final Map<String, Integer> watchCounts = new HashMap<>();
+
+    public GroupChatParticipantsCache(FirebaseDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Get participant IDs of a group chat, reading from Firebase only when the chat
+     * is not watched or its listener has not delivered yet.
+     *
+     * @param chatId Chat ID
+     * @param callback Callback with participant IDs
+     */
+    public void getParticipants(String chatId, ParticipantsCallback callback) {
+        List<String> cached = getCached(chatId);
+        if (cached != null) {
+            callback.onSuccess(cached);
+            return;
+        }
+
+        participantsRef(chatId).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                callback.onSuccess(parseParticipantIds(snapshot));
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                callback.onFailure(error.toException());
+            }
+        });
+    }
+
+    /**
+     * Keep the cached participants of a chat live until {@link #unwatch} is called
+     * the same number of times.
+     *
+     * @param chatId Chat ID
+     */
+    public synchronized void watch(String chatId) {
+        int count = watchCounts.containsKey(chatId) ? watchCounts.get(chatId) : 0;
+        watchCounts.put(chatId, count + 1);
+        if (count > 0) {
+            return;
+        }
+
+        ValueEventListener listener = new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                put(chatId, parseParticipantIds(snapshot));
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                evict(chatId);
+            }
+        };
+        watchers.put(chatId, listener);
+        participantsRef(chatId).addValueEventListener(listener);
+    }
+
+    /**
+     * Release a watch taken with {@link #watch}. The cached entry is dropped once no
+     * watcher remains, so a later send never uses a list that stopped being synced.
+     *
+     * @param chatId Chat ID
+     */
+    public synchronized void unwatch(String chatId) {
+        Integer count = watchCounts.get(chatId);
+        if (count == null) {
+            return;
+        }
+
+        if (count > 1) {
+            watchCounts.put(chatId, count - 1);
+            return;
+        }
+
+        watchCounts.remove(chatId);
+        ValueEventListener listener = watchers.remove(chatId);
+        if (listener != null) {
+            participantsRef(chatId).removeEventListener(listener);
+        }
+        evict(chatId);
+    }
+
+    private synchronized void put(String chatId, List<String> participantIds) {
+        if (watchCounts.containsKey(chatId)) {
+            participantsByChat.put(chatId, Collections.unmodifiableList(participantIds));
+        }
+    }
+
+    private synchronized List<String> getCached(String chatId) {
+        return participantsByChat.get(chatId);
+    }
+
+    private synchronized void evict(String chatId) {
+        participantsByChat.remove(chatId);
+    }
+
+    private DatabaseReference participantsRef(String chatId) {
+        return database.getReference(PATH_CHATS).child(chatId).child(PATH_PARTICIPANTS);
+    }
+
+    private List<String> parseParticipantIds(DataSnapshot snapshot) {
+        List<String> participantIds = new ArrayList<>();
+        for (DataSnapshot participantSnapshot : snapshot.getChildren()) {
+            String participantId = participantSnapshot.getKey();
+            if (participantId != null && !participantId.isEmpty()) {
+                participantIds.add(participantId);
+            }
+        }
+        return participantIds;
+    }
+
+    /**
+     * Callback interface for participant lookups.
+     */
+    public interface ParticipantsCallback {
+        void onSuccess(List<String> participantIds);
+        void onFailure(Exception e);
+    }
+}
@@ -0,0 +1,169 @@
+package com.sendajapan.sendasnap.services.chat;
+
+import com.google.firebase.database.ServerValue;
+import com.sendajapan.sendasnap.models.ChatUser;
+import com.sendajapan.sendasnap.models.Message;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds a multi-location update for sending one message.
+ * The message, the chat's lastMessage and every participant's userChats entry
+ * are written by a single root-level updateChildren call, so a send is one
+ * round trip and either fully applies or not at all.
+ */
+public class MessageFanOut {
+
+    private static final String PATH_CHATS = "chats";
+    private static final String PATH_MESSAGES = "messages";
+    private static final String PATH_USER_CHATS = "userChats";
+    private static final String PATH_LAST_MESSAGE = "lastMessage";
+    private static final String FIELD_CHAT_ID = "chatId";
+    private static final String FIELD_OTHER_USER_ID = "otherUserId";
+    private static final String FIELD_OTHER_USER_NAME = "otherUserName";
+    private static final String FIELD_OTHER_USER_EMAIL = "otherUserEmail";
+    private static final String FIELD_LAST_MESSAGE = "lastMessage";
+    private static final String FIELD_LAST_MESSAGE_TIME = "lastMessageTime";
+    private static final String FIELD_UNREAD_COUNT = "unreadCount";
+    private static final String FIELD_IS_GROUP_CHAT = "isGroupChat";
+    private static final String FIELD_TASK_ID = "taskId";
+    private static final String FIELD_TASK_TITLE = "taskTitle";
+    private static final String FIELD_MESSAGE = "message";
+    private static final String FIELD_SENDER_ID = "senderId";
+    private static final String FIELD_TIMESTAMP = "timestamp";
+    private static final String FIELD_MESSAGE_TYPE = "messageType";
+    private static final String DEFAULT_USER_NAME = "User";
+    private static final String EMPTY_STRING = "";
+
+    private final Map<String, Object> updates = new HashMap<>();
+    private final String chatId;
+    private final String lastMessageText;
+    private final long timestamp;
+
+    /**
+     * Start a fan-out with the message itself and the chat's lastMessage node.
+     *
+     * @param chatId Chat ID
+     * @param message Message to store under chats/{chatId}/messages/{messageId}
+     * @param lastMessageText Preview text stored in lastMessage and userChats entries
+     */
+    public MessageFanOut(String chatId, Message message, String lastMessageText) {
+        this.chatId = chatId;
+        this.lastMessageText = lastMessageText != null ? lastMessageText : EMPTY_STRING;
+        this.timestamp = message.getTimestamp();
+
+        updates.put(path(PATH_CHATS, chatId, PATH_MESSAGES, message.getMessageId()), message);
+
+        Map<String, Object> lastMessage = new HashMap<>();
+        lastMessage.put(FIELD_MESSAGE, this.lastMessageText);
+        lastMessage.put(FIELD_SENDER_ID, message.getSenderId());
+        lastMessage.put(FIELD_TIMESTAMP, timestamp);
+        lastMessage.put(FIELD_MESSAGE_TYPE, message.getMessageType());
+        updates.put(path(PATH_CHATS, chatId, PATH_LAST_MESSAGE), lastMessage);
+    }
+
+    /**
+     * Add a direct-chat userChats entry. Only leaf fields are written, so fields that
+     * are not known here (e.g. an uncached profile) keep their existing values.
+     *
+     * @param userId Owner of the userChats entry
+     * @param otherUserId The other participant
+     * @param otherUser Cached profile of the other participant, or null if unknown
+     * @param incrementUnread Whether the entry's unread counter is incremented server-side
+     * @return This builder
+     */
+    public MessageFanOut addDirectEntry(String userId, String otherUserId, ChatUser otherUser,
+                                        boolean incrementUnread) {
+        String entryPath = path(PATH_USER_CHATS, userId, chatId);
+        putEntryFields(entryPath, incrementUnread);
+        updates.put(path(entryPath, FIELD_OTHER_USER_ID), otherUserId);
+        if (otherUser != null) {
+            putOtherUserProfile(updates, entryPath, otherUser);
+        }
+        return this;
+    }
+
+    /**
+     * Add a group-chat userChats entry.
+     *
+     * @param userId Owner of the userChats entry
+     * @param taskId Task the group chat belongs to
+     * @param incrementUnread Whether the entry's unread counter is incremented server-side
+     * @return This builder
+     */
+    public MessageFanOut addGroupEntry(String userId, String taskId, boolean incrementUnread) {
+        String entryPath = path(PATH_USER_CHATS, userId, chatId);
+        putEntryFields(entryPath, incrementUnread);
+        updates.put(path(entryPath, FIELD_IS_GROUP_CHAT), true);
+        if (taskId != null) {
+            updates.put(path(entryPath, FIELD_TASK_ID), taskId);
+        }
+        return this;
+    }
+
+    public Map<String, Object> build() {
+        return updates;
+    }
+
+    /**
+     * Leaf updates that fill in the other participant's profile on an existing direct entry.
+     *
+     * @param userId Owner of the userChats entry
+     * @param chatId Chat ID
+     * @param otherUser Profile of the other participant, or null to write defaults
+     * @return Update map relative to the database root
+     */
+    public static Map<String, Object> otherUserProfileUpdates(String userId, String chatId, ChatUser otherUser) {
+        Map<String, Object> profileUpdates = new HashMap<>();
+        putOtherUserProfile(profileUpdates, path(PATH_USER_CHATS, userId, chatId), otherUser);
+        return profileUpdates;
+    }
+
+    /**
+     * Leaf updates that create a group-chat userChats entry if it is missing without
+     * resetting the unread counter or last message time of an existing one.
+     *
+     * @param target Update map relative to the database root
+     * @param userId Owner of the userChats entry
+     * @param chatId Chat ID
+     * @param taskId Task the group chat belongs to
+     * @param taskTitle Task title shown in the chat list
+     */
+    public static void putGroupEntryDefaults(Map<String, Object> target, String userId, String chatId,
+                                             String taskId, String taskTitle) {
+        String entryPath = path(PATH_USER_CHATS, userId, chatId);
+        target.put(path(entryPath, FIELD_CHAT_ID), chatId);
+        target.put(path(entryPath, FIELD_IS_GROUP_CHAT), true);
+        if (taskId != null) {
+            target.put(path(entryPath, FIELD_TASK_ID), taskId);
+        }
+        if (taskTitle != null) {
+            target.put(path(entryPath, FIELD_TASK_TITLE), taskTitle);
+        }
+        target.put(path(entryPath, FIELD_LAST_MESSAGE_TIME), ServerValue.increment(0));
+        target.put(path(entryPath, FIELD_UNREAD_COUNT), ServerValue.increment(0));
+    }
+
+    private void putEntryFields(String entryPath, boolean incrementUnread) {
+        updates.put(path(entryPath, FIELD_CHAT_ID), chatId);
+        updates.put(path(entryPath, FIELD_LAST_MESSAGE), lastMessageText);
+        updates.put(path(entryPath, FIELD_LAST_MESSAGE_TIME), timestamp);
+        if (incrementUnread) {
+            updates.put(path(entryPath, FIELD_UNREAD_COUNT), ServerValue.increment(1));
+        }
+    }
+
+    private static void putOtherUserProfile(Map<String, Object> target, String entryPath, ChatUser otherUser) {
+        String userName = otherUser != null && otherUser.getUsername() != null
+                ? otherUser.getUsername() : DEFAULT_USER_NAME;
+        String userEmail = otherUser != null && otherUser.getEmail() != null
+                ? otherUser.getEmail() : EMPTY_STRING;
+        target.put(path(entryPath, FIELD_OTHER_USER_NAME), userName);
+        target.put(path(entryPath, FIELD_OTHER_USER_EMAIL), userEmail);
+    }
+
+    private static String path(String... segments) {
+        return String.join("/", segments);
+    }
+}
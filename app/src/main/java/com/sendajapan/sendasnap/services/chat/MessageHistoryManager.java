@@ -0,0 +1,205 @@
+package com.sendajapan.sendasnap.services.chat;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+import com.sendajapan.sendasnap.models.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads chat messages in bounded pages instead of the whole history.
+ * The newest page is read once and then kept current through a per-message
+ * child event stream; older pages are fetched on demand using the oldest
+ * loaded message (timestamp + push id) as the cursor.
+ */
+public class MessageHistoryManager {
+
+    private static final String PATH_CHATS = "chats";
+    private static final String PATH_MESSAGES = "messages";
+    private static final String FIELD_TIMESTAMP = "timestamp";
+
+    private final FirebaseDatabase database;
+
+    public MessageHistoryManager(FirebaseDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Load the newest messages of a chat, limited to {@code pageSize} entries (one-time read).
+     *
+     * @param chatId Chat ID
+     * @param pageSize Maximum number of messages to return
+     * @param callback Callback with the page (oldest first) and whether older pages exist
+     */
+    public void loadLatestMessages(String chatId, int pageSize, MessagePageCallback callback) {
+        messagesRef(chatId).orderByChild(FIELD_TIMESTAMP).limitToLast(pageSize)
+            .addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(DataSnapshot snapshot) {
+                    List<Message> page = parseMessages(snapshot, null);
+                    callback.onSuccess(page, page.size() >= pageSize);
+                }
+
+                @Override
+                public void onCancelled(DatabaseError error) {
+                    callback.onFailure(error.toException());
+                }
+            });
+    }
+
+    /**
+     * Stream per-message deltas for messages at or after {@code startTimestamp}.
+     * Unlike a limited window, this query never slides, so removals are real deletions.
+     *
+     * @param chatId Chat ID
+     * @param startTimestamp Timestamp of the newest message already displayed, or 0
+     * @param callback Receives one event per added, changed or removed message
+     * @return ChildEventListener that must be removed with {@link #removeMessageStreamListener}
+     */
+    public ChildEventListener addMessageStreamListener(String chatId, long startTimestamp,
+                                                       MessageStreamCallback callback) {
+        ChildEventListener listener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(DataSnapshot snapshot, String previousChildName) {
+                Message message = parseMessage(snapshot);
+                if (message != null) {
+                    callback.onMessageAdded(message);
+                }
+            }
+
+            @Override
+            public void onChildChanged(DataSnapshot snapshot, String previousChildName) {
+                Message message = parseMessage(snapshot);
+                if (message != null) {
+                    callback.onMessageChanged(message);
+                }
+            }
+
+            @Override
+            public void onChildRemoved(DataSnapshot snapshot) {
+                Message message = parseMessage(snapshot);
+                if (message != null) {
+                    callback.onMessageRemoved(message);
+                }
+            }
+
+            @Override
+            public void onChildMoved(DataSnapshot snapshot, String previousChildName) {
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                callback.onFailure(error.toException());
+            }
+        };
+
+        messageStreamQuery(chatId, startTimestamp).addChildEventListener(listener);
+        return listener;
+    }
+
+    /**
+     * Remove a listener returned by {@link #addMessageStreamListener}.
+     *
+     * @param chatId Chat ID
+     * @param startTimestamp Start timestamp the listener was registered with
+     * @param listener Listener to remove
+     */
+    public void removeMessageStreamListener(String chatId, long startTimestamp, ChildEventListener listener) {
+        if (listener == null) {
+            return;
+        }
+
+        messageStreamQuery(chatId, startTimestamp).removeEventListener(listener);
+    }
+
+    /**
+     * Load one page of messages strictly older than the given cursor message (one-time read).
+     *
+     * @param chatId Chat ID
+     * @param oldestLoaded Oldest message currently displayed, used as the cursor
+     * @param pageSize Maximum number of messages to return
+     * @param callback Callback with the page (oldest first) and whether more pages exist
+     */
+    public void loadOlderMessages(String chatId, Message oldestLoaded, int pageSize, MessagePageCallback callback) {
+        if (oldestLoaded == null || oldestLoaded.getMessageId() == null) {
+            callback.onSuccess(new ArrayList<>(), false);
+            return;
+        }
+
+        String cursorId = oldestLoaded.getMessageId();
+        Query pageQuery = messagesRef(chatId)
+            .orderByChild(FIELD_TIMESTAMP)
+            .endAt(oldestLoaded.getTimestamp(), cursorId)
+            .limitToLast(pageSize + 1);
+
+        pageQuery.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                List<Message> page = parseMessages(snapshot, cursorId);
+                boolean hasMore = page.size() >= pageSize;
+                callback.onSuccess(page, hasMore);
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                callback.onFailure(error.toException());
+            }
+        });
+    }
+
+    private Query messageStreamQuery(String chatId, long startTimestamp) {
+        return messagesRef(chatId).orderByChild(FIELD_TIMESTAMP).startAt(startTimestamp);
+    }
+
+    private DatabaseReference messagesRef(String chatId) {
+        return database.getReference(PATH_CHATS).child(chatId).child(PATH_MESSAGES);
+    }
+
+    private List<Message> parseMessages(DataSnapshot snapshot, String excludedMessageId) {
+        List<Message> messages = new ArrayList<>();
+        for (DataSnapshot messageSnapshot : snapshot.getChildren()) {
+            String key = messageSnapshot.getKey();
+            if (key != null && key.equals(excludedMessageId)) {
+                continue;
+            }
+
+            Message message = parseMessage(messageSnapshot);
+            if (message != null) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+
+    private Message parseMessage(DataSnapshot messageSnapshot) {
+        Message message = messageSnapshot.getValue(Message.class);
+        if (message != null && message.getMessageId() == null) {
+            message.setMessageId(messageSnapshot.getKey());
+        }
+        return message;
+    }
+
+    /**
+     * Callback interface for per-message stream events.
+     */
+    public interface MessageStreamCallback {
+        void onMessageAdded(Message message);
+        void onMessageChanged(Message message);
+        void onMessageRemoved(Message message);
+        void onFailure(Exception e);
+    }
+
+    /**
+     * Callback interface for paged history reads.
+     */
+    public interface MessagePageCallback {
+        void onSuccess(List<Message> messages, boolean hasMore);
+        void onFailure(Exception e);
+    }
+}
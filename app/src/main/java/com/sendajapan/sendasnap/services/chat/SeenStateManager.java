@@ -0,0 +1,161 @@
+package com.sendajapan.sendasnap.services.chat;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+import com.sendajapan.sendasnap.models.Message;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks read state of direct chats.
+ * Each user has a "seen up to" watermark at {@code chats/{chatId}/seenBy/{userId}}.
+ * Marking a chat as seen only reads messages newer than the previous watermark
+ * and commits their flags together with the new watermark in one update.
+ */
+public class SeenStateManager {
+
+    private static final String PATH_CHATS = "chats";
+    private static final String PATH_MESSAGES = "messages";
+    private static final String PATH_SEEN_BY = "seenBy";
+    private static final String FIELD_TIMESTAMP = "timestamp";
+    private static final String FIELD_SEEN = "seen";
+    private static final String FIELD_SEEN_AT = "seenAt";
+    private static final int MAX_MESSAGES_PER_PASS = 500;
+
+    private final FirebaseDatabase database;
+
+    public SeenStateManager(FirebaseDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Mark all messages addressed to the user as seen and advance the user's watermark.
+     *
+     * @param chatId Chat ID
+     * @param userId User who has seen the chat
+     */
+    public void markAsSeen(String chatId, String userId) {
+        DatabaseReference chatRef = database.getReference(PATH_CHATS).child(chatId);
+        chatRef.child(PATH_SEEN_BY).child(userId).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                commitSeenSince(chatRef, userId, readTimestamp(snapshot));
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+            }
+        });
+    }
+
+    /**
+     * Add persistent listener for another user's "seen up to" watermark.
+     *
+     * @param chatId Chat ID
+     * @param userId User whose watermark is observed
+     * @param callback Fires with the watermark timestamp (0 if none yet)
+     * @return ValueEventListener that can be removed later
+     */
+    public ValueEventListener addSeenWatermarkListener(String chatId, String userId, SeenWatermarkCallback callback) {
+        ValueEventListener listener = new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                callback.onSuccess(readTimestamp(snapshot));
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                callback.onFailure(error.toException());
+            }
+        };
+
+        watermarkRef(chatId, userId).addValueEventListener(listener);
+        return listener;
+    }
+
+    /**
+     * Remove seen watermark listener.
+     *
+     * @param chatId Chat ID
+     * @param userId User whose watermark was observed
+     * @param listener Listener to remove
+     */
+    public void removeSeenWatermarkListener(String chatId, String userId, ValueEventListener listener) {
+        if (listener == null) {
+            return;
+        }
+
+        watermarkRef(chatId, userId).removeEventListener(listener);
+    }
+
+    private void commitSeenSince(DatabaseReference chatRef, String userId, long watermark) {
+        chatRef.child(PATH_MESSAGES)
+            .orderByChild(FIELD_TIMESTAMP)
+            .startAt(watermark)
+            .limitToLast(MAX_MESSAGES_PER_PASS)
+            .addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(DataSnapshot snapshot) {
+                    Map<String, Object> updates = buildSeenUpdates(snapshot, userId, watermark);
+                    if (!updates.isEmpty()) {
+                        chatRef.updateChildren(updates);
+                    }
+                }
+
+                @Override
+                public void onCancelled(DatabaseError error) {
+                }
+            });
+    }
+
+    private Map<String, Object> buildSeenUpdates(DataSnapshot messagesSnapshot, String userId, long watermark) {
+        Map<String, Object> updates = new HashMap<>();
+        long seenAt = System.currentTimeMillis();
+        long newWatermark = watermark;
+
+        for (DataSnapshot messageSnapshot : messagesSnapshot.getChildren()) {
+            Message message = messageSnapshot.getValue(Message.class);
+            if (message == null) {
+                continue;
+            }
+
+            newWatermark = Math.max(newWatermark, message.getTimestamp());
+            if (userId.equals(message.getReceiverId()) && !message.isSeen()) {
+                String messagePath = PATH_MESSAGES + "/" + messageSnapshot.getKey() + "/";
+                updates.put(messagePath + FIELD_SEEN, true);
+                updates.put(messagePath + FIELD_SEEN_AT, seenAt);
+            }
+        }
+
+        if (newWatermark > watermark) {
+            updates.put(PATH_SEEN_BY + "/" + userId, newWatermark);
+        }
+        return updates;
+    }
+
+    private DatabaseReference watermarkRef(String chatId, String userId) {
+        return database.getReference(PATH_CHATS).child(chatId).child(PATH_SEEN_BY).child(userId);
+    }
+
+    private long readTimestamp(DataSnapshot snapshot) {
+        Object value = snapshot.getValue();
+        if (value instanceof Long) {
+            return (Long) value;
+        } else if (value instanceof Integer) {
+            return (Integer) value;
+        }
+        return 0L;
+    }
+
+    /**
+     * Callback interface for seen watermark updates.
+     */
+    public interface SeenWatermarkCallback {
+        void onSuccess(long seenUpToTimestamp);
+        void onFailure(Exception e);
+    }
+}
@@ -1,140 +1,328 @@
 package com.sendajapan.sendasnap.services.chat;
 
+import com.google.firebase.database.ChildEventListener;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
 import com.google.firebase.database.ValueEventListener;
+import com.sendajapan.sendasnap.utils.NotificationHelper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Manages unread message count tracking and updates.
- * Handles real-time unread count listeners and updates for group chats.
+ * Acts as an app-wide hub: one listener on {@code userChats/{userId}} keeps the unread
+ * count of every chat in memory, and one listener on the user's unread task notifications
+ * keeps the notification badge count. Subscribers attach and detach by chat ID without
+ * touching the network; sources stay attached until another user subscribes or {@link #clear}
+ * is called on logout.
  */
 public class UnreadCountManager {
-    
-    private static final String TAG = "UnreadCountManager";
+
+    private static final String PATH_USER_CHATS = "userChats";
+    private static final String PATH_TASK_NOTIFICATIONS = "task_notifications";
+    private static final String FIELD_UNREAD_COUNT = "unreadCount";
+    private static final String FIELD_READ = "read";
+
     private final FirebaseDatabase database;
-    
+
+    private final Map<String, Integer> chatCounts = new HashMap<>();
+    private final Map<String, List<UnreadCountCallback>> chatSubscribers = new HashMap<>();
+    private String chatsUserId;
+    private ChildEventListener userChatsListener;
+
+    private final List<UnreadCountCallback> notificationSubscribers = new ArrayList<>();
+    private String notificationsUserId;
+    private ValueEventListener notificationsListener;
+    private int notificationCount = 0;
+
     public UnreadCountManager(FirebaseDatabase database) {
         this.database = database;
     }
-    
+
     /**
-     * Get current unread count for a group chat (one-time read).
-     * 
+     * Subscribe to the unread count of one chat.
+     * The callback fires immediately with the cached count and again on every change.
+     *
      * @param chatId Chat ID
      * @param userId User ID
-     * @param callback Callback with unread count
+     * @param callback Callback that fires on every unread count change
+     * @return Subscription to pass to {@link #removeSubscription}
      */
-    public void getUnreadCount(String chatId, String userId, UnreadCountCallback callback) {
-        DatabaseReference unreadRef = database.getReference("userChats")
-            .child(userId)
-            .child(chatId)
-            .child("unreadCount");
-            
-        unreadRef.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                int unreadCount = 0;
-                if (snapshot.exists() && snapshot.getValue() != null) {
-                    Object value = snapshot.getValue();
-                    if (value instanceof Long) {
-                        unreadCount = ((Long) value).intValue();
-                    } else if (value instanceof Integer) {
-                        unreadCount = (Integer) value;
-                    }
-                }
-                callback.onSuccess(unreadCount);
-            }
-            
-            @Override
-            public void onCancelled(DatabaseError error) {
-                callback.onFailure(error.toException());
+    public Subscription addChatSubscription(String chatId, String userId, UnreadCountCallback callback) {
+        int cachedCount;
+        synchronized (this) {
+            attachUserChats(userId);
+            List<UnreadCountCallback> subscribers = chatSubscribers.get(chatId);
+            if (subscribers == null) {
+                subscribers = new ArrayList<>();
+                chatSubscribers.put(chatId, subscribers);
             }
-        });
+            subscribers.add(callback);
+            cachedCount = getCachedCount(chatId);
+        }
+
+        callback.onSuccess(cachedCount);
+        return new Subscription(chatId, callback);
     }
-    
+
     /**
-     * Add persistent listener for unread count updates.
-     * This listener fires on every change to the unread count.
-     * 
-     * @param chatId Chat ID
-     * @param userId User ID
-     * @param callback Callback that fires on every unread count change
-     * @return ValueEventListener that can be removed later
+     * Subscribe to the number of unread task notifications addressed to the user.
+     *
+     * @param userId Firebase user key
+     * @param serverUserId Backend user ID used to filter creator/assignee notifications
+     * @param callback Callback that fires on every count change
+     * @return Subscription to pass to {@link #removeSubscription}
      */
-    public ValueEventListener addUnreadCountListener(String chatId, String userId, UnreadCountCallback callback) {
-        // Listen to the parent node to catch updates even if unreadCount doesn't exist initially
-        DatabaseReference userChatRef = database.getReference("userChats")
-            .child(userId)
-            .child(chatId);
-            
-        ValueEventListener listener = new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                int unreadCount = 0;
-                if (snapshot.exists()) {
-                    DataSnapshot unreadSnapshot = snapshot.child("unreadCount");
-                    if (unreadSnapshot.exists() && unreadSnapshot.getValue() != null) {
-                        Object value = unreadSnapshot.getValue();
-                        if (value instanceof Long) {
-                            unreadCount = ((Long) value).intValue();
-                        } else if (value instanceof Integer) {
-                            unreadCount = (Integer) value;
-                        }
-                    }
-                }
-                callback.onSuccess(unreadCount);
-            }
-            
-            @Override
-            public void onCancelled(DatabaseError error) {
-                callback.onFailure(error.toException());
-            }
-        };
-        
-        userChatRef.addValueEventListener(listener);
-        return listener;
+    public Subscription addNotificationSubscription(String userId, int serverUserId, UnreadCountCallback callback) {
+        int cachedCount;
+        synchronized (this) {
+            attachNotifications(userId, serverUserId);
+            notificationSubscribers.add(callback);
+            cachedCount = notificationCount;
+        }
+
+        callback.onSuccess(cachedCount);
+        return new Subscription(null, callback);
     }
-    
+
     /**
-     * Remove unread count listener.
-     * 
-     * @param chatId Chat ID
-     * @param userId User ID
-     * @param listener Listener to remove
+     * Remove a subscription. The shared Firebase listeners stay attached.
+     *
+     * @param subscription Subscription to remove, may be null
      */
-    public void removeUnreadCountListener(String chatId, String userId, ValueEventListener listener) {
-        if (listener == null) {
+    public synchronized void removeSubscription(Subscription subscription) {
+        if (subscription == null) {
             return;
         }
-        
-        DatabaseReference userChatRef = database.getReference("userChats")
-            .child(userId)
-            .child(chatId);
-            
-        userChatRef.removeEventListener(listener);
+
+        if (subscription.chatId == null) {
+            notificationSubscribers.remove(subscription.callback);
+            return;
+        }
+
+        List<UnreadCountCallback> subscribers = chatSubscribers.get(subscription.chatId);
+        if (subscribers != null) {
+            subscribers.remove(subscription.callback);
+            if (subscribers.isEmpty()) {
+                chatSubscribers.remove(subscription.chatId);
+            }
+        }
     }
-    
+
+    /**
+     * Detach the shared Firebase listeners and forget all counts and subscribers, e.g. on logout.
+     */
+    public synchronized void clear() {
+        detachUserChats();
+        detachNotifications();
+        chatSubscribers.clear();
+        notificationSubscribers.clear();
+    }
+
     /**
      * Mark group chat as seen (reset unread count to 0).
-     * 
+     *
      * @param chatId Chat ID
      * @param userId User ID
      */
     public void markAsSeen(String chatId, String userId) {
-        DatabaseReference unreadRef = database.getReference("userChats")
+        DatabaseReference unreadRef = database.getReference(PATH_USER_CHATS)
             .child(userId)
             .child(chatId)
-            .child("unreadCount");
-            
+            .child(FIELD_UNREAD_COUNT);
+
         unreadRef.setValue(0)
             .addOnSuccessListener(aVoid -> {
             })
             .addOnFailureListener(e -> {
             });
     }
-    
+
+    private void attachUserChats(String userId) {
+        if (userId.equals(chatsUserId) && userChatsListener != null) {
+            return;
+        }
+
+        detachUserChats();
+        chatsUserId = userId;
+        userChatsListener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(DataSnapshot snapshot, String previousChildName) {
+                updateChatCount(userId, snapshot.getKey(), readUnreadCount(snapshot));
+            }
+
+            @Override
+            public void onChildChanged(DataSnapshot snapshot, String previousChildName) {
+                updateChatCount(userId, snapshot.getKey(), readUnreadCount(snapshot));
+            }
+
+            @Override
+            public void onChildRemoved(DataSnapshot snapshot) {
+                updateChatCount(userId, snapshot.getKey(), 0);
+            }
+
+            @Override
+            public void onChildMoved(DataSnapshot snapshot, String previousChildName) {
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                onUserChatsCancelled(userId, error.toException());
+            }
+        };
+        database.getReference(PATH_USER_CHATS).child(userId).addChildEventListener(userChatsListener);
+    }
+
+    private void detachUserChats() {
+        if (userChatsListener != null) {
+            database.getReference(PATH_USER_CHATS).child(chatsUserId).removeEventListener(userChatsListener);
+        }
+        userChatsListener = null;
+        chatsUserId = null;
+        chatCounts.clear();
+    }
+
+    private void updateChatCount(String userId, String chatId, int unreadCount) {
+        List<UnreadCountCallback> subscribers;
+        synchronized (this) {
+            if (chatId == null || !userId.equals(chatsUserId)) {
+                return;
+            }
+
+            Integer previous = chatCounts.put(chatId, unreadCount);
+            if (previous != null && previous == unreadCount) {
+                return;
+            }
+            subscribers = copyOf(chatSubscribers.get(chatId));
+        }
+
+        for (UnreadCountCallback subscriber : subscribers) {
+            subscriber.onSuccess(unreadCount);
+        }
+    }
+
+    private void onUserChatsCancelled(String userId, Exception e) {
+        List<UnreadCountCallback> subscribers = new ArrayList<>();
+        synchronized (this) {
+            if (!userId.equals(chatsUserId)) {
+                return;
+            }
+
+            detachUserChats();
+            for (List<UnreadCountCallback> chatList : chatSubscribers.values()) {
+                subscribers.addAll(chatList);
+            }
+        }
+
+        for (UnreadCountCallback subscriber : subscribers) {
+            subscriber.onFailure(e);
+        }
+    }
+
+    private void attachNotifications(String userId, int serverUserId) {
+        if (userId.equals(notificationsUserId) && notificationsListener != null) {
+            return;
+        }
+
+        detachNotifications();
+        notificationsUserId = userId;
+        notificationsListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                updateNotificationCount(userId, NotificationHelper.countUnreadNotifications(snapshot, serverUserId));
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                onNotificationsCancelled(userId, error.toException());
+            }
+        };
+        unreadNotificationsQuery(userId).addValueEventListener(notificationsListener);
+    }
+
+    private void detachNotifications() {
+        if (notificationsListener != null) {
+            unreadNotificationsQuery(notificationsUserId).removeEventListener(notificationsListener);
+        }
+        notificationsListener = null;
+        notificationsUserId = null;
+        notificationCount = 0;
+    }
+
+    private void updateNotificationCount(String userId, int unreadCount) {
+        List<UnreadCountCallback> subscribers;
+        synchronized (this) {
+            if (!userId.equals(notificationsUserId)) {
+                return;
+            }
+
+            notificationCount = unreadCount;
+            subscribers = copyOf(notificationSubscribers);
+        }
+
+        for (UnreadCountCallback subscriber : subscribers) {
+            subscriber.onSuccess(unreadCount);
+        }
+    }
+
+    private void onNotificationsCancelled(String userId, Exception e) {
+        List<UnreadCountCallback> subscribers;
+        synchronized (this) {
+            if (!userId.equals(notificationsUserId)) {
+                return;
+            }
+
+            detachNotifications();
+            subscribers = copyOf(notificationSubscribers);
+        }
+
+        for (UnreadCountCallback subscriber : subscribers) {
+            subscriber.onFailure(e);
+        }
+    }
+
+    private Query unreadNotificationsQuery(String userId) {
+        return database.getReference(PATH_TASK_NOTIFICATIONS).child(userId).orderByChild(FIELD_READ).equalTo(false);
+    }
+
+    private int getCachedCount(String chatId) {
+        Integer count = chatCounts.get(chatId);
+        return count != null ? count : 0;
+    }
+
+    private List<UnreadCountCallback> copyOf(List<UnreadCountCallback> subscribers) {
+        return subscribers != null ? new ArrayList<>(subscribers) : new ArrayList<>();
+    }
+
+    private int readUnreadCount(DataSnapshot userChatSnapshot) {
+        Object value = userChatSnapshot.child(FIELD_UNREAD_COUNT).getValue();
+        if (value instanceof Long) {
+            return ((Long) value).intValue();
+        } else if (value instanceof Integer) {
+            return (Integer) value;
+        }
+        return 0;
+    }
+
+    /**
+     * Handle returned by the subscribe methods.
+     */
+    public static final class Subscription {
+        private final String chatId;
+        private final UnreadCountCallback callback;
+
+        private Subscription(String chatId, UnreadCountCallback callback) {
+            this.chatId = chatId;
+            this.callback = callback;
+        }
+    }
+
     /**
      * Callback interface for unread count operations.
      */
@@ -143,4 +331,3 @@ public class UnreadCountManager {
         void onFailure(Exception e);
     }
 }
-
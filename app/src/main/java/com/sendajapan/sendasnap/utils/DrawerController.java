@@ -15,6 +15,8 @@ import com.google.android.material.appbar.MaterialToolbar;
 import com.sendajapan.sendasnap.R;
 import com.sendajapan.sendasnap.activities.HistoryActivity;
 import com.sendajapan.sendasnap.activities.MainActivity;
+import com.sendajapan.sendasnap.data.repository.LocalAccountData;
+import com.sendajapan.sendasnap.services.ChatService;
 
 public class DrawerController {
 
@@ -112,6 +114,9 @@ public class DrawerController {
     }
 
     private void handleLogoutNavigation() {
+        ChatService.getInstance().clearUnreadCounts();
+        LocalAccountData.clear(activity);
+
         // Clear user session/preferences
         SharedPrefsManager prefsManager = SharedPrefsManager.getInstance(activity);
         prefsManager.logout();
@@ -22,14 +22,6 @@ public class NotificationHelper {
     private static final String TAG = "NotificationHelper";
     private static final String TASK_NOTIFICATIONS_PATH = "task_notifications";
 
-    /**
-     * Interface for unread count callbacks
-     */
-    public interface UnreadCountCallback {
-        void onSuccess(int unreadCount);
-        void onFailure(Exception e);
-    }
-
     /**
      * Interface for notifications list callbacks
      */
@@ -39,150 +31,28 @@ public class NotificationHelper {
     }
 
     /**
-     * Get unread notification count for current user
+     * Count unread notifications where the user is creator or assignee
      */
-    public static void getUnreadNotificationCount(Context context, UnreadCountCallback callback) {
-        if (context == null || callback == null) {
-            return;
-        }
-
-        SharedPrefsManager prefsManager = SharedPrefsManager.getInstance(context);
-        UserData user = prefsManager.getUser();
-
-        if (user == null || user.getEmail() == null) {
-            callback.onSuccess(0);
-            return;
-        }
-
-        String userId = FirebaseUtils.sanitizeEmailForKey(user.getEmail());
-        if (userId.isEmpty()) {
-            callback.onSuccess(0);
-            return;
-        }
-
-        FirebaseDatabase database = FirebaseDatabase.getInstance();
-        DatabaseReference notificationsRef = database.getReference(TASK_NOTIFICATIONS_PATH).child(userId);
-
-        // Query for unread notifications
-        Query unreadQuery = notificationsRef.orderByChild("read").equalTo(false);
-
-        unreadQuery.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                int unreadCount = 0;
-                if (snapshot.exists()) {
-                    for (DataSnapshot notificationSnapshot : snapshot.getChildren()) {
-                        Boolean read = notificationSnapshot.child("read").getValue(Boolean.class);
-                        if (read == null || !read) {
-                            Integer creatorId = notificationSnapshot.child("creator_id").getValue(Integer.class);
-                            Integer assigneeId = notificationSnapshot.child("assignee_id").getValue(Integer.class);
-                            
-                            if (creatorId != null && creatorId.equals(user.getId())) {
-                                unreadCount++;
-                            } else if (assigneeId != null && assigneeId.equals(user.getId())) {
-                                unreadCount++;
-                            }
-                        }
-                    }
-                }
-                callback.onSuccess(unreadCount);
-            }
-
-            @Override
-            public void onCancelled(DatabaseError error) {
-                callback.onFailure(error.toException());
-            }
-        });
-    }
-
-    /**
-     * Add listener for real-time unread count updates
-     * Returns the listener so it can be removed later
-     */
-    public static ValueEventListener addUnreadCountListener(Context context, UnreadCountCallback callback) {
-        if (context == null || callback == null) {
-            return null;
-        }
-
-        SharedPrefsManager prefsManager = SharedPrefsManager.getInstance(context);
-        UserData user = prefsManager.getUser();
-
-        if (user == null || user.getEmail() == null) {
-            callback.onSuccess(0);
-            return null;
+    public static int countUnreadNotifications(DataSnapshot snapshot, int userId) {
+        int unreadCount = 0;
+        if (!snapshot.exists()) {
+            return unreadCount;
         }
 
-        String userId = FirebaseUtils.sanitizeEmailForKey(user.getEmail());
-        if (userId.isEmpty()) {
-            callback.onSuccess(0);
-            return null;
-        }
-
-        FirebaseDatabase database = FirebaseDatabase.getInstance();
-        DatabaseReference notificationsRef = database.getReference(TASK_NOTIFICATIONS_PATH).child(userId);
-
-        // Query for unread notifications
-        Query unreadQuery = notificationsRef.orderByChild("read").equalTo(false);
+        for (DataSnapshot notificationSnapshot : snapshot.getChildren()) {
+            Boolean read = notificationSnapshot.child("read").getValue(Boolean.class);
+            if (read == null || !read) {
+                Integer creatorId = notificationSnapshot.child("creator_id").getValue(Integer.class);
+                Integer assigneeId = notificationSnapshot.child("assignee_id").getValue(Integer.class);
 
-        ValueEventListener listener = new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                int unreadCount = 0;
-                if (snapshot.exists()) {
-                    for (DataSnapshot notificationSnapshot : snapshot.getChildren()) {
-                        Boolean read = notificationSnapshot.child("read").getValue(Boolean.class);
-                        if (read == null || !read) {
-                            // Check if user is creator or assignee
-                            Integer creatorId = notificationSnapshot.child("creator_id").getValue(Integer.class);
-                            Integer assigneeId = notificationSnapshot.child("assignee_id").getValue(Integer.class);
-                            
-                            if (creatorId != null && creatorId.equals(user.getId())) {
-                                // User is creator
-                                unreadCount++;
-                            } else if (assigneeId != null && assigneeId.equals(user.getId())) {
-                                // User is assignee
-                                unreadCount++;
-                            }
-                        }
-                    }
+                if (creatorId != null && creatorId == userId) {
+                    unreadCount++;
+                } else if (assigneeId != null && assigneeId == userId) {
+                    unreadCount++;
                 }
-                callback.onSuccess(unreadCount);
             }
-
-            @Override
-            public void onCancelled(DatabaseError error) {
-                callback.onFailure(error.toException());
-            }
-        };
-
-        unreadQuery.addValueEventListener(listener);
-        return listener;
-    }
-
-    /**
-     * Remove unread count listener
-     */
-    public static void removeUnreadCountListener(Context context, ValueEventListener listener) {
-        if (context == null || listener == null) {
-            return;
         }
-
-        SharedPrefsManager prefsManager = SharedPrefsManager.getInstance(context);
-        UserData user = prefsManager.getUser();
-
-        if (user == null || user.getEmail() == null) {
-            return;
-        }
-
-        String userId = FirebaseUtils.sanitizeEmailForKey(user.getEmail());
-        if (userId.isEmpty()) {
-            return;
-        }
-
-        FirebaseDatabase database = FirebaseDatabase.getInstance();
-        DatabaseReference notificationsRef = database.getReference(TASK_NOTIFICATIONS_PATH).child(userId);
-        Query unreadQuery = notificationsRef.orderByChild("read").equalTo(false);
-        unreadQuery.removeEventListener(listener);
+        return unreadCount;
     }
 
     /**
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import com.sendajapan.sendasnap.data.json.GsonProvider;
 import com.sendajapan.sendasnap.models.UserData;
 import com.sendajapan.sendasnap.models.Vehicle;
 import java.lang.reflect.Type;
@@ -32,7 +33,7 @@ public class SharedPrefsManager {
 
     private SharedPrefsManager(Context context) {
         sharedPreferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        gson = new Gson();
+        gson = GsonProvider.get();
     }
 
     public static synchronized SharedPrefsManager getInstance(Context context) {
@@ -83,48 +84,27 @@ public class SharedPrefsManager {
         return sharedPreferences.getString(KEY_EMAIL, "");
     }
 
-    // Vehicle cache management
-    public void saveRecentVehicles(List<Vehicle> vehicles) {
-        String vehiclesJson = gson.toJson(vehicles);
-        sharedPreferences.edit()
-                .putString(KEY_RECENT_VEHICLES, vehiclesJson)
-                .putInt(KEY_CACHE_SIZE, vehicles.size())
-                .apply();
-    }
-
-    public List<Vehicle> getRecentVehicles() {
+    /**
+     * Read and remove the recently viewed vehicles formerly stored here, so they can be moved
+     * to the vehicle history database once.
+     *
+     * @return Vehicles, most recently viewed first
+     */
+    public List<Vehicle> takeLegacyRecentVehicles() {
         String vehiclesJson = sharedPreferences.getString(KEY_RECENT_VEHICLES, null);
-
-        if (vehiclesJson != null) {
-            Type listType = new TypeToken<List<Vehicle>>() {
-            }.getType();
-            return gson.fromJson(vehiclesJson, listType);
+        if (vehiclesJson == null) {
+            return new ArrayList<>();
         }
 
-        return new ArrayList<>();
-    }
-
-    public void addVehicleToCache(Vehicle vehicle) {
-        List<Vehicle> vehicles = getRecentVehicles();
-        vehicles.removeIf(v -> v.getId() != null && v.getId().equals(vehicle.getId()));
-        vehicles.add(0, vehicle);
-
-        if (vehicles.size() > 100) {
-            vehicles = new ArrayList<>(vehicles.subList(0, 100));
-        }
-
-        saveRecentVehicles(vehicles);
-    }
-
-    public void clearVehicleCache() {
         sharedPreferences.edit()
                 .remove(KEY_RECENT_VEHICLES)
-                .putInt(KEY_CACHE_SIZE, 0)
+                .remove(KEY_CACHE_SIZE)
                 .apply();
-    }
 
-    public int getCacheSize() {
-        return sharedPreferences.getInt(KEY_CACHE_SIZE, 0);
+        Type listType = new TypeToken<List<Vehicle>>() {
+        }.getType();
+        List<Vehicle> vehicles = gson.fromJson(vehiclesJson, listType);
+        return vehicles != null ? vehicles : new ArrayList<>();
     }
 
     // Settings
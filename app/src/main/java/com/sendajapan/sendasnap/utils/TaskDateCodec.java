@@ -0,0 +1,137 @@
+package com.sendajapan.sendasnap.utils;
+
+import java.text.DateFormatSymbols;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Parses and formats the fixed-layout dates ({@code yyyy-MM-dd}) and times ({@code HH:mm[:ss]})
+ * used by the task API. Stateless apart from an immutable per-locale AM/PM cache, so it is
+ * safe to call from any thread and allocates no formatter per call.
+ */
+public final class TaskDateCodec {
+
+    private static final int DATE_LENGTH = 10;
+
+    private static volatile AmPmMarkers amPmMarkers;
+
+    private TaskDateCodec() {
+    }
+
+    /**
+     * Normalize a work or due date to {@code yyyy-MM-dd}.
+     * Values in the fixed layout (optionally followed by a time) are cut to their date part
+     * without further checks; unpadded dates such as {@code 2025-1-5} are validated and padded.
+     *
+     * @param value Date string from the API
+     * @return Normalized date, or null if the value is empty or cannot be read as a date
+     */
+    public static String normalizeDate(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+
+        if (isFixedLayoutDate(trimmed)) {
+            return trimmed.length() == DATE_LENGTH ? trimmed : trimmed.substring(0, DATE_LENGTH);
+        }
+
+        int timeSeparator = trimmed.indexOf('T');
+        String datePart = timeSeparator >= 0 ? trimmed.substring(0, timeSeparator) : trimmed;
+        String[] parts = datePart.split("-");
+        if (parts.length != 3) {
+            return null;
+        }
+
+        try {
+            return LocalDate.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                    Integer.parseInt(parts[2])).toString();
+        } catch (NumberFormatException | DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Format a 24-hour work time ({@code H:mm}, {@code HH:mm} or {@code HH:mm:ss}) as
+     * {@code h:mm a} in the default locale, e.g. {@code 14:05} becomes {@code 2:05 PM}.
+     *
+     * @param time24Hour Work time from the API
+     * @return 12-hour time, an empty string for an empty value, or the value itself if it cannot be parsed
+     */
+    public static String formatTime12Hour(String time24Hour) {
+        if (time24Hour == null) {
+            return "";
+        }
+
+        String trimmed = time24Hour.trim();
+        if (trimmed.isEmpty()) {
+            return "";
+        }
+
+        int colon = trimmed.indexOf(':');
+        if (colon < 1 || colon > 2 || trimmed.length() < colon + 3) {
+            return time24Hour;
+        }
+
+        int hour = parseDigits(trimmed, 0, colon);
+        int minute = parseDigits(trimmed, colon + 1, colon + 3);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return time24Hour;
+        }
+
+        int hour12 = hour % 12 == 0 ? 12 : hour % 12;
+        String[] markers = getAmPmMarkers();
+        return new StringBuilder(8)
+                .append(hour12)
+                .append(':')
+                .append(trimmed, colon + 1, colon + 3)
+                .append(' ')
+                .append(hour < 12 ? markers[0] : markers[1])
+                .toString();
+    }
+
+    private static boolean isFixedLayoutDate(String value) {
+        if (value.length() < DATE_LENGTH || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return false;
+        }
+
+        return parseDigits(value, 0, 4) >= 0 && parseDigits(value, 5, 7) >= 0 && parseDigits(value, 8, 10) >= 0;
+    }
+
+    private static int parseDigits(String value, int start, int end) {
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static String[] getAmPmMarkers() {
+        Locale locale = Locale.getDefault();
+        AmPmMarkers cached = amPmMarkers;
+        if (cached == null || !cached.locale.equals(locale)) {
+            cached = new AmPmMarkers(locale, DateFormatSymbols.getInstance(locale).getAmPmStrings());
+            amPmMarkers = cached;
+        }
+        return cached.markers;
+    }
+
+    private static final class AmPmMarkers {
+        private final Locale locale;
+        private final String[] markers;
+
+        private AmPmMarkers(Locale locale, String[] markers) {
+            this.locale = locale;
+            this.markers = markers;
+        }
+    }
+}
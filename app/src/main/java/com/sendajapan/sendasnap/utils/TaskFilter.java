@@ -0,0 +1,60 @@
+package com.sendajapan.sendasnap.utils;
+
+import com.sendajapan.sendasnap.models.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filters schedule tasks by work date and status.
+ * Pure function over a snapshot of the task list, so it can run off the main thread.
+ */
+public final class TaskFilter {
+
+    private static final int MIN_DATE_LENGTH = 10;
+
+    private TaskFilter() {
+    }
+
+    /**
+     * Select the tasks whose work date equals the given day and, if a status is
+     * given, whose status matches it. Input order is preserved.
+     *
+     * @param tasks Tasks to filter
+     * @param date Day in yyyy-MM-dd format
+     * @param status Status to keep, or null for all statuses
+     * @return New list with the matching tasks
+     */
+    public static List<Task> filter(List<Task> tasks, String date, Task.TaskStatus status) {
+        List<Task> result = new ArrayList<>();
+        if (tasks == null || date == null) {
+            return result;
+        }
+
+        for (Task task : tasks) {
+            if (date.equals(extractDate(task.getWorkDate()))
+                    && (status == null || task.getStatus() == status)) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Extract the yyyy-MM-dd part of a work date that may carry a time (ISO 'T' separator).
+     *
+     * @param workDate Work date string
+     * @return Date part, or null if the work date is empty
+     */
+    public static String extractDate(String workDate) {
+        if (workDate == null || workDate.isEmpty()) {
+            return null;
+        }
+
+        if (workDate.length() >= MIN_DATE_LENGTH) {
+            return workDate.substring(0, MIN_DATE_LENGTH);
+        }
+
+        return workDate;
+    }
+}
@@ -0,0 +1,130 @@
+package com.sendajapan.sendasnap.utils;
+
+import android.Manifest;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.os.Build;
+
+import androidx.core.app.ActivityCompat;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+
+import com.sendajapan.sendasnap.R;
+
+/**
+ * Notifications of the vehicle photo upload queue: an ongoing progress notification while photos
+ * are being uploaded, and a notice while uploads have failed.
+ */
+public class UploadNotificationHelper {
+
+    private static final String CHANNEL_ID = "vehicle_upload_channel";
+    private static final String CHANNEL_NAME = "Photo Uploads";
+    private static final String CHANNEL_DESCRIPTION = "Progress of vehicle photo uploads";
+    private static final int PROGRESS_NOTIFICATION_ID = 3001;
+    private static final int FAILURE_NOTIFICATION_ID = 3002;
+
+    /**
+     * @param uploaded Photos uploaded since the queue was last empty
+     * @param total Those photos plus the ones still queued
+     */
+    public static void showProgress(Context context, int uploaded, int total) {
+        createNotificationChannel(context);
+
+        if (!areNotificationsEnabled(context)) {
+            return;
+        }
+
+        NotificationCompat.Builder builder = buildNotification(context,
+                "Uploading vehicle photos",
+                "Uploaded " + uploaded + " of " + total + " photos")
+                .setOngoing(true)
+                .setOnlyAlertOnce(true)
+                .setProgress(total, uploaded, false);
+
+        NotificationManagerCompat.from(context).notify(PROGRESS_NOTIFICATION_ID, builder.build());
+    }
+
+    public static void cancelProgress(Context context) {
+        NotificationManagerCompat.from(context).cancel(PROGRESS_NOTIFICATION_ID);
+    }
+
+    /**
+     * @param failed Photos that could not be uploaded; 0 removes the notice
+     */
+    public static void showFailures(Context context, int failed) {
+        if (failed == 0) {
+            NotificationManagerCompat.from(context).cancel(FAILURE_NOTIFICATION_ID);
+            return;
+        }
+
+        createNotificationChannel(context);
+
+        if (!areNotificationsEnabled(context)) {
+            return;
+        }
+
+        NotificationCompat.Builder builder = buildNotification(context,
+                "Photo upload failed",
+                failed + (failed == 1 ? " photo" : " photos") + " could not be uploaded. Open the vehicle to retry.")
+                .setOnlyAlertOnce(true)
+                .setAutoCancel(true);
+
+        NotificationManagerCompat.from(context).notify(FAILURE_NOTIFICATION_ID, builder.build());
+    }
+
+    private static NotificationCompat.Builder buildNotification(Context context, String title, String message) {
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_upload)
+                .setContentTitle(title)
+                .setContentText(message)
+                .setPriority(NotificationCompat.PRIORITY_LOW);
+
+        Intent intent = context.getPackageManager().getLaunchIntentForPackage(context.getPackageName());
+        if (intent != null) {
+            builder.setContentIntent(PendingIntent.getActivity(context, PROGRESS_NOTIFICATION_ID, intent,
+                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE));
+        }
+        return builder;
+    }
+
+    private static boolean areNotificationsEnabled(Context context) {
+        SharedPrefsManager prefsManager = SharedPrefsManager.getInstance(context);
+        if (!prefsManager.isNotificationsEnabled()) {
+            return false;
+        }
+
+        NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
+        if (!notificationManager.areNotificationsEnabled()) {
+            return false;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            if (ActivityCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
+                    != PackageManager.PERMISSION_GRANTED) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void createNotificationChannel(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(
+                    CHANNEL_ID,
+                    CHANNEL_NAME,
+                    NotificationManager.IMPORTANCE_LOW
+            );
+            channel.setDescription(CHANNEL_DESCRIPTION);
+
+            NotificationManager notificationManager = context.getSystemService(NotificationManager.class);
+            if (notificationManager != null) {
+                notificationManager.createNotificationChannel(channel);
+            }
+        }
+    }
+}
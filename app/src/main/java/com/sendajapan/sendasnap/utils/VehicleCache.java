@@ -1,17 +1,17 @@
 package com.sendajapan.sendasnap.utils;
 
 import android.content.Context;
+import androidx.lifecycle.LiveData;
+import com.sendajapan.sendasnap.data.local.VehicleHistoryStore;
 import com.sendajapan.sendasnap.models.Vehicle;
-import java.util.ArrayList;
 import java.util.List;
 
 public class VehicleCache {
     private static VehicleCache instance;
-    private final SharedPrefsManager prefsManager;
-    private static final int MAX_CACHE_SIZE = 50;
+    private final VehicleHistoryStore historyStore;
 
     private VehicleCache(Context context) {
-        prefsManager = SharedPrefsManager.getInstance(context);
+        historyStore = VehicleHistoryStore.getInstance(context);
     }
 
     public static synchronized VehicleCache getInstance(Context context) {
@@ -22,56 +22,35 @@ public class VehicleCache {
     }
 
     public void addVehicle(Vehicle vehicle) {
-        prefsManager.addVehicleToCache(vehicle);
+        historyStore.put(vehicle);
     }
 
     public List<Vehicle> getAllVehicles() {
-        return prefsManager.getRecentVehicles();
+        return historyStore.getAll();
     }
 
     public List<Vehicle> getRecentVehicles(int limit) {
-        List<Vehicle> allVehicles = getAllVehicles();
-        if (allVehicles.size() <= limit) {
-            return allVehicles;
-        }
-        return allVehicles.subList(0, limit);
+        return historyStore.getRecent(limit);
     }
 
     public Vehicle getVehicleById(String id) {
-        List<Vehicle> vehicles = getAllVehicles();
-        for (Vehicle vehicle : vehicles) {
-            if (vehicle.getId() != null && vehicle.getId().equals(id)) {
-                return vehicle;
-            }
-        }
-        return null;
+        return historyStore.get(id);
     }
 
     public List<Vehicle> searchVehicles(String query) {
-        List<Vehicle> allVehicles = getAllVehicles();
-        List<Vehicle> filteredVehicles = new ArrayList<>();
-
-        String lowerQuery = query.toLowerCase();
-
-        for (Vehicle vehicle : allVehicles) {
-            if (vehicle.getMake() != null && vehicle.getMake().toLowerCase().contains(lowerQuery) ||
-                    vehicle.getModel() != null && vehicle.getModel().toLowerCase().contains(lowerQuery) ||
-                    vehicle.getChassisModel() != null && vehicle.getChassisModel().toLowerCase().contains(lowerQuery) ||
-                    vehicle.getSerialNumber() != null && vehicle.getSerialNumber().toLowerCase().contains(lowerQuery) ||
-                    vehicle.getYear() != null && vehicle.getYear().contains(query)) {
-                filteredVehicles.add(vehicle);
-            }
-        }
-
-        return filteredVehicles;
+        return historyStore.search(query);
     }
 
     public void clearCache() {
-        prefsManager.clearVehicleCache();
+        historyStore.clear();
     }
 
     public int getCacheSize() {
-        return prefsManager.getCacheSize();
+        return historyStore.size();
+    }
+
+    public LiveData<Boolean> getLoaded() {
+        return historyStore.getLoaded();
     }
 
     public boolean isCacheEmpty() {
@@ -4,8 +4,11 @@ import android.app.Application;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
 
 import com.sendajapan.sendasnap.data.dto.PagedResult;
+import com.sendajapan.sendasnap.data.repository.TaskOutbox;
+import com.sendajapan.sendasnap.data.repository.TaskRangePrefetcher;
 import com.sendajapan.sendasnap.data.repository.TaskRepositoryImpl;
 import com.sendajapan.sendasnap.domain.repository.TaskRepository;
 import com.sendajapan.sendasnap.models.Task;
@@ -16,10 +19,25 @@ import java.util.List;
 public class TaskViewModel extends AndroidViewModel {
 
     private final TaskRepository taskRepository;
+    private final TaskRangePrefetcher schedulePrefetcher;
+    private final TaskOutbox taskOutbox;
 
     public TaskViewModel(@NonNull Application application) {
         super(application);
         this.taskRepository = new TaskRepositoryImpl(application);
+        this.schedulePrefetcher = new TaskRangePrefetcher(taskRepository);
+        this.taskOutbox = TaskOutbox.getInstance(application);
+    }
+
+    public TaskRangePrefetcher getSchedulePrefetcher() {
+        return schedulePrefetcher;
+    }
+
+    /**
+     * @return Offline changes the server rejected after they were already shown as done
+     */
+    public LiveData<TaskOutbox.Rejection> getRejectedChanges() {
+        return taskOutbox.getRejections();
     }
 
     public void listTasks(String fromDate, String toDate, TaskCallback<PagedResult<Task>> callback) {
@@ -0,0 +1,211 @@
+package com.sendajapan.sendasnap.adapters;
+
+import com.sendajapan.sendasnap.models.Message;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MessageTimelineTest {
+
+    private static final int HISTORY_SIZE = 10_000;
+    private static final long BASE_TIMESTAMP = 1_700_000_000_000L;
+
+    private CountingComparator comparator;
+    private RecordingListener listener;
+    private MessageTimeline timeline;
+    private FakeMessageEventSource eventSource;
+
+    @Before
+    public void setUp() {
+        comparator = new CountingComparator();
+        listener = new RecordingListener();
+        timeline = new MessageTimeline(comparator, listener);
+        eventSource = new FakeMessageEventSource(timeline);
+    }
+
+    @Test
+    public void testReplayHistory_costsConstantWorkPerMessage() {
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            int comparisonsBefore = comparator.count;
+            eventSource.emitAdded(createMessage(i));
+            assertTrue("append " + i + " used " + (comparator.count - comparisonsBefore) + " comparisons",
+                    comparator.count - comparisonsBefore <= 1);
+        }
+
+        assertEquals(HISTORY_SIZE, timeline.size());
+        assertEquals(HISTORY_SIZE, listener.inserted);
+        assertEquals(HISTORY_SIZE, listener.insertEvents);
+        assertEquals(0, listener.changed);
+        assertEquals(0, listener.removed);
+        assertEquals(HISTORY_SIZE - 1, listener.lastInsertPosition);
+    }
+
+    @Test
+    public void testChangedMessage_updatesSinglePosition() {
+        replayHistory();
+        Message seen = createMessage(HISTORY_SIZE - 3);
+        seen.setSeen(true);
+
+        int comparisonsBefore = comparator.count;
+        eventSource.emitChanged(seen);
+
+        assertTrue(comparator.count - comparisonsBefore <= logBase2(HISTORY_SIZE) + 1);
+        assertEquals(1, listener.changed);
+        assertEquals(HISTORY_SIZE - 3, listener.lastChangedPosition);
+        assertTrue(timeline.get(HISTORY_SIZE - 3).isSeen());
+        assertEquals(HISTORY_SIZE, timeline.size());
+    }
+
+    @Test
+    public void testDuplicateAdded_isTreatedAsChange() {
+        replayHistory();
+
+        eventSource.emitAdded(createMessage(HISTORY_SIZE - 1));
+
+        assertEquals(HISTORY_SIZE, timeline.size());
+        assertEquals(1, listener.changed);
+        assertEquals(HISTORY_SIZE - 1, listener.lastChangedPosition);
+    }
+
+    @Test
+    public void testRemovedMessage_removesSinglePosition() {
+        replayHistory();
+
+        eventSource.emitRemoved(createMessage(42));
+
+        assertEquals(HISTORY_SIZE - 1, timeline.size());
+        assertEquals(1, listener.removed);
+        assertEquals(42, listener.lastRemovedPosition);
+        assertEquals("msg_43", timeline.get(42).getMessageId());
+    }
+
+    @Test
+    public void testOutOfOrderAdded_insertsAtSortedPosition() {
+        eventSource.emitAdded(createMessage(0));
+        eventSource.emitAdded(createMessage(2));
+
+        eventSource.emitAdded(createMessage(1));
+
+        assertEquals(3, timeline.size());
+        assertEquals(1, listener.lastInsertPosition);
+        assertEquals("msg_1", timeline.get(1).getMessageId());
+    }
+
+    @Test
+    public void testPrepend_insertsOlderPageAsSingleRange() {
+        for (int i = 100; i < 110; i++) {
+            eventSource.emitAdded(createMessage(i));
+        }
+        List<Message> olderPage = new ArrayList<>();
+        for (int i = 70; i < 100; i++) {
+            olderPage.add(createMessage(i));
+        }
+        int insertEventsBefore = listener.insertEvents;
+
+        timeline.prepend(olderPage);
+
+        assertEquals(insertEventsBefore + 1, listener.insertEvents);
+        assertEquals(0, listener.lastInsertPosition);
+        assertEquals(40, timeline.size());
+        assertEquals("msg_70", timeline.getOldest().getMessageId());
+        assertEquals("msg_109", timeline.getLatest().getMessageId());
+    }
+
+    @Test
+    public void testIndexOfFirstAfter_findsWatermarkBoundary() {
+        replayHistory();
+
+        assertEquals(0, timeline.indexOfFirstAfter(BASE_TIMESTAMP - 1));
+        assertEquals(1, timeline.indexOfFirstAfter(BASE_TIMESTAMP));
+        assertEquals(501, timeline.indexOfFirstAfter(BASE_TIMESTAMP + 500_500L));
+        assertEquals(HISTORY_SIZE, timeline.indexOfFirstAfter(Long.MAX_VALUE));
+    }
+
+    private void replayHistory() {
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            eventSource.emitAdded(createMessage(i));
+        }
+        listener.reset();
+    }
+
+    private static Message createMessage(int index) {
+        Message message = new Message("msg_" + index, "sender", "receiver", "Message " + index, "text");
+        message.setTimestamp(BASE_TIMESTAMP + index * 1000L);
+        return message;
+    }
+
+    private static int logBase2(int value) {
+        return 31 - Integer.numberOfLeadingZeros(value);
+    }
+
+    private static class FakeMessageEventSource {
+        private final MessageTimeline timeline;
+
+        FakeMessageEventSource(MessageTimeline timeline) {
+            this.timeline = timeline;
+        }
+
+        void emitAdded(Message message) {
+            timeline.add(message);
+        }
+
+        void emitChanged(Message message) {
+            timeline.change(message);
+        }
+
+        void emitRemoved(Message message) {
+            timeline.remove(message);
+        }
+    }
+
+    private static class CountingComparator implements Comparator<Message> {
+        int count;
+
+        @Override
+        public int compare(Message first, Message second) {
+            count++;
+            return MessageTimeline.CHRONOLOGICAL_ORDER.compare(first, second);
+        }
+    }
+
+    private static class RecordingListener implements MessageTimeline.ChangeListener {
+        int inserted;
+        int insertEvents;
+        int changed;
+        int removed;
+        int lastInsertPosition = -1;
+        int lastChangedPosition = -1;
+        int lastRemovedPosition = -1;
+
+        @Override
+        public void onInserted(int position, int count) {
+            inserted += count;
+            insertEvents++;
+            lastInsertPosition = position;
+        }
+
+        @Override
+        public void onChanged(int position) {
+            changed++;
+            lastChangedPosition = position;
+        }
+
+        @Override
+        public void onRemoved(int position) {
+            removed++;
+            lastRemovedPosition = position;
+        }
+
+        void reset() {
+            inserted = 0;
+            insertEvents = 0;
+            changed = 0;
+            removed = 0;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.sendajapan.sendasnap.data.json;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.sendajapan.sendasnap.models.ErrorResponse;
+import com.sendajapan.sendasnap.models.LoginResponse;
+import com.sendajapan.sendasnap.models.Vehicle;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Manual benchmark comparing reflective Gson with the hand-written adapters of
+ * {@link GsonProvider} on the vehicle history blob (serialize and parse) and the login response,
+ * and a new Gson per error response with the shared instance.
+ * Run {@link #main} from the IDE; it is not part of the unit test suite.
+ */
+public class GsonAdapterBenchmark {
+
+    private static final int VEHICLE_COUNT = 200;
+    private static final int PASSES = 5;
+    private static final int LIST_ITERATIONS = 1_000;
+    private static final int LOGIN_ITERATIONS = 100_000;
+    private static final Type VEHICLE_LIST = new TypeToken<List<Vehicle>>() { }.getType();
+    private static final String LOGIN_JSON = "{\"success\":true,\"message\":\"Login successful\",\"data\":{"
+            + "\"user\":{\"id\":5,\"name\":\"Aiko\",\"email\":\"aiko@example.com\",\"role\":\"admin\","
+            + "\"phone\":\"090\",\"avatar_url\":\"https://x/a.png\",\"created_at\":\"2024-01-01\"},"
+            + "\"token\":\"abc.def.ghi\"},\"meta\":{\"timestamp\":\"2025-01-01T00:00:00Z\"}}";
+    private static final String ERROR_JSON = "{\"success\":false,\"message\":\"The given data was invalid.\","
+            + "\"errors\":{\"email\":[\"The email field is required.\"]}}";
+
+    public static void main(String[] args) {
+        List<Vehicle> vehicles = buildVehicles();
+        Gson reflective = new Gson();
+        Gson handWritten = GsonProvider.get();
+
+        // Earlier passes warm up the JIT; only the last pass is reported.
+        for (int pass = 1; pass <= PASSES; pass++) {
+            int iterations = LIST_ITERATIONS;
+            report(pass, "toJson(List<Vehicle>)", iterations,
+                    time(iterations, () -> reflective.toJson(vehicles, VEHICLE_LIST).length()),
+                    time(iterations, () -> handWritten.toJson(vehicles, VEHICLE_LIST).length()));
+
+            String blob = reflective.toJson(vehicles, VEHICLE_LIST);
+            report(pass, "fromJson(List<Vehicle>)", iterations,
+                    time(iterations, () -> ((List<?>) reflective.fromJson(blob, VEHICLE_LIST)).size()),
+                    time(iterations, () -> ((List<?>) handWritten.fromJson(blob, VEHICLE_LIST)).size()));
+
+            int loginIterations = LOGIN_ITERATIONS;
+            report(pass, "fromJson(LoginResponse)", loginIterations,
+                    time(loginIterations, () -> reflective.fromJson(LOGIN_JSON, LoginResponse.class).getData().getToken().length()),
+                    time(loginIterations, () -> handWritten.fromJson(LOGIN_JSON, LoginResponse.class).getData().getToken().length()));
+
+            // Error parsing used to build a new Gson per response; compared with the shared instance.
+            report(pass, "ErrorResponse per call", iterations,
+                    time(iterations, () -> new Gson().fromJson(ERROR_JSON, ErrorResponse.class).getMessage().length()),
+                    time(iterations, () -> handWritten.fromJson(ERROR_JSON, ErrorResponse.class).getMessage().length()));
+        }
+    }
+
+    private static void report(int pass, String name, int iterations, long reflectiveNanos, long adapterNanos) {
+        if (pass < PASSES) {
+            return;
+        }
+        System.out.printf(Locale.US, "%-24s before %9.0f ops/s  after %9.0f ops/s  (%.1fx)%n", name,
+                iterations / (reflectiveNanos / 1e9), iterations / (adapterNanos / 1e9),
+                (double) reflectiveNanos / adapterNanos);
+    }
+
+    private static long time(int iterations, Operation operation) {
+        int checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            checksum += operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (checksum == Integer.MIN_VALUE) {
+            System.out.println(checksum);
+        }
+        return elapsed;
+    }
+
+    private static List<Vehicle> buildVehicles() {
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < VEHICLE_COUNT; i++) {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setId(String.valueOf(i));
+            vehicle.setSerialNumber("ZVW30-" + (1_000_000 + i));
+            vehicle.setMake("Toyota");
+            vehicle.setModel("Prius");
+            vehicle.setChassisModel("ZVW30");
+            vehicle.setCc("1800");
+            vehicle.setYear("2012");
+            vehicle.setColor("White");
+            vehicle.setVehicleBuyDate("2024-11-02");
+            vehicle.setAuctionShipNumber("AS-" + i);
+            vehicle.setBuyingPrice("450000");
+            vehicle.setExpectedYardDate("2024-11-20");
+            vehicle.setVehiclePhotos(Arrays.asList("https://x/" + i + "/1.jpg", "https://x/" + i + "/2.jpg"));
+            vehicles.add(vehicle);
+        }
+        return vehicles;
+    }
+
+    private interface Operation {
+        int run();
+    }
+}
@@ -0,0 +1,98 @@
+package com.sendajapan.sendasnap.data.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.sendajapan.sendasnap.data.dto.TaskResponseDto;
+import com.sendajapan.sendasnap.models.ApiResponse;
+import com.sendajapan.sendasnap.models.ConsigneeDetail;
+import com.sendajapan.sendasnap.models.UserData;
+import com.sendajapan.sendasnap.models.Vehicle;
+
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ModelTypeAdapterFactoryTest {
+
+    private static final Type VEHICLE_LIST = new TypeToken<List<Vehicle>>() { }.getType();
+
+    private final Gson reflective = new Gson();
+    private final Gson gson = GsonProvider.get();
+
+    @Test
+    public void vehicleHistoryBlob_roundTripsWithReflectiveGson() {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId("42");
+        vehicle.setSerialNumber("ZVW30-1234567");
+        vehicle.setMake("Toyota");
+        vehicle.setYear("2012");
+        vehicle.setVehiclePhotos(Arrays.asList("https://x/1.jpg", "https://x/2.jpg"));
+        vehicle.setConsigneeDetails(Collections.singletonList(
+                new ConsigneeDetail("Senda", "Osaka", "06-0000-0000", "info@example.com")));
+
+        List<Vehicle> fromLegacyBlob = gson.fromJson(reflective.toJson(Collections.singletonList(vehicle)), VEHICLE_LIST);
+        List<Vehicle> readByLegacy = reflective.fromJson(gson.toJson(Collections.singletonList(vehicle)), VEHICLE_LIST);
+
+        for (Vehicle copy : Arrays.asList(fromLegacyBlob.get(0), readByLegacy.get(0))) {
+            assertEquals("42", copy.getId());
+            assertEquals("ZVW30-1234567", copy.getSerialNumber());
+            assertEquals("Toyota", copy.getMake());
+            assertEquals("2012", copy.getYear());
+            assertEquals("N/A", copy.getChassisModel());
+            assertEquals(vehicle.getVehiclePhotos(), copy.getVehiclePhotos());
+            assertEquals("Osaka", copy.getConsigneeDetails().get(0).getAddress());
+        }
+    }
+
+    @Test
+    public void vehicle_readsApiAlternateNames() {
+        Vehicle vehicle = gson.fromJson("{\"vehicle_id\":17,\"chassis_number\":\"ABC\",\"veh_year\":2019,"
+                + "\"veh_l\":\"4.5\",\"rikso_cost\":null,\"extra\":{\"a\":1}}", Vehicle.class);
+
+        assertEquals("17", vehicle.getId());
+        assertEquals("ABC", vehicle.getSerialNumber());
+        assertEquals("2019", vehicle.getYear());
+        assertEquals("4.5", vehicle.getLength());
+        assertNull(vehicle.getRiksoCost());
+    }
+
+    @Test
+    public void storedUser_keepsLoggedInFlag() {
+        UserData user = new UserData();
+        user.setId(5);
+        user.setName("Aiko");
+        user.setAvatarUrl("https://x/a.png");
+        user.setLoggedIn(false);
+
+        UserData fromLegacyBlob = gson.fromJson(reflective.toJson(user), UserData.class);
+        UserData readByLegacy = reflective.fromJson(gson.toJson(user), UserData.class);
+
+        for (UserData copy : Arrays.asList(fromLegacyBlob, readByLegacy)) {
+            assertEquals(5, copy.getId());
+            assertEquals("Aiko", copy.getName());
+            assertEquals("https://x/a.png", copy.getAvatarUrl());
+            assertFalse(copy.isLoggedIn());
+        }
+    }
+
+    @Test
+    public void apiResponse_delegatesDataToItsTypeArgument() {
+        Type type = new TypeToken<ApiResponse<TaskResponseDto>>() { }.getType();
+        ApiResponse<TaskResponseDto> response = gson.fromJson("{\"success\":true,\"message\":\"OK\","
+                + "\"data\":{\"task\":{\"id\":3,\"title\":\"Inspect\",\"assigned_users\":[{\"id\":9,\"name\":\"Ken\"}],"
+                + "\"attachments\":[{\"id\":1,\"file_size\":\"2048\"}]}},\"meta\":{\"timestamp\":\"t\"}}", type);
+
+        assertEquals(Boolean.TRUE, response.getSuccess());
+        assertEquals("t", response.getMeta().getTimestamp());
+        assertEquals(Integer.valueOf(3), response.getData().getTask().getId());
+        assertEquals("Ken", response.getData().getTask().getAssignedUsers().get(0).getName());
+        assertEquals(Long.valueOf(2048), response.getData().getTask().getAttachments().get(0).getFileSize());
+    }
+}
@@ -0,0 +1,97 @@
+package com.sendajapan.sendasnap.data.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import com.sendajapan.sendasnap.domain.repository.TaskRepository;
+import com.sendajapan.sendasnap.models.Task;
+import com.sendajapan.sendasnap.models.UserData;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class PendingTaskMutationTest {
+
+    @Test
+    public void overlayAppliesQueuedChangesInOrderAndDropsDeletedTasks() {
+        Task first = task(1);
+        Task second = task(2);
+        Task third = task(3);
+        List<PendingTaskMutation> queued = Arrays.asList(
+                PendingTaskMutation.status(task(1), Task.TaskStatus.RUNNING),
+                PendingTaskMutation.delete(task(2)),
+                PendingTaskMutation.status(task(1), Task.TaskStatus.COMPLETED));
+
+        List<Task> result = PendingTaskMutation.overlay(Arrays.asList(first, second, third), queued);
+
+        assertEquals(2, result.size());
+        assertEquals(Task.TaskStatus.COMPLETED, result.get(0).getStatus());
+        assertSame(third, result.get(1));
+        assertEquals(Task.TaskStatus.PENDING, first.getStatus());
+        assertEquals(Task.TaskStatus.PENDING, third.getStatus());
+    }
+
+    @Test
+    public void updateChangesOnlySentFieldsAndKeepsRemainingAssignees() {
+        Task task = task(5);
+        task.setAssignees(Arrays.asList(user(10), user(11)));
+
+        TaskRepository.UpdateTaskParams params = new TaskRepository.UpdateTaskParams();
+        params.title = "Load vehicles";
+        params.description = " ";
+        params.priority = "high";
+        params.assignedTo = Collections.singletonList(11);
+
+        PendingTaskMutation mutation = PendingTaskMutation.update(task(5), params);
+        Task updated = mutation.applyTo(task);
+
+        assertEquals("Load vehicles", updated.getTitle());
+        assertEquals("Original", updated.getDescription());
+        assertEquals(Task.TaskPriority.HIGH, updated.getPriority());
+        assertEquals(1, updated.getAssignees().size());
+        assertEquals(11, updated.getAssignees().get(0).getId());
+    }
+
+    @Test
+    public void snapshotIsNotChangedWhenChangeIsAppliedToSameTask() {
+        Task task = task(7);
+        TaskRepository.UpdateTaskParams params = new TaskRepository.UpdateTaskParams();
+        params.title = "Load vehicles";
+
+        PendingTaskMutation update = PendingTaskMutation.update(task, params);
+        update.applyTo(task);
+        PendingTaskMutation status = PendingTaskMutation.status(task, Task.TaskStatus.COMPLETED);
+        status.applyTo(task);
+
+        assertEquals("Task 7", update.getSnapshot().getTitle());
+        assertEquals(Task.TaskStatus.PENDING, update.getSnapshot().getStatus());
+        assertEquals("Load vehicles", status.getSnapshot().getTitle());
+        assertEquals(Task.TaskStatus.PENDING, status.getSnapshot().getStatus());
+        assertEquals(Task.TaskStatus.COMPLETED, task.getStatus());
+    }
+
+    @Test
+    public void eachChangeGetsItsOwnClientId() {
+        PendingTaskMutation first = PendingTaskMutation.status(task(1), Task.TaskStatus.RUNNING);
+        PendingTaskMutation second = PendingTaskMutation.status(task(1), Task.TaskStatus.RUNNING);
+
+        assertNotEquals(first.getClientId(), second.getClientId());
+        assertEquals("running", first.getPayload());
+    }
+
+    private Task task(int id) {
+        Task task = new Task(id, "Task " + id, "Original", "2025-01-15", "09:00", Task.TaskStatus.PENDING);
+        task.setNew(false);
+        return task;
+    }
+
+    private UserData user(int id) {
+        UserData user = new UserData();
+        user.setId(id);
+        return user;
+    }
+}
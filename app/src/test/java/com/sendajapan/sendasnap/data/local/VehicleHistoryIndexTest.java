@@ -0,0 +1,67 @@
+package com.sendajapan.sendasnap.data.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.sendajapan.sendasnap.models.Vehicle;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class VehicleHistoryIndexTest {
+
+    @Test
+    public void viewingAgainMovesVehicleToFrontWithoutDuplicating() {
+        VehicleHistoryIndex index = new VehicleHistoryIndex(10);
+        index.put("a", vehicle("a"));
+        index.put("b", vehicle("b"));
+        Vehicle updated = vehicle("a");
+
+        index.put("a", updated);
+
+        List<Vehicle> recent = index.newestFirst(10);
+        assertEquals(2, recent.size());
+        assertSame(updated, recent.get(0));
+        assertSame(updated, index.get("a"));
+        assertEquals("b", recent.get(1).getId());
+    }
+
+    @Test
+    public void leastRecentlyViewedIsEvictedBeyondLimit() {
+        VehicleHistoryIndex index = new VehicleHistoryIndex(2);
+        index.put("a", vehicle("a"));
+        index.put("b", vehicle("b"));
+        index.put("a", vehicle("a"));
+
+        List<String> evicted = index.put("c", vehicle("c"));
+
+        assertEquals(Collections.singletonList("b"), evicted);
+        assertNull(index.get("b"));
+        assertEquals(2, index.size());
+        assertEquals("c", index.newestFirst(1).get(0).getId());
+    }
+
+    @Test
+    public void loweringLimitEvictsOldestAtOnce() {
+        VehicleHistoryIndex index = new VehicleHistoryIndex(5);
+        for (String key : Arrays.asList("a", "b", "c", "d")) {
+            index.put(key, vehicle(key));
+        }
+
+        assertEquals(Arrays.asList("a", "b"), index.setMaxEntries(2));
+        assertTrue(index.setMaxEntries(3).isEmpty());
+        assertEquals("d", index.newestFirst(2).get(0).getId());
+        assertEquals("c", index.newestFirst(2).get(1).getId());
+    }
+
+    private static Vehicle vehicle(String id) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(id);
+        return vehicle;
+    }
+}
@@ -0,0 +1,54 @@
+package com.sendajapan.sendasnap.data.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class VehicleImageUploadTest {
+
+    @Test
+    public void retryCountsAttemptAndWaitsForBackoff() {
+        VehicleImageUpload upload = queued().started().retryAt(5_000);
+
+        assertEquals(VehicleImageUpload.State.QUEUED, upload.getState());
+        assertEquals(1, upload.getAttempts());
+        assertFalse(upload.isDue(4_999));
+        assertTrue(upload.isDue(5_000));
+    }
+
+    @Test
+    public void failedUploadIsNotDueUntilRequeued() {
+        VehicleImageUpload failed = queued().started().failed("Validation failed");
+
+        assertEquals("Validation failed", failed.getError());
+        assertFalse(failed.isDue(Long.MAX_VALUE));
+
+        VehicleImageUpload requeued = failed.requeued();
+        assertEquals(0, requeued.getAttempts());
+        assertNull(requeued.getError());
+        assertTrue(requeued.isDue(0));
+    }
+
+    @Test
+    public void transitionsKeepIdempotencyKey() {
+        VehicleImageUpload upload = queued();
+
+        assertEquals("key", upload.preparing().started().retryAt(1).failed("x").requeued().getClientId());
+    }
+
+    @Test
+    public void preparingUploadIsNotDue() {
+        VehicleImageUpload preparing = queued().preparing();
+
+        assertEquals(VehicleImageUpload.State.PREPARING, preparing.getState());
+        assertFalse(preparing.isDue(Long.MAX_VALUE));
+        assertEquals(0, preparing.started().getAttempts());
+    }
+
+    private static VehicleImageUpload queued() {
+        return new VehicleImageUpload(1, "key", 42, "/photos/a.jpg", VehicleImageUpload.State.QUEUED, 0, 0, null);
+    }
+}
@@ -0,0 +1,89 @@
+package com.sendajapan.sendasnap.data.local;
+
+import com.sendajapan.sendasnap.models.Vehicle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Manual micro-benchmark comparing {@link VehicleSearchIndex} with the previous linear scan in
+ * VehicleCache.searchVehicles over a few thousand vehicles. Run {@link #main} from the IDE; it
+ * is not part of the unit test suite.
+ */
+public class VehicleSearchBenchmark {
+
+    private static final int VEHICLE_COUNT = 5_000;
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+    private static final String[] MAKES = {"Toyota", "Nissan", "Honda", "Mazda", "Subaru", "Suzuki", "Mitsubishi"};
+    private static final String[] MODELS = {"Corolla", "Prius", "Note", "Fit", "Demio", "Impreza", "Swift", "Lancer"};
+    private static final String[] QUERIES = {"toyota", "prius", "zvw3", "nze14", "2012", "mitsu", "su", "a7f"};
+
+    public static void main(String[] args) {
+        List<Vehicle> vehicles = vehicles();
+        VehicleSearchIndex index = new VehicleSearchIndex();
+        long buildStart = System.nanoTime();
+        for (Vehicle vehicle : vehicles) {
+            index.put(vehicle.getId(), vehicle);
+        }
+        System.out.printf(Locale.US, "Index build      %8.1f ms for %d vehicles%n",
+                (System.nanoTime() - buildStart) / 1e6, VEHICLE_COUNT);
+
+        run("Linear scan", vehicles, null, WARMUP_ITERATIONS);
+        run("Trigram index", vehicles, index, WARMUP_ITERATIONS);
+
+        long scanNanos = run("Linear scan", vehicles, null, MEASURED_ITERATIONS);
+        long indexNanos = run("Trigram index", vehicles, index, MEASURED_ITERATIONS);
+        System.out.printf(Locale.US, "Speed-up: %.1fx%n", (double) scanNanos / indexNanos);
+    }
+
+    private static long run(String name, List<Vehicle> vehicles, VehicleSearchIndex index, int iterations) {
+        int checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            String query = QUERIES[i % QUERIES.length];
+            checksum += index != null ? index.search(query).size() : legacySearch(vehicles, query).size();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (iterations == MEASURED_ITERATIONS) {
+            System.out.printf(Locale.US, "%-16s %8.1f us/query (checksum %d)%n",
+                    name, elapsed / 1e3 / iterations, checksum);
+        }
+        return elapsed;
+    }
+
+    private static List<Vehicle> legacySearch(List<Vehicle> allVehicles, String query) {
+        List<Vehicle> filteredVehicles = new ArrayList<>();
+        String lowerQuery = query.toLowerCase();
+        for (Vehicle vehicle : allVehicles) {
+            if (vehicle.getMake() != null && vehicle.getMake().toLowerCase().contains(lowerQuery) ||
+                    vehicle.getModel() != null && vehicle.getModel().toLowerCase().contains(lowerQuery) ||
+                    vehicle.getChassisModel() != null && vehicle.getChassisModel().toLowerCase().contains(lowerQuery) ||
+                    vehicle.getSerialNumber() != null && vehicle.getSerialNumber().toLowerCase().contains(lowerQuery) ||
+                    vehicle.getYear() != null && vehicle.getYear().contains(query)) {
+                filteredVehicles.add(vehicle);
+            }
+        }
+        return filteredVehicles;
+    }
+
+    private static List<Vehicle> vehicles() {
+        Random random = new Random(42);
+        List<Vehicle> vehicles = new ArrayList<>(VEHICLE_COUNT);
+        for (int i = 0; i < VEHICLE_COUNT; i++) {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setId(String.valueOf(i));
+            vehicle.setMake(MAKES[random.nextInt(MAKES.length)]);
+            vehicle.setModel(MODELS[random.nextInt(MODELS.length)]);
+            vehicle.setChassisModel(String.format(Locale.US, "%c%c%c%d",
+                    (char) ('A' + random.nextInt(26)), (char) ('A' + random.nextInt(26)),
+                    (char) ('A' + random.nextInt(26)), 10 + random.nextInt(90)));
+            vehicle.setSerialNumber(String.format(Locale.US, "%s-%07d", vehicle.getChassisModel(), random.nextInt(10_000_000)));
+            vehicle.setYear(String.valueOf(1995 + random.nextInt(30)));
+            vehicles.add(vehicle);
+        }
+        return vehicles;
+    }
+}
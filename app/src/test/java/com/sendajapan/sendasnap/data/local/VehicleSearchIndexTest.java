@@ -0,0 +1,70 @@
+package com.sendajapan.sendasnap.data.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.sendajapan.sendasnap.models.Vehicle;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class VehicleSearchIndexTest {
+
+    @Test
+    public void ranksExactThenPrefixThenContainsAndNewestFirst() {
+        VehicleSearchIndex index = new VehicleSearchIndex();
+        index.put("1", vehicle("1", "Toyota", "Corolla", "NZE141"));
+        index.put("2", vehicle("2", "Nissan", "Note", "E12-TOYO"));
+        index.put("3", vehicle("3", "Toyota", "Prius", "ZVW30"));
+        index.put("4", vehicle("4", "TOYO", "Custom", "X1"));
+
+        assertEquals(Arrays.asList("4", "3", "1", "2"), ids(index.search("  toyo ")));
+        assertEquals(Arrays.asList("3", "1"), ids(index.search("TOYOTA")));
+    }
+
+    @Test
+    public void shortQueriesAndYearAreMatched() {
+        VehicleSearchIndex index = new VehicleSearchIndex();
+        Vehicle withYear = vehicle("1", "Honda", "Fit", "GE6");
+        withYear.setYear("2012");
+        index.put("1", withYear);
+        index.put("2", vehicle("2", "Mazda", "Demio", "DE3FS"));
+
+        assertEquals(Arrays.asList("2", "1"), ids(index.search("e")));
+        assertEquals(Arrays.asList("1"), ids(index.search("201")));
+        assertTrue(index.search(" ").isEmpty());
+    }
+
+    @Test
+    public void removedAndReplacedVehiclesAreNoLongerFoundByOldFields() {
+        VehicleSearchIndex index = new VehicleSearchIndex();
+        index.put("1", vehicle("1", "Subaru", "Impreza", "GH8"));
+        index.put("2", vehicle("2", "Subaru", "Legacy", "BP5"));
+
+        index.remove("2");
+        index.put("1", vehicle("1", "Suzuki", "Swift", "ZC72S"));
+
+        assertTrue(index.search("subaru").isEmpty());
+        assertEquals(Arrays.asList("1"), ids(index.search("swift")));
+    }
+
+    private static Vehicle vehicle(String id, String make, String model, String chassisModel) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(id);
+        vehicle.setMake(make);
+        vehicle.setModel(model);
+        vehicle.setChassisModel(chassisModel);
+        return vehicle;
+    }
+
+    private static List<String> ids(List<Vehicle> vehicles) {
+        List<String> ids = new ArrayList<>();
+        for (Vehicle vehicle : vehicles) {
+            ids.add(vehicle.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,86 @@
+package com.sendajapan.sendasnap.data.mapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.sendajapan.sendasnap.data.dto.PagedResult;
+import com.sendajapan.sendasnap.data.dto.TaskDto;
+import com.sendajapan.sendasnap.models.Task;
+import com.sendajapan.sendasnap.models.TaskAttachment;
+import com.sendajapan.sendasnap.models.UserData;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+public class TaskJsonReaderTest {
+
+    private static final String TASK_JSON = "{\"id\":7,\"title\":\" Inspect \",\"description\":\"\","
+            + "\"status\":\"Completed\",\"priority\":\"urgent\",\"work_date\":\"2025-01-15T10:30:00.000000Z\","
+            + "\"work_time\":\"14:05\",\"due_date\":\"2025-1-20\",\"unknown\":{\"nested\":[1,2]},"
+            + "\"creator\":{\"id\":3,\"name\":\"Aiko\",\"avatar_url\":\"\",\"role\":\"admin\"},"
+            + "\"assigned_users\":[{\"id\":4,\"name\":\"Ken\",\"email\":\"ken@example.com\"}],"
+            + "\"attachments\":[{\"id\":12,\"file_name\":\"a.jpg\",\"file_size\":2048,\"file_url\":\"https://x/a.jpg\"},"
+            + "{\"id\":\"13\",\"file_size\":null}],"
+            + "\"created_at\":\"2025-01-01\",\"updated_at\":\"2025-01-02\",\"completed_at\":null}";
+
+    @Test
+    public void readTask_matchesGsonAndTaskMapper() throws IOException {
+        Task expected = TaskMapper.toDomain(new Gson().fromJson(TASK_JSON, TaskDto.class));
+        Task actual = TaskJsonReader.readTask(new JsonReader(new StringReader(TASK_JSON)));
+
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertNull(actual.getDescription());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getPriority(), actual.getPriority());
+        assertEquals(expected.getWorkDate(), actual.getWorkDate());
+        assertEquals(expected.getWorkTime(), actual.getWorkTime());
+        assertEquals(expected.getWorkTimeDisplay(), actual.getWorkTimeDisplay());
+        assertEquals(expected.getDueDate(), actual.getDueDate());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+
+        UserData creator = actual.getCreator();
+        assertEquals(expected.getCreator().getId(), creator.getId());
+        assertEquals(expected.getCreator().getName(), creator.getName());
+        assertNull(creator.getAvatarUrl());
+        assertEquals(expected.getAssignees().size(), actual.getAssignees().size());
+        assertEquals(expected.getAssignees().get(0).getEmail(), actual.getAssignees().get(0).getEmail());
+
+        assertEquals(2, actual.getAttachments().size());
+        for (int i = 0; i < 2; i++) {
+            TaskAttachment expectedAttachment = expected.getAttachments().get(i);
+            TaskAttachment actualAttachment = actual.getAttachments().get(i);
+            assertEquals(expectedAttachment.getId(), actualAttachment.getId());
+            assertEquals(expectedAttachment.getFileName(), actualAttachment.getFileName());
+            assertEquals(expectedAttachment.getFileSize(), actualAttachment.getFileSize());
+            assertEquals(expectedAttachment.getFileUrl(), actualAttachment.getFileUrl());
+        }
+    }
+
+    @Test
+    public void readTaskPage_readsPaginationAndToleratesUnexpectedShapes() throws IOException {
+        String json = "{\"tasks\":[{\"id\":1,\"creator\":[],\"assigned_users\":null,\"attachments\":{}},null],"
+                + "\"pagination\":{\"current_page\":1,\"last_page\":2,\"per_page\":50,\"total\":51}}";
+
+        PagedResult<Task> page = TaskJsonReader.readTaskPage(new JsonReader(new StringReader(json)));
+
+        assertEquals(1, page.getItems().size());
+        Task task = page.getItems().get(0);
+        assertNull(task.getCreator());
+        assertTrue(task.getAssignees().isEmpty());
+        assertTrue(task.getAttachments().isEmpty());
+        assertTrue(page.hasMore());
+        assertEquals(Integer.valueOf(51), page.getPagination().getTotal());
+
+        PagedResult<Task> empty = TaskJsonReader.readTaskPage(new JsonReader(new StringReader("{}")));
+        assertTrue(empty.getItems().isEmpty());
+        assertFalse(empty.hasMore());
+    }
+}
@@ -65,6 +65,24 @@ public class TaskMapperTest {
         assertEquals("2025-01-15", task.getWorkDate());
     }
 
+    @Test
+    public void testToDomain_precomputesWorkTimeDisplay() {
+        java.util.Locale defaultLocale = java.util.Locale.getDefault();
+        java.util.Locale.setDefault(java.util.Locale.US);
+        try {
+            TaskDto dto = new TaskDto();
+            dto.setId(1);
+            dto.setWorkTime("14:05:00");
+
+            Task task = TaskMapper.toDomain(dto);
+
+            assertEquals("14:05:00", task.getWorkTime());
+            assertEquals("2:05 PM", task.getWorkTimeDisplay());
+        } finally {
+            java.util.Locale.setDefault(defaultLocale);
+        }
+    }
+
     @Test
     public void testToDomainList_withNullList() {
         java.util.List<Task> tasks = TaskMapper.toDomainList(null);
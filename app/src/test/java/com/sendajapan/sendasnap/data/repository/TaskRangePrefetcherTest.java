@@ -0,0 +1,126 @@
+package com.sendajapan.sendasnap.data.repository;
+
+import com.sendajapan.sendasnap.data.dto.PagedResult;
+import com.sendajapan.sendasnap.data.dto.PaginationDto;
+import com.sendajapan.sendasnap.domain.repository.TaskRepository;
+import com.sendajapan.sendasnap.models.Task;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TaskRangePrefetcherTest {
+
+    @Test
+    public void testSelect_servesWindowFromOneRangeRequest() {
+        FakeTaskRepository repository = new FakeTaskRepository();
+        TaskRangePrefetcher prefetcher = new TaskRangePrefetcher(repository);
+        prefetcher.setWindowSize(3, 1);
+        List<String> delivered = new ArrayList<>();
+        prefetcher.setListener(new TaskRangePrefetcher.DayTasksListener() {
+            @Override
+            public void onDayTasks(String date, List<Task> tasks) {
+                delivered.add(date + ":" + tasks.size());
+            }
+
+            @Override
+            public void onDayError(String date, String message, int errorCode) {
+                fail(message);
+            }
+        });
+
+        prefetcher.select("2025-01-15");
+        assertEquals(Arrays.asList("2025-01-12|2025-01-18"), repository.requestedRanges);
+        repository.complete(0, Arrays.asList(
+                new Task(1, "A", "", "2025-01-15T09:00:00", "09:00", Task.TaskStatus.PENDING),
+                new Task(2, "B", "", "2025-01-16", "10:00", Task.TaskStatus.PENDING)));
+
+        prefetcher.select("2025-01-16");
+        prefetcher.select("2025-01-14");
+
+        assertEquals(Arrays.asList("2025-01-15:1", "2025-01-16:1", "2025-01-14:0"), delivered);
+        assertEquals(1, prefetcher.getMissCount());
+        assertEquals(2, prefetcher.getHitCount());
+        assertEquals(1, repository.requestedRanges.size());
+    }
+
+    @Test
+    public void testSelect_nearEdgeFetchesOnlyUncoveredDays() {
+        FakeTaskRepository repository = new FakeTaskRepository();
+        TaskRangePrefetcher prefetcher = new TaskRangePrefetcher(repository);
+        prefetcher.setWindowSize(3, 1);
+
+        prefetcher.select("2025-01-15");
+        repository.complete(0, new ArrayList<>());
+        prefetcher.select("2025-01-18");
+
+        assertEquals(Arrays.asList("2025-01-12|2025-01-18", "2025-01-19|2025-01-21"), repository.requestedRanges);
+        assertEquals(1, prefetcher.getHitCount());
+        assertFalse(prefetcher.isLoaded("2025-01-14"));
+        assertTrue(prefetcher.isLoaded("2025-01-15"));
+    }
+
+    @Test
+    public void testSelect_rangeOverOnePageKeepsNarrowedWindow() {
+        FakeTaskRepository repository = new FakeTaskRepository();
+        TaskRangePrefetcher prefetcher = new TaskRangePrefetcher(repository);
+        prefetcher.setWindowSize(3, 1);
+
+        prefetcher.select("2025-01-15");
+        repository.completeWithMorePages(0);
+        repository.complete(1, new ArrayList<>());
+        assertTrue(prefetcher.isLoaded("2025-01-15"));
+        prefetcher.select("2025-02-10");
+
+        assertEquals(Arrays.asList("2025-01-12|2025-01-18", "2025-01-14|2025-01-16", "2025-02-09|2025-02-11"),
+                repository.requestedRanges);
+        assertEquals(1, prefetcher.getRadiusDays());
+    }
+
+    private static class FakeTaskRepository implements TaskRepository {
+        final List<String> requestedRanges = new ArrayList<>();
+        final List<TaskRepositoryCallback<PagedResult<Task>>> callbacks = new ArrayList<>();
+
+        void complete(int request, List<Task> tasks) {
+            callbacks.get(request).onSuccess(new PagedResult<>(tasks, null));
+        }
+
+        void completeWithMorePages(int request) {
+            PaginationDto pagination = new PaginationDto();
+            pagination.setCurrentPage(1);
+            pagination.setLastPage(2);
+            callbacks.get(request).onSuccess(new PagedResult<>(new ArrayList<>(), pagination));
+        }
+
+        @Override
+        public void list(String fromDate, String toDate, TaskRepositoryCallback<PagedResult<Task>> callback) {
+            requestedRanges.add(fromDate + "|" + toDate);
+            callbacks.add(callback);
+        }
+
+        @Override
+        public void get(Integer id, TaskRepositoryCallback<Task> callback) {
+        }
+
+        @Override
+        public void create(CreateTaskParams params, List<File> files, TaskRepositoryCallback<Task> callback) {
+        }
+
+        @Override
+        public void update(Integer id, UpdateTaskParams params, List<File> files, Boolean attachmentsUpdate,
+                           TaskRepositoryCallback<Task> callback) {
+        }
+
+        @Override
+        public void delete(Integer id, TaskRepositoryCallback<Void> callback) {
+        }
+
+        @Override
+        public void updateStatus(Integer id, Task.TaskStatus status, TaskRepositoryCallback<Task> callback) {
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.sendajapan.sendasnap.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.sendajapan.sendasnap.models.Vehicle;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+public class VehicleSearchCacheTest {
+
+    private long now = 1_000;
+
+    @Test
+    public void keyIgnoresCaseAndWhitespaceButNotSearchType() {
+        assertEquals(VehicleSearchCache.key("chassis", "ZVW30-1234"),
+                VehicleSearchCache.key("chassis", "  zvw30-1234 "));
+        assertEquals(VehicleSearchCache.key("model", "land cruiser"),
+                VehicleSearchCache.key("model", "Land   Cruiser"));
+        assertNotEquals(VehicleSearchCache.key("chassis", "prius"), VehicleSearchCache.key("model", "prius"));
+    }
+
+    @Test
+    public void entriesExpireAfterTtl() {
+        VehicleSearchCache cache = new VehicleSearchCache(10, 500, () -> now);
+        cache.put("a", vehicles("1"));
+
+        now += 499;
+        assertEquals("1", cache.get("a").get(0).getId());
+        now += 1;
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsDroppedBeyondLimit() {
+        VehicleSearchCache cache = new VehicleSearchCache(2, 60_000, () -> now);
+        cache.put("a", vehicles("1"));
+        cache.put("b", vehicles("2"));
+        cache.get("a");
+
+        cache.put("c", vehicles("3"));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    private static List<Vehicle> vehicles(String id) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(id);
+        return Collections.singletonList(vehicle);
+    }
+}
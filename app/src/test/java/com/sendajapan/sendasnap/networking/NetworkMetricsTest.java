@@ -0,0 +1,53 @@
+package com.sendajapan.sendasnap.networking;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class NetworkMetricsTest {
+
+    @Test
+    public void ringKeepsOnlyTheNewestSamples() {
+        NetworkMetrics metrics = new NetworkMetrics(3);
+        for (int i = 1; i <= 5; i++) {
+            metrics.record(sample("GET api/v1/tasks", i, false));
+        }
+
+        List<NetworkTimingSample> samples = metrics.snapshot();
+        assertEquals(3, samples.size());
+        assertEquals(3_000_000L, samples.get(0).getDurationNanos(NetworkTimingSample.Phase.TOTAL));
+        assertEquals(5_000_000L, samples.get(2).getDurationNanos(NetworkTimingSample.Phase.TOTAL));
+    }
+
+    @Test
+    public void summarizeComputesNearestRankPercentilesPerEndpoint() {
+        NetworkMetrics metrics = new NetworkMetrics();
+        for (int i = 1; i <= 100; i++) {
+            metrics.record(sample("GET api/v1/tasks/{id}", i, i == 100));
+        }
+        metrics.record(sample("GET api/v1/users", 7, false));
+
+        Map<String, NetworkMetrics.EndpointStats> stats = metrics.summarize();
+        NetworkMetrics.EndpointStats tasks = stats.get("GET api/v1/tasks/{id}");
+        assertEquals(2, stats.size());
+        assertEquals(100, tasks.getCount());
+        assertEquals(1, tasks.getFailedCount());
+        assertEquals(50_000_000L, tasks.getPercentileNanos(NetworkTimingSample.Phase.TOTAL, 50));
+        assertEquals(95_000_000L, tasks.getPercentileNanos(NetworkTimingSample.Phase.TOTAL, 95));
+        assertEquals(99_000_000L, tasks.getPercentileNanos(NetworkTimingSample.Phase.TOTAL, 99));
+        assertEquals(0, tasks.getMeasuredCount(NetworkTimingSample.Phase.DNS));
+        assertEquals(NetworkTimingSample.NOT_MEASURED, tasks.getPercentileNanos(NetworkTimingSample.Phase.DNS, 50));
+    }
+
+    private NetworkTimingSample sample(String endpoint, long totalMillis, boolean failed) {
+        long[] durations = new long[NetworkTimingSample.Phase.values().length];
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = NetworkTimingSample.NOT_MEASURED;
+        }
+        durations[NetworkTimingSample.Phase.TOTAL.ordinal()] = totalMillis * 1_000_000L;
+        return new NetworkTimingSample(endpoint, durations, failed, 0);
+    }
+}
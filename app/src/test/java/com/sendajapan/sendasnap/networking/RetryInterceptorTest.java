@@ -0,0 +1,171 @@
+package com.sendajapan.sendasnap.networking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import retrofit2.Invocation;
+
+public class RetryInterceptorTest {
+
+    private final List<Long> sleeps = new ArrayList<>();
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient.Builder()
+                .retryOnConnectionFailure(false)
+                .addInterceptor(new RetryInterceptor(new RetryPolicy(3, 100, 1000), sleeps::add))
+                .build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void retriesGetAfterServerErrorWithJitteredBackoff() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(502));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        try (Response response = client.newCall(get()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals("ok", response.body().string());
+        }
+        assertEquals(3, server.getRequestCount());
+        assertEquals(2, sleeps.size());
+        assertTrue(sleeps.get(0) >= 0 && sleeps.get(0) <= 100);
+        assertTrue(sleeps.get(1) >= 0 && sleeps.get(1) <= 200);
+    }
+
+    @Test
+    public void returnsLastErrorResponseWhenAttemptsRunOut() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+        }
+
+        try (Response response = client.newCall(get()).execute()) {
+            assertEquals(500, response.code());
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void retriesAfterDroppedConnection() throws IOException {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        try (Response response = client.newCall(get()).execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void honoursRetryAfterWithinMaximumDelay() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "1"));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        try (Response response = client.newCall(get()).execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(1, sleeps.size());
+        assertEquals(1000L, (long) sleeps.get(0));
+    }
+
+    @Test
+    public void returnsResponseWhenRetryAfterExceedsMaximumDelay() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "120"));
+
+        try (Response response = client.newCall(get()).execute()) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(1, server.getRequestCount());
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    public void retriesPostOnlyWithIdempotencyKey() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        try (Response response = client.newCall(post(null)).execute()) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(1, server.getRequestCount());
+
+        try (Response response = client.newCall(post("task-42")).execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void leavesNoRetryMethodsToTheCaller() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        Request request = post("upload-7").newBuilder()
+                .tag(Invocation.class, Invocation.of(UploadApi.class.getMethod("upload"), Collections.emptyList()))
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void budgetStopsRetriesOnceSpent() {
+        RetryBudget budget = new RetryBudget(0.5, 2);
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+
+        budget.onRequest();
+        assertFalse(budget.tryAcquireRetry());
+        budget.onRequest();
+        assertTrue(budget.tryAcquireRetry());
+    }
+
+    private Request get() {
+        return new Request.Builder().url(server.url("/api/v1/tasks")).build();
+    }
+
+    private Request post(String idempotencyKey) {
+        Request.Builder builder = new Request.Builder()
+                .url(server.url("/api/v1/tasks"))
+                .post(RequestBody.create("{}", MediaType.get("application/json")));
+        if (idempotencyKey != null) {
+            builder.header(RetryInterceptor.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        return builder.build();
+    }
+
+    interface UploadApi {
+        @NoRetry
+        void upload();
+    }
+}
@@ -0,0 +1,113 @@
+package com.sendajapan.sendasnap.networking;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.sendajapan.sendasnap.data.dto.PagedResult;
+import com.sendajapan.sendasnap.data.dto.TasksListResponseDto;
+import com.sendajapan.sendasnap.data.mapper.TaskJsonReader;
+import com.sendajapan.sendasnap.data.mapper.TaskMapper;
+import com.sendajapan.sendasnap.models.ApiResponse;
+import com.sendajapan.sendasnap.models.Task;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Manual benchmark comparing {@link TaskResponseConverterFactory}'s single streaming pass with the
+ * previous reflective Gson DTO parsing followed by {@link TaskMapper#toDomainList}, on a
+ * 1,000-task list payload. Run {@link #main} from the IDE on a HotSpot JVM (allocation is read from
+ * {@code com.sun.management.ThreadMXBean}); it is not part of the unit test suite.
+ */
+public class TaskResponseConverterBenchmark {
+
+    private static final int TASK_COUNT = 1_000;
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 200;
+    private static final Type DTO_RESPONSE_TYPE =
+            new TypeToken<ApiResponse<TasksListResponseDto>>() { }.getType();
+
+    private static final Gson GSON = new Gson();
+
+    public static void main(String[] args) throws IOException {
+        String json = buildPayload();
+        System.out.printf(Locale.US, "Payload: %d tasks, %d KB%n", TASK_COUNT, json.length() / 1024);
+
+        run("Gson DTO + mapper", false, json, WARMUP_ITERATIONS);
+        run("Streaming reader", true, json, WARMUP_ITERATIONS);
+
+        long[] legacy = run("Gson DTO + mapper", false, json, MEASURED_ITERATIONS);
+        long[] streaming = run("Streaming reader", true, json, MEASURED_ITERATIONS);
+        System.out.printf(Locale.US, "Speed-up: %.1fx, allocation: %.0f%% of legacy%n",
+                (double) legacy[0] / streaming[0], 100.0 * streaming[1] / legacy[1]);
+    }
+
+    private static long[] run(String name, boolean streaming, String json, int iterations) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int checksum = 0;
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            List<Task> tasks = streaming ? parseStreaming(json) : parseLegacy(json);
+            checksum += tasks.size();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        if (iterations == MEASURED_ITERATIONS) {
+            System.out.printf(Locale.US, "%-18s %7.2f ms/op %8.0f KB/op (checksum %d)%n", name,
+                    elapsed / 1_000_000.0 / iterations, allocated / 1024.0 / iterations, checksum);
+        }
+        return new long[]{elapsed, allocated};
+    }
+
+    private static List<Task> parseLegacy(String json) {
+        ApiResponse<TasksListResponseDto> response = GSON.fromJson(json, DTO_RESPONSE_TYPE);
+        return TaskMapper.toDomainList(response.getData().getTasks());
+    }
+
+    private static List<Task> parseStreaming(String json) throws IOException {
+        ApiResponse<PagedResult<Task>> response = TaskResponseConverterFactory.readResponse(
+                new JsonReader(new StringReader(json)), TaskJsonReader::readTaskPage);
+        return response.getData().getItems();
+    }
+
+    private static String buildPayload() {
+        StringBuilder json = new StringBuilder("{\"success\":true,\"message\":\"OK\",\"data\":{\"tasks\":[");
+        for (int i = 0; i < TASK_COUNT; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"title\":\"Vehicle inspection ").append(i)
+                    .append("\",\"description\":\"Check chassis and take photos of all sides\"")
+                    .append(",\"status\":\"").append(i % 3 == 0 ? "completed" : "pending")
+                    .append("\",\"priority\":\"high\",\"work_date\":\"2025-01-")
+                    .append(String.format(Locale.US, "%02d", i % 28 + 1))
+                    .append("\",\"work_time\":\"").append(String.format(Locale.US, "%02d:30", i % 24))
+                    .append("\",\"due_date\":\"2025-02-01\"")
+                    .append(",\"creator\":").append(user(1))
+                    .append(",\"assigned_users\":[").append(user(2)).append(',').append(user(3)).append(']')
+                    .append(",\"attachments\":[{\"id\":\"").append(i)
+                    .append("\",\"file_name\":\"photo.jpg\",\"file_path\":\"tasks/photo.jpg\",\"file_type\":\"image/jpeg\"")
+                    .append(",\"file_size\":204800,\"file_url\":\"https://snap.senda.fit/storage/tasks/photo.jpg\"}]")
+                    .append(",\"created_at\":\"2025-01-01T09:00:00.000000Z\",\"updated_at\":\"2025-01-02T09:00:00.000000Z\"")
+                    .append(",\"completed_at\":null}");
+        }
+        json.append("],\"pagination\":{\"current_page\":1,\"last_page\":1,\"per_page\":1000,\"total\":1000}}")
+                .append(",\"meta\":{\"timestamp\":\"2025-01-02T09:00:00Z\"}}");
+        return json.toString();
+    }
+
+    private static String user(int id) {
+        return "{\"id\":" + id + ",\"name\":\"User " + id + "\",\"role\":\"staff\",\"email\":\"user" + id
+                + "@example.com\",\"phone\":\"090-0000-000" + id + "\",\"avis_id\":null,\"avatar\":null"
+                + ",\"avatar_url\":null,\"email_verified_at\":null,\"created_at\":\"2024-12-01\",\"updated_at\":\"2024-12-01\"}";
+    }
+}
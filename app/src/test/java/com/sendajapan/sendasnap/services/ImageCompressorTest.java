@@ -0,0 +1,50 @@
+package com.sendajapan.sendasnap.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ImageCompressorTest {
+
+    @Test
+    public void maximumQualityIsUsedWhenItFits() throws IOException {
+        List<Integer> tried = new ArrayList<>();
+
+        ByteArrayOutputStream jpeg = ImageCompressor.encodeWithin(bytesPerQuality(10, tried), 30, 85, 5, 1_000);
+
+        assertEquals(850, jpeg.size());
+        assertEquals(Arrays.asList(85), tried);
+    }
+
+    @Test
+    public void binarySearchFindsHighestFittingQualityStep() throws IOException {
+        List<Integer> tried = new ArrayList<>();
+
+        ByteArrayOutputStream jpeg = ImageCompressor.encodeWithin(bytesPerQuality(10, tried), 30, 85, 5, 620);
+
+        assertEquals(600, jpeg.size());
+        assertEquals(5, tried.size());
+    }
+
+    @Test
+    public void returnsNullWhenMinimumQualityIsTooLarge() throws IOException {
+        assertNull(ImageCompressor.encodeWithin(bytesPerQuality(10, new ArrayList<>()), 30, 85, 5, 299));
+    }
+
+    /**
+     * Fake encoder whose output grows linearly with quality.
+     */
+    private static ImageCompressor.QualityEncoder bytesPerQuality(int bytes, List<Integer> tried) {
+        return (quality, out) -> {
+            tried.add(quality);
+            out.write(new byte[quality * bytes]);
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.sendajapan.sendasnap.utils;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Manual micro-benchmark comparing {@link TaskDateCodec} with the previous
+ * SimpleDateFormat-based parsing in TaskMapper and TaskAdapter. Run {@link #main} from the IDE;
+ * it is not part of the unit test suite.
+ */
+public class TaskDateCodecBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+    private static final String[] DATES = {"2025-01-15", "2025-01-15T10:30:00.000000Z", "2025-1-5"};
+    private static final String[] TIMES = {"09:05", "14:30", "23:59:59"};
+
+    private static final SimpleDateFormat ISO_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault());
+    private static final SimpleDateFormat SIMPLE_FORMAT = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
+
+    public static void main(String[] args) {
+        run("SimpleDateFormat", false, WARMUP_ITERATIONS);
+        run("TaskDateCodec", true, WARMUP_ITERATIONS);
+
+        long legacyNanos = run("SimpleDateFormat", false, MEASURED_ITERATIONS);
+        long codecNanos = run("TaskDateCodec", true, MEASURED_ITERATIONS);
+        System.out.printf(Locale.US, "Speed-up: %.1fx%n", (double) legacyNanos / codecNanos);
+    }
+
+    private static long run(String name, boolean useCodec, int iterations) {
+        int checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            String date = DATES[i % DATES.length];
+            String time = TIMES[i % TIMES.length];
+            String parsedDate = useCodec ? TaskDateCodec.normalizeDate(date) : legacyParseDate(date);
+            String formattedTime = useCodec ? TaskDateCodec.formatTime12Hour(time) : legacyFormatTime(time);
+            checksum += parsedDate.length() + formattedTime.length();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (iterations == MEASURED_ITERATIONS) {
+            System.out.printf(Locale.US, "%-16s %8.1f ns/op (checksum %d)%n",
+                    name, (double) elapsed / iterations, checksum);
+        }
+        return elapsed;
+    }
+
+    private static String legacyParseDate(String dateString) {
+        String trimmed = dateString.trim();
+        if (trimmed.length() >= 10 && trimmed.matches("\\d{4}-\\d{2}-\\d{2}.*")) {
+            return trimmed.substring(0, 10);
+        }
+        if (trimmed.contains("T")) {
+            try {
+                return SIMPLE_FORMAT.format(ISO_FORMAT.parse(trimmed));
+            } catch (ParseException e) {
+                return trimmed.substring(0, 10);
+            }
+        }
+        try {
+            return SIMPLE_FORMAT.format(SIMPLE_FORMAT.parse(trimmed));
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    private static String legacyFormatTime(String time24Hour) {
+        try {
+            Date date = new SimpleDateFormat("HH:mm", Locale.getDefault()).parse(time24Hour.trim());
+            return new SimpleDateFormat("h:mm a", Locale.getDefault()).format(date);
+        } catch (ParseException e) {
+            return time24Hour;
+        }
+    }
+}
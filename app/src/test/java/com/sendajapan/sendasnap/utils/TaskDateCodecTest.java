@@ -0,0 +1,79 @@
+package com.sendajapan.sendasnap.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class TaskDateCodecTest {
+
+    private Locale defaultLocale;
+
+    @Before
+    public void setUp() {
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    public void testNormalizeDate_acceptsApiLayouts() {
+        assertEquals("2025-01-15", TaskDateCodec.normalizeDate("2025-01-15"));
+        assertEquals("2025-01-15", TaskDateCodec.normalizeDate(" 2025-01-15T10:30:00.000000Z "));
+        assertEquals("2025-01-05", TaskDateCodec.normalizeDate("2025-1-5"));
+        assertNull(TaskDateCodec.normalizeDate("2025-2-30T10:00"));
+        assertNull(TaskDateCodec.normalizeDate("15/01/2025"));
+        assertNull(TaskDateCodec.normalizeDate("  "));
+        assertNull(TaskDateCodec.normalizeDate(null));
+    }
+
+    @Test
+    public void testFormatTime12Hour_matchesSimpleDateFormatOutput() {
+        assertEquals("12:00 AM", TaskDateCodec.formatTime12Hour("00:00"));
+        assertEquals("9:05 AM", TaskDateCodec.formatTime12Hour("9:05"));
+        assertEquals("12:30 PM", TaskDateCodec.formatTime12Hour("12:30"));
+        assertEquals("11:59 PM", TaskDateCodec.formatTime12Hour("23:59:59"));
+        assertEquals("", TaskDateCodec.formatTime12Hour(" "));
+        assertEquals("soon", TaskDateCodec.formatTime12Hour("soon"));
+        assertEquals("24:00", TaskDateCodec.formatTime12Hour("24:00"));
+    }
+
+    @Test
+    public void testCodec_isConsistentAcrossThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                results.add(executor.submit((Callable<Boolean>) () -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        int day = i % 28 + 1;
+                        String expected = String.format(Locale.US, "2025-03-%02d", day);
+                        if (!expected.equals(TaskDateCodec.normalizeDate(expected + "T08:15:00Z"))
+                                || !"8:15 AM".equals(TaskDateCodec.formatTime12Hour("08:15"))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
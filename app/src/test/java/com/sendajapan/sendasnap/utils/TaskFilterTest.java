@@ -0,0 +1,37 @@
+package com.sendajapan.sendasnap.utils;
+
+import com.sendajapan.sendasnap.models.Task;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TaskFilterTest {
+
+    @Test
+    public void testFilter_byDateAndStatus() {
+        List<Task> tasks = Arrays.asList(
+                new Task(1, "A", "", "2025-01-15T09:00:00.000000Z", "09:00", Task.TaskStatus.PENDING),
+                new Task(2, "B", "", "2025-01-15", "10:00", Task.TaskStatus.RUNNING),
+                new Task(3, "C", "", "2025-01-16", "11:00", Task.TaskStatus.PENDING));
+
+        List<Task> allStatuses = TaskFilter.filter(tasks, "2025-01-15", null);
+        List<Task> pendingOnly = TaskFilter.filter(tasks, "2025-01-15", Task.TaskStatus.PENDING);
+
+        assertEquals(2, allStatuses.size());
+        assertEquals(1, allStatuses.get(0).getId());
+        assertEquals(2, allStatuses.get(1).getId());
+        assertEquals(1, pendingOnly.size());
+        assertEquals(1, pendingOnly.get(0).getId());
+    }
+
+    @Test
+    public void testExtractDate_handlesShortAndEmptyValues() {
+        assertEquals("2025-01-15", TaskFilter.extractDate("2025-01-15T09:00:00"));
+        assertEquals("2025-1-5", TaskFilter.extractDate("2025-1-5"));
+        assertNull(TaskFilter.extractDate(""));
+        assertNull(TaskFilter.extractDate(null));
+    }
+}